@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+/**
+ * Timeout of the calls to a single AWS endpoint derived from its recent latencies: the {@value #PERCENTILE}th
+ * percentile multiplied by the configured multiplier, clamped between the configured minimum and the configured
+ * (maximum) timeout.
+ * <p>
+ * A dead endpoint, e.g. the Instance Metadata Service which normally answers in milliseconds, is then detected quickly,
+ * while an endpoint which is slow as usual, e.g. Describe Instances on a large account, keeps a long enough timeout.
+ */
+final class AdaptiveTimeout {
+    static final double PERCENTILE = 99;
+
+    private final LatencyHistogram latencyHistogram;
+    private final int multiplier;
+    private final int minMillis;
+
+    AdaptiveTimeout(LatencyHistogram latencyHistogram, int multiplier, int minMillis) {
+        this.latencyHistogram = latencyHistogram;
+        this.multiplier = multiplier;
+        this.minMillis = minMillis;
+    }
+
+    /**
+     * Returns the timeout in milliseconds, never longer than {@code configuredMillis} (0 means no limit); if the
+     * latency of the endpoint is not known yet, returns {@code configuredMillis}.
+     */
+    int timeoutMillis(int configuredMillis) {
+        long percentileMillis = latencyHistogram.percentile(PERCENTILE);
+        if (percentileMillis < 0) {
+            return configuredMillis;
+        }
+        long timeoutMillis = Math.max(minMillis, percentileMillis * multiplier);
+        return (int) (configuredMillis > 0 ? Math.min(configuredMillis, timeoutMillis) : timeoutMillis);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import java.time.Clock;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Provides the credentials of an IAM role assumed with STS AssumeRole.
+ *
+ * @see AwsSessionCredentialsCache
+ */
+class AwsAssumeRoleCredentialsProvider {
+    private final AwsSessionCredentialsCache cache;
+
+    AwsAssumeRoleCredentialsProvider(AwsStsApi stsApi, AwsConfig awsConfig, Supplier<AwsCredentials> baseCredentials) {
+        this(stsApi, awsConfig, baseCredentials, Clock.systemUTC(), AwsSessionCredentialsCache.createRefreshExecutor());
+    }
+
+    AwsAssumeRoleCredentialsProvider(AwsStsApi stsApi, AwsConfig awsConfig, Supplier<AwsCredentials> baseCredentials,
+                                     Clock clock, Executor executor) {
+        String roleArn = awsConfig.getAssumeRoleArn();
+        String externalId = awsConfig.getAssumeRoleExternalId();
+        int durationSeconds = awsConfig.getAssumeRoleSessionDurationSeconds();
+        this.cache = new AwsSessionCredentialsCache(String.format("the assumed IAM Role '%s'", roleArn),
+            () -> stsApi.assumeRole(roleArn, externalId, durationSeconds, baseCredentials.get()), clock, executor);
+    }
+
+    AwsCredentials credentials() {
+        return cache.credentials();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import java.time.Clock;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.hazelcast.aws.AwsRequestUtils.canonicalQueryString;
+import static com.hazelcast.aws.AwsRequestUtils.createRestClient;
+import static com.hazelcast.aws.AwsRequestUtils.currentTimestamp;
+import static com.hazelcast.aws.StringUtils.isNotEmpty;
+
+/**
+ * Responsible for connecting to AWS EC2 Auto Scaling API.
+ *
+ * @see <a href="https://docs.aws.amazon.com/autoscaling/ec2/APIReference/Welcome.html">AWS EC2 Auto Scaling API</a>
+ */
+class AwsAutoScalingApi {
+    private static final String IN_SERVICE = "InService";
+
+    private final String endpoint;
+    private final AwsConfig awsConfig;
+    private final AwsEndpoints endpoints;
+    private final AwsRequestSigner requestSigner;
+    private final Clock clock;
+
+    AwsAutoScalingApi(String endpoint, AwsConfig awsConfig, AwsEndpoints endpoints, AwsRequestSigner requestSigner,
+                      Clock clock) {
+        this.endpoint = endpoint;
+        this.awsConfig = awsConfig;
+        this.endpoints = endpoints;
+        this.requestSigner = requestSigner;
+        this.clock = clock;
+    }
+
+    /**
+     * Calls AWS Describe Auto Scaling Groups API for the configured Auto Scaling Group and returns its desired capacity
+     * and the IDs of its instances in the {@code InService} lifecycle state, i.e. not the instances which are still
+     * launching (e.g. {@code Pending:Wait}) or already terminating.
+     *
+     * @see <a href="https://docs.aws.amazon.com/autoscaling/ec2/APIReference/API_DescribeAutoScalingGroups.html">
+     * Describe Auto Scaling Groups</a>
+     */
+    AutoScalingGroup describeAutoScalingGroup(AwsCredentials credentials) {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("Action", "DescribeAutoScalingGroups");
+        attributes.put("Version", "2011-01-01");
+        attributes.put("AutoScalingGroupNames.member.1", awsConfig.getAutoScalingGroup());
+        Map<String, String> headers = createHeaders(attributes, credentials);
+        String response = callAwsService(attributes, headers);
+        return parseDescribeAutoScalingGroups(response);
+    }
+
+    private AutoScalingGroup parseDescribeAutoScalingGroups(String xmlResponse) {
+        XmlNode group = XmlNode.create(xmlResponse)
+            .getSubNodes("describeautoscalinggroupsresult")
+            .flatMap(e -> e.getSubNodes("autoscalinggroups"))
+            .flatMap(e -> e.getSubNodes("member"))
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException(
+                String.format("Auto Scaling Group '%s' not found", awsConfig.getAutoScalingGroup())));
+
+        List<String> inServiceInstanceIds = group.getSubNodes("instances")
+            .flatMap(e -> e.getSubNodes("member"))
+            .filter(e -> IN_SERVICE.equals(e.getValue("lifecyclestate")))
+            .map(e -> e.getValue("instanceid"))
+            .collect(Collectors.toList());
+        String desiredCapacity = group.getValue("desiredcapacity");
+        return new AutoScalingGroup(desiredCapacity == null ? 0 : Integer.parseInt(desiredCapacity),
+            inServiceInstanceIds);
+    }
+
+    private Map<String, String> createHeaders(Map<String, String> attributes, AwsCredentials credentials) {
+        Map<String, String> headers = new HashMap<>();
+
+        if (isNotEmpty(credentials.getToken())) {
+            headers.put("X-Amz-Security-Token", credentials.getToken());
+        }
+        headers.put("Host", endpoint);
+        String timestamp = currentTimestamp(clock);
+        headers.put("X-Amz-Date", timestamp);
+        headers.put("Authorization", requestSigner.authHeader(attributes, headers, "", credentials, timestamp, "GET"));
+
+        return headers;
+    }
+
+    private String callAwsService(Map<String, String> attributes, Map<String, String> headers) {
+        String query = canonicalQueryString(attributes);
+        return createRestClient(AwsRequestUtils.urlFor(endpoint) + "/?" + query, awsConfig, endpoints)
+            .withHeaders(headers)
+            .get()
+            .getBody();
+    }
+
+    static final class AutoScalingGroup {
+        private final int desiredCapacity;
+        private final List<String> inServiceInstanceIds;
+
+        AutoScalingGroup(int desiredCapacity, List<String> inServiceInstanceIds) {
+            this.desiredCapacity = desiredCapacity;
+            this.inServiceInstanceIds = Collections.unmodifiableList(inServiceInstanceIds);
+        }
+
+        int getDesiredCapacity() {
+            return desiredCapacity;
+        }
+
+        List<String> getInServiceInstanceIds() {
+            return inServiceInstanceIds;
+        }
+    }
+}
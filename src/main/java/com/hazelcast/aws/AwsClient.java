@@ -15,17 +15,56 @@
 
 package com.hazelcast.aws;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Responsible for fetching discovery information from AWS APIs.
  */
 interface AwsClient {
-    Map<String, String> getAddresses();
+    /**
+     * Returns the discovered members keyed by their private addresses.
+     */
+    Map<String, AwsNode> getAddresses();
+
+    /**
+     * Returns the discovered members keyed by their private addresses and passes them to {@code pageConsumer} as soon as
+     * they are found, page by page, so that the caller can use the first members before the whole fleet is listed.
+     * <p>
+     * Clients which cannot fetch the members page by page pass them all as a single page.
+     */
+    default Map<String, AwsNode> getAddresses(Consumer<Collection<AwsNode>> pageConsumer) {
+        Map<String, AwsNode> result = getAddresses();
+        pageConsumer.accept(result.values());
+        return result;
+    }
+
+    /**
+     * Returns the queue of member state changes which are applied between the periodic discoveries or {@code null} if
+     * the members are discovered only by polling AWS API.
+     */
+    default AwsStateChangeQueue getStateChangeQueue() {
+        return null;
+    }
+
+    /**
+     * Returns the desired number of members, i.e. the desired capacity of the Auto Scaling Group or the desired count of
+     * the ECS Service, or empty if the discovery is not scoped to either of them.
+     */
+    default Optional<Integer> getDesiredClusterSize() {
+        return Optional.empty();
+    }
 
     String getAvailabilityZone();
 
+    /**
+     * Releases the resources (e.g. threads) held by the client; called once the client is not used anymore.
+     */
+    default void destroy() {
+    }
+
     /**
      * Returns the placement group name of the service if specified.
      *
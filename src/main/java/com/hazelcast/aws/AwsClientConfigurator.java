@@ -19,11 +19,17 @@ import com.hazelcast.config.InvalidConfigurationException;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
 import java.time.Clock;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static com.hazelcast.aws.RegionValidator.validateRegion;
@@ -34,39 +40,112 @@ import static com.hazelcast.aws.StringUtils.isNotEmpty;
  * <p>
  * Note that it also creates and injects all dependencies.
  */
+@SuppressWarnings("checkstyle:classdataabstractioncoupling")
 final class AwsClientConfigurator {
     private static final ILogger LOGGER = Logger.getLogger(AwsClientConfigurator.class);
 
     private static final String DEFAULT_EC2_HOST_HEADER = "ec2.amazonaws.com";
     private static final String DEFAULT_ECS_HOST_HEADER = "ecs.amazonaws.com";
+    private static final String DUAL_STACK_EC2_HOST_HEADER = "ec2.api.aws";
+    private static final String DUAL_STACK_ECS_HOST_HEADER = "ecs.api.aws";
 
     private static final String EC2_SERVICE_NAME = "ec2";
     private static final String ECS_SERVICE_NAME = "ecs";
+    private static final String STS_SERVICE_NAME = "sts";
+    private static final String CLOUD_MAP_SERVICE_NAME = "servicediscovery";
+    private static final String AUTO_SCALING_SERVICE_NAME = "autoscaling";
+    private static final String SQS_SERVICE_NAME = "sqs";
+    private static final Pattern SQS_HOST_PATTERN = Pattern.compile(
+        "(?:.+\\.)?sqs\\.([a-z0-9-]+)(?:\\.vpce)?\\.amazonaws\\.com(?:\\.cn)?"
+            + "|([a-z0-9-]+)\\.queue\\.amazonaws\\.com(?:\\.cn)?");
+    private static final String LEGACY_SQS_HOST = "queue.amazonaws.com";
+    private static final String LEGACY_SQS_REGION = "us-east-1";
 
     private AwsClientConfigurator() {
     }
 
-    static AwsClient createAwsClient(AwsConfig awsConfig) {
+    static AwsClient createAwsClient(AwsConfig awsConfig, AwsEndpoints endpoints) {
         Environment environment = new Environment();
-        AwsMetadataApi metadataApi = new AwsMetadataApi(awsConfig);
+        AwsMetadataApi metadataApi = new AwsMetadataApi(awsConfig, endpoints);
+
+        // EC2 Discovery in multiple regions
+        if (!awsConfig.getRegions().isEmpty()) {
+            return createMultiRegionEc2Client(awsConfig, endpoints, metadataApi, environment);
+        }
 
         String region = resolveRegion(awsConfig, metadataApi, environment);
         validateRegion(region);
 
-        AwsCredentialsProvider credentialsProvider = new AwsCredentialsProvider(awsConfig, metadataApi, environment);
-        AwsEc2Api ec2Api = createEc2Api(awsConfig, region);
+        AwsCredentialsProvider credentialsProvider = createCredentialsProvider(awsConfig, endpoints, metadataApi,
+            environment, region);
+
+        // Cloud Map Discovery
+        if (isNotEmpty(awsConfig.getCloudMapNamespace())) {
+            logCloudMapEnvironment(awsConfig, region);
+            return new AwsCloudMapClient(createCloudMapApi(awsConfig, endpoints, region), metadataApi,
+                credentialsProvider, environment, awsConfig.getCloudMapCacheSeconds());
+        }
+
+        AwsEc2Api ec2Api = createEc2Api(awsConfig, endpoints, region);
 
         // EC2 Discovery
         if (explicitlyEc2Configured(awsConfig) || (!explicitlyEcsConfigured(awsConfig) && !environment.isRunningOnEcs())) {
             logEc2Environment(awsConfig, region);
-            return new AwsEc2Client(ec2Api, metadataApi, credentialsProvider);
+            AwsAutoScalingApi autoScalingApi = null;
+            if (isNotEmpty(awsConfig.getAutoScalingGroup())) {
+                autoScalingApi = createAutoScalingApi(awsConfig, endpoints, region);
+            }
+            InstanceStatusFilter instanceStatusFilter = null;
+            if (awsConfig.isInstanceStatusCheck()) {
+                instanceStatusFilter = new InstanceStatusFilter(ec2Api);
+            }
+            AwsEc2Client ec2Client = new AwsEc2Client(ec2Api, metadataApi, credentialsProvider, autoScalingApi,
+                instanceStatusFilter);
+            if (isNotEmpty(awsConfig.getEventQueueUrl())) {
+                return new EventDrivenAwsClient(ec2Client, new AwsStateChangeQueue(
+                    createSqsApi(awsConfig, region), credentialsProvider, ec2Client::getAddresses));
+            }
+            return ec2Client;
         }
 
         // ECS Discovery
         String cluster = resolveCluster(awsConfig, metadataApi, environment);
-        AwsEcsApi ecsApi = createEcsApi(awsConfig, region);
+        AwsEcsApi ecsApi = createEcsApi(awsConfig, endpoints, region);
         logEcsEnvironment(awsConfig, region, cluster);
-        return new AwsEcsClient(cluster, ecsApi, ec2Api, metadataApi, credentialsProvider);
+        AwsEcsClient ecsClient = new AwsEcsClient(cluster, awsConfig.getServiceName(), ecsApi, ec2Api, metadataApi,
+            credentialsProvider);
+        if (isNotEmpty(awsConfig.getEventQueueUrl())) {
+            return new EventDrivenAwsClient(ecsClient, new AwsStateChangeQueue(createSqsApi(awsConfig, region),
+                credentialsProvider, cluster, awsConfig.getFamily(), awsConfig.getServiceName()));
+        }
+        return ecsClient;
+    }
+
+    private static AwsClient createMultiRegionEc2Client(AwsConfig awsConfig, AwsEndpoints endpoints,
+                                                        AwsMetadataApi metadataApi, Environment environment) {
+        awsConfig.getRegions().forEach(RegionValidator::validateRegion);
+
+        // STS is called in the first region, the temporary credentials are valid in all regions
+        AwsCredentialsProvider credentialsProvider = createCredentialsProvider(awsConfig, endpoints, metadataApi,
+            environment, awsConfig.getRegions().get(0));
+        Map<String, AwsEc2Api> ec2Apis = new LinkedHashMap<>();
+        for (String region : awsConfig.getRegions()) {
+            ec2Apis.put(region, createEc2Api(awsConfig, endpoints, region));
+        }
+
+        logEc2Environment(awsConfig, String.join(",", awsConfig.getRegions()));
+        return new AwsMultiRegionEc2Client(ec2Apis, metadataApi, credentialsProvider, regionTimeoutMillis(awsConfig));
+    }
+
+    /**
+     * Time given to a single region to respond, so that a slow or unreachable region does not stall the discovery
+     * of members in the other regions. It covers all the attempts of a call with their timeouts and the backoff between
+     * them, so a region is not abandoned while its retry is still in flight.
+     */
+    static long regionTimeoutMillis(AwsConfig awsConfig) {
+        long attemptMillis = (long) awsConfig.getConnectionTimeoutMillis() + awsConfig.getReadTimeoutMillis();
+        int retries = awsConfig.getConnectionRetries();
+        return attemptMillis * (retries + 1) + RetryUtils.totalBackoffMillis(retries);
     }
 
     static String resolveRegion(AwsConfig awsConfig, AwsMetadataApi metadataApi, Environment environment) {
@@ -78,23 +157,121 @@ final class AwsClientConfigurator {
             return environment.getAwsRegionOnEcs();
         }
 
+        if (environment.isWebIdentityConfigured() && isNotEmpty(environment.getAwsRegion())) {
+            return environment.getAwsRegion();
+        }
+
+        String profileRegion = profileRegion(awsConfig, environment);
+        if (isNotEmpty(profileRegion)) {
+            return profileRegion;
+        }
+
         return regionFrom(metadataApi.availabilityZoneEc2());
     }
 
+    private static String profileRegion(AwsConfig awsConfig, Environment environment) {
+        if (environment.getConfigFile() == null) {
+            return null;
+        }
+        AwsProfileFile configFile = new AwsProfileFile(Paths.get(environment.getConfigFile()));
+        return configFile.getProfile(AwsProfileFile.profileName(awsConfig, environment)).get("region");
+    }
+
     private static String regionFrom(String availabilityZone) {
         return availabilityZone.substring(0, availabilityZone.length() - 1);
     }
 
-    private static AwsEc2Api createEc2Api(AwsConfig awsConfig, String region) {
+    private static AwsCredentialsProvider createCredentialsProvider(AwsConfig awsConfig, AwsEndpoints endpoints,
+                                                                    AwsMetadataApi metadataApi, Environment environment,
+                                                                    String region) {
+        if (isNotEmpty(awsConfig.getAssumeRoleArn())) {
+            LOGGER.info(String.format("Assuming IAM Role '%s' to call AWS API", awsConfig.getAssumeRoleArn()));
+        }
+        return new AwsCredentialsProvider(awsConfig, metadataApi, environment,
+            createStsApi(awsConfig, endpoints, region));
+    }
+
+    private static AwsStsApi createStsApi(AwsConfig awsConfig, AwsEndpoints endpoints, String region) {
+        String stsEndpoint = String.format("%s.%s.amazonaws.com", STS_SERVICE_NAME, region);
+        AwsRequestSigner stsRequestSigner = new AwsRequestSigner(region, STS_SERVICE_NAME);
+        return new AwsStsApi(stsEndpoint, awsConfig, endpoints, stsRequestSigner, Clock.systemUTC());
+    }
+
+    private static AwsEc2Api createEc2Api(AwsConfig awsConfig, AwsEndpoints endpoints, String region) {
         String ec2Endpoint = resolveEc2Endpoint(awsConfig, region);
         AwsRequestSigner ec2RequestSigner = new AwsRequestSigner(region, EC2_SERVICE_NAME);
-        return new AwsEc2Api(ec2Endpoint, awsConfig, ec2RequestSigner, Clock.systemUTC());
+        return new AwsEc2Api(ec2Endpoint, awsConfig, endpoints, ec2RequestSigner, Clock.systemUTC());
     }
 
-    private static AwsEcsApi createEcsApi(AwsConfig awsConfig, String region) {
+    private static AwsEcsApi createEcsApi(AwsConfig awsConfig, AwsEndpoints endpoints, String region) {
         String ecsEndpoint = resolveEcsEndpoint(awsConfig, region);
         AwsRequestSigner ecsRequestSigner = new AwsRequestSigner(region, ECS_SERVICE_NAME);
-        return new AwsEcsApi(ecsEndpoint, awsConfig, ecsRequestSigner, Clock.systemUTC());
+        return new AwsEcsApi(ecsEndpoint, awsConfig, endpoints, ecsRequestSigner, Clock.systemUTC());
+    }
+
+    private static AwsCloudMapApi createCloudMapApi(AwsConfig awsConfig, AwsEndpoints endpoints, String region) {
+        String cloudMapEndpoint = resolveCloudMapEndpoint(region);
+        AwsRequestSigner cloudMapRequestSigner = new AwsRequestSigner(region, CLOUD_MAP_SERVICE_NAME);
+        return new AwsCloudMapApi(cloudMapEndpoint, awsConfig, endpoints, cloudMapRequestSigner, Clock.systemUTC());
+    }
+
+    private static AwsSqsApi createSqsApi(AwsConfig awsConfig, String region) {
+        String sqsEndpoint = resolveSqsEndpoint(awsConfig.getEventQueueUrl());
+        String sqsRegion = resolveSqsRegion(awsConfig.getEventQueueUrl(), region);
+        AwsRequestSigner sqsRequestSigner = new AwsRequestSigner(sqsRegion, SQS_SERVICE_NAME);
+        LOGGER.info(String.format("AWS plugin receiving member state changes from SQS queue: '%s' in region: '%s'",
+            awsConfig.getEventQueueUrl(), sqsRegion));
+        return new AwsSqsApi(sqsEndpoint, awsConfig, sqsRequestSigner, Clock.systemUTC());
+    }
+
+    /**
+     * Returns the endpoint of the SQS queue, i.e. the host of its URL (e.g. "sqs.us-east-1.amazonaws.com").
+     */
+    static String resolveSqsEndpoint(String queueUrl) {
+        try {
+            String host = new URI(queueUrl).getHost();
+            if (host == null) {
+                throw new InvalidConfigurationException("Invalid 'event-queue-url': " + queueUrl);
+            }
+            return host;
+        } catch (URISyntaxException e) {
+            throw new InvalidConfigurationException("Invalid 'event-queue-url': " + queueUrl, e);
+        }
+    }
+
+    /**
+     * Returns the region of the SQS queue, which its requests must be signed for, e.g. "eu-west-1" for
+     * "sqs.eu-west-1.amazonaws.com" or the legacy "eu-west-1.queue.amazonaws.com". Falls back to the discovery
+     * {@code region} if the host of the queue URL does not name a region (e.g. a custom endpoint).
+     */
+    static String resolveSqsRegion(String queueUrl, String region) {
+        String host = resolveSqsEndpoint(queueUrl);
+        if (LEGACY_SQS_HOST.equals(host)) {
+            return LEGACY_SQS_REGION;
+        }
+        Matcher matcher = SQS_HOST_PATTERN.matcher(host);
+        if (!matcher.matches()) {
+            return region;
+        }
+        return matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+    }
+
+    private static AwsAutoScalingApi createAutoScalingApi(AwsConfig awsConfig, AwsEndpoints endpoints, String region) {
+        String autoScalingEndpoint = resolveAutoScalingEndpoint(region);
+        AwsRequestSigner autoScalingRequestSigner = new AwsRequestSigner(region, AUTO_SCALING_SERVICE_NAME);
+        return new AwsAutoScalingApi(autoScalingEndpoint, awsConfig, endpoints, autoScalingRequestSigner,
+            Clock.systemUTC());
+    }
+
+    static String resolveAutoScalingEndpoint(String region) {
+        return String.format("%s.%s.amazonaws.com", AUTO_SCALING_SERVICE_NAME, region);
+    }
+
+    /**
+     * Returns the endpoint of Cloud Map DiscoverInstances, which is served by the data plane endpoint of the region.
+     */
+    static String resolveCloudMapEndpoint(String region) {
+        return String.format("data-%s.%s.amazonaws.com", CLOUD_MAP_SERVICE_NAME, region);
     }
 
     static String resolveEc2Endpoint(AwsConfig awsConfig, String region) {
@@ -103,7 +280,7 @@ final class AwsClientConfigurator {
             || ec2HostHeader.startsWith("ecs")
             || ec2HostHeader.equals("ec2")
         ) {
-            ec2HostHeader = DEFAULT_EC2_HOST_HEADER;
+            ec2HostHeader = awsConfig.isDualStackEndpoints() ? DUAL_STACK_EC2_HOST_HEADER : DEFAULT_EC2_HOST_HEADER;
         }
         return ec2HostHeader.replace("ec2.", "ec2." + region + ".");
     }
@@ -113,7 +290,7 @@ final class AwsClientConfigurator {
         if (StringUtils.isEmpty(ecsHostHeader)
             || ecsHostHeader.equals("ecs")
         ) {
-            ecsHostHeader = DEFAULT_ECS_HOST_HEADER;
+            ecsHostHeader = awsConfig.isDualStackEndpoints() ? DUAL_STACK_ECS_HOST_HEADER : DEFAULT_ECS_HOST_HEADER;
         }
         return ecsHostHeader.replace("ecs.", "ecs." + region + ".");
     }
@@ -128,7 +305,8 @@ final class AwsClientConfigurator {
      * </ul>
      */
     static boolean explicitlyEc2Configured(AwsConfig awsConfig) {
-        return isNotEmpty(awsConfig.getHostHeader()) && awsConfig.getHostHeader().startsWith("ec2");
+        return (isNotEmpty(awsConfig.getHostHeader()) && awsConfig.getHostHeader().startsWith("ec2"))
+            || isNotEmpty(awsConfig.getAutoScalingGroup());
     }
 
     static boolean explicitlyEcsConfigured(AwsConfig awsConfig) {
@@ -153,6 +331,7 @@ final class AwsClientConfigurator {
         filters.put("tag-key", combineTagKeys(awsConfig.getTags()));
         filters.put("tag-value", combineTagValues(awsConfig.getTags()));
         filters.put("security-group-name", awsConfig.getSecurityGroupName());
+        filters.put("auto-scaling-group", awsConfig.getAutoScalingGroup());
         filters.put("hz-port", awsConfig.getHzPort().toString());
 
         LOGGER.info(String.format(
@@ -185,6 +364,17 @@ final class AwsClientConfigurator {
         );
     }
 
+    private static void logCloudMapEnvironment(AwsConfig awsConfig, String region) {
+        Map<String, String> filters = new HashMap<>(awsConfig.getCloudMapAttributes());
+        filters.put("hz-port", awsConfig.getHzPort().toString());
+
+        LOGGER.info(String.format(
+            "AWS plugin performing discovery with AWS Cloud Map for region: '%s' for namespace: '%s' and service: '%s'"
+                + " filtered by: '%s'", region, awsConfig.getCloudMapNamespace(), awsConfig.getCloudMapService(),
+            logFilters(filters))
+        );
+    }
+
     private static String logFilters(Map<String, String> parameters) {
         return parameters.entrySet().stream()
             .filter(e -> e.getValue() != null)
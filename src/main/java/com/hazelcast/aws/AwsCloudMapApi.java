@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.internal.json.Json;
+import com.hazelcast.internal.json.JsonObject;
+import com.hazelcast.internal.json.JsonValue;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.StreamSupport;
+
+import static com.hazelcast.aws.AwsRequestUtils.createRestClient;
+import static com.hazelcast.aws.AwsRequestUtils.currentTimestamp;
+import static com.hazelcast.aws.AwsRequestUtils.urlFor;
+import static com.hazelcast.aws.StringUtils.isNotEmpty;
+import static java.util.Collections.emptyMap;
+
+/**
+ * Responsible for connecting to AWS Cloud Map (Service Discovery) API.
+ *
+ * @see <a href="https://docs.aws.amazon.com/cloud-map/latest/api/Welcome.html">AWS Cloud Map API</a>
+ */
+class AwsCloudMapApi {
+    /**
+     * Maximum number of instances returned by a single DiscoverInstances call.
+     */
+    static final int DISCOVER_INSTANCES_MAX_RESULTS = 1000;
+
+    static final String IPV4_ATTRIBUTE = "AWS_INSTANCE_IPV4";
+    static final String AVAILABILITY_ZONE_ATTRIBUTE = "AVAILABILITY_ZONE";
+
+    private final String endpoint;
+    private final AwsConfig awsConfig;
+    private final AwsEndpoints endpoints;
+    private final AwsRequestSigner requestSigner;
+    private final Clock clock;
+
+    AwsCloudMapApi(String endpoint, AwsConfig awsConfig, AwsEndpoints endpoints, AwsRequestSigner requestSigner,
+                   Clock clock) {
+        this.endpoint = endpoint;
+        this.awsConfig = awsConfig;
+        this.endpoints = endpoints;
+        this.requestSigner = requestSigner;
+        this.clock = clock;
+    }
+
+    /**
+     * Calls AWS Cloud Map DiscoverInstances API for the configured namespace and service, and returns mapping from the
+     * private IPs to the found instances.
+     * <p>
+     * Only the instances which have all the configured attributes are returned. Healthy instances are preferred: if
+     * no instance is healthy, all the instances are returned. Cloud Map does not know the public IPs, so the public
+     * address of the instances is {@code null}.
+     *
+     * @return map from private IP to the instance
+     * @see <a href="https://docs.aws.amazon.com/cloud-map/latest/api/API_DiscoverInstances.html">
+     * Cloud Map DiscoverInstances</a>
+     */
+    Map<String, AwsNode> discoverInstances(AwsCredentials credentials) {
+        String body = createBodyDiscoverInstances();
+        Map<String, String> headers = createHeaders(body, credentials, "DiscoverInstances");
+        String response = callAwsService(body, headers);
+        return parseDiscoverInstances(response);
+    }
+
+    private String createBodyDiscoverInstances() {
+        JsonObject queryParameters = new JsonObject();
+        awsConfig.getCloudMapAttributes().forEach(queryParameters::add);
+        JsonObject body = new JsonObject()
+            .add("NamespaceName", awsConfig.getCloudMapNamespace())
+            .add("ServiceName", awsConfig.getCloudMapService())
+            .add("HealthStatus", "HEALTHY_OR_ELSE_ALL")
+            .add("MaxResults", DISCOVER_INSTANCES_MAX_RESULTS);
+        if (!queryParameters.isEmpty()) {
+            body.add("QueryParameters", queryParameters);
+        }
+        return body.toString();
+    }
+
+    private static Map<String, AwsNode> parseDiscoverInstances(String response) {
+        Map<String, AwsNode> result = new HashMap<>();
+        JsonValue instances = Json.parse(response).asObject().get("Instances");
+        if (instances == null) {
+            return result;
+        }
+        StreamSupport.stream(instances.asArray().spliterator(), false)
+            .map(e -> e.asObject().get("Attributes"))
+            .filter(e -> e != null && e.isObject())
+            .map(JsonValue::asObject)
+            .filter(e -> isNotEmpty(e.getString(IPV4_ATTRIBUTE, null)))
+            .map(e -> AwsNode.builder()
+                .setPrivateAddress(e.getString(IPV4_ATTRIBUTE, null))
+                .setAvailabilityZone(e.getString(AVAILABILITY_ZONE_ATTRIBUTE, null))
+                .build())
+            .forEach(node -> result.put(node.getPrivateAddress(), node));
+        return result;
+    }
+
+    private Map<String, String> createHeaders(String body, AwsCredentials credentials, String awsTargetAction) {
+        Map<String, String> headers = new HashMap<>();
+
+        if (isNotEmpty(credentials.getToken())) {
+            headers.put("X-Amz-Security-Token", credentials.getToken());
+        }
+        headers.put("Host", endpoint);
+        headers.put("X-Amz-Target", String.format("Route53AutoNaming_v20170314.%s", awsTargetAction));
+        headers.put("Content-Type", "application/x-amz-json-1.1");
+        headers.put("Accept-Encoding", "identity");
+        String timestamp = currentTimestamp(clock);
+        headers.put("X-Amz-Date", timestamp);
+        headers.put("Authorization", requestSigner.authHeader(emptyMap(), headers, body, credentials, timestamp, "POST"));
+
+        return headers;
+    }
+
+    private String callAwsService(String body, Map<String, String> headers) {
+        return createRestClient(urlFor(endpoint), awsConfig, endpoints)
+            .withHeaders(headers)
+            .withBody(body)
+            .post()
+            .getBody();
+    }
+}
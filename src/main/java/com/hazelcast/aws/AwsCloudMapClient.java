@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link AwsClient} which discovers members registered in AWS Cloud Map, e.g. ECS Services with Service Discovery
+ * enabled.
+ * <p>
+ * A single DiscoverInstances call returns the IPs, availability zones and attributes of all the members, while ECS
+ * discovery needs ListTasks, DescribeTasks and DescribeNetworkInterfaces calls; Cloud Map also has much higher request
+ * rate limits. The discovered members are reused for {@code cloud-map-cache-seconds}.
+ */
+class AwsCloudMapClient implements AwsClient {
+    private final AwsCloudMapApi awsCloudMapApi;
+    private final AwsMetadataApi awsMetadataApi;
+    private final AwsCredentialsProvider awsCredentialsProvider;
+    private final Environment environment;
+    private final Supplier<Set<String>> localAddresses;
+    private final long cacheMillis;
+    private final Clock clock;
+
+    private volatile Map<String, AwsNode> cachedAddresses;
+    private volatile long cachedAddressesExpiryMillis;
+
+    AwsCloudMapClient(AwsCloudMapApi awsCloudMapApi, AwsMetadataApi awsMetadataApi,
+                      AwsCredentialsProvider awsCredentialsProvider, Environment environment, int cacheSeconds) {
+        this(awsCloudMapApi, awsMetadataApi, awsCredentialsProvider, environment, LocalityComparator::localAddresses,
+            cacheSeconds, Clock.systemUTC());
+    }
+
+    AwsCloudMapClient(AwsCloudMapApi awsCloudMapApi, AwsMetadataApi awsMetadataApi,
+                      AwsCredentialsProvider awsCredentialsProvider, Environment environment,
+                      Supplier<Set<String>> localAddresses, int cacheSeconds, Clock clock) {
+        this.awsCloudMapApi = awsCloudMapApi;
+        this.awsMetadataApi = awsMetadataApi;
+        this.awsCredentialsProvider = awsCredentialsProvider;
+        this.environment = environment;
+        this.localAddresses = localAddresses;
+        this.cacheMillis = TimeUnit.SECONDS.toMillis(cacheSeconds);
+        this.clock = clock;
+    }
+
+    @Override
+    public Map<String, AwsNode> getAddresses() {
+        Map<String, AwsNode> result = cachedAddresses;
+        if (result != null && clock.millis() < cachedAddressesExpiryMillis) {
+            return result;
+        }
+        result = awsCloudMapApi.discoverInstances(awsCredentialsProvider.credentials());
+        if (cacheMillis > 0) {
+            cachedAddressesExpiryMillis = clock.millis() + cacheMillis;
+            cachedAddresses = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the availability zone registered in Cloud Map for the local member, falling back to EC2 Instance
+     * Metadata if the member is not registered (yet) and does not run on ECS.
+     */
+    @Override
+    public String getAvailabilityZone() {
+        Set<String> addresses = localAddresses.get();
+        String availabilityZone = getAddresses().values().stream()
+            .filter(node -> addresses.contains(node.getPrivateAddress()))
+            .map(AwsNode::getAvailabilityZone)
+            .filter(StringUtils::isNotEmpty)
+            .findFirst()
+            .orElse(null);
+        if (availabilityZone != null) {
+            return availabilityZone;
+        }
+        return environment.isRunningOnEcs() ? "unknown" : awsMetadataApi.availabilityZoneEc2();
+    }
+}
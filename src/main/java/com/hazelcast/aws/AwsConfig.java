@@ -21,7 +21,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.aws.StringUtils.isEmpty;
 import static com.hazelcast.aws.StringUtils.isNotEmpty;
@@ -32,8 +36,19 @@ import static com.hazelcast.aws.StringUtils.isNotEmpty;
  * <p>
  * This class is immutable.
  */
+@SuppressWarnings("checkstyle:methodcount")
 final class AwsConfig {
+    // Limits of STS AssumeRole DurationSeconds
+    private static final int MIN_ASSUME_ROLE_SESSION_DURATION_SECONDS = 900;
+    private static final int MAX_ASSUME_ROLE_SESSION_DURATION_SECONDS = 43200;
+    private static final int MAX_HEDGE_PERCENTILE = 99;
+    private static final int MAX_HEDGE_BUDGET_PERCENT = 100;
+    private static final String IPV4 = "ipv4";
+    private static final String IPV6 = "ipv6";
+    private static final String STARTUP_QUORUM_DESIRED = "desired";
+
     private final String region;
+    private final List<String> regions;
     private final String hostHeader;
     private final String securityGroupName;
     private final List<Tag> tags;
@@ -47,16 +62,57 @@ final class AwsConfig {
     private final String cluster;
     private final String family;
     private final String serviceName;
+    private final boolean preferSameZone;
+    private final int refreshPeriodSeconds;
+    private final int refreshJitterSeconds;
+    private final String assumeRoleArn;
+    private final String assumeRoleExternalId;
+    private final int assumeRoleSessionDurationSeconds;
+    private final String profile;
+    private final int circuitBreakerFailureThreshold;
+    private final int circuitBreakerOpenSeconds;
+    private final int hedgePercentile;
+    private final int hedgeBudgetPercent;
+    private final int connectionTimeoutMillis;
+    private final int readTimeoutMillis;
+    private final int adaptiveTimeoutMultiplier;
+    private final int adaptiveTimeoutMinMillis;
+    private final boolean streamingDiscovery;
+    private final String cloudMapNamespace;
+    private final String cloudMapService;
+    private final Map<String, String> cloudMapAttributes;
+    private final int cloudMapCacheSeconds;
+    private final String autoScalingGroup;
+    private final boolean instanceStatusCheck;
+    private final String addressFamily;
+    private final boolean dualStackEndpoints;
+    private final String eventQueueUrl;
+    private final int terminationWatchPeriodSeconds;
+    private final String startupQuorum;
+    private final int startupQuorumTimeoutSeconds;
+    private final List<String> discoveryListeners;
+    private final List<String> terminationListeners;
 
-    @SuppressWarnings("checkstyle:parameternumber")
+    @SuppressWarnings({"checkstyle:parameternumber", "checkstyle:executablestatementcount"})
     // Constructor has a lot of parameters, but it's private.
-    private AwsConfig(String accessKey, String secretKey, String region, String iamRole, String hostHeader,
-                      String securityGroupName, String tagKey, String tagValue, int connectionTimeoutSeconds,
-                      int connectionRetries, int readTimeoutSeconds, PortRange hzPort, String cluster, String family,
-                      String serviceName) {
+    private AwsConfig(String accessKey, String secretKey, String region, String regions, String iamRole,
+                      String hostHeader, String securityGroupName, String tagKey, String tagValue,
+                      int connectionTimeoutSeconds, int connectionRetries, int readTimeoutSeconds, PortRange hzPort,
+                      String cluster, String family, String serviceName, boolean preferSameZone,
+                      int refreshPeriodSeconds, int refreshJitterSeconds, String assumeRoleArn,
+                      String assumeRoleExternalId, int assumeRoleSessionDurationSeconds, String profile,
+                      int circuitBreakerFailureThreshold, int circuitBreakerOpenSeconds, int hedgePercentile,
+                      int hedgeBudgetPercent, int connectionTimeoutMillis, int readTimeoutMillis,
+                      int adaptiveTimeoutMultiplier, int adaptiveTimeoutMinMillis, boolean streamingDiscovery,
+                      String cloudMapNamespace, String cloudMapService, String cloudMapAttributes,
+                      int cloudMapCacheSeconds, String autoScalingGroup, boolean instanceStatusCheck,
+                      String addressFamily, boolean dualStackEndpoints, String eventQueueUrl,
+                      int terminationWatchPeriodSeconds, String startupQuorum, int startupQuorumTimeoutSeconds,
+                      String discoveryListeners, String terminationListeners) {
         this.accessKey = accessKey;
         this.secretKey = secretKey;
         this.region = region;
+        this.regions = createList(regions);
         this.iamRole = iamRole;
         this.hostHeader = hostHeader;
         this.securityGroupName = securityGroupName;
@@ -68,6 +124,36 @@ final class AwsConfig {
         this.cluster = cluster;
         this.family = family;
         this.serviceName = serviceName;
+        this.preferSameZone = preferSameZone;
+        this.refreshPeriodSeconds = refreshPeriodSeconds;
+        this.refreshJitterSeconds = refreshJitterSeconds;
+        this.assumeRoleArn = assumeRoleArn;
+        this.assumeRoleExternalId = assumeRoleExternalId;
+        this.assumeRoleSessionDurationSeconds = assumeRoleSessionDurationSeconds;
+        this.profile = profile;
+        this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+        this.circuitBreakerOpenSeconds = circuitBreakerOpenSeconds;
+        this.hedgePercentile = hedgePercentile;
+        this.hedgeBudgetPercent = hedgeBudgetPercent;
+        this.connectionTimeoutMillis = connectionTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.adaptiveTimeoutMultiplier = adaptiveTimeoutMultiplier;
+        this.adaptiveTimeoutMinMillis = adaptiveTimeoutMinMillis;
+        this.streamingDiscovery = streamingDiscovery;
+        this.cloudMapNamespace = cloudMapNamespace;
+        this.cloudMapService = cloudMapService;
+        this.cloudMapAttributes = createCloudMapAttributes(cloudMapAttributes);
+        this.cloudMapCacheSeconds = cloudMapCacheSeconds;
+        this.autoScalingGroup = autoScalingGroup;
+        this.instanceStatusCheck = instanceStatusCheck;
+        this.addressFamily = addressFamily;
+        this.dualStackEndpoints = dualStackEndpoints;
+        this.eventQueueUrl = eventQueueUrl;
+        this.terminationWatchPeriodSeconds = terminationWatchPeriodSeconds;
+        this.startupQuorum = startupQuorum;
+        this.startupQuorumTimeoutSeconds = startupQuorumTimeoutSeconds;
+        this.discoveryListeners = createList(discoveryListeners);
+        this.terminationListeners = createList(terminationListeners);
 
         validateConfig();
     }
@@ -97,6 +183,39 @@ final class AwsConfig {
         return tags;
     }
 
+    /**
+     * Splits comma-separated values (e.g. regions or class names), skipping the empty ones.
+     */
+    private static List<String> createList(String values) {
+        List<String> result = new ArrayList<>();
+        for (String value : splitValue(values)) {
+            if (isNotEmpty(value)) {
+                result.add(value.trim());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates the Cloud Map attribute filter from comma-separated {@code key=value} pairs
+     * (e.g. {@code "stage=prod,role=member"}).
+     */
+    private static Map<String, String> createCloudMapAttributes(String attributes) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String attribute : splitValue(attributes)) {
+            if (isEmpty(attribute.trim())) {
+                continue;
+            }
+            int separator = attribute.indexOf('=');
+            if (separator <= 0) {
+                throw new InvalidConfigurationException(String.format(
+                    "'cloud-map-attributes' must be comma-separated key=value pairs, but was '%s'", attributes));
+            }
+            result.put(attribute.substring(0, separator).trim(), attribute.substring(separator + 1).trim());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
     private static List<String> splitValue(String value) {
         return isEmpty(value) ? Collections.emptyList() : Arrays.asList(value.split(","));
     }
@@ -123,10 +242,209 @@ final class AwsConfig {
             throw new InvalidConfigurationException(
                 "You have to either define both ('access-key', 'secret-key') or none of them");
         }
+        validateRegions();
+        validateRefresh();
+        validateAssumeRole();
+        validateProfile();
+        validateCircuitBreaker();
+        validateHedging();
+        validateTimeouts();
+        validateCloudMap();
+        validateInstanceStatusCheck();
+        validateAddressFamily();
+        validateEventQueue();
+        validateTerminationWatch();
+        validateStartupQuorum();
+    }
+
+    private void validateRegions() {
+        if (!regions.isEmpty() && isNotEmpty(region)) {
+            throw new InvalidConfigurationException(
+                "You cannot define both 'region' and 'regions'. Use 'regions' to discover members in multiple regions");
+        }
+        if (!regions.isEmpty() && anyOfEcsPropertiesConfigured()) {
+            throw new InvalidConfigurationException(
+                "You cannot use 'regions' together with ECS properties ('cluster', 'family', 'service-name'),"
+                    + " multi-region discovery is supported only for EC2");
+        }
+        if (!regions.isEmpty() && isNotEmpty(autoScalingGroup)) {
+            throw new InvalidConfigurationException(
+                "You cannot use 'regions' together with 'auto-scaling-group', an Auto Scaling Group belongs to a single"
+                    + " region");
+        }
+    }
+
+    private void validateRefresh() {
+        if (refreshJitterSeconds < 0) {
+            throw new InvalidConfigurationException(String.format(
+                "'refresh-jitter-seconds' cannot be negative, but was %d", refreshJitterSeconds));
+        }
+        if (!discoveryListeners.isEmpty() && refreshPeriodSeconds <= 0) {
+            throw new InvalidConfigurationException(
+                "'discovery-listeners' requires 'refresh-period-seconds', the listeners are notified by the background"
+                    + " refresh");
+        }
+    }
+
+    private void validateAssumeRole() {
+        if (isEmpty(assumeRoleArn)) {
+            if (isNotEmpty(assumeRoleExternalId)) {
+                throw new InvalidConfigurationException(
+                    "You cannot define 'assume-role-external-id' without 'assume-role-arn'");
+            }
+            return;
+        }
+        if (assumeRoleSessionDurationSeconds < MIN_ASSUME_ROLE_SESSION_DURATION_SECONDS
+            || assumeRoleSessionDurationSeconds > MAX_ASSUME_ROLE_SESSION_DURATION_SECONDS) {
+            throw new InvalidConfigurationException(String.format(
+                "'assume-role-session-duration-seconds' must be between %d and %d, but was %d",
+                MIN_ASSUME_ROLE_SESSION_DURATION_SECONDS, MAX_ASSUME_ROLE_SESSION_DURATION_SECONDS,
+                assumeRoleSessionDurationSeconds));
+        }
+    }
+
+    private void validateProfile() {
+        if (isNotEmpty(profile) && (isNotEmpty(accessKey) || isNotEmpty(iamRole))) {
+            throw new InvalidConfigurationException(
+                "You cannot define 'profile' together with 'access-key'/'secret-key' or 'iam-role'. Choose how you want"
+                    + " to authenticate with AWS API");
+        }
+    }
+
+    private void validateCircuitBreaker() {
+        if (circuitBreakerFailureThreshold < 0) {
+            throw new InvalidConfigurationException(String.format(
+                "'circuit-breaker-failure-threshold' cannot be negative, but was %d", circuitBreakerFailureThreshold));
+        }
+        if (circuitBreakerFailureThreshold > 0 && circuitBreakerOpenSeconds <= 0) {
+            throw new InvalidConfigurationException(String.format(
+                "'circuit-breaker-open-seconds' must be positive, but was %d", circuitBreakerOpenSeconds));
+        }
+    }
+
+    private void validateHedging() {
+        if (hedgePercentile < 0 || hedgePercentile > MAX_HEDGE_PERCENTILE) {
+            throw new InvalidConfigurationException(String.format(
+                "'hedge-percentile' must be between 0 and %d, but was %d", MAX_HEDGE_PERCENTILE, hedgePercentile));
+        }
+        if (hedgePercentile > 0 && (hedgeBudgetPercent <= 0 || hedgeBudgetPercent > MAX_HEDGE_BUDGET_PERCENT)) {
+            throw new InvalidConfigurationException(String.format(
+                "'hedge-budget-percent' must be between 1 and %d, but was %d", MAX_HEDGE_BUDGET_PERCENT,
+                hedgeBudgetPercent));
+        }
+    }
+
+    private void validateTimeouts() {
+        if (connectionTimeoutMillis < 0 || readTimeoutMillis < 0) {
+            throw new InvalidConfigurationException(
+                "'connection-timeout-millis' and 'read-timeout-millis' cannot be negative");
+        }
+        if (adaptiveTimeoutMultiplier < 0) {
+            throw new InvalidConfigurationException(String.format(
+                "'adaptive-timeout-multiplier' cannot be negative, but was %d", adaptiveTimeoutMultiplier));
+        }
+        if (adaptiveTimeoutMultiplier > 0 && adaptiveTimeoutMinMillis <= 0) {
+            throw new InvalidConfigurationException(String.format(
+                "'adaptive-timeout-min-millis' must be positive, but was %d", adaptiveTimeoutMinMillis));
+        }
+    }
+
+    private void validateCloudMap() {
+        if (isEmpty(cloudMapNamespace) != isEmpty(cloudMapService)) {
+            throw new InvalidConfigurationException(
+                "You have to define both 'cloud-map-namespace' and 'cloud-map-service' or none of them");
+        }
+        if (isEmpty(cloudMapNamespace)) {
+            if (!cloudMapAttributes.isEmpty()) {
+                throw new InvalidConfigurationException(
+                    "You cannot define 'cloud-map-attributes' without 'cloud-map-namespace' and 'cloud-map-service'");
+            }
+            return;
+        }
+        if (!regions.isEmpty() || anyOfEc2PropertiesConfigured() || anyOfEcsPropertiesConfigured()) {
+            throw new InvalidConfigurationException(
+                "You cannot use AWS Cloud Map ('cloud-map-namespace', 'cloud-map-service') together with 'regions', EC2"
+                    + " properties ('iam-role', 'security-group-name', 'tag-key', 'tag-value') or ECS properties"
+                    + " ('cluster', 'family', 'service-name'); use 'cloud-map-attributes' to filter the members");
+        }
+        if (cloudMapCacheSeconds < 0) {
+            throw new InvalidConfigurationException(String.format(
+                "'cloud-map-cache-seconds' cannot be negative, but was %d", cloudMapCacheSeconds));
+        }
+    }
+
+    private void validateInstanceStatusCheck() {
+        if (instanceStatusCheck
+            && (!regions.isEmpty() || anyOfEcsPropertiesConfigured() || isNotEmpty(cloudMapNamespace))) {
+            throw new InvalidConfigurationException(
+                "'instance-status-check' is supported only for EC2 discovery in a single region, you cannot use it"
+                    + " together with 'regions', ECS properties ('cluster', 'family', 'service-name') or AWS Cloud Map");
+        }
+    }
+
+    private void validateAddressFamily() {
+        if (isNotEmpty(addressFamily) && !IPV4.equalsIgnoreCase(addressFamily) && !IPV6.equalsIgnoreCase(addressFamily)) {
+            throw new InvalidConfigurationException(String.format(
+                "'address-family' must be either '%s' or '%s', but was '%s'", IPV4, IPV6, addressFamily));
+        }
+    }
+
+    private void validateEventQueue() {
+        if (isEmpty(eventQueueUrl)) {
+            return;
+        }
+        if (!regions.isEmpty() || isNotEmpty(cloudMapNamespace)) {
+            throw new InvalidConfigurationException(
+                "You cannot use 'event-queue-url' together with 'regions' or AWS Cloud Map, event-driven discovery is"
+                    + " supported only for EC2 and ECS in a single region");
+        }
+        if (refreshPeriodSeconds <= 0) {
+            throw new InvalidConfigurationException(
+                "'refresh-period-seconds' must be positive with 'event-queue-url', it defines how often the members"
+                    + " updated from the events are reconciled with a full discovery");
+        }
+    }
+
+    private void validateTerminationWatch() {
+        if (terminationWatchPeriodSeconds < 0) {
+            throw new InvalidConfigurationException(String.format(
+                "'termination-watch-period-seconds' cannot be negative, but was %d", terminationWatchPeriodSeconds));
+        }
+        if (!terminationListeners.isEmpty() && terminationWatchPeriodSeconds <= 0) {
+            throw new InvalidConfigurationException(
+                "'termination-listeners' requires 'termination-watch-period-seconds', the listeners are notified by the"
+                    + " termination watcher");
+        }
+    }
+
+    private void validateStartupQuorum() {
+        if (isEmpty(startupQuorum)) {
+            return;
+        }
+        if (isStartupQuorumDesired()) {
+            if (isEmpty(autoScalingGroup) && isEmpty(serviceName)) {
+                throw new InvalidConfigurationException(String.format(
+                    "'startup-quorum' can be '%s' only with 'auto-scaling-group' or 'service-name'",
+                    STARTUP_QUORUM_DESIRED));
+            }
+            if (instanceStatusCheck) {
+                throw new InvalidConfigurationException(String.format(
+                    "'startup-quorum' cannot be '%s' with 'instance-status-check', the instances launched together"
+                        + " pass the status checks only after the quorum timeout", STARTUP_QUORUM_DESIRED));
+            }
+        } else if (getStartupQuorumSize() <= 0) {
+            throw new InvalidConfigurationException(String.format(
+                "'startup-quorum' must be a positive number or '%s', but was '%s'", STARTUP_QUORUM_DESIRED,
+                startupQuorum));
+        }
+        if (startupQuorumTimeoutSeconds <= 0) {
+            throw new InvalidConfigurationException(String.format(
+                "'startup-quorum-timeout-seconds' must be positive, but was %d", startupQuorumTimeoutSeconds));
+        }
     }
 
     private boolean anyOfEc2PropertiesConfigured() {
-        return isNotEmpty(iamRole) || isNotEmpty(securityGroupName) || hasTags(tags);
+        return isNotEmpty(iamRole) || isNotEmpty(securityGroupName) || hasTags(tags) || isNotEmpty(autoScalingGroup);
     }
 
     private boolean hasTags(List<Tag> tags) {
@@ -153,6 +471,13 @@ final class AwsConfig {
         return region;
     }
 
+    /**
+     * Returns the regions in which EC2 members are discovered or an empty list if only a single region is used.
+     */
+    List<String> getRegions() {
+        return regions;
+    }
+
     String getIamRole() {
         return iamRole;
     }
@@ -197,6 +522,239 @@ final class AwsConfig {
         return serviceName;
     }
 
+    boolean isPreferSameZone() {
+        return preferSameZone;
+    }
+
+    int getRefreshPeriodSeconds() {
+        return refreshPeriodSeconds;
+    }
+
+    int getRefreshJitterSeconds() {
+        return refreshJitterSeconds;
+    }
+
+    String getAssumeRoleArn() {
+        return assumeRoleArn;
+    }
+
+    String getAssumeRoleExternalId() {
+        return assumeRoleExternalId;
+    }
+
+    int getAssumeRoleSessionDurationSeconds() {
+        return assumeRoleSessionDurationSeconds;
+    }
+
+    String getProfile() {
+        return profile;
+    }
+
+    int getCircuitBreakerFailureThreshold() {
+        return circuitBreakerFailureThreshold;
+    }
+
+    int getCircuitBreakerOpenSeconds() {
+        return circuitBreakerOpenSeconds;
+    }
+
+    int getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    int getHedgeBudgetPercent() {
+        return hedgeBudgetPercent;
+    }
+
+    /**
+     * Returns the connect timeout in milliseconds: {@code connection-timeout-millis} if set, otherwise
+     * {@code connection-timeout-seconds}.
+     */
+    int getConnectionTimeoutMillis() {
+        return connectionTimeoutMillis > 0 ? connectionTimeoutMillis
+            : (int) TimeUnit.SECONDS.toMillis(connectionTimeoutSeconds);
+    }
+
+    /**
+     * Returns the read timeout in milliseconds: {@code read-timeout-millis} if set, otherwise
+     * {@code read-timeout-seconds}.
+     */
+    int getReadTimeoutMillis() {
+        return readTimeoutMillis > 0 ? readTimeoutMillis : (int) TimeUnit.SECONDS.toMillis(readTimeoutSeconds);
+    }
+
+    int getAdaptiveTimeoutMultiplier() {
+        return adaptiveTimeoutMultiplier;
+    }
+
+    int getAdaptiveTimeoutMinMillis() {
+        return adaptiveTimeoutMinMillis;
+    }
+
+    boolean isStreamingDiscovery() {
+        return streamingDiscovery;
+    }
+
+    /**
+     * Returns the AWS Cloud Map namespace in which the members are discovered or {@code null} if Cloud Map is not used.
+     */
+    String getCloudMapNamespace() {
+        return cloudMapNamespace;
+    }
+
+    String getCloudMapService() {
+        return cloudMapService;
+    }
+
+    /**
+     * Returns the attributes which the Cloud Map instances must have to be discovered.
+     */
+    Map<String, String> getCloudMapAttributes() {
+        return cloudMapAttributes;
+    }
+
+    int getCloudMapCacheSeconds() {
+        return cloudMapCacheSeconds;
+    }
+
+    String getAutoScalingGroup() {
+        return autoScalingGroup;
+    }
+
+    boolean isInstanceStatusCheck() {
+        return instanceStatusCheck;
+    }
+
+    String getAddressFamily() {
+        return addressFamily;
+    }
+
+    /**
+     * Returns true if the members should be connected to with their IPv6 addresses whenever they have any.
+     */
+    boolean isPreferIpv6() {
+        return IPV6.equalsIgnoreCase(addressFamily);
+    }
+
+    boolean isDualStackEndpoints() {
+        return dualStackEndpoints;
+    }
+
+    String getEventQueueUrl() {
+        return eventQueueUrl;
+    }
+
+    int getTerminationWatchPeriodSeconds() {
+        return terminationWatchPeriodSeconds;
+    }
+
+    boolean isStartupQuorumEnabled() {
+        return isNotEmpty(startupQuorum);
+    }
+
+    /**
+     * Returns true if the startup quorum is the desired capacity of the Auto Scaling Group or the desired count of the
+     * ECS Service.
+     */
+    boolean isStartupQuorumDesired() {
+        return STARTUP_QUORUM_DESIRED.equalsIgnoreCase(startupQuorum);
+    }
+
+    /**
+     * Returns the fixed number of members of the startup quorum or 0 if not a number.
+     */
+    int getStartupQuorumSize() {
+        try {
+            return isEmpty(startupQuorum) ? 0 : Integer.parseInt(startupQuorum.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    int getStartupQuorumTimeoutSeconds() {
+        return startupQuorumTimeoutSeconds;
+    }
+
+    /**
+     * Returns the class names of the {@link AwsDiscoveryListener}s registered by configuration.
+     */
+    List<String> getDiscoveryListeners() {
+        return discoveryListeners;
+    }
+
+    List<String> getTerminationListeners() {
+        return terminationListeners;
+    }
+
+    /**
+     * Two configurations are equal if they discover the same members with the same AWS client, so that the strategies
+     * created with them can share a single {@link SharedAwsClient}. The properties which only affect how a single
+     * strategy uses the discovered members ({@code hz-port}, {@code prefer-same-zone}, {@code streaming-discovery},
+     * {@code address-family}, {@code termination-watch-period-seconds}, the startup quorum,
+     * {@code discovery-listeners} and {@code termination-listeners}) are ignored; any other property added later must be
+     * compared here.
+     */
+    @Override
+    @SuppressWarnings({"checkstyle:cyclomaticcomplexity", "checkstyle:npathcomplexity",
+        "checkstyle:booleanexpressioncomplexity"})
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        AwsConfig that = (AwsConfig) o;
+        return Objects.equals(region, that.region)
+            && Objects.equals(regions, that.regions)
+            && Objects.equals(hostHeader, that.hostHeader)
+            && Objects.equals(securityGroupName, that.securityGroupName)
+            && Objects.equals(tags, that.tags)
+            && connectionTimeoutSeconds == that.connectionTimeoutSeconds
+            && connectionRetries == that.connectionRetries
+            && readTimeoutSeconds == that.readTimeoutSeconds
+            && Objects.equals(accessKey, that.accessKey)
+            && Objects.equals(secretKey, that.secretKey)
+            && Objects.equals(iamRole, that.iamRole)
+            && Objects.equals(cluster, that.cluster)
+            && Objects.equals(family, that.family)
+            && Objects.equals(serviceName, that.serviceName)
+            && refreshPeriodSeconds == that.refreshPeriodSeconds
+            && refreshJitterSeconds == that.refreshJitterSeconds
+            && Objects.equals(assumeRoleArn, that.assumeRoleArn)
+            && Objects.equals(assumeRoleExternalId, that.assumeRoleExternalId)
+            && assumeRoleSessionDurationSeconds == that.assumeRoleSessionDurationSeconds
+            && Objects.equals(profile, that.profile)
+            && circuitBreakerFailureThreshold == that.circuitBreakerFailureThreshold
+            && circuitBreakerOpenSeconds == that.circuitBreakerOpenSeconds
+            && hedgePercentile == that.hedgePercentile
+            && hedgeBudgetPercent == that.hedgeBudgetPercent
+            && connectionTimeoutMillis == that.connectionTimeoutMillis
+            && readTimeoutMillis == that.readTimeoutMillis
+            && adaptiveTimeoutMultiplier == that.adaptiveTimeoutMultiplier
+            && adaptiveTimeoutMinMillis == that.adaptiveTimeoutMinMillis
+            && Objects.equals(cloudMapNamespace, that.cloudMapNamespace)
+            && Objects.equals(cloudMapService, that.cloudMapService)
+            && Objects.equals(cloudMapAttributes, that.cloudMapAttributes)
+            && cloudMapCacheSeconds == that.cloudMapCacheSeconds
+            && Objects.equals(autoScalingGroup, that.autoScalingGroup)
+            && instanceStatusCheck == that.instanceStatusCheck
+            && dualStackEndpoints == that.dualStackEndpoints
+            && Objects.equals(eventQueueUrl, that.eventQueueUrl);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(region, regions, hostHeader, securityGroupName, tags, connectionTimeoutSeconds,
+            connectionRetries, readTimeoutSeconds, accessKey, secretKey, iamRole, cluster, family, serviceName,
+            refreshPeriodSeconds, refreshJitterSeconds, assumeRoleArn, assumeRoleExternalId,
+            assumeRoleSessionDurationSeconds, profile, circuitBreakerFailureThreshold, circuitBreakerOpenSeconds,
+            hedgePercentile, hedgeBudgetPercent, connectionTimeoutMillis, readTimeoutMillis,
+            adaptiveTimeoutMultiplier, adaptiveTimeoutMinMillis, cloudMapNamespace, cloudMapService,
+            cloudMapAttributes, cloudMapCacheSeconds, autoScalingGroup, instanceStatusCheck, dualStackEndpoints,
+            eventQueueUrl);
+    }
+
     @Override
     public String toString() {
         return "AwsConfig{"
@@ -204,6 +762,7 @@ final class AwsConfig {
             + ", secretKey='***'"
             + ", iamRole='" + iamRole + '\''
             + ", region='" + region + '\''
+            + ", regions=" + regions
             + ", hostHeader='" + hostHeader + '\''
             + ", securityGroupName='" + securityGroupName + '\''
             + ", tags='" + tags + '\''
@@ -214,6 +773,36 @@ final class AwsConfig {
             + ", connectionTimeoutSeconds=" + connectionTimeoutSeconds
             + ", connectionRetries=" + connectionRetries
             + ", readTimeoutSeconds=" + readTimeoutSeconds
+            + ", preferSameZone=" + preferSameZone
+            + ", refreshPeriodSeconds=" + refreshPeriodSeconds
+            + ", refreshJitterSeconds=" + refreshJitterSeconds
+            + ", assumeRoleArn='" + assumeRoleArn + '\''
+            + ", assumeRoleExternalId='" + assumeRoleExternalId + '\''
+            + ", assumeRoleSessionDurationSeconds=" + assumeRoleSessionDurationSeconds
+            + ", profile='" + profile + '\''
+            + ", circuitBreakerFailureThreshold=" + circuitBreakerFailureThreshold
+            + ", circuitBreakerOpenSeconds=" + circuitBreakerOpenSeconds
+            + ", hedgePercentile=" + hedgePercentile
+            + ", hedgeBudgetPercent=" + hedgeBudgetPercent
+            + ", connectionTimeoutMillis=" + connectionTimeoutMillis
+            + ", readTimeoutMillis=" + readTimeoutMillis
+            + ", adaptiveTimeoutMultiplier=" + adaptiveTimeoutMultiplier
+            + ", adaptiveTimeoutMinMillis=" + adaptiveTimeoutMinMillis
+            + ", streamingDiscovery=" + streamingDiscovery
+            + ", cloudMapNamespace='" + cloudMapNamespace + '\''
+            + ", cloudMapService='" + cloudMapService + '\''
+            + ", cloudMapAttributes=" + cloudMapAttributes
+            + ", cloudMapCacheSeconds=" + cloudMapCacheSeconds
+            + ", autoScalingGroup='" + autoScalingGroup + '\''
+            + ", instanceStatusCheck=" + instanceStatusCheck
+            + ", addressFamily='" + addressFamily + '\''
+            + ", dualStackEndpoints=" + dualStackEndpoints
+            + ", eventQueueUrl='" + eventQueueUrl + '\''
+            + ", terminationWatchPeriodSeconds=" + terminationWatchPeriodSeconds
+            + ", startupQuorum='" + startupQuorum + '\''
+            + ", startupQuorumTimeoutSeconds=" + startupQuorumTimeoutSeconds
+            + ", discoveryListeners=" + discoveryListeners
+            + ", terminationListeners=" + terminationListeners
             + '}';
     }
 
@@ -222,6 +811,7 @@ final class AwsConfig {
         private String accessKey;
         private String secretKey;
         private String region;
+        private String regions;
         private String iamRole;
         private String hostHeader;
         private String securityGroupName;
@@ -234,6 +824,36 @@ final class AwsConfig {
         private String cluster;
         private String family;
         private String serviceName;
+        private boolean preferSameZone;
+        private int refreshPeriodSeconds;
+        private int refreshJitterSeconds;
+        private String assumeRoleArn;
+        private String assumeRoleExternalId;
+        private int assumeRoleSessionDurationSeconds;
+        private String profile;
+        private int circuitBreakerFailureThreshold;
+        private int circuitBreakerOpenSeconds;
+        private int hedgePercentile;
+        private int hedgeBudgetPercent;
+        private int connectionTimeoutMillis;
+        private int readTimeoutMillis;
+        private int adaptiveTimeoutMultiplier;
+        private int adaptiveTimeoutMinMillis;
+        private boolean streamingDiscovery;
+        private String cloudMapNamespace;
+        private String cloudMapService;
+        private String cloudMapAttributes;
+        private int cloudMapCacheSeconds;
+        private String autoScalingGroup;
+        private boolean instanceStatusCheck;
+        private String addressFamily;
+        private boolean dualStackEndpoints;
+        private String eventQueueUrl;
+        private int terminationWatchPeriodSeconds;
+        private String startupQuorum;
+        private int startupQuorumTimeoutSeconds;
+        private String discoveryListeners;
+        private String terminationListeners;
 
         Builder setAccessKey(String accessKey) {
             this.accessKey = accessKey;
@@ -250,6 +870,11 @@ final class AwsConfig {
             return this;
         }
 
+        Builder setRegions(String regions) {
+            this.regions = regions;
+            return this;
+        }
+
         Builder setIamRole(String iamRole) {
             this.iamRole = iamRole;
             return this;
@@ -310,9 +935,167 @@ final class AwsConfig {
             return this;
         }
 
+        Builder setPreferSameZone(boolean preferSameZone) {
+            this.preferSameZone = preferSameZone;
+            return this;
+        }
+
+        Builder setRefreshPeriodSeconds(int refreshPeriodSeconds) {
+            this.refreshPeriodSeconds = refreshPeriodSeconds;
+            return this;
+        }
+
+        Builder setRefreshJitterSeconds(int refreshJitterSeconds) {
+            this.refreshJitterSeconds = refreshJitterSeconds;
+            return this;
+        }
+
+        Builder setAssumeRoleArn(String assumeRoleArn) {
+            this.assumeRoleArn = assumeRoleArn;
+            return this;
+        }
+
+        Builder setAssumeRoleExternalId(String assumeRoleExternalId) {
+            this.assumeRoleExternalId = assumeRoleExternalId;
+            return this;
+        }
+
+        Builder setAssumeRoleSessionDurationSeconds(int assumeRoleSessionDurationSeconds) {
+            this.assumeRoleSessionDurationSeconds = assumeRoleSessionDurationSeconds;
+            return this;
+        }
+
+        Builder setProfile(String profile) {
+            this.profile = profile;
+            return this;
+        }
+
+        Builder setCircuitBreakerFailureThreshold(int circuitBreakerFailureThreshold) {
+            this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+            return this;
+        }
+
+        Builder setCircuitBreakerOpenSeconds(int circuitBreakerOpenSeconds) {
+            this.circuitBreakerOpenSeconds = circuitBreakerOpenSeconds;
+            return this;
+        }
+
+        Builder setHedgePercentile(int hedgePercentile) {
+            this.hedgePercentile = hedgePercentile;
+            return this;
+        }
+
+        Builder setHedgeBudgetPercent(int hedgeBudgetPercent) {
+            this.hedgeBudgetPercent = hedgeBudgetPercent;
+            return this;
+        }
+
+        Builder setConnectionTimeoutMillis(int connectionTimeoutMillis) {
+            this.connectionTimeoutMillis = connectionTimeoutMillis;
+            return this;
+        }
+
+        Builder setReadTimeoutMillis(int readTimeoutMillis) {
+            this.readTimeoutMillis = readTimeoutMillis;
+            return this;
+        }
+
+        Builder setAdaptiveTimeoutMultiplier(int adaptiveTimeoutMultiplier) {
+            this.adaptiveTimeoutMultiplier = adaptiveTimeoutMultiplier;
+            return this;
+        }
+
+        Builder setAdaptiveTimeoutMinMillis(int adaptiveTimeoutMinMillis) {
+            this.adaptiveTimeoutMinMillis = adaptiveTimeoutMinMillis;
+            return this;
+        }
+
+        Builder setStreamingDiscovery(boolean streamingDiscovery) {
+            this.streamingDiscovery = streamingDiscovery;
+            return this;
+        }
+
+        Builder setCloudMapNamespace(String cloudMapNamespace) {
+            this.cloudMapNamespace = cloudMapNamespace;
+            return this;
+        }
+
+        Builder setCloudMapService(String cloudMapService) {
+            this.cloudMapService = cloudMapService;
+            return this;
+        }
+
+        Builder setCloudMapAttributes(String cloudMapAttributes) {
+            this.cloudMapAttributes = cloudMapAttributes;
+            return this;
+        }
+
+        Builder setCloudMapCacheSeconds(int cloudMapCacheSeconds) {
+            this.cloudMapCacheSeconds = cloudMapCacheSeconds;
+            return this;
+        }
+
+        Builder setAutoScalingGroup(String autoScalingGroup) {
+            this.autoScalingGroup = autoScalingGroup;
+            return this;
+        }
+
+        Builder setInstanceStatusCheck(boolean instanceStatusCheck) {
+            this.instanceStatusCheck = instanceStatusCheck;
+            return this;
+        }
+
+        Builder setAddressFamily(String addressFamily) {
+            this.addressFamily = addressFamily;
+            return this;
+        }
+
+        Builder setDualStackEndpoints(boolean dualStackEndpoints) {
+            this.dualStackEndpoints = dualStackEndpoints;
+            return this;
+        }
+
+        Builder setEventQueueUrl(String eventQueueUrl) {
+            this.eventQueueUrl = eventQueueUrl;
+            return this;
+        }
+
+        Builder setTerminationWatchPeriodSeconds(int terminationWatchPeriodSeconds) {
+            this.terminationWatchPeriodSeconds = terminationWatchPeriodSeconds;
+            return this;
+        }
+
+        Builder setStartupQuorum(String startupQuorum) {
+            this.startupQuorum = startupQuorum;
+            return this;
+        }
+
+        Builder setStartupQuorumTimeoutSeconds(int startupQuorumTimeoutSeconds) {
+            this.startupQuorumTimeoutSeconds = startupQuorumTimeoutSeconds;
+            return this;
+        }
+
+        Builder setDiscoveryListeners(String discoveryListeners) {
+            this.discoveryListeners = discoveryListeners;
+            return this;
+        }
+
+        Builder setTerminationListeners(String terminationListeners) {
+            this.terminationListeners = terminationListeners;
+            return this;
+        }
+
         AwsConfig build() {
-            return new AwsConfig(accessKey, secretKey, region, iamRole, hostHeader, securityGroupName, tagKey, tagValue,
-                connectionTimeoutSeconds, connectionRetries, readTimeoutSeconds, hzPort, cluster, family, serviceName);
+            return new AwsConfig(accessKey, secretKey, region, regions, iamRole, hostHeader, securityGroupName, tagKey,
+                tagValue, connectionTimeoutSeconds, connectionRetries, readTimeoutSeconds, hzPort, cluster, family,
+                serviceName, preferSameZone, refreshPeriodSeconds, refreshJitterSeconds, assumeRoleArn,
+                assumeRoleExternalId, assumeRoleSessionDurationSeconds, profile, circuitBreakerFailureThreshold,
+                circuitBreakerOpenSeconds, hedgePercentile, hedgeBudgetPercent, connectionTimeoutMillis,
+                readTimeoutMillis, adaptiveTimeoutMultiplier, adaptiveTimeoutMinMillis, streamingDiscovery,
+                cloudMapNamespace, cloudMapService, cloudMapAttributes, cloudMapCacheSeconds, autoScalingGroup,
+                instanceStatusCheck, addressFamily, dualStackEndpoints, eventQueueUrl,
+                terminationWatchPeriodSeconds, startupQuorum, startupQuorumTimeoutSeconds, discoveryListeners,
+                terminationListeners);
         }
     }
 }
@@ -17,7 +17,12 @@ package com.hazelcast.aws;
 
 import java.util.Objects;
 
-final class AwsCredentials {
+/**
+ * Credentials used to sign AWS API requests.
+ * <p>
+ * Custom {@link AwsCredentialsSource} implementations create them with {@link #builder()}.
+ */
+public final class AwsCredentials {
     private String accessKey;
     private String secretKey;
     private String token;
@@ -28,43 +33,43 @@ final class AwsCredentials {
         this.token = token;
     }
 
-    String getAccessKey() {
+    public String getAccessKey() {
         return accessKey;
     }
 
-    String getSecretKey() {
+    public String getSecretKey() {
         return secretKey;
     }
 
-    String getToken() {
+    public String getToken() {
         return token;
     }
 
-    static Builder builder() {
+    public static Builder builder() {
         return new Builder();
     }
 
-    static class Builder {
+    public static class Builder {
         private String accessKey;
         private String secretKey;
         private String token;
 
-        Builder setAccessKey(String accessKey) {
+        public Builder setAccessKey(String accessKey) {
             this.accessKey = accessKey;
             return this;
         }
 
-        Builder setSecretKey(String secretKey) {
+        public Builder setSecretKey(String secretKey) {
             this.secretKey = secretKey;
             return this;
         }
 
-        Builder setToken(String token) {
+        public Builder setToken(String token) {
             this.token = token;
             return this;
         }
 
-        AwsCredentials build() {
+        public AwsCredentials build() {
             return new AwsCredentials(accessKey, secretKey, token);
         }
     }
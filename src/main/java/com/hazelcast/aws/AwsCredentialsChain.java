@@ -0,0 +1,180 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Chain of {@link AwsCredentialsSource}s.
+ * <p>
+ * The sources are probed in parallel, so that a slow source (e.g. EC2 Instance Metadata when not running on EC2) does
+ * not delay the others. The available source with the lowest order wins; a source which does not respond before the
+ * deadline is skipped. The winner is remembered and the sources are probed again only when it stops providing
+ * credentials or fails.
+ * <p>
+ * All the chains share a single pool of probe threads, which are started on demand and stop when idle.
+ */
+class AwsCredentialsChain {
+    private static final ILogger LOGGER = Logger.getLogger(AwsCredentialsChain.class);
+    private static final long PROBE_THREAD_KEEP_ALIVE_SECONDS = 60;
+    private static final ExecutorService PROBE_EXECUTOR = createProbeExecutor();
+
+    private final List<AwsCredentialsSource> sources;
+    private final long probeTimeoutMillis;
+    private final SingleFlight<AwsCredentials> probeCall = new SingleFlight<>();
+
+    private volatile AwsCredentialsSource winner;
+
+    AwsCredentialsChain(List<AwsCredentialsSource> sources, long probeTimeoutMillis) {
+        this.sources = new ArrayList<>(sources);
+        this.sources.sort(Comparator.comparingInt(AwsCredentialsSource::order));
+        this.probeTimeoutMillis = probeTimeoutMillis;
+    }
+
+    /**
+     * Creates a source from the given supplier.
+     */
+    static AwsCredentialsSource source(String name, int order, Supplier<AwsCredentials> supplier) {
+        return new AwsCredentialsSource() {
+            @Override
+            public AwsCredentials credentials() {
+                return supplier.get();
+            }
+
+            @Override
+            public int order() {
+                return order;
+            }
+
+            @Override
+            public String name() {
+                return name;
+            }
+        };
+    }
+
+    AwsCredentials credentials() {
+        AwsCredentialsSource current = winner;
+        if (current != null) {
+            try {
+                AwsCredentials credentials = current.credentials();
+                if (credentials != null) {
+                    return credentials;
+                }
+                LOGGER.info(String.format("AWS credentials are no longer available from %s", current.name()));
+            } catch (RuntimeException e) {
+                if (sources.size() == 1) {
+                    throw e;
+                }
+                LOGGER.info(String.format("Cannot get AWS credentials from %s, probing the other sources: %s",
+                    current.name(), e.getMessage()));
+                LOGGER.finest(e);
+            }
+            winner = null;
+        }
+        return probeCall.call(this::probe);
+    }
+
+    private AwsCredentials probe() {
+        if (sources.size() == 1) {
+            // explicitly configured source, no need to probe in parallel
+            return select(sources.get(0), sources.get(0).credentials());
+        }
+
+        List<Future<AwsCredentials>> futures = new ArrayList<>();
+        try {
+            for (AwsCredentialsSource source : sources) {
+                futures.add(PROBE_EXECUTOR.submit(source::credentials));
+            }
+            return awaitWinner(futures);
+        } finally {
+            // the sources after the winner and the timed out ones are not needed anymore
+            for (Future<AwsCredentials> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private AwsCredentials awaitWinner(List<Future<AwsCredentials>> futures) {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(probeTimeoutMillis);
+        RuntimeException firstFailure = null;
+        for (int i = 0; i < sources.size(); i++) {
+            AwsCredentialsSource source = sources.get(i);
+            try {
+                long remainingNanos = Math.max(0, deadlineNanos - System.nanoTime());
+                AwsCredentials credentials = futures.get(i).get(remainingNanos, TimeUnit.NANOSECONDS);
+                if (credentials != null) {
+                    return select(source, credentials);
+                }
+            } catch (TimeoutException e) {
+                LOGGER.fine(String.format("Probing AWS credentials from %s timed out", source.name()));
+            } catch (ExecutionException e) {
+                LOGGER.fine(String.format("Cannot get AWS credentials from %s", source.name()), e.getCause());
+                if (firstFailure == null) {
+                    firstFailure = toRuntimeException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new HazelcastException("Interrupted while probing AWS credentials", e);
+            }
+        }
+        if (firstFailure != null) {
+            throw firstFailure;
+        }
+        throw new NoCredentialsException();
+    }
+
+    private AwsCredentials select(AwsCredentialsSource source, AwsCredentials credentials) {
+        if (credentials == null) {
+            throw new NoCredentialsException();
+        }
+        LOGGER.info(String.format("Using AWS credentials from %s", source.name()));
+        winner = source;
+        return credentials;
+    }
+
+    private static ExecutorService createProbeExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, PROBE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), r -> {
+                Thread thread = new Thread(r, "hz.aws.credentials.probe-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    private static RuntimeException toRuntimeException(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        return new HazelcastException(t);
+    }
+}
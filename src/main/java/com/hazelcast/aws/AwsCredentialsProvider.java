@@ -19,91 +19,199 @@ import com.hazelcast.config.InvalidConfigurationException;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import static com.hazelcast.aws.AwsCredentialsChain.source;
+import static java.util.Collections.singletonList;
+
+/**
+ * Provides the credentials used to sign AWS API requests.
+ * <p>
+ * The credentials configured explicitly ({@code access-key}/{@code secret-key}, {@code iam-role} or {@code profile})
+ * take precedence. Otherwise, the credentials are resolved by the chain of {@link AwsCredentialsSource}s. The chain is
+ * probed on the first use, so the probing does not delay the startup; only an explicitly configured {@code profile} is
+ * read at creation, so that a missing profile fails fast as an invalid configuration.
+ */
 class AwsCredentialsProvider {
     private static final ILogger LOGGER = Logger.getLogger(AwsCredentialsProvider.class);
 
     private static final int HTTP_NOT_FOUND = 404;
+    private static final long MIN_PROBE_TIMEOUT_MILLIS = 1000;
 
     private final AwsConfig awsConfig;
     private final AwsMetadataApi awsMetadataApi;
     private final Environment environment;
-    private final String ec2IamRole;
+    private final AwsCredentialsChain credentialsChain;
+    private final AwsAssumeRoleCredentialsProvider assumeRoleCredentialsProvider;
+
+    private volatile String ec2IamRole;
 
     AwsCredentialsProvider(AwsConfig awsConfig, AwsMetadataApi awsMetadataApi, Environment environment) {
+        this(awsConfig, awsMetadataApi, environment, null);
+    }
+
+    /**
+     * @param awsStsApi STS API used to assume the configured role or the web identity role, {@code null} if no role
+     *                  should be assumed
+     */
+    AwsCredentialsProvider(AwsConfig awsConfig, AwsMetadataApi awsMetadataApi, Environment environment,
+                           AwsStsApi awsStsApi) {
         this.awsConfig = awsConfig;
         this.awsMetadataApi = awsMetadataApi;
         this.environment = environment;
-        this.ec2IamRole = resolveEc2IamRole();
+        this.credentialsChain = new AwsCredentialsChain(createSources(awsStsApi), probeTimeoutMillis(awsConfig));
+        this.assumeRoleCredentialsProvider = awsStsApi == null || StringUtils.isEmpty(awsConfig.getAssumeRoleArn()) ? null
+            : new AwsAssumeRoleCredentialsProvider(awsStsApi, awsConfig, credentialsChain::credentials);
     }
 
-    private String resolveEc2IamRole() {
+    private static long probeTimeoutMillis(AwsConfig awsConfig) {
+        long timeoutMillis = (long) awsConfig.getConnectionTimeoutMillis() + awsConfig.getReadTimeoutMillis();
+        return Math.max(MIN_PROBE_TIMEOUT_MILLIS, timeoutMillis);
+    }
+
+    private List<AwsCredentialsSource> createSources(AwsStsApi awsStsApi) {
         if (StringUtils.isNotEmpty(awsConfig.getAccessKey())) {
-            // no need to resolve IAM Role, since using hardcoded Access/Secret keys takes precedence
-            return null;
+            return singletonList(source("configured access keys", 0, this::configuredCredentials));
         }
-
-        if (StringUtils.isNotEmpty(awsConfig.getIamRole()) && !"DEFAULT".equals(awsConfig.getIamRole())) {
-            return awsConfig.getIamRole();
+        if (StringUtils.isNotEmpty(awsConfig.getIamRole())) {
+            return singletonList(source("IAM Role attached to EC2 Instance", AwsCredentialsSource.EC2_ORDER,
+                this::ec2Credentials));
+        }
+        if (StringUtils.isNotEmpty(awsConfig.getProfile())) {
+            return singletonList(createRequiredProfileSource());
         }
 
-        if (environment.isRunningOnEcs()) {
-            // ECS has only one role assigned and no need to resolve it here
-            LOGGER.info("Using IAM Task Role attached to ECS Task");
-            return null;
+        List<AwsCredentialsSource> sources = new ArrayList<>();
+        sources.add(source("environment variables", AwsCredentialsSource.ENVIRONMENT_ORDER, this::environmentCredentials));
+        if (environment.getSharedCredentialsFile() != null) {
+            sources.add(createProfileSource());
+        }
+        if (awsStsApi != null && environment.isWebIdentityConfigured()) {
+            AwsWebIdentityCredentialsProvider webIdentity = new AwsWebIdentityCredentialsProvider(awsStsApi, environment);
+            sources.add(source(String.format("web identity IAM Role '%s'", environment.getWebIdentityRoleArn()),
+                AwsCredentialsSource.WEB_IDENTITY_ORDER, webIdentity::credentials));
         }
+        sources.add(source("IAM Task Role attached to ECS Task", AwsCredentialsSource.ECS_ORDER, this::ecsCredentials));
+        sources.add(source("IAM Role attached to EC2 Instance", AwsCredentialsSource.EC2_ORDER, this::ec2Credentials));
+        for (AwsCredentialsSource customSource : ServiceLoader.load(AwsCredentialsSource.class)) {
+            LOGGER.fine(String.format("Found custom AWS credentials source: %s", customSource.name()));
+            sources.add(customSource);
+        }
+        return sources;
+    }
 
-        try {
-            String ec2IamRole = awsMetadataApi.defaultIamRoleEc2();
-            LOGGER.info(String.format("Using IAM Role attached to EC2 Instance: '%s'", ec2IamRole));
-            return ec2IamRole;
-        } catch (RestClientException e) {
-            if (e.getHttpErrorCode() == HTTP_NOT_FOUND) {
-                // no IAM Role attached to EC2 instance, no need to log any warning at this point
-                LOGGER.finest("IAM Role not found", e);
-            } else {
-                LOGGER.warning("Couldn't retrieve IAM Role from EC2 instance", e);
+    private AwsCredentialsSource createProfileSource() {
+        AwsProfileCredentialsProvider provider = new AwsProfileCredentialsProvider(
+            new AwsProfileFile(Paths.get(environment.getSharedCredentialsFile())),
+            AwsProfileFile.profileName(awsConfig, environment));
+        return source(String.format("profile '%s' of the shared credentials file %s", provider.getProfileName(),
+            environment.getSharedCredentialsFile()), AwsCredentialsSource.PROFILE_ORDER, provider::credentials);
+    }
+
+    private AwsCredentialsSource createRequiredProfileSource() {
+        if (environment.getSharedCredentialsFile() != null) {
+            AwsCredentialsSource profileSource = createProfileSource();
+            if (profileSource.credentials() != null) {
+                return profileSource;
             }
-        } catch (Exception e) {
-            LOGGER.warning("Couldn't retrieve IAM Role from EC2 instance", e);
         }
-        return null;
+        throw new InvalidConfigurationException(String.format("No credentials found for profile '%s' in the shared"
+            + " credentials file: %s", awsConfig.getProfile(), environment.getSharedCredentialsFile()));
     }
 
     AwsCredentials credentials() {
-        if (StringUtils.isNotEmpty(awsConfig.getAccessKey())) {
-            return AwsCredentials.builder()
-                .setAccessKey(awsConfig.getAccessKey())
-                .setSecretKey(awsConfig.getSecretKey())
-                .build();
+        if (assumeRoleCredentialsProvider != null) {
+            return assumeRoleCredentialsProvider.credentials();
         }
-        if (StringUtils.isNotEmpty(ec2IamRole)) {
-            return fetchCredentialsFromEc2();
+        return credentialsChain.credentials();
+    }
+
+    private AwsCredentials configuredCredentials() {
+        return AwsCredentials.builder()
+            .setAccessKey(awsConfig.getAccessKey())
+            .setSecretKey(awsConfig.getSecretKey())
+            .build();
+    }
+
+    private AwsCredentials environmentCredentials() {
+        if (StringUtils.isEmpty(environment.getAccessKeyId()) || StringUtils.isEmpty(environment.getSecretAccessKey())) {
+            return null;
         }
-        if (environment.isRunningOnEcs()) {
-            return fetchCredentialsFromEcs();
+        return AwsCredentials.builder()
+            .setAccessKey(environment.getAccessKeyId())
+            .setSecretKey(environment.getSecretAccessKey())
+            .setToken(environment.getSessionToken())
+            .build();
+    }
+
+    private AwsCredentials ecsCredentials() {
+        if (!environment.isRunningOnEcs()) {
+            return null;
+        }
+        LOGGER.fine("Fetching AWS Credentials from ECS IAM Task Role");
+
+        try {
+            return awsMetadataApi.credentialsEcs();
+        } catch (Exception e) {
+            throw new InvalidConfigurationException("Unable to retrieve credentials from IAM Role attached to ECS Task,"
+                + " please check your configuration");
         }
-        throw new NoCredentialsException();
     }
 
-    private AwsCredentials fetchCredentialsFromEc2() {
-        LOGGER.fine(String.format("Fetching AWS Credentials using EC2 IAM Role: %s", ec2IamRole));
+    private AwsCredentials ec2Credentials() {
+        String iamRole = resolveEc2IamRole();
+        if (StringUtils.isEmpty(iamRole)) {
+            return null;
+        }
+        LOGGER.fine(String.format("Fetching AWS Credentials using EC2 IAM Role: %s", iamRole));
 
         try {
-            return awsMetadataApi.credentialsEc2(ec2IamRole);
+            return awsMetadataApi.credentialsEc2(iamRole);
         } catch (Exception e) {
             throw new InvalidConfigurationException(String.format("Unable to retrieve credentials from IAM Role: "
-                + "'%s', please make sure it's attached to your EC2 Instance", awsConfig.getIamRole()), e);
+                + "'%s', please make sure it's attached to your EC2 Instance", iamRole), e);
         }
     }
 
-    private AwsCredentials fetchCredentialsFromEcs() {
-        LOGGER.fine("Fetching AWS Credentials from ECS IAM Task Role");
+    /**
+     * Returns the configured IAM Role or the default IAM Role attached to the EC2 Instance; {@code null} if there is no
+     * role. The resolved role is cached.
+     */
+    private String resolveEc2IamRole() {
+        if (ec2IamRole != null) {
+            return ec2IamRole;
+        }
+
+        if (StringUtils.isNotEmpty(awsConfig.getIamRole()) && !"DEFAULT".equals(awsConfig.getIamRole())) {
+            ec2IamRole = awsConfig.getIamRole();
+            return ec2IamRole;
+        }
+
+        if (environment.isRunningOnEcs()) {
+            // ECS has only one role assigned and no need to resolve it here
+            return null;
+        }
 
         try {
-            return awsMetadataApi.credentialsEcs();
+            String defaultIamRole = awsMetadataApi.defaultIamRoleEc2();
+            if (StringUtils.isNotEmpty(defaultIamRole)) {
+                LOGGER.info(String.format("Found IAM Role attached to EC2 Instance: '%s'", defaultIamRole));
+                ec2IamRole = defaultIamRole;
+            }
+            return defaultIamRole;
+        } catch (RestClientException e) {
+            if (e.getHttpErrorCode() == HTTP_NOT_FOUND) {
+                // no IAM Role attached to EC2 instance, no need to log any warning at this point
+                LOGGER.finest("IAM Role not found", e);
+            } else {
+                LOGGER.fine("Couldn't retrieve IAM Role from EC2 instance", e);
+            }
         } catch (Exception e) {
-            throw new InvalidConfigurationException("Unable to retrieve credentials from IAM Role attached to ECS Task,"
-                + " please check your configuration");
+            LOGGER.fine("Couldn't retrieve IAM Role from EC2 instance", e);
         }
+        return null;
     }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+/**
+ * Source of the credentials used to sign AWS API requests.
+ * <p>
+ * If no credentials are configured explicitly ({@code access-key}/{@code secret-key}, {@code iam-role} or
+ * {@code profile}), all the sources are probed in parallel and the credentials are taken from the available source with
+ * the lowest {@link #order()}. The built-in sources are, in this order:
+ * <ol>
+ *     <li>environment variables {@code AWS_ACCESS_KEY_ID}, {@code AWS_SECRET_ACCESS_KEY} and {@code AWS_SESSION_TOKEN}
+ *     ({@value #ENVIRONMENT_ORDER})</li>
+ *     <li>profile from the shared credentials file ({@value #PROFILE_ORDER})</li>
+ *     <li>web identity token, e.g. IAM Roles for Service Accounts on EKS ({@value #WEB_IDENTITY_ORDER})</li>
+ *     <li>IAM Task Role of an ECS Task ({@value #ECS_ORDER})</li>
+ *     <li>IAM Role attached to an EC2 Instance ({@value #EC2_ORDER})</li>
+ * </ol>
+ * The source found is remembered and the sources are probed again only if it stops providing credentials.
+ * <p>
+ * Custom sources are loaded with {@link java.util.ServiceLoader}: list the implementation class in
+ * {@code META-INF/services/com.hazelcast.aws.AwsCredentialsSource}. The implementation must have a public no-arg
+ * constructor and be thread-safe.
+ */
+public interface AwsCredentialsSource {
+    /**
+     * Order of the environment variables source.
+     */
+    int ENVIRONMENT_ORDER = 100;
+    /**
+     * Order of the shared credentials file profile source.
+     */
+    int PROFILE_ORDER = 200;
+    /**
+     * Order of the web identity token source.
+     */
+    int WEB_IDENTITY_ORDER = 300;
+    /**
+     * Order of the ECS IAM Task Role source.
+     */
+    int ECS_ORDER = 400;
+    /**
+     * Order of the EC2 IAM Role source.
+     */
+    int EC2_ORDER = 500;
+    /**
+     * Default order of the custom sources.
+     */
+    int DEFAULT_ORDER = 1000;
+
+    /**
+     * Returns the credentials or {@code null} if this source is not available in the current environment.
+     * <p>
+     * It is called before every AWS API request once this source is selected, so it should cache the credentials if
+     * fetching them is expensive.
+     */
+    AwsCredentials credentials();
+
+    /**
+     * Returns the position in the chain of sources; the sources with lower values take precedence.
+     */
+    default int order() {
+        return DEFAULT_ORDER;
+    }
+
+    /**
+     * Returns the name of the source used in the log messages.
+     */
+    default String name() {
+        return getClass().getName();
+    }
+}
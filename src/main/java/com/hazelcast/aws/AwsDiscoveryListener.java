@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.spi.discovery.DiscoveryNode;
+
+import java.util.Collection;
+import java.util.EventListener;
+
+/**
+ * Listener notified about the members found or lost by the background discovery refresh of
+ * {@link AwsDiscoveryStrategy}.
+ * <p>
+ * Listeners are called from a single background thread, in the order of the changes; a slow listener delays the
+ * notifications of the later changes, but not the discovery itself.
+ *
+ * @see AwsProperties#REFRESH_PERIOD_SECONDS
+ */
+public interface AwsDiscoveryListener extends EventListener {
+
+    /**
+     * Called when new members are discovered.
+     *
+     * @param nodes discovered nodes (one for each port of the configured port range)
+     */
+    void nodesAdded(Collection<DiscoveryNode> nodes);
+
+    /**
+     * Called when previously discovered members are not found anymore.
+     *
+     * @param nodes lost nodes (one for each port of the configured port range)
+     */
+    void nodesRemoved(Collection<DiscoveryNode> nodes);
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * Periodically discovers members in a background thread, keeps the last discovered members and reports the members
+ * which were added or removed since the previous refresh.
+ * <p>
+ * Every refresh is scheduled with the configured period plus a random jitter, so that members started at the same
+ * time do not call AWS API at the same time.
+ * <p>
+ * If a {@link AwsStateChangeQueue} is given, the state changes received from it are applied to the last discovered
+ * members in another background thread as soon as they arrive, and the periodic refresh only reconciles the members
+ * with AWS API in case an event was lost.
+ * <p>
+ * The members may also be fetched outside of the refresh thread (see {@link #fetch(Supplier)}); a fetch result is
+ * dropped if the result of a fetch started later has already been applied, so an older result never replaces a newer
+ * one. For the same reason, the state changes applied while a fetch is in flight are applied again to its result, since
+ * the fetch may have listed the members before the changes.
+ * <p>
+ * The listener is notified in another background thread, in the order of the changes, so a slow listener does not delay
+ * the refresh, the state changes or the fetches.
+ */
+class AwsDiscoveryRefresher {
+    private static final ILogger LOGGER = Logger.getLogger(AwsDiscoveryRefresher.class);
+    private static final long EVENT_RETRY_MILLIS = 5000L;
+
+    private final Supplier<Map<String, AwsNode>> addressSupplier;
+    private final ChangeListener changeListener;
+    private final long periodMillis;
+    private final long jitterMillis;
+    private final ScheduledExecutorService executor;
+    private final AwsStateChangeQueue stateChangeQueue;
+    private final ExecutorService eventExecutor;
+    private final ExecutorService listenerExecutor;
+    private final AtomicLong fetchSequence = new AtomicLong();
+    // guarded by this
+    private final List<StateChange> stateChangesDuringFetch = new ArrayList<>();
+
+    private volatile Map<String, AwsNode> addresses;
+    // guarded by this
+    private long appliedFetchSequence;
+    private boolean isRefreshFailureAlreadyLogged;
+    private boolean isEventFailureAlreadyLogged;
+
+    AwsDiscoveryRefresher(Supplier<Map<String, AwsNode>> addressSupplier, ChangeListener changeListener,
+                          long periodMillis, long jitterMillis) {
+        this(addressSupplier, changeListener, periodMillis, jitterMillis, null);
+    }
+
+    AwsDiscoveryRefresher(Supplier<Map<String, AwsNode>> addressSupplier, ChangeListener changeListener,
+                          long periodMillis, long jitterMillis, AwsStateChangeQueue stateChangeQueue) {
+        this.addressSupplier = addressSupplier;
+        this.changeListener = changeListener;
+        this.periodMillis = periodMillis;
+        this.jitterMillis = jitterMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> daemonThread(r, "hz.aws.discovery.refresher"));
+        this.stateChangeQueue = stateChangeQueue;
+        this.eventExecutor = stateChangeQueue == null
+            ? null
+            : Executors.newSingleThreadExecutor(r -> daemonThread(r, "hz.aws.discovery.events"));
+        this.listenerExecutor = Executors.newSingleThreadExecutor(r -> daemonThread(r, "hz.aws.discovery.listeners"));
+    }
+
+    private static Thread daemonThread(Runnable r, String name) {
+        Thread thread = new Thread(r, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    void start() {
+        executor.execute(this::refreshAndReschedule);
+        if (eventExecutor != null) {
+            eventExecutor.execute(this::receiveEvents);
+        }
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+        if (eventExecutor != null) {
+            eventExecutor.shutdownNow();
+        }
+        listenerExecutor.shutdown();
+    }
+
+    /**
+     * Returns the last discovered members or {@code null} if no discovery has succeeded yet.
+     */
+    Map<String, AwsNode> getAddresses() {
+        return addresses;
+    }
+
+    private void refreshAndReschedule() {
+        try {
+            fetch(addressSupplier);
+            isRefreshFailureAlreadyLogged = false;
+        } catch (Exception e) {
+            if (!isRefreshFailureAlreadyLogged) {
+                LOGGER.warning("Cannot refresh the discovered members, keeping the previous result", e);
+                isRefreshFailureAlreadyLogged = true;
+            } else {
+                LOGGER.finest(e);
+            }
+        } finally {
+            if (!executor.isShutdown()) {
+                executor.schedule(this::refreshAndReschedule, nextDelayMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Fetches the members with {@code supplier} and applies them, unless the result of a fetch started later has
+     * already been applied in the meantime.
+     */
+    Map<String, AwsNode> fetch(Supplier<Map<String, AwsNode>> supplier) {
+        long sequence = fetchSequence.incrementAndGet();
+        return update(sequence, supplier.get());
+    }
+
+    private synchronized Map<String, AwsNode> update(long sequence, Map<String, AwsNode> newAddresses) {
+        if (sequence < appliedFetchSequence) {
+            LOGGER.finest("Dropping the discovered members, a newer discovery result has already been applied");
+            return newAddresses;
+        }
+        appliedFetchSequence = sequence;
+        stateChangesDuringFetch.removeIf(stateChange -> stateChange.fetchSequence < sequence);
+        Map<String, AwsNode> result = newAddresses;
+        for (StateChange stateChange : stateChangesDuringFetch) {
+            result = stateChange.batch.applyTo(result);
+        }
+        update(result);
+        return addresses;
+    }
+
+    private void receiveEvents() {
+        while (!eventExecutor.isShutdown()) {
+            try {
+                AwsStateChangeQueue.Batch batch = stateChangeQueue.receive();
+                apply(batch);
+                stateChangeQueue.acknowledge(batch);
+                isEventFailureAlreadyLogged = false;
+            } catch (Exception e) {
+                if (!isEventFailureAlreadyLogged) {
+                    LOGGER.warning("Cannot receive the member state changes, relying on the periodic refresh", e);
+                    isEventFailureAlreadyLogged = true;
+                } else {
+                    LOGGER.finest(e);
+                }
+                try {
+                    Thread.sleep(EVENT_RETRY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the state changes to the last discovered members. The changes received while a fetch is in flight
+     * (including the first one) are kept and applied again to its result once it completes.
+     */
+    synchronized void apply(AwsStateChangeQueue.Batch batch) {
+        if (!batch.hasChanges()) {
+            return;
+        }
+        long sequence = fetchSequence.get();
+        if (sequence > appliedFetchSequence) {
+            stateChangesDuringFetch.add(new StateChange(sequence, batch));
+        }
+        if (addresses != null) {
+            LOGGER.fine("Applying member state changes: " + batch);
+            update(batch.applyTo(addresses));
+        }
+    }
+
+    private long nextDelayMillis() {
+        return periodMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+    }
+
+    /**
+     * Replaces the last discovered members and notifies the listener about the differences, after this method returns
+     * and outside of the lock. A member whose public address or placement changed is reported as removed and added
+     * again.
+     */
+    synchronized void update(Map<String, AwsNode> newAddresses) {
+        Map<String, AwsNode> oldAddresses = addresses;
+        addresses = unmodifiableMap(newAddresses);
+
+        List<AwsNode> added = new ArrayList<>();
+        List<AwsNode> removed = new ArrayList<>();
+        for (AwsNode node : newAddresses.values()) {
+            AwsNode oldNode = oldAddresses == null ? null : oldAddresses.get(node.getPrivateAddress());
+            if (!node.equals(oldNode)) {
+                added.add(node);
+                if (oldNode != null) {
+                    removed.add(oldNode);
+                }
+            }
+        }
+        if (oldAddresses != null) {
+            for (AwsNode oldNode : oldAddresses.values()) {
+                if (!newAddresses.containsKey(oldNode.getPrivateAddress())) {
+                    removed.add(oldNode);
+                }
+            }
+        }
+
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            LOGGER.fine(String.format("Discovered members changed, added: %s, removed: %s", added, removed));
+            // submitted under the lock, so the listener is notified in the order of the changes
+            try {
+                listenerExecutor.execute(() -> notifyListener(added, removed));
+            } catch (RejectedExecutionException e) {
+                LOGGER.finest("Not notifying the discovery listener, the refresher is shut down");
+            }
+        }
+    }
+
+    private void notifyListener(Collection<AwsNode> added, Collection<AwsNode> removed) {
+        try {
+            changeListener.onChange(added, removed);
+        } catch (Exception e) {
+            LOGGER.warning("Discovery listener failed", e);
+        }
+    }
+
+    /**
+     * State changes applied after the fetch with the given sequence number was started.
+     */
+    private static final class StateChange {
+        private final long fetchSequence;
+        private final AwsStateChangeQueue.Batch batch;
+
+        private StateChange(long fetchSequence, AwsStateChangeQueue.Batch batch) {
+            this.fetchSequence = fetchSequence;
+            this.batch = batch;
+        }
+    }
+
+    /**
+     * Receives the differences between two consecutive discovery results.
+     */
+    interface ChangeListener {
+        void onChange(Collection<AwsNode> added, Collection<AwsNode> removed);
+    }
+}
@@ -17,6 +17,8 @@ package com.hazelcast.aws;
 
 import com.hazelcast.cluster.Address;
 import com.hazelcast.config.InvalidConfigurationException;
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.internal.nio.ClassLoaderUtil;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.spi.discovery.AbstractDiscoveryStrategy;
@@ -25,28 +27,66 @@ import com.hazelcast.spi.discovery.DiscoveryStrategy;
 import com.hazelcast.spi.discovery.SimpleDiscoveryNode;
 import com.hazelcast.spi.partitiongroup.PartitionGroupMetaData;
 
+import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import static com.hazelcast.aws.AwsProperties.ACCESS_KEY;
+import static com.hazelcast.aws.AwsProperties.ADAPTIVE_TIMEOUT_MIN_MILLIS;
+import static com.hazelcast.aws.AwsProperties.ADAPTIVE_TIMEOUT_MULTIPLIER;
+import static com.hazelcast.aws.AwsProperties.ADDRESS_FAMILY;
+import static com.hazelcast.aws.AwsProperties.ASSUME_ROLE_ARN;
+import static com.hazelcast.aws.AwsProperties.ASSUME_ROLE_EXTERNAL_ID;
+import static com.hazelcast.aws.AwsProperties.ASSUME_ROLE_SESSION_DURATION_SECONDS;
+import static com.hazelcast.aws.AwsProperties.AUTO_SCALING_GROUP;
+import static com.hazelcast.aws.AwsProperties.CIRCUIT_BREAKER_FAILURE_THRESHOLD;
+import static com.hazelcast.aws.AwsProperties.CIRCUIT_BREAKER_OPEN_SECONDS;
+import static com.hazelcast.aws.AwsProperties.CLOUD_MAP_ATTRIBUTES;
+import static com.hazelcast.aws.AwsProperties.CLOUD_MAP_CACHE_SECONDS;
+import static com.hazelcast.aws.AwsProperties.CLOUD_MAP_NAMESPACE;
+import static com.hazelcast.aws.AwsProperties.CLOUD_MAP_SERVICE;
 import static com.hazelcast.aws.AwsProperties.CLUSTER;
 import static com.hazelcast.aws.AwsProperties.CONNECTION_RETRIES;
+import static com.hazelcast.aws.AwsProperties.CONNECTION_TIMEOUT_MILLIS;
 import static com.hazelcast.aws.AwsProperties.CONNECTION_TIMEOUT_SECONDS;
+import static com.hazelcast.aws.AwsProperties.DISCOVERY_LISTENERS;
+import static com.hazelcast.aws.AwsProperties.DUAL_STACK_ENDPOINTS;
+import static com.hazelcast.aws.AwsProperties.EVENT_QUEUE_URL;
 import static com.hazelcast.aws.AwsProperties.FAMILY;
+import static com.hazelcast.aws.AwsProperties.HEDGE_BUDGET_PERCENT;
+import static com.hazelcast.aws.AwsProperties.HEDGE_PERCENTILE;
 import static com.hazelcast.aws.AwsProperties.HOST_HEADER;
 import static com.hazelcast.aws.AwsProperties.IAM_ROLE;
+import static com.hazelcast.aws.AwsProperties.INSTANCE_STATUS_CHECK;
 import static com.hazelcast.aws.AwsProperties.PORT;
+import static com.hazelcast.aws.AwsProperties.PREFER_SAME_ZONE;
+import static com.hazelcast.aws.AwsProperties.PROFILE;
+import static com.hazelcast.aws.AwsProperties.READ_TIMEOUT_MILLIS;
 import static com.hazelcast.aws.AwsProperties.READ_TIMEOUT_SECONDS;
+import static com.hazelcast.aws.AwsProperties.REFRESH_JITTER_SECONDS;
+import static com.hazelcast.aws.AwsProperties.REFRESH_PERIOD_SECONDS;
 import static com.hazelcast.aws.AwsProperties.REGION;
+import static com.hazelcast.aws.AwsProperties.REGIONS;
 import static com.hazelcast.aws.AwsProperties.SECRET_KEY;
 import static com.hazelcast.aws.AwsProperties.SECURITY_GROUP_NAME;
 import static com.hazelcast.aws.AwsProperties.SERVICE_NAME;
+import static com.hazelcast.aws.AwsProperties.STARTUP_QUORUM;
+import static com.hazelcast.aws.AwsProperties.STARTUP_QUORUM_TIMEOUT_SECONDS;
+import static com.hazelcast.aws.AwsProperties.STREAMING_DISCOVERY;
 import static com.hazelcast.aws.AwsProperties.TAG_KEY;
 import static com.hazelcast.aws.AwsProperties.TAG_VALUE;
+import static com.hazelcast.aws.AwsProperties.TERMINATION_LISTENERS;
+import static com.hazelcast.aws.AwsProperties.TERMINATION_WATCH_PERIOD_SECONDS;
 
 /**
  * AWS implementation of {@link DiscoveryStrategy}.
@@ -63,17 +103,40 @@ public class AwsDiscoveryStrategy
     private static final Integer DEFAULT_CONNECTION_RETRIES = 3;
     private static final int DEFAULT_CONNECTION_TIMEOUT_SECONDS = 10;
     private static final int DEFAULT_READ_TIMEOUT_SECONDS = 10;
+    private static final int DEFAULT_ASSUME_ROLE_SESSION_DURATION_SECONDS = 3600;
+    private static final int DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD = 0;
+    private static final int DEFAULT_CIRCUIT_BREAKER_OPEN_SECONDS = 30;
+    private static final int DEFAULT_HEDGE_BUDGET_PERCENT = 10;
+    private static final int DEFAULT_ADAPTIVE_TIMEOUT_MIN_MILLIS = 100;
+    private static final int DEFAULT_CLOUD_MAP_CACHE_SECONDS = 5;
+    private static final int DEFAULT_EVENT_RECONCILIATION_SECONDS = 300;
+    private static final int DEFAULT_STARTUP_QUORUM_TIMEOUT_SECONDS = 120;
 
     // Corresponds to PartitionGroupMetaData.PARTITION_GROUP_PLACEMENT
     static final String PARTITION_GROUP_PLACEMENT = "hazelcast.partition.group.placement";
 
-    private final AwsClient awsClient;
+    private final SharedAwsClient.Handle awsClientHandle;
+    private final SharedAwsClient awsClient;
     private final PortRange portRange;
+    private final boolean preferSameZone;
+    private final boolean streamingDiscovery;
+    private final boolean preferIpv6;
 
-    private final Map<String, String> memberMetadata = new HashMap<>();
+    private final List<AwsDiscoveryListener> listeners = new CopyOnWriteArrayList<>();
+    private final AwsDiscoveryRefresher.ChangeListener changeListener = this::publishChange;
+    private final List<AwsTerminationListener> terminationListeners = new CopyOnWriteArrayList<>();
+    private final AwsTerminationWatcher terminationWatcher;
+    private final StartupQuorum startupQuorum;
 
-    private boolean isKnownExceptionAlreadyLogged;
-    private boolean isEmptyAddressListAlreadyLogged;
+    // concurrent metadata lookups share a single call; discoverNodes() calls are coalesced by SharedAwsClient
+    private final SingleFlight<Map<String, String>> memberMetadataCall = new SingleFlight<>();
+
+    private final AtomicBoolean isKnownExceptionAlreadyLogged = new AtomicBoolean();
+    private final AtomicBoolean isEmptyAddressListAlreadyLogged = new AtomicBoolean();
+
+    private volatile String localPlacementGroup;
+    private volatile Set<String> localAddresses;
+    private volatile Map<String, String> memberMetadata;
 
     AwsDiscoveryStrategy(Map<String, Comparable> properties) {
         super(LOGGER, properties);
@@ -81,8 +144,18 @@ public class AwsDiscoveryStrategy
         AwsConfig awsConfig = createAwsConfig();
         LOGGER.info("Using AWS discovery plugin with configuration: " + awsConfig);
 
-        this.awsClient = AwsClientConfigurator.createAwsClient(awsConfig);
+        this.awsClientHandle = SharedAwsClient.acquire(awsConfig, AwsClientConfigurator::createAwsClient);
+        this.awsClient = awsClientHandle.client();
         this.portRange = awsConfig.getHzPort();
+        this.preferSameZone = awsConfig.isPreferSameZone();
+        this.streamingDiscovery = awsConfig.isStreamingDiscovery();
+        this.preferIpv6 = awsConfig.isPreferIpv6();
+        this.terminationWatcher = createTerminationWatcher(awsConfig,
+            new AwsMetadataApi(awsConfig, awsClient.endpoints()));
+        this.startupQuorum = createStartupQuorum(awsConfig, awsClient);
+        listeners.addAll(newConfiguredListeners(awsConfig.getDiscoveryListeners(), "discovery-listeners"));
+        terminationListeners.addAll(
+            newConfiguredListeners(awsConfig.getTerminationListeners(), "termination-listeners"));
     }
 
     /**
@@ -90,8 +163,67 @@ public class AwsDiscoveryStrategy
      */
     AwsDiscoveryStrategy(Map<String, Comparable> properties, AwsClient client) {
         super(LOGGER, properties);
-        this.awsClient = client;
-        this.portRange = createAwsConfig().getHzPort();
+        AwsConfig awsConfig = createAwsConfig();
+        this.awsClientHandle = new SharedAwsClient.Handle(new SharedAwsClient(client, awsConfig));
+        this.awsClient = awsClientHandle.client();
+        this.portRange = awsConfig.getHzPort();
+        this.preferSameZone = awsConfig.isPreferSameZone();
+        this.streamingDiscovery = awsConfig.isStreamingDiscovery();
+        this.preferIpv6 = awsConfig.isPreferIpv6();
+        this.terminationWatcher = null;
+        this.startupQuorum = createStartupQuorum(awsConfig, awsClient);
+        listeners.addAll(newConfiguredListeners(awsConfig.getDiscoveryListeners(), "discovery-listeners"));
+        terminationListeners.addAll(
+            newConfiguredListeners(awsConfig.getTerminationListeners(), "termination-listeners"));
+    }
+
+    /**
+     * For test purposes only.
+     */
+    AwsDiscoveryStrategy(Map<String, Comparable> properties, AwsClient client, AwsMetadataApi awsMetadataApi) {
+        super(LOGGER, properties);
+        AwsConfig awsConfig = createAwsConfig();
+        this.awsClientHandle = new SharedAwsClient.Handle(new SharedAwsClient(client, awsConfig));
+        this.awsClient = awsClientHandle.client();
+        this.portRange = awsConfig.getHzPort();
+        this.preferSameZone = awsConfig.isPreferSameZone();
+        this.streamingDiscovery = awsConfig.isStreamingDiscovery();
+        this.preferIpv6 = awsConfig.isPreferIpv6();
+        this.terminationWatcher = createTerminationWatcher(awsConfig, awsMetadataApi);
+        this.startupQuorum = createStartupQuorum(awsConfig, awsClient);
+        listeners.addAll(newConfiguredListeners(awsConfig.getDiscoveryListeners(), "discovery-listeners"));
+        terminationListeners.addAll(
+            newConfiguredListeners(awsConfig.getTerminationListeners(), "termination-listeners"));
+    }
+
+    private static <T> List<T> newConfiguredListeners(List<String> classNames, String property) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        List<T> result = new ArrayList<>();
+        for (String className : classNames) {
+            try {
+                result.add(ClassLoaderUtil.newInstance(classLoader, className));
+            } catch (Exception e) {
+                throw new InvalidConfigurationException(
+                    String.format("Cannot create the listener '%s' of '%s'", className, property), e);
+            }
+        }
+        return result;
+    }
+
+    private static StartupQuorum createStartupQuorum(AwsConfig awsConfig, AwsClient awsClient) {
+        if (!awsConfig.isStartupQuorumEnabled()) {
+            return null;
+        }
+        return new StartupQuorum(awsClient, awsConfig.getStartupQuorumSize(),
+            TimeUnit.SECONDS.toMillis(awsConfig.getStartupQuorumTimeoutSeconds()));
+    }
+
+    private AwsTerminationWatcher createTerminationWatcher(AwsConfig awsConfig, AwsMetadataApi awsMetadataApi) {
+        if (awsConfig.getTerminationWatchPeriodSeconds() <= 0) {
+            return null;
+        }
+        return new AwsTerminationWatcher(awsMetadataApi,
+            TimeUnit.SECONDS.toMillis(awsConfig.getTerminationWatchPeriodSeconds()), this::publishTermination);
     }
 
     private AwsConfig createAwsConfig() {
@@ -99,6 +231,7 @@ public class AwsDiscoveryStrategy
             return AwsConfig.builder()
                 .setAccessKey(getOrNull(ACCESS_KEY)).setSecretKey(getOrNull(SECRET_KEY))
                 .setRegion(getOrDefault(REGION.getDefinition(), null))
+                .setRegions(getOrNull(REGIONS))
                 .setIamRole(getOrNull(IAM_ROLE))
                 .setHostHeader(getOrNull(HOST_HEADER.getDefinition()))
                 .setSecurityGroupName(getOrNull(SECURITY_GROUP_NAME)).setTagKey(getOrNull(TAG_KEY))
@@ -111,6 +244,43 @@ public class AwsDiscoveryStrategy
                 .setCluster(getOrNull(CLUSTER))
                 .setFamily(getOrNull(FAMILY))
                 .setServiceName(getOrNull(SERVICE_NAME))
+                .setPreferSameZone(getOrDefault(PREFER_SAME_ZONE.getDefinition(), false))
+                .setRefreshPeriodSeconds(getOrDefault(REFRESH_PERIOD_SECONDS.getDefinition(),
+                    getOrNull(EVENT_QUEUE_URL) == null ? 0 : DEFAULT_EVENT_RECONCILIATION_SECONDS))
+                .setRefreshJitterSeconds(getOrDefault(REFRESH_JITTER_SECONDS.getDefinition(), 0))
+                .setAssumeRoleArn(getOrNull(ASSUME_ROLE_ARN))
+                .setAssumeRoleExternalId(getOrNull(ASSUME_ROLE_EXTERNAL_ID))
+                .setAssumeRoleSessionDurationSeconds(getOrDefault(ASSUME_ROLE_SESSION_DURATION_SECONDS.getDefinition(),
+                    DEFAULT_ASSUME_ROLE_SESSION_DURATION_SECONDS))
+                .setProfile(getOrNull(PROFILE))
+                .setCircuitBreakerFailureThreshold(getOrDefault(CIRCUIT_BREAKER_FAILURE_THRESHOLD.getDefinition(),
+                    DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD))
+                .setCircuitBreakerOpenSeconds(getOrDefault(CIRCUIT_BREAKER_OPEN_SECONDS.getDefinition(),
+                    DEFAULT_CIRCUIT_BREAKER_OPEN_SECONDS))
+                .setHedgePercentile(getOrDefault(HEDGE_PERCENTILE.getDefinition(), 0))
+                .setHedgeBudgetPercent(getOrDefault(HEDGE_BUDGET_PERCENT.getDefinition(), DEFAULT_HEDGE_BUDGET_PERCENT))
+                .setConnectionTimeoutMillis(getOrDefault(CONNECTION_TIMEOUT_MILLIS.getDefinition(), 0))
+                .setReadTimeoutMillis(getOrDefault(READ_TIMEOUT_MILLIS.getDefinition(), 0))
+                .setAdaptiveTimeoutMultiplier(getOrDefault(ADAPTIVE_TIMEOUT_MULTIPLIER.getDefinition(), 0))
+                .setAdaptiveTimeoutMinMillis(getOrDefault(ADAPTIVE_TIMEOUT_MIN_MILLIS.getDefinition(),
+                    DEFAULT_ADAPTIVE_TIMEOUT_MIN_MILLIS))
+                .setStreamingDiscovery(getOrDefault(STREAMING_DISCOVERY.getDefinition(), false))
+                .setCloudMapNamespace(getOrNull(CLOUD_MAP_NAMESPACE))
+                .setCloudMapService(getOrNull(CLOUD_MAP_SERVICE))
+                .setCloudMapAttributes(getOrNull(CLOUD_MAP_ATTRIBUTES))
+                .setCloudMapCacheSeconds(getOrDefault(CLOUD_MAP_CACHE_SECONDS.getDefinition(),
+                    DEFAULT_CLOUD_MAP_CACHE_SECONDS))
+                .setAutoScalingGroup(getOrNull(AUTO_SCALING_GROUP))
+                .setInstanceStatusCheck(getOrDefault(INSTANCE_STATUS_CHECK.getDefinition(), false))
+                .setAddressFamily(getOrNull(ADDRESS_FAMILY))
+                .setDualStackEndpoints(getOrDefault(DUAL_STACK_ENDPOINTS.getDefinition(), false))
+                .setEventQueueUrl(getOrNull(EVENT_QUEUE_URL))
+                .setTerminationWatchPeriodSeconds(getOrDefault(TERMINATION_WATCH_PERIOD_SECONDS.getDefinition(), 0))
+                .setStartupQuorum(getOrNull(STARTUP_QUORUM))
+                .setStartupQuorumTimeoutSeconds(getOrDefault(STARTUP_QUORUM_TIMEOUT_SECONDS.getDefinition(),
+                    DEFAULT_STARTUP_QUORUM_TIMEOUT_SECONDS))
+                .setDiscoveryListeners(getOrNull(DISCOVERY_LISTENERS))
+                .setTerminationListeners(getOrNull(TERMINATION_LISTENERS))
                 .build();
         } catch (IllegalArgumentException e) {
             throw new InvalidConfigurationException("AWS configuration is not valid", e);
@@ -132,16 +302,107 @@ public class AwsDiscoveryStrategy
     }
 
     @Override
-    public Map<String, String> discoverLocalMetadata() {
-        if (memberMetadata.isEmpty()) {
-            String availabilityZone = awsClient.getAvailabilityZone();
-            LOGGER.info(String.format("Availability zone found: '%s'", availabilityZone));
-            memberMetadata.put(PartitionGroupMetaData.PARTITION_GROUP_ZONE, availabilityZone);
+    public void start() {
+        awsClient.addChangeListener(changeListener);
+        awsClient.start();
+        if (terminationWatcher != null) {
+            terminationWatcher.start();
+        }
+    }
 
-            getPlacementGroup().ifPresent(pg ->
-                    memberMetadata.put(PARTITION_GROUP_PLACEMENT, availabilityZone + '-' + pg));
+    @Override
+    public void destroy() {
+        if (terminationWatcher != null) {
+            terminationWatcher.shutdown();
         }
-        return memberMetadata;
+        awsClient.removeChangeListener(changeListener);
+        awsClientHandle.release();
+    }
+
+    /**
+     * Registers a listener notified about the members found or lost by the background discovery refresh.
+     * <p>
+     * Note that the listener is notified only if the background refresh is enabled. Hazelcast creates the strategy
+     * internally, so listeners are usually registered with the {@code discovery-listeners} property instead.
+     *
+     * @see AwsProperties#REFRESH_PERIOD_SECONDS
+     */
+    public void addDiscoveryListener(AwsDiscoveryListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeDiscoveryListener(AwsDiscoveryListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Registers a listener notified when the EC2 instance running this member is about to be interrupted or terminated.
+     * <p>
+     * Note that the listener is notified only if the termination watcher is enabled. Hazelcast creates the strategy
+     * internally, so listeners are usually registered with the {@code termination-listeners} property instead.
+     *
+     * @see AwsProperties#TERMINATION_WATCH_PERIOD_SECONDS
+     */
+    public void addTerminationListener(AwsTerminationListener listener) {
+        terminationListeners.add(listener);
+    }
+
+    public void removeTerminationListener(AwsTerminationListener listener) {
+        terminationListeners.remove(listener);
+    }
+
+    private void publishTermination(AwsTerminationNotice notice) {
+        for (AwsTerminationListener listener : terminationListeners) {
+            listener.terminationImminent(notice);
+        }
+    }
+
+    private void publishChange(Collection<AwsNode> added, Collection<AwsNode> removed) {
+        List<DiscoveryNode> addedNodes = toDiscoveryNodes(added);
+        List<DiscoveryNode> removedNodes = toDiscoveryNodes(removed);
+        for (AwsDiscoveryListener listener : listeners) {
+            if (!removedNodes.isEmpty()) {
+                listener.nodesRemoved(removedNodes);
+            }
+            if (!addedNodes.isEmpty()) {
+                listener.nodesAdded(addedNodes);
+            }
+        }
+    }
+
+    @Override
+    public Map<String, String> discoverLocalMetadata() {
+        Map<String, String> metadata = memberMetadata;
+        if (metadata == null) {
+            metadata = memberMetadataCall.call(() -> {
+                if (memberMetadata == null) {
+                    memberMetadata = resolveMemberMetadata();
+                }
+                return memberMetadata;
+            });
+        }
+        return metadata;
+    }
+
+    private Map<String, String> resolveMemberMetadata() {
+        Map<String, String> metadata = new HashMap<>();
+        String availabilityZone = awsClient.getAvailabilityZone();
+        LOGGER.info(String.format("Availability zone found: '%s'", availabilityZone));
+        metadata.put(PartitionGroupMetaData.PARTITION_GROUP_ZONE, availabilityZone);
+
+        getPlacementGroup().ifPresent(pg -> metadata.put(PARTITION_GROUP_PLACEMENT, placementName(availabilityZone, pg)));
+        return Collections.unmodifiableMap(metadata);
+    }
+
+    /**
+     * Combines the zone name with the placement group name, since the same placement group may span multiple zones.
+     */
+    private static String placementName(String availabilityZone, String placementGroup) {
+        return availabilityZone + '-' + placementGroup;
+    }
+
+    private static String placementGroupName(String placementGroup, String placementPartitionNumber) {
+        return placementPartitionNumber == null ? placementGroup : placementGroup + '-' + placementPartitionNumber;
     }
 
     /**
@@ -165,57 +426,131 @@ public class AwsDiscoveryStrategy
             LOGGER.fine("No placement group is found.");
             return Optional.empty();
         }
-        StringBuilder result = new StringBuilder(placementGroup.get());
-        awsClient.getPlacementPartitionNumber().ifPresent(ppn -> result.append('-').append(ppn));
-        LOGGER.info(String.format("Placement group found: '%s'", result.toString()));
-        return Optional.of(result.toString());
+        localPlacementGroup = placementGroup.get();
+        String result = placementGroupName(placementGroup.get(), awsClient.getPlacementPartitionNumber().orElse(null));
+        LOGGER.info(String.format("Placement group found: '%s'", result));
+        return Optional.of(result);
     }
 
     @Override
     public Iterable<DiscoveryNode> discoverNodes() {
+        // the startup quorum needs the whole result, so the first discovery is not streamed
+        boolean awaitStartupQuorum = startupQuorum != null && !startupQuorum.isAwaited();
+        if (streamingDiscovery && !awaitStartupQuorum) {
+            return PageStream.start(this::discoverNodes, this::logDiscoveryFailure);
+        }
         try {
-            Map<String, String> addresses = awsClient.getAddresses();
+            Map<String, AwsNode> addresses = awaitStartupQuorum
+                ? startupQuorum.await(awsClient::fetchAddresses)
+                : awsClient.getAddresses();
             logResult(addresses);
+            return toDiscoveryNodes(preferSameZone ? orderByLocality(addresses.values()) : addresses.values());
+        } catch (Exception e) {
+            logDiscoveryFailure(e);
+        }
+        return Collections.emptyList();
+    }
 
-            List<DiscoveryNode> result = new ArrayList<>();
-            for (Map.Entry<String, String> entry : addresses.entrySet()) {
-                for (int port = portRange.getFromPort(); port <= portRange.getToPort(); port++) {
-                    Address privateAddress = new Address(entry.getKey(), port);
-                    Address publicAddress = new Address(entry.getValue(), port);
-                    result.add(new SimpleDiscoveryNode(privateAddress, publicAddress));
-                }
-            }
-            return result;
-        } catch (NoCredentialsException e) {
-            if (!isKnownExceptionAlreadyLogged) {
+    /**
+     * Passes the discovered nodes to {@code pageConsumer} page by page, as soon as every page is fetched.
+     */
+    private void discoverNodes(Consumer<Collection<DiscoveryNode>> pageConsumer) {
+        Map<String, AwsNode> addresses = awsClient.getAddresses(page ->
+            pageConsumer.accept(toDiscoveryNodes(preferSameZone ? orderByLocality(page) : page)));
+        logResult(addresses);
+    }
+
+    private void logDiscoveryFailure(Exception e) {
+        if (e instanceof NoCredentialsException) {
+            if (isKnownExceptionAlreadyLogged.compareAndSet(false, true)) {
                 LOGGER.warning("No AWS credentials found! Starting standalone. To use Hazelcast AWS discovery, configure"
                         + " properties (access-key, secret-key) or assign the required IAM Role to your EC2 instance");
                 LOGGER.finest(e);
-                isKnownExceptionAlreadyLogged = true;
             }
-        } catch (RestClientException e) {
-            if (e.getHttpErrorCode() == HTTP_FORBIDDEN) {
-                if (!isKnownExceptionAlreadyLogged) {
-                    LOGGER.warning("AWS IAM Role Policy missing 'ec2:DescribeInstances' Action! Starting standalone.");
-                    isKnownExceptionAlreadyLogged = true;
+        } else if (e instanceof CircuitBreakerOpenException) {
+            LOGGER.fine("Cannot discover nodes, AWS endpoint is unavailable. Starting standalone.");
+            LOGGER.finest(e);
+        } else if (e instanceof RestClientException && ((RestClientException) e).getHttpErrorCode() == HTTP_FORBIDDEN) {
+            if (isKnownExceptionAlreadyLogged.compareAndSet(false, true)) {
+                LOGGER.warning("AWS IAM Role Policy missing 'ec2:DescribeInstances' Action! Starting standalone.");
+            }
+            LOGGER.finest(e);
+        } else {
+            LOGGER.warning("Cannot discover nodes. Starting standalone.", e);
+        }
+    }
+
+    private List<DiscoveryNode> toDiscoveryNodes(Collection<AwsNode> nodes) {
+        List<DiscoveryNode> result = new ArrayList<>();
+        for (AwsNode node : nodes) {
+            Map<String, String> properties = nodeProperties(node);
+            for (int port = portRange.getFromPort(); port <= portRange.getToPort(); port++) {
+                try {
+                    Address privateAddress = new Address(privateAddress(node), port);
+                    Address publicAddress = new Address(node.getPublicAddress(), port);
+                    result.add(new SimpleDiscoveryNode(privateAddress, publicAddress, properties));
+                } catch (UnknownHostException e) {
+                    throw new HazelcastException(e);
                 }
-                LOGGER.finest(e);
-            } else {
-                LOGGER.warning("Cannot discover nodes. Starting standalone.", e);
             }
+        }
+        return result;
+    }
+
+    private String privateAddress(AwsNode node) {
+        if (preferIpv6 && node.getIpv6Address() != null) {
+            return node.getIpv6Address();
+        }
+        return node.getPrivateAddress();
+    }
+
+    private Collection<AwsNode> orderByLocality(Collection<AwsNode> nodes) {
+        try {
+            String availabilityZone = discoverLocalMetadata().get(PartitionGroupMetaData.PARTITION_GROUP_ZONE);
+            List<AwsNode> result = new ArrayList<>(nodes);
+            result.sort(new LocalityComparator(availabilityZone, localPlacementGroup, localAddresses()));
+            return result;
         } catch (Exception e) {
-            LOGGER.warning("Cannot discover nodes. Starting standalone.", e);
+            LOGGER.fine("Cannot order the discovered members by locality", e);
+            return nodes;
         }
-        return Collections.emptyList();
     }
 
-    private void logResult(Map<String, String> addresses) {
-        if (addresses.isEmpty() && !isEmptyAddressListAlreadyLogged) {
+    private Set<String> localAddresses() {
+        Set<String> result = localAddresses;
+        if (result == null) {
+            result = LocalityComparator.localAddresses();
+            localAddresses = result;
+        }
+        return result;
+    }
+
+    /**
+     * Creates the properties of the discovered node, which use the same keys and format as the local metadata, so that
+     * the zone and placement of other members are known without any further calls.
+     *
+     * @see #discoverLocalMetadata()
+     */
+    static Map<String, String> nodeProperties(AwsNode node) {
+        String availabilityZone = node.getAvailabilityZone();
+        if (availabilityZone == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> properties = new HashMap<>();
+        properties.put(PartitionGroupMetaData.PARTITION_GROUP_ZONE, availabilityZone);
+        if (node.getPlacementGroup() != null) {
+            String placementGroup = placementGroupName(node.getPlacementGroup(), node.getPlacementPartitionNumber());
+            properties.put(PARTITION_GROUP_PLACEMENT, placementName(availabilityZone, placementGroup));
+        }
+        return properties;
+    }
+
+    private void logResult(Map<String, AwsNode> addresses) {
+        if (addresses.isEmpty() && isEmptyAddressListAlreadyLogged.compareAndSet(false, true)) {
             LOGGER.warning("No IP addresses found! Starting standalone.");
-            isEmptyAddressListAlreadyLogged = true;
         }
 
-        LOGGER.fine(String.format("Found the following (private => public) addresses: %s", addresses));
+        LOGGER.fine(String.format("Found the following members: %s", addresses.values()));
     }
 
     private String getOrNull(AwsProperties awsProperties) {
@@ -17,13 +17,18 @@ package com.hazelcast.aws;
 
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
-import org.w3c.dom.Node;
 
 import java.time.Clock;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static com.hazelcast.aws.AwsRequestUtils.canonicalQueryString;
 import static com.hazelcast.aws.AwsRequestUtils.createRestClient;
@@ -37,32 +42,84 @@ import static com.hazelcast.aws.StringUtils.isNotEmpty;
  */
 class AwsEc2Api {
     private static final ILogger LOGGER = Logger.getLogger(AwsEc2Api.class);
+    private static final int INSTANCE_IDS_CHUNK_SIZE = 200;
+    private static final int INSTANCE_STATUS_CHUNK_SIZE = 100;
+    private static final String STATUS_OK = "ok";
 
     private final String endpoint;
     private final AwsConfig awsConfig;
+    private final AwsEndpoints endpoints;
     private final AwsRequestSigner requestSigner;
     private final Clock clock;
 
-    AwsEc2Api(String endpoint, AwsConfig awsConfig, AwsRequestSigner requestSigner, Clock clock) {
+    AwsEc2Api(String endpoint, AwsConfig awsConfig, AwsEndpoints endpoints, AwsRequestSigner requestSigner,
+              Clock clock) {
         this.endpoint = endpoint;
         this.awsConfig = awsConfig;
+        this.endpoints = endpoints;
         this.requestSigner = requestSigner;
         this.clock = clock;
     }
 
     /**
-     * Calls AWS EC2 Describe Instances API, parses the response, and returns mapping from private to public IPs.
+     * Calls AWS EC2 Describe Instances API, parses the response, and returns mapping from private IPs to the found
+     * instances together with their public IPs and placement.
      * <p>
-     * Note that if EC2 Instance does not have a public IP, then an entry (private-ip, null) is returned.
+     * Note that if EC2 Instance does not have a public IP, then its public address is {@code null}. If the result is
+     * paginated, all the pages are fetched.
      *
-     * @return map from private to public IP
+     * @return map from private IP to the instance
      * @see <a href="http://docs.aws.amazon.com/AWSEC2/latest/APIReference/API_DescribeInstances.html">EC2 Describe Instances</a>
      */
-    Map<String, String> describeInstances(AwsCredentials credentials) {
-        Map<String, String> attributes = createAttributesDescribeInstances();
-        Map<String, String> headers = createHeaders(attributes, credentials);
-        String response = callAwsService(attributes, headers);
-        return parseDescribeInstances(response);
+    Map<String, AwsNode> describeInstances(AwsCredentials credentials) {
+        return describeInstances(credentials, page -> { });
+    }
+
+    /**
+     * Same as {@link #describeInstances(AwsCredentials)}, but also passes every page of instances to
+     * {@code pageConsumer} as soon as it is parsed.
+     */
+    Map<String, AwsNode> describeInstances(AwsCredentials credentials, Consumer<Map<String, AwsNode>> pageConsumer) {
+        return describeInstances(credentials, Collections.emptyMap(), pageConsumer);
+    }
+
+    /**
+     * Same as {@link #describeInstances(AwsCredentials, Consumer)}, but describes only the instances with the given
+     * IDs (still filtered by the configured tags and security group). The IDs are sent in chunks of
+     * {@value #INSTANCE_IDS_CHUNK_SIZE}, so that the request URL stays bounded for large groups.
+     */
+    Map<String, AwsNode> describeInstances(List<String> instanceIds, AwsCredentials credentials,
+                                           Consumer<Map<String, AwsNode>> pageConsumer) {
+        Map<String, AwsNode> result = new HashMap<>();
+        for (int from = 0; from < instanceIds.size(); from += INSTANCE_IDS_CHUNK_SIZE) {
+            List<String> chunk = instanceIds.subList(from, Math.min(from + INSTANCE_IDS_CHUNK_SIZE, instanceIds.size()));
+            Map<String, String> idAttributes = new HashMap<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                idAttributes.put(String.format("InstanceId.%d", i + 1), chunk.get(i));
+            }
+            result.putAll(describeInstances(credentials, idAttributes, pageConsumer));
+        }
+        return result;
+    }
+
+    private Map<String, AwsNode> describeInstances(AwsCredentials credentials, Map<String, String> idAttributes,
+                                                   Consumer<Map<String, AwsNode>> pageConsumer) {
+        Map<String, AwsNode> result = new HashMap<>();
+        String nextToken = null;
+        do {
+            Map<String, String> attributes = createAttributesDescribeInstances();
+            attributes.putAll(idAttributes);
+            if (nextToken != null) {
+                attributes.put("NextToken", nextToken);
+            }
+            Map<String, String> headers = createHeaders(attributes, credentials);
+            XmlNode response = XmlNode.create(callAwsService(attributes, headers));
+            Map<String, AwsNode> page = parseDescribeInstances(response);
+            pageConsumer.accept(page);
+            result.putAll(page);
+            nextToken = response.getValue("nexttoken");
+        } while (isNotEmpty(nextToken));
+        return result;
     }
 
     private Map<String, String> createAttributesDescribeInstances() {
@@ -103,44 +160,77 @@ class AwsEc2Api {
         }
     }
 
-    private static Map<String, String> parseDescribeInstances(String xmlResponse) {
-        Map<String, String> result = new HashMap<>();
-        XmlNode.create(xmlResponse)
-            .getSubNodes("reservationset").stream()
-            .flatMap(e -> e.getSubNodes("item").stream())
-            .flatMap(e -> e.getSubNodes("instancesset").stream())
-            .flatMap(e -> e.getSubNodes("item").stream())
-            .filter(e -> e.getValue("privateipaddress") != null)
+    private static Map<String, AwsNode> parseDescribeInstances(XmlNode response) {
+        Map<String, AwsNode> result = new HashMap<>();
+        response
+            .getSubNodes("reservationset")
+            .flatMap(e -> e.getSubNodes("item"))
+            .flatMap(e -> e.getSubNodes("instancesset"))
+            .flatMap(e -> e.getSubNodes("item"))
+            .filter(e -> privateAddress(e) != null)
             .peek(AwsEc2Api::logInstanceName)
-            .forEach(e -> result.put(e.getValue("privateipaddress"), e.getValue("ipaddress")));
+            .map(AwsEc2Api::toNode)
+            .forEach(node -> result.put(node.getPrivateAddress(), node));
         return result;
     }
 
+    private static AwsNode toNode(XmlNode item) {
+        AwsNode.Builder builder = AwsNode.builder()
+            .setPrivateAddress(privateAddress(item))
+            .setPublicAddress(item.getValue("ipaddress"))
+            .setInstanceId(item.getValue("instanceid"))
+            .setIpv6Address(ipv6Address(item));
+        item.getSubNodes("placement").findFirst().ifPresent(placement -> builder
+            .setAvailabilityZone(placement.getValue("availabilityzone"))
+            .setPlacementGroup(placement.getValue("groupname"))
+            .setPlacementPartitionNumber(placement.getValue("partitionnumber")));
+        return builder.build();
+    }
+
+    /**
+     * Returns the private IPv4 address or, for IPv6-only instances, the IPv6 address.
+     */
+    private static String privateAddress(XmlNode item) {
+        String privateIpv4Address = item.getValue("privateipaddress");
+        return privateIpv4Address != null ? privateIpv4Address : ipv6Address(item);
+    }
+
+    /**
+     * Returns the primary IPv6 address of the instance or, if not reported, the first IPv6 address of its network
+     * interfaces.
+     */
+    private static String ipv6Address(XmlNode item) {
+        String ipv6Address = item.getValue("ipv6address");
+        if (ipv6Address != null) {
+            return ipv6Address;
+        }
+        return item.getSubNodes("networkinterfaceset")
+            .flatMap(e -> e.getSubNodes("item"))
+            .flatMap(e -> e.getSubNodes("ipv6addressesset"))
+            .flatMap(e -> e.getSubNodes("item"))
+            .map(e -> e.getValue("ipv6address"))
+            .filter(Objects::nonNull)
+            .findFirst()
+            .orElse(null);
+    }
+
     private static void logInstanceName(XmlNode item) {
         LOGGER.fine(String.format("Accepting EC2 instance [%s][%s]",
             parseInstanceName(item).orElse("<unknown>"),
-            item.getValue("privateipaddress")));
+            privateAddress(item)));
     }
 
     private static Optional<String> parseInstanceName(XmlNode nodeHolder) {
-        return nodeHolder.getSubNodes("tagset").stream()
-            .flatMap(e -> e.getSubNodes("item").stream())
+        return nodeHolder.getSubNodes("tagset")
+            .flatMap(e -> e.getSubNodes("item"))
             .filter(AwsEc2Api::isNameField)
-            .flatMap(e -> e.getSubNodes("value").stream())
-            .map(XmlNode::getNode)
-            .map(Node::getFirstChild)
-            .map(Node::getNodeValue)
+            .map(e -> e.getValue("value"))
+            .filter(Objects::nonNull)
             .findFirst();
     }
 
     private static boolean isNameField(XmlNode item) {
-        return item.getSubNodes("key").stream()
-            .map(XmlNode::getNode)
-            .map(Node::getFirstChild)
-            .map(Node::getNodeValue)
-            .map("Name"::equals)
-            .findFirst()
-            .orElse(false);
+        return "Name".equals(item.getValue("key"));
     }
 
     /**
@@ -161,6 +251,31 @@ class AwsEc2Api {
         return parseDescribeNetworkInterfaces(response);
     }
 
+    /**
+     * Calls AWS EC2 Describe Network Interfaces API for the given network interface IDs, parses the response, and
+     * returns mapping from private to public IPs.
+     * <p>
+     * Unlike {@link #describeNetworkInterfaces(List, AwsCredentials)}, the network interfaces are looked up by their
+     * IDs, which is cheaper than filtering by private IPs and never returns the interfaces of other resources. The IDs
+     * are passed as a {@code network-interface-id} filter rather than as {@code NetworkInterfaceId.N} parameters, so
+     * an interface deleted in the meantime (e.g. of a stopped task) is left out instead of failing the whole call with
+     * {@code InvalidNetworkInterfaceID.NotFound}.
+     *
+     * @return map from private to public IP
+     * @see <a href="http://docs.aws.amazon.com/AWSEC2/latest/APIReference/API_DescribeNetworkInterfaces.html">
+     * EC2 Describe Network Interfaces</a>
+     */
+    Map<String, String> describeNetworkInterfacesById(List<String> networkInterfaceIds, AwsCredentials credentials) {
+        Map<String, String> attributes = createSharedAttributes();
+        attributes.put("Action", "DescribeNetworkInterfaces");
+        Filter filter = new Filter();
+        filter.addMulti("network-interface-id", networkInterfaceIds);
+        attributes.putAll(filter.getFilterAttributes());
+        Map<String, String> headers = createHeaders(attributes, credentials);
+        String response = callAwsService(attributes, headers);
+        return parseDescribeNetworkInterfaces(response);
+    }
+
     private Map<String, String> createAttributesDescribeNetworkInterfaces(List<String> privateAddresses) {
         Map<String, String> attributes = createSharedAttributes();
         attributes.put("Action", "DescribeNetworkInterfaces");
@@ -177,19 +292,67 @@ class AwsEc2Api {
     private static Map<String, String> parseDescribeNetworkInterfaces(String xmlResponse) {
         Map<String, String> result = new HashMap<>();
         XmlNode.create(xmlResponse)
-            .getSubNodes("networkinterfaceset").stream()
-            .flatMap(e -> e.getSubNodes("item").stream())
+            .getSubNodes("networkinterfaceset")
+            .flatMap(e -> e.getSubNodes("item"))
             .filter(e -> e.getValue("privateipaddress") != null)
             .forEach(e -> result.put(
                 e.getValue("privateipaddress"),
-                e.getSubNodes("association").stream()
+                e.getSubNodes("association")
                     .map(a -> a.getValue("publicip"))
+                    .filter(Objects::nonNull)
                     .findFirst()
                     .orElse(null)
             ));
         return result;
     }
 
+    /**
+     * Calls AWS EC2 Describe Instance Status API for the given instance IDs and returns the IDs of the instances which
+     * passed both the instance and the system status checks (status {@code ok}).
+     * <p>
+     * The IDs are sent in chunks of {@value #INSTANCE_STATUS_CHUNK_SIZE}, which is the maximum accepted by the API.
+     *
+     * @return IDs of the healthy instances
+     * @see <a href="https://docs.aws.amazon.com/AWSEC2/latest/APIReference/API_DescribeInstanceStatus.html">
+     * EC2 Describe Instance Status</a>
+     */
+    Set<String> describeInstanceStatus(List<String> instanceIds, AwsCredentials credentials) {
+        Set<String> result = new HashSet<>();
+        for (int from = 0; from < instanceIds.size(); from += INSTANCE_STATUS_CHUNK_SIZE) {
+            List<String> chunk = instanceIds.subList(from, Math.min(from + INSTANCE_STATUS_CHUNK_SIZE, instanceIds.size()));
+            String nextToken = null;
+            do {
+                Map<String, String> attributes = createSharedAttributes();
+                attributes.put("Action", "DescribeInstanceStatus");
+                for (int i = 0; i < chunk.size(); i++) {
+                    attributes.put("InstanceId." + (i + 1), chunk.get(i));
+                }
+                if (nextToken != null) {
+                    attributes.put("NextToken", nextToken);
+                }
+                Map<String, String> headers = createHeaders(attributes, credentials);
+                XmlNode response = XmlNode.create(callAwsService(attributes, headers));
+                result.addAll(parseDescribeInstanceStatus(response));
+                nextToken = response.getValue("nexttoken");
+            } while (isNotEmpty(nextToken));
+        }
+        return result;
+    }
+
+    private static Set<String> parseDescribeInstanceStatus(XmlNode response) {
+        return response
+            .getSubNodes("instancestatusset")
+            .flatMap(e -> e.getSubNodes("item"))
+            .filter(e -> isStatusOk(e, "instancestatus") && isStatusOk(e, "systemstatus"))
+            .map(e -> e.getValue("instanceid"))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+    }
+
+    private static boolean isStatusOk(XmlNode item, String statusName) {
+        return item.getSubNodes(statusName).anyMatch(e -> STATUS_OK.equals(e.getValue("status")));
+    }
+
     private static Map<String, String> createSharedAttributes() {
         Map<String, String> attributes = new HashMap<>();
         attributes.put("Version", "2016-11-15");
@@ -212,7 +375,7 @@ class AwsEc2Api {
 
     private String callAwsService(Map<String, String> attributes, Map<String, String> headers) {
         String query = canonicalQueryString(attributes);
-        return createRestClient(urlFor(endpoint, query), awsConfig)
+        return createRestClient(urlFor(endpoint, query), awsConfig, endpoints)
             .withHeaders(headers)
             .get()
             .getBody();
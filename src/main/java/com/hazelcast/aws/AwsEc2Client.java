@@ -15,25 +15,94 @@
 
 package com.hazelcast.aws;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 class AwsEc2Client implements AwsClient {
     private final AwsEc2Api awsEc2Api;
     private final AwsMetadataApi awsMetadataApi;
     private final AwsCredentialsProvider awsCredentialsProvider;
+    private final AwsAutoScalingApi awsAutoScalingApi;
+    private final InstanceStatusFilter instanceStatusFilter;
 
     AwsEc2Client(AwsEc2Api awsEc2Api, AwsMetadataApi awsMetadataApi, AwsCredentialsProvider awsCredentialsProvider) {
+        this(awsEc2Api, awsMetadataApi, awsCredentialsProvider, null, null);
+    }
+
+    /**
+     * Creates a client which, if {@code awsAutoScalingApi} is not {@code null}, describes only the instances which are
+     * {@code InService} in the configured Auto Scaling Group and, if {@code instanceStatusFilter} is not {@code null},
+     * skips the instances which have not passed the EC2 status checks yet.
+     */
+    AwsEc2Client(AwsEc2Api awsEc2Api, AwsMetadataApi awsMetadataApi, AwsCredentialsProvider awsCredentialsProvider,
+                 AwsAutoScalingApi awsAutoScalingApi, InstanceStatusFilter instanceStatusFilter) {
         this.awsEc2Api = awsEc2Api;
         this.awsMetadataApi = awsMetadataApi;
         this.awsCredentialsProvider = awsCredentialsProvider;
+        this.awsAutoScalingApi = awsAutoScalingApi;
+        this.instanceStatusFilter = instanceStatusFilter;
     }
 
     @Override
-    public Map<String, String> getAddresses() {
+    public Map<String, AwsNode> getAddresses() {
+        if (awsAutoScalingApi != null || instanceStatusFilter != null) {
+            return getAddresses(page -> { });
+        }
         return awsEc2Api.describeInstances(awsCredentialsProvider.credentials());
     }
 
+    @Override
+    public Map<String, AwsNode> getAddresses(Consumer<Collection<AwsNode>> pageConsumer) {
+        AwsCredentials credentials = awsCredentialsProvider.credentials();
+        if (instanceStatusFilter == null) {
+            return describeInstances(credentials, page -> pageConsumer.accept(page.values()));
+        }
+        Map<String, AwsNode> result = new HashMap<>();
+        Map<String, AwsNode> discovered = describeInstances(credentials, page -> {
+            Map<String, AwsNode> healthy = instanceStatusFilter.filter(page, credentials);
+            result.putAll(healthy);
+            pageConsumer.accept(healthy.values());
+        });
+        instanceStatusFilter.retain(discovered.values());
+        return result;
+    }
+
+    /**
+     * Returns the members for the given instance IDs, e.g. of the instances which have just started running; the
+     * configured filters and the status check still apply.
+     */
+    Map<String, AwsNode> getAddresses(List<String> instanceIds) {
+        AwsCredentials credentials = awsCredentialsProvider.credentials();
+        Map<String, AwsNode> result = awsEc2Api.describeInstances(instanceIds, credentials, page -> { });
+        return instanceStatusFilter == null ? result : instanceStatusFilter.filter(result, credentials);
+    }
+
+    private Map<String, AwsNode> describeInstances(AwsCredentials credentials,
+                                                   Consumer<Map<String, AwsNode>> pageConsumer) {
+        if (awsAutoScalingApi == null) {
+            return awsEc2Api.describeInstances(credentials, pageConsumer);
+        }
+        List<String> instanceIds = awsAutoScalingApi.describeAutoScalingGroup(credentials).getInServiceInstanceIds();
+        if (instanceIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return awsEc2Api.describeInstances(instanceIds, credentials, pageConsumer);
+    }
+
+    @Override
+    public Optional<Integer> getDesiredClusterSize() {
+        if (awsAutoScalingApi == null) {
+            return Optional.empty();
+        }
+        return Optional.of(awsAutoScalingApi.describeAutoScalingGroup(awsCredentialsProvider.credentials())
+            .getDesiredCapacity());
+    }
+
     @Override
     public String getAvailabilityZone() {
         return awsMetadataApi.availabilityZoneEc2();
@@ -21,10 +21,12 @@ import com.hazelcast.internal.json.JsonObject;
 import com.hazelcast.internal.json.JsonValue;
 
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -41,26 +43,50 @@ import static java.util.Collections.emptyMap;
  * @see <a href="https://docs.aws.amazon.com/AmazonECS/latest/APIReference/Welcome.html">AWS ECS API</a>
  */
 class AwsEcsApi {
+    static final int DESCRIBE_TASKS_MAX_TASKS = 100;
+
     private final String endpoint;
     private final AwsConfig awsConfig;
+    private final AwsEndpoints endpoints;
     private final AwsRequestSigner requestSigner;
     private final Clock clock;
 
-    AwsEcsApi(String endpoint, AwsConfig awsConfig, AwsRequestSigner requestSigner, Clock clock) {
+    AwsEcsApi(String endpoint, AwsConfig awsConfig, AwsEndpoints endpoints, AwsRequestSigner requestSigner,
+              Clock clock) {
         this.endpoint = endpoint;
         this.awsConfig = awsConfig;
+        this.endpoints = endpoints;
         this.requestSigner = requestSigner;
         this.clock = clock;
     }
 
+    /**
+     * Returns the ARNs of the tasks in the cluster; if the result is paginated, all the pages are fetched.
+     */
     List<String> listTasks(String cluster, AwsCredentials credentials) {
-        String body = createBodyListTasks(cluster);
-        Map<String, String> headers = createHeadersListTasks(body, credentials);
-        String response = callAwsService(body, headers);
-        return parseListTasks(response);
+        return listTasks(cluster, credentials, page -> { });
+    }
+
+    /**
+     * Same as {@link #listTasks(String, AwsCredentials)}, but also passes every page of task ARNs to
+     * {@code pageConsumer} as soon as it is parsed.
+     */
+    List<String> listTasks(String cluster, AwsCredentials credentials, Consumer<List<String>> pageConsumer) {
+        List<String> result = new ArrayList<>();
+        String nextToken = null;
+        do {
+            String body = createBodyListTasks(cluster, nextToken);
+            Map<String, String> headers = createHeadersListTasks(body, credentials);
+            JsonObject response = toJson(callAwsService(body, headers));
+            List<String> page = parseListTasks(response);
+            pageConsumer.accept(page);
+            result.addAll(page);
+            nextToken = response.getString("nextToken", null);
+        } while (isNotEmpty(nextToken));
+        return result;
     }
 
-    private String createBodyListTasks(String cluster) {
+    private String createBodyListTasks(String cluster, String nextToken) {
         JsonObject body = new JsonObject();
         body.add("cluster", cluster);
         if (isNotEmpty(awsConfig.getFamily())) {
@@ -69,6 +95,9 @@ class AwsEcsApi {
         if (isNotEmpty(awsConfig.getServiceName())) {
             body.add("serviceName", awsConfig.getServiceName());
         }
+        if (nextToken != null) {
+            body.add("nextToken", nextToken);
+        }
         return body.toString();
     }
 
@@ -76,17 +105,26 @@ class AwsEcsApi {
         return createHeaders(body, credentials, "ListTasks");
     }
 
-    private List<String> parseListTasks(String response) {
-        return toStream(toJson(response).get("taskArns"))
+    private List<String> parseListTasks(JsonObject response) {
+        return toStream(response.get("taskArns"))
             .map(JsonValue::asString)
             .collect(Collectors.toList());
     }
 
+    /**
+     * Describes the given tasks, in batches of at most {@value #DESCRIBE_TASKS_MAX_TASKS} tasks, which is the limit of
+     * a single DescribeTasks call.
+     */
     List<Task> describeTasks(String clusterArn, List<String> taskArns, AwsCredentials credentials) {
-        String body = createBodyDescribeTasks(clusterArn, taskArns);
-        Map<String, String> headers = createHeadersDescribeTasks(body, credentials);
-        String response = callAwsService(body, headers);
-        return parseDescribeTasks(response);
+        List<Task> result = new ArrayList<>();
+        for (int from = 0; from < taskArns.size(); from += DESCRIBE_TASKS_MAX_TASKS) {
+            List<String> batch = taskArns.subList(from, Math.min(from + DESCRIBE_TASKS_MAX_TASKS, taskArns.size()));
+            String body = createBodyDescribeTasks(clusterArn, batch);
+            Map<String, String> headers = createHeadersDescribeTasks(body, credentials);
+            String response = callAwsService(body, headers);
+            result.addAll(parseDescribeTasks(response));
+        }
+        return result;
     }
 
     private String createBodyDescribeTasks(String cluster, List<String> taskArns) {
@@ -108,15 +146,61 @@ class AwsEcsApi {
             .collect(Collectors.toList());
     }
 
-    private Optional<Task> toTask(JsonValue taskJson) {
-        String availabilityZone = taskJson.asObject().get("availabilityZone").asString();
+    /**
+     * Returns the desired number of tasks of the given ECS Service.
+     *
+     * @see <a href="https://docs.aws.amazon.com/AmazonECS/latest/APIReference/API_DescribeServices.html">
+     * ECS Describe Services</a>
+     */
+    int describeServiceDesiredCount(String cluster, String serviceName, AwsCredentials credentials) {
+        String body = new JsonObject()
+            .add("cluster", cluster)
+            .add("services", new JsonArray().add(serviceName))
+            .toString();
+        Map<String, String> headers = createHeaders(body, credentials, "DescribeServices");
+        return toStream(toJson(callAwsService(body, headers)).get("services"))
+            .map(e -> e.asObject().getInt("desiredCount", 0))
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException(
+                String.format("ECS Service '%s' not found in cluster '%s'", serviceName, cluster)));
+    }
+
+    /**
+     * Parses a task as returned by DescribeTasks (or reported in an ECS Task State Change event); returns empty if the
+     * task has no network interface address yet.
+     */
+    static Optional<Task> toTask(JsonValue taskJson) {
+        String availabilityZone = taskJson.asObject().getString("availabilityZone", null);
+        String networkInterfaceId = networkInterfaceId(taskJson.asObject());
         return toStream(taskJson.asObject().get("containers"))
             .flatMap(e -> toStream(e.asObject().get("networkInterfaces")))
-            .map(e -> e.asObject().get("privateIpv4Address").asString())
-            .map(e -> new Task(e, availabilityZone))
+            .map(JsonValue::asObject)
+            .filter(e -> e.getString("privateIpv4Address", null) != null || e.getString("ipv6Address", null) != null)
+            .map(e -> new Task(e.getString("privateIpv4Address", null), e.getString("ipv6Address", null),
+                availabilityZone, networkInterfaceId))
             .findFirst();
     }
 
+    /**
+     * Returns the ID of the Elastic Network Interface attached to the task (awsvpc network mode) or {@code null}.
+     */
+    private static String networkInterfaceId(JsonObject taskJson) {
+        JsonValue attachments = taskJson.get("attachments");
+        if (attachments == null || !attachments.isArray()) {
+            return null;
+        }
+        return toStream(attachments)
+            .filter(e -> "ElasticNetworkInterface".equals(e.asObject().getString("type", null)))
+            .map(e -> e.asObject().get("details"))
+            .filter(e -> e != null && e.isArray())
+            .flatMap(AwsEcsApi::toStream)
+            .filter(e -> "networkInterfaceId".equals(e.asObject().getString("name", null)))
+            .map(e -> e.asObject().getString("value", null))
+            .filter(StringUtils::isNotEmpty)
+            .findFirst()
+            .orElse(null);
+    }
+
     private Map<String, String> createHeaders(String body, AwsCredentials credentials, String awsTargetAction) {
         Map<String, String> headers = new HashMap<>();
 
@@ -135,7 +219,7 @@ class AwsEcsApi {
     }
 
     private String callAwsService(String body, Map<String, String> headers) {
-        return createRestClient(urlFor(endpoint), awsConfig)
+        return createRestClient(urlFor(endpoint), awsConfig, endpoints)
             .withHeaders(headers)
             .withBody(body)
             .post()
@@ -152,19 +236,51 @@ class AwsEcsApi {
 
     static class Task {
         private final String privateAddress;
+        private final String ipv6Address;
         private final String availabilityZone;
+        private final String networkInterfaceId;
 
         Task(String privateAddress, String availabilityZone) {
-            this.privateAddress = privateAddress;
+            this(privateAddress, availabilityZone, null);
+        }
+
+        Task(String privateAddress, String availabilityZone, String networkInterfaceId) {
+            this(privateAddress, null, availabilityZone, networkInterfaceId);
+        }
+
+        /**
+         * Creates a task; if it has no private IPv4 address (IPv6-only subnet), its IPv6 address is used instead.
+         */
+        Task(String privateIpv4Address, String ipv6Address, String availabilityZone, String networkInterfaceId) {
+            this.privateAddress = privateIpv4Address != null ? privateIpv4Address : ipv6Address;
+            this.ipv6Address = ipv6Address;
             this.availabilityZone = availabilityZone;
+            this.networkInterfaceId = networkInterfaceId;
         }
 
+        /**
+         * Returns the private IPv4 address or, for IPv6-only tasks, the IPv6 address.
+         */
         String getPrivateAddress() {
             return privateAddress;
         }
 
+        /**
+         * Returns the IPv6 address or {@code null} if the task does not have any.
+         */
+        String getIpv6Address() {
+            return ipv6Address;
+        }
+
         String getAvailabilityZone() {
             return availabilityZone;
         }
+
+        /**
+         * Returns the ID of the Elastic Network Interface of the task or {@code null} if it is not known.
+         */
+        String getNetworkInterfaceId() {
+            return networkInterfaceId;
+        }
     }
 }
@@ -16,39 +16,85 @@
 package com.hazelcast.aws;
 
 import com.hazelcast.aws.AwsEcsApi.Task;
+import com.hazelcast.core.HazelcastException;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static com.hazelcast.aws.StringUtils.isEmpty;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 
 class AwsEcsClient implements AwsClient {
+    /**
+     * Maximum number of values of a single EC2 filter.
+     */
+    static final int NETWORK_INTERFACES_CHUNK_SIZE = 200;
+    static final int MAX_CONCURRENT_CHUNKS = 4;
+
     private static final ILogger LOGGER = Logger.getLogger(AwsClient.class);
 
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 60L;
+
     private final AwsEcsApi awsEcsApi;
     private final AwsEc2Api awsEc2Api;
     private final AwsMetadataApi awsMetadataApi;
     private final AwsCredentialsProvider awsCredentialsProvider;
     private final String cluster;
+    private final String serviceName;
+    private final ThreadPoolExecutor executor;
 
-    private boolean isNoPublicIpAlreadyLogged;
+    private volatile boolean isNoPublicIpAlreadyLogged;
 
     AwsEcsClient(String cluster, AwsEcsApi awsEcsApi, AwsEc2Api awsEc2Api, AwsMetadataApi awsMetadataApi,
                  AwsCredentialsProvider awsCredentialsProvider) {
+        this(cluster, null, awsEcsApi, awsEc2Api, awsMetadataApi, awsCredentialsProvider);
+    }
+
+    /**
+     * Creates a client which, if {@code serviceName} is not empty, reports the desired count of the ECS Service as the
+     * desired cluster size.
+     */
+    AwsEcsClient(String cluster, String serviceName, AwsEcsApi awsEcsApi, AwsEc2Api awsEc2Api,
+                 AwsMetadataApi awsMetadataApi, AwsCredentialsProvider awsCredentialsProvider) {
         this.cluster = cluster;
+        this.serviceName = serviceName;
         this.awsEcsApi = awsEcsApi;
         this.awsEc2Api = awsEc2Api;
         this.awsMetadataApi = awsMetadataApi;
         this.awsCredentialsProvider = awsCredentialsProvider;
+        this.executor = createExecutor();
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_CONCURRENT_CHUNKS, MAX_CONCURRENT_CHUNKS,
+            THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "hz.aws.discovery.network-interfaces-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // discovery is called rarely, do not keep idle threads around
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     @Override
-    public Map<String, String> getAddresses() {
+    public Map<String, AwsNode> getAddresses() {
         AwsCredentials credentials = awsCredentialsProvider.credentials();
 
         LOGGER.fine(String.format("Listing tasks from cluster: '%s'", cluster));
@@ -60,11 +106,46 @@ class AwsEcsClient implements AwsClient {
             List<String> taskAddresses = tasks.stream().map(Task::getPrivateAddress).collect(Collectors.toList());
             LOGGER.fine(String.format("AWS ECS DescribeTasks found the following addresses: %s", taskAddresses));
 
-            return fetchPublicAddresses(taskAddresses, credentials);
+            Map<String, String> publicAddresses = fetchPublicAddresses(tasks, credentials);
+            return toNodes(tasks, publicAddresses);
         }
         return emptyMap();
     }
 
+    /**
+     * Describes the tasks of every ListTasks page as soon as the page is fetched, so the members of the first page are
+     * passed to {@code pageConsumer} before the remaining tasks are listed.
+     */
+    @Override
+    public Map<String, AwsNode> getAddresses(Consumer<Collection<AwsNode>> pageConsumer) {
+        AwsCredentials credentials = awsCredentialsProvider.credentials();
+
+        LOGGER.fine(String.format("Listing tasks from cluster: '%s'", cluster));
+        Map<String, AwsNode> result = new HashMap<>();
+        awsEcsApi.listTasks(cluster, credentials, taskArns -> {
+            if (!taskArns.isEmpty()) {
+                List<Task> tasks = awsEcsApi.describeTasks(cluster, taskArns, credentials);
+                Map<String, AwsNode> page = toNodes(tasks, fetchPublicAddresses(tasks, credentials));
+                pageConsumer.accept(page.values());
+                result.putAll(page);
+            }
+        });
+        return result;
+    }
+
+    private static Map<String, AwsNode> toNodes(List<Task> tasks, Map<String, String> publicAddresses) {
+        Map<String, AwsNode> result = new HashMap<>();
+        for (Task task : tasks) {
+            result.put(task.getPrivateAddress(), AwsNode.builder()
+                .setPrivateAddress(task.getPrivateAddress())
+                .setPublicAddress(publicAddresses.get(task.getPrivateAddress()))
+                .setAvailabilityZone(task.getAvailabilityZone())
+                .setIpv6Address(task.getIpv6Address())
+                .build());
+        }
+        return result;
+    }
+
     /**
      * Fetches private addresses for the tasks.
      * <p>
@@ -76,9 +157,66 @@ class AwsEcsClient implements AwsClient {
      * <p>
      * Also note that this is performed regardless of the configured use-public-ip value
      * to make external smart clients able to work properly when possible.
+     * <p>
+     * The network interfaces of the tasks are looked up by their IDs; only the tasks whose network interface ID is not
+     * known are looked up by their private addresses. They are queried in chunks of
+     * {@value #NETWORK_INTERFACES_CHUNK_SIZE} (the limit of values of a single EC2 filter), at most
+     * {@value #MAX_CONCURRENT_CHUNKS} chunks at a time. A chunk which fails has no public addresses, while the other
+     * chunks are not affected.
      */
-    private Map<String, String> fetchPublicAddresses(List<String> privateAddresses, AwsCredentials credentials) {
+    private Map<String, String> fetchPublicAddresses(List<Task> tasks, AwsCredentials credentials) {
+        Map<Boolean, List<Task>> tasksByKnownNetworkInterface = tasks.stream()
+            .collect(Collectors.partitioningBy(t -> t.getNetworkInterfaceId() != null));
+        List<List<Task>> chunks = new ArrayList<>();
+        chunks.addAll(chunks(tasksByKnownNetworkInterface.get(true)));
+        chunks.addAll(chunks(tasksByKnownNetworkInterface.get(false)));
+        if (chunks.size() == 1) {
+            return fetchPublicAddressesChunk(chunks.get(0), credentials);
+        }
+
+        List<Future<Map<String, String>>> futures = new ArrayList<>();
+        for (List<Task> chunk : chunks) {
+            futures.add(executor.submit(() -> fetchPublicAddressesChunk(chunk, credentials)));
+        }
+
+        Map<String, String> result = new HashMap<>();
+        for (Future<Map<String, String>> future : futures) {
+            try {
+                result.putAll(future.get());
+            } catch (ExecutionException e) {
+                throw unchecked(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new HazelcastException(e);
+            }
+        }
+        return result;
+    }
+
+    private static List<List<Task>> chunks(List<Task> tasks) {
+        List<List<Task>> result = new ArrayList<>();
+        for (int from = 0; from < tasks.size(); from += NETWORK_INTERFACES_CHUNK_SIZE) {
+            result.add(tasks.subList(from, Math.min(from + NETWORK_INTERFACES_CHUNK_SIZE, tasks.size())));
+        }
+        return result;
+    }
+
+    private static RuntimeException unchecked(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        return new HazelcastException(t);
+    }
+
+    private Map<String, String> fetchPublicAddressesChunk(List<Task> tasks, AwsCredentials credentials) {
+        List<String> privateAddresses = tasks.stream().map(Task::getPrivateAddress).collect(Collectors.toList());
         try {
+            if (tasks.get(0).getNetworkInterfaceId() != null) {
+                List<String> networkInterfaceIds = tasks.stream().map(Task::getNetworkInterfaceId)
+                    .collect(Collectors.toList());
+                return awsEc2Api.describeNetworkInterfacesById(networkInterfaceIds, credentials);
+            }
             return awsEc2Api.describeNetworkInterfaces(privateAddresses, credentials);
         } catch (Exception e) {
             LOGGER.finest(e);
@@ -95,6 +233,20 @@ class AwsEcsClient implements AwsClient {
         }
     }
 
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public Optional<Integer> getDesiredClusterSize() {
+        if (isEmpty(serviceName)) {
+            return Optional.empty();
+        }
+        return Optional.of(awsEcsApi.describeServiceDesiredCount(cluster, serviceName,
+            awsCredentialsProvider.credentials()));
+    }
+
     @Override
     public String getAvailabilityZone() {
         String taskArn = awsMetadataApi.metadataEcs().getTaskArn();
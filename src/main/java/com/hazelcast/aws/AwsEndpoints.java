@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State kept about the AWS endpoints called by a single {@link SharedAwsClient}: the {@link CircuitBreaker},
+ * {@link LatencyHistogram} and {@link RequestHedger} of every endpoint.
+ * <p>
+ * The state is owned by the client rather than by the JVM, so every client gets the settings of its own configuration
+ * instead of the settings of the first caller. It is passed to every AWS API the client calls and dropped with
+ * {@link #close()} when the client is released; calls still in flight afterwards keep working, but do not register
+ * MBeans which nothing would unregister.
+ */
+final class AwsEndpoints {
+    private static final AtomicInteger ID_GENERATOR = new AtomicInteger();
+
+    private final AwsConfig awsConfig;
+    private final int id = ID_GENERATOR.incrementAndGet();
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> latencyHistograms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, RequestHedger> requestHedgers = new ConcurrentHashMap<>();
+
+    // guarded by circuitBreakers, which is also locked while a circuit breaker is created
+    private boolean closed;
+
+    AwsEndpoints(AwsConfig awsConfig) {
+        this.awsConfig = awsConfig;
+    }
+
+    /**
+     * Unregisters the MBeans of the circuit breakers; circuit breakers created afterwards are not registered.
+     */
+    void close() {
+        synchronized (circuitBreakers) {
+            closed = true;
+            circuitBreakers.values().forEach(CircuitBreaker::unregisterMBean);
+        }
+    }
+
+    /**
+     * Returns the circuit breaker of the endpoint of the given URL or {@code null} if circuit breakers are disabled.
+     */
+    CircuitBreaker circuitBreaker(String url) {
+        if (awsConfig.getCircuitBreakerFailureThreshold() <= 0) {
+            return null;
+        }
+        String endpoint = AwsRequestUtils.endpointOf(url);
+        CircuitBreaker circuitBreaker = circuitBreakers.get(endpoint);
+        if (circuitBreaker != null) {
+            return circuitBreaker;
+        }
+        synchronized (circuitBreakers) {
+            return circuitBreakers.computeIfAbsent(endpoint, e -> {
+                CircuitBreaker created = new CircuitBreaker(e, awsConfig.getCircuitBreakerFailureThreshold(),
+                    TimeUnit.SECONDS.toMillis(awsConfig.getCircuitBreakerOpenSeconds()), Clock.systemUTC());
+                if (!closed) {
+                    created.registerMBean(id);
+                }
+                return created;
+            });
+        }
+    }
+
+    /**
+     * Returns the latency histogram of the endpoint of the given URL.
+     */
+    LatencyHistogram latencyHistogram(String url) {
+        return latencyHistograms.computeIfAbsent(AwsRequestUtils.endpointOf(url), endpoint -> new LatencyHistogram());
+    }
+
+    /**
+     * Returns the hedger of the endpoint of the given URL or {@code null} if hedging is disabled.
+     */
+    RequestHedger requestHedger(String url) {
+        if (awsConfig.getHedgePercentile() <= 0) {
+            return null;
+        }
+        return requestHedgers.computeIfAbsent(AwsRequestUtils.endpointOf(url), endpoint -> new RequestHedger(
+            latencyHistogram(url), awsConfig.getHedgePercentile(), awsConfig.getHedgeBudgetPercent()));
+    }
+
+    /**
+     * Returns the adaptive timeout of the endpoint of the given URL or {@code null} if adaptive timeouts are disabled.
+     */
+    AdaptiveTimeout adaptiveTimeout(String url) {
+        if (awsConfig.getAdaptiveTimeoutMultiplier() <= 0) {
+            return null;
+        }
+        return new AdaptiveTimeout(latencyHistogram(url), awsConfig.getAdaptiveTimeoutMultiplier(),
+            awsConfig.getAdaptiveTimeoutMinMillis());
+    }
+}
@@ -20,7 +20,10 @@ import com.hazelcast.internal.json.JsonObject;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.aws.AwsRequestUtils.createRestClient;
 import static com.hazelcast.aws.RestClient.HTTP_NOT_FOUND;
@@ -42,32 +45,54 @@ class AwsMetadataApi {
 
     private static final String SECURITY_CREDENTIALS_URI = "/iam/security-credentials/";
 
+    private static final String TOKEN_HEADER = "X-aws-ec2-metadata-token";
+    private static final String TOKEN_TTL_HEADER = "X-aws-ec2-metadata-token-ttl-seconds";
+    private static final int TOKEN_TTL_SECONDS = 21600;
+    private static final long TOKEN_RENEWAL_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final long TOKEN_RETRY_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
     private final String ec2MetadataEndpoint;
+    private final String ec2TokenEndpoint;
     private final String ecsIamRoleEndpoint;
     private final String ecsTaskMetadataEndpoint;
     private final AwsConfig awsConfig;
+    private final AwsEndpoints endpoints;
+
+    private volatile Token token;
 
-    AwsMetadataApi(AwsConfig awsConfig) {
+    AwsMetadataApi(AwsConfig awsConfig, AwsEndpoints endpoints) {
         this.ec2MetadataEndpoint = EC2_METADATA_ENDPOINT;
+        this.ec2TokenEndpoint = tokenEndpoint(EC2_METADATA_ENDPOINT);
         this.ecsIamRoleEndpoint = ECS_IAM_ROLE_METADATA_ENDPOINT;
         this.ecsTaskMetadataEndpoint = ECS_TASK_METADATA_ENDPOINT;
         this.awsConfig = awsConfig;
+        this.endpoints = endpoints;
     }
 
     /**
      * For test purposes only.
      */
     AwsMetadataApi(String ec2MetadataEndpoint, String ecsIamRoleEndpoint, String ecsTaskMetadataEndpoint,
-                   AwsConfig awsConfig) {
+                   AwsConfig awsConfig, AwsEndpoints endpoints) {
         this.ec2MetadataEndpoint = ec2MetadataEndpoint;
+        this.ec2TokenEndpoint = tokenEndpoint(ec2MetadataEndpoint);
         this.ecsIamRoleEndpoint = ecsIamRoleEndpoint;
         this.ecsTaskMetadataEndpoint = ecsTaskMetadataEndpoint;
         this.awsConfig = awsConfig;
+        this.endpoints = endpoints;
+    }
+
+    /**
+     * Returns the IMDSv2 token endpoint ({@code /latest/api/token}) for the given metadata endpoint
+     * ({@code /latest/meta-data}).
+     */
+    private static String tokenEndpoint(String ec2MetadataEndpoint) {
+        return ec2MetadataEndpoint.replaceFirst("/meta-data$", "").concat("/api/token");
     }
 
     String availabilityZoneEc2() {
         String uri = ec2MetadataEndpoint.concat("/placement/availability-zone/");
-        return createRestClient(uri, awsConfig).get().getBody();
+        return createRestClient(uri, awsConfig, endpoints).get().getBody();
     }
 
     Optional<String> placementGroupEc2() {
@@ -91,7 +116,7 @@ class AwsMetadataApi {
     private Optional<String> getOptionalMetadata(String uri, String loggedName) {
         RestClient.Response response;
         try {
-            response = createRestClient(uri, awsConfig)
+            response = createRestClient(uri, awsConfig, endpoints)
                     .expectResponseCodes(HTTP_OK, HTTP_NOT_FOUND)
                     .get();
         } catch (Exception e) {
@@ -110,19 +135,96 @@ class AwsMetadataApi {
         }
     }
 
+    /**
+     * Returns the Spot Instance interruption notice (e.g. {@code {"action": "terminate", "time": "..."}}) or empty if
+     * the instance is not scheduled to be interrupted.
+     *
+     * @see <a href="https://docs.aws.amazon.com/AWSEC2/latest/UserGuide/spot-instance-termination-notices.html">
+     * Spot Instance interruption notices</a>
+     */
+    Optional<String> spotInstanceActionEc2() {
+        return getOptionalMetadataWithToken(ec2MetadataEndpoint.concat("/spot/instance-action"));
+    }
+
+    /**
+     * Returns the lifecycle state the instance is transitioning to in its Auto Scaling Group (e.g. {@code InService},
+     * {@code Terminated}) or empty if the instance is not part of an Auto Scaling Group.
+     *
+     * @see <a href="https://docs.aws.amazon.com/autoscaling/ec2/userguide/retrieving-target-lifecycle-state-through-imds.html">
+     * Target lifecycle state</a>
+     */
+    Optional<String> targetLifecycleStateEc2() {
+        return getOptionalMetadataWithToken(ec2MetadataEndpoint.concat("/autoscaling/target-lifecycle-state"));
+    }
+
+    /**
+     * Resolves an optional metadata using an IMDSv2 session token. Unlike {@link #getOptionalMetadata}, failures are
+     * not logged but thrown, since the callers poll the metadata.
+     */
+    private Optional<String> getOptionalMetadataWithToken(String uri) {
+        RestClient.Response response;
+        try {
+            response = createRestClient(uri, awsConfig, endpoints)
+                .withHeaders(tokenHeaders())
+                .expectResponseCodes(HTTP_OK, HTTP_NOT_FOUND)
+                .get();
+        } catch (RestClientException e) {
+            // the token may have been invalidated, e.g. after the instance was stopped and started again
+            token = null;
+            throw e;
+        }
+        if (response.getCode() == HTTP_NOT_FOUND) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(response.getBody()).map(String::trim);
+    }
+
+    private Map<String, String> tokenHeaders() {
+        String value = token();
+        return value == null ? Collections.emptyMap() : Collections.singletonMap(TOKEN_HEADER, value);
+    }
+
+    /**
+     * Returns the cached IMDSv2 session token, requesting a new one shortly before it expires. Returns {@code null} if
+     * the token cannot be requested (e.g. IMDSv2 is not reachable from a container because of the hop limit), in which
+     * case the metadata is requested without a token (IMDSv1) and the token is requested again later.
+     */
+    private String token() {
+        long now = System.currentTimeMillis();
+        Token current = token;
+        if (current == null || current.expiresAtMillis <= now) {
+            current = requestToken(now);
+            token = current;
+        }
+        return current.value;
+    }
+
+    private Token requestToken(long now) {
+        try {
+            String value = createRestClient(ec2TokenEndpoint, awsConfig, endpoints)
+                .withHeaders(Collections.singletonMap(TOKEN_TTL_HEADER, String.valueOf(TOKEN_TTL_SECONDS)))
+                .put()
+                .getBody();
+            return new Token(value, now + TimeUnit.SECONDS.toMillis(TOKEN_TTL_SECONDS) - TOKEN_RENEWAL_MARGIN_MILLIS);
+        } catch (Exception e) {
+            LOGGER.fine("Could not request IMDSv2 token, using IMDSv1", e);
+            return new Token(null, now + TOKEN_RETRY_MILLIS);
+        }
+    }
+
     String defaultIamRoleEc2() {
         String uri = ec2MetadataEndpoint.concat(SECURITY_CREDENTIALS_URI);
-        return createRestClient(uri, awsConfig).get().getBody();
+        return createRestClient(uri, awsConfig, endpoints).get().getBody();
     }
 
     AwsCredentials credentialsEc2(String iamRole) {
         String uri = ec2MetadataEndpoint.concat(SECURITY_CREDENTIALS_URI).concat(iamRole);
-        String response = createRestClient(uri, awsConfig).get().getBody();
+        String response = createRestClient(uri, awsConfig, endpoints).get().getBody();
         return parseCredentials(response);
     }
 
     AwsCredentials credentialsEcs() {
-        String response = createRestClient(ecsIamRoleEndpoint, awsConfig).get().getBody();
+        String response = createRestClient(ecsIamRoleEndpoint, awsConfig, endpoints).get().getBody();
         return parseCredentials(response);
     }
 
@@ -136,7 +238,7 @@ class AwsMetadataApi {
     }
 
     EcsMetadata metadataEcs() {
-        String response = createRestClient(ecsTaskMetadataEndpoint, awsConfig).get().getBody();
+        String response = createRestClient(ecsTaskMetadataEndpoint, awsConfig, endpoints).get().getBody();
         return parseEcsMetadata(response);
     }
 
@@ -148,6 +250,16 @@ class AwsMetadataApi {
         return new EcsMetadata(taskArn, clusterArn);
     }
 
+    private static final class Token {
+        private final String value;
+        private final long expiresAtMillis;
+
+        private Token(String value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
     static class EcsMetadata {
         private final String taskArn;
         private final String clusterArn;
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EC2 {@link AwsClient} which discovers members in multiple regions.
+ * <p>
+ * EC2 Describe Instances is called concurrently in every region (each region has its own endpoint and request signer)
+ * and the results are merged. A region which fails or does not respond within the region timeout is skipped, so that
+ * it does not delay discovering the members in the other regions.
+ */
+class AwsMultiRegionEc2Client implements AwsClient {
+    private static final ILogger LOGGER = Logger.getLogger(AwsMultiRegionEc2Client.class);
+
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 60L;
+
+    private final Map<String, AwsEc2Api> awsEc2Apis;
+    private final AwsMetadataApi awsMetadataApi;
+    private final AwsCredentialsProvider awsCredentialsProvider;
+    private final long regionTimeoutMillis;
+    private final ThreadPoolExecutor executor;
+
+    AwsMultiRegionEc2Client(Map<String, AwsEc2Api> awsEc2Apis, AwsMetadataApi awsMetadataApi,
+                            AwsCredentialsProvider awsCredentialsProvider, long regionTimeoutMillis) {
+        this.awsEc2Apis = awsEc2Apis;
+        this.awsMetadataApi = awsMetadataApi;
+        this.awsCredentialsProvider = awsCredentialsProvider;
+        this.regionTimeoutMillis = regionTimeoutMillis;
+        this.executor = createExecutor(awsEc2Apis.size());
+    }
+
+    private static ThreadPoolExecutor createExecutor(int regionCount) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(regionCount, regionCount,
+            THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "hz.aws.discovery.region-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // discovery is called rarely, do not keep idle threads around
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public Map<String, AwsNode> getAddresses() {
+        AwsCredentials credentials = awsCredentialsProvider.credentials();
+
+        Map<String, Future<Map<String, AwsNode>>> futures = new LinkedHashMap<>();
+        awsEc2Apis.forEach((region, ec2Api) -> futures.put(region, executor.submit(() -> ec2Api.describeInstances(credentials))));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(regionTimeoutMillis);
+        Map<String, AwsNode> result = new HashMap<>();
+        RuntimeException firstFailure = null;
+        int succeededRegions = 0;
+        for (Map.Entry<String, Future<Map<String, AwsNode>>> entry : futures.entrySet()) {
+            try {
+                result.putAll(awaitRegion(entry.getKey(), entry.getValue(), deadline));
+                succeededRegions++;
+            } catch (RuntimeException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    futures.values().forEach(f -> f.cancel(true));
+                    throw e;
+                }
+                if (firstFailure == null) {
+                    firstFailure = e;
+                }
+            }
+        }
+
+        if (succeededRegions == 0 && firstFailure != null) {
+            throw firstFailure;
+        }
+        return result;
+    }
+
+    private Map<String, AwsNode> awaitRegion(String region, Future<Map<String, AwsNode>> future, long deadline) {
+        try {
+            Map<String, AwsNode> addresses = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            LOGGER.fine(String.format("Found the following members in region '%s': %s", region, addresses.values()));
+            return addresses;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            LOGGER.warning(String.format("Region '%s' did not respond within %d ms, skipping it", region,
+                regionTimeoutMillis));
+            throw new RestClientException(String.format("Timeout while discovering members in region '%s'", region), e);
+        } catch (ExecutionException e) {
+            LOGGER.warning(String.format("Cannot discover members in region '%s', skipping it", region), e.getCause());
+            throw unchecked(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new HazelcastException(e);
+        }
+    }
+
+    private static RuntimeException unchecked(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        return new HazelcastException(t);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String getAvailabilityZone() {
+        return awsMetadataApi.availabilityZoneEc2();
+    }
+
+    @Override
+    public Optional<String> getPlacementGroup() {
+        return awsMetadataApi.placementGroupEc2();
+    }
+
+    @Override
+    public Optional<String> getPlacementPartitionNumber() {
+        return awsMetadataApi.placementPartitionNumberEc2();
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import java.util.Objects;
+
+/**
+ * Member candidate (EC2 Instance or ECS Task) found by the discovery together with its placement information.
+ * <p>
+ * This class is immutable.
+ */
+final class AwsNode {
+    private final String privateAddress;
+    private final String publicAddress;
+    private final String availabilityZone;
+    private final String placementGroup;
+    private final String placementPartitionNumber;
+    private final String instanceId;
+    private final String ipv6Address;
+
+    private AwsNode(String privateAddress, String publicAddress, String availabilityZone, String placementGroup,
+                    String placementPartitionNumber, String instanceId, String ipv6Address) {
+        this.privateAddress = privateAddress;
+        this.publicAddress = publicAddress;
+        this.availabilityZone = availabilityZone;
+        this.placementGroup = placementGroup;
+        this.placementPartitionNumber = placementPartitionNumber;
+        this.instanceId = instanceId;
+        this.ipv6Address = ipv6Address;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the private IPv4 address or, for IPv6-only members, the IPv6 address.
+     */
+    String getPrivateAddress() {
+        return privateAddress;
+    }
+
+    /**
+     * Returns the public address or {@code null} if the member does not have any.
+     */
+    String getPublicAddress() {
+        return publicAddress;
+    }
+
+    /**
+     * Returns the availability zone or {@code null} if unknown.
+     */
+    String getAvailabilityZone() {
+        return availabilityZone;
+    }
+
+    /**
+     * Returns the placement group name or {@code null} if the member does not belong to any placement group.
+     */
+    String getPlacementGroup() {
+        return placementGroup;
+    }
+
+    /**
+     * Returns the partition number or {@code null} if the member does not belong to a partition placement group.
+     */
+    String getPlacementPartitionNumber() {
+        return placementPartitionNumber;
+    }
+
+    /**
+     * Returns the EC2 instance ID or {@code null} if unknown (e.g. for ECS Tasks).
+     */
+    String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Returns the IPv6 address or {@code null} if the member does not have any.
+     */
+    String getIpv6Address() {
+        return ipv6Address;
+    }
+
+    Builder toBuilder() {
+        return builder()
+            .setPrivateAddress(privateAddress)
+            .setPublicAddress(publicAddress)
+            .setAvailabilityZone(availabilityZone)
+            .setPlacementGroup(placementGroup)
+            .setPlacementPartitionNumber(placementPartitionNumber)
+            .setInstanceId(instanceId)
+            .setIpv6Address(ipv6Address);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        AwsNode that = (AwsNode) o;
+        return Objects.equals(privateAddress, that.privateAddress)
+            && Objects.equals(publicAddress, that.publicAddress)
+            && Objects.equals(availabilityZone, that.availabilityZone)
+            && Objects.equals(placementGroup, that.placementGroup)
+            && Objects.equals(placementPartitionNumber, that.placementPartitionNumber)
+            && Objects.equals(instanceId, that.instanceId)
+            && Objects.equals(ipv6Address, that.ipv6Address);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(privateAddress, publicAddress, availabilityZone, placementGroup, placementPartitionNumber,
+            instanceId, ipv6Address);
+    }
+
+    @Override
+    public String toString() {
+        return "AwsNode{"
+            + "privateAddress='" + privateAddress + '\''
+            + ", publicAddress='" + publicAddress + '\''
+            + ", availabilityZone='" + availabilityZone + '\''
+            + ", placementGroup='" + placementGroup + '\''
+            + ", placementPartitionNumber='" + placementPartitionNumber + '\''
+            + ", instanceId='" + instanceId + '\''
+            + ", ipv6Address='" + ipv6Address + '\''
+            + '}';
+    }
+
+    static class Builder {
+        private String privateAddress;
+        private String publicAddress;
+        private String availabilityZone;
+        private String placementGroup;
+        private String placementPartitionNumber;
+        private String instanceId;
+        private String ipv6Address;
+
+        Builder setPrivateAddress(String privateAddress) {
+            this.privateAddress = privateAddress;
+            return this;
+        }
+
+        Builder setPublicAddress(String publicAddress) {
+            this.publicAddress = publicAddress;
+            return this;
+        }
+
+        Builder setAvailabilityZone(String availabilityZone) {
+            this.availabilityZone = availabilityZone;
+            return this;
+        }
+
+        Builder setPlacementGroup(String placementGroup) {
+            this.placementGroup = placementGroup;
+            return this;
+        }
+
+        Builder setPlacementPartitionNumber(String placementPartitionNumber) {
+            this.placementPartitionNumber = placementPartitionNumber;
+            return this;
+        }
+
+        Builder setInstanceId(String instanceId) {
+            this.instanceId = instanceId;
+            return this;
+        }
+
+        Builder setIpv6Address(String ipv6Address) {
+            this.ipv6Address = ipv6Address;
+            return this;
+        }
+
+        AwsNode build() {
+            return new AwsNode(privateAddress, publicAddress, availabilityZone, placementGroup, placementPartitionNumber,
+                instanceId, ipv6Address);
+        }
+    }
+}
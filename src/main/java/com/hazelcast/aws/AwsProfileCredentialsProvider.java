@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import java.util.Map;
+
+import static com.hazelcast.aws.StringUtils.isEmpty;
+
+/**
+ * Provides the credentials of a profile from the AWS shared credentials file.
+ * <p>
+ * The credentials are read from the cached {@link AwsProfileFile}, so the keys rotated in the file are used by the next
+ * discovery.
+ */
+class AwsProfileCredentialsProvider {
+    private static final String ACCESS_KEY_ID = "aws_access_key_id";
+    private static final String SECRET_ACCESS_KEY = "aws_secret_access_key";
+    private static final String SESSION_TOKEN = "aws_session_token";
+
+    private final AwsProfileFile credentialsFile;
+    private final String profileName;
+
+    AwsProfileCredentialsProvider(AwsProfileFile credentialsFile, String profileName) {
+        this.credentialsFile = credentialsFile;
+        this.profileName = profileName;
+    }
+
+    String getProfileName() {
+        return profileName;
+    }
+
+    /**
+     * Returns the credentials of the profile or {@code null} if the profile with the access keys does not exist.
+     */
+    AwsCredentials credentials() {
+        Map<String, String> profile = credentialsFile.getProfile(profileName);
+        if (isEmpty(profile.get(ACCESS_KEY_ID))) {
+            return null;
+        }
+        return AwsCredentials.builder()
+            .setAccessKey(profile.get(ACCESS_KEY_ID))
+            .setSecretKey(profile.get(SECRET_ACCESS_KEY))
+            .setToken(profile.get(SESSION_TOKEN))
+            .build();
+    }
+}
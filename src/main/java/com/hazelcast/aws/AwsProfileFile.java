@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.aws.StringUtils.isNotEmpty;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * AWS shared credentials file ({@code ~/.aws/credentials}) or config file ({@code ~/.aws/config}).
+ * <p>
+ * The parsed file is cached and parsed again only when its modification time changes, so that rotated keys are picked
+ * up without a restart, while the discovery does not read the file on every call.
+ *
+ * @see <a href="https://docs.aws.amazon.com/cli/latest/userguide/cli-configure-files.html">Configuration and credential
+ * file settings</a>
+ */
+class AwsProfileFile {
+    static final String DEFAULT_PROFILE = "default";
+
+    private static final ILogger LOGGER = Logger.getLogger(AwsProfileFile.class);
+
+    // in the config file, the profiles other than "default" are prefixed with "profile "
+    private static final String CONFIG_FILE_PROFILE_PREFIX = "profile ";
+
+    private final Path path;
+
+    // guarded by this
+    private FileTime lastModifiedTime;
+    private Map<String, Map<String, String>> profiles = Collections.emptyMap();
+
+    AwsProfileFile(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Returns the name of the profile to use: the configured one, the one from the {@code AWS_PROFILE} environment
+     * variable or "default".
+     */
+    static String profileName(AwsConfig awsConfig, Environment environment) {
+        if (isNotEmpty(awsConfig.getProfile())) {
+            return awsConfig.getProfile();
+        }
+        if (isNotEmpty(environment.getAwsProfile())) {
+            return environment.getAwsProfile();
+        }
+        return DEFAULT_PROFILE;
+    }
+
+    /**
+     * Returns the properties of the given profile, or an empty map if the file or the profile does not exist.
+     */
+    Map<String, String> getProfile(String profileName) {
+        return reloadIfModified().getOrDefault(profileName, Collections.emptyMap());
+    }
+
+    private synchronized Map<String, Map<String, String>> reloadIfModified() {
+        try {
+            FileTime modifiedTime = Files.getLastModifiedTime(path);
+            if (!modifiedTime.equals(lastModifiedTime)) {
+                profiles = parse(Files.readAllLines(path, UTF_8));
+                if (lastModifiedTime != null) {
+                    LOGGER.info(String.format("Reloaded modified AWS profile file: %s", path));
+                }
+                lastModifiedTime = modifiedTime;
+            }
+        } catch (NoSuchFileException e) {
+            profiles = Collections.emptyMap();
+            lastModifiedTime = null;
+        } catch (IOException e) {
+            LOGGER.warning(String.format("Cannot read AWS profile file: %s", path), e);
+        }
+        return profiles;
+    }
+
+    static Map<String, Map<String, String>> parse(List<String> lines) {
+        Map<String, Map<String, String>> result = new HashMap<>();
+        Map<String, String> profile = null;
+        for (String rawLine : lines) {
+            String line = rawLine.trim();
+            if (line.isEmpty() || line.startsWith("#") || line.startsWith(";")) {
+                continue;
+            }
+            if (line.startsWith("[") && line.endsWith("]")) {
+                profile = result.computeIfAbsent(sectionProfileName(line), k -> new HashMap<>());
+            } else if (profile != null && line.contains("=")) {
+                int separator = line.indexOf('=');
+                profile.put(line.substring(0, separator).trim(), line.substring(separator + 1).trim());
+            }
+        }
+        return result;
+    }
+
+    private static String sectionProfileName(String line) {
+        String name = line.substring(1, line.length() - 1).trim();
+        if (name.startsWith(CONFIG_FILE_PROFILE_PREFIX)) {
+            return name.substring(CONFIG_FILE_PROFILE_PREFIX.length()).trim();
+        }
+        return name;
+    }
+}
@@ -19,6 +19,7 @@ import com.hazelcast.config.properties.PropertyDefinition;
 import com.hazelcast.config.properties.PropertyTypeConverter;
 import com.hazelcast.config.properties.SimplePropertyDefinition;
 
+import static com.hazelcast.config.properties.PropertyTypeConverter.BOOLEAN;
 import static com.hazelcast.config.properties.PropertyTypeConverter.INTEGER;
 import static com.hazelcast.config.properties.PropertyTypeConverter.STRING;
 
@@ -45,6 +46,18 @@ enum AwsProperties {
      */
     REGION("region", STRING, true),
 
+    /**
+     * Comma-separated list of regions where your members are running (e.g. {@code "us-east-1,us-west-2"}).
+     * <p>
+     * EC2 Describe Instances is called in all the regions concurrently and the results are merged. A region which does
+     * not respond within the time of all the attempts of the call (the connection and read timeouts of every attempt
+     * and the backoff between the retries) is skipped, so that it does not delay discovering the members in the other
+     * regions.
+     * <p>
+     * It is optional and mutually exclusive with "region". Supported only for EC2 discovery.
+     */
+    REGIONS("regions", STRING, true),
+
     /**
      * IAM roles are used to make secure requests from your clients. You can provide the name
      * of your IAM role that you created previously on your AWS console.
@@ -130,7 +143,261 @@ enum AwsProperties {
      * <p>
      * Note that this option is mutually exclusive with "family".
      */
-    SERVICE_NAME("service-name", STRING, true);
+    SERVICE_NAME("service-name", STRING, true),
+
+    /**
+     * Orders the discovered members by their locality: members in the same availability zone come first, then members
+     * in the same placement group, then members in other availability zones. Joining members then connect to the closest
+     * members first, which reduces the join latency and the cross-zone data transfer.
+     * <p>
+     * Note that Hazelcast 4.2 collects the discovered members of every strategy into an unordered set before joining,
+     * so the order only applies to callers which iterate the discovery strategy directly.
+     * <p>
+     * Its default value is false.
+     */
+    PREFER_SAME_ZONE("prefer-same-zone", BOOLEAN, true),
+
+    /**
+     * Period in seconds of the background discovery refresh. When set, the members are discovered periodically in
+     * a background thread, changes are published to the registered {@link AwsDiscoveryListener}s and the discovery
+     * returns the last discovered members without calling AWS API.
+     * <p>
+     * Its default value is 0, which disables the background refresh.
+     */
+    REFRESH_PERIOD_SECONDS("refresh-period-seconds", INTEGER, true),
+
+    /**
+     * Maximum random delay in seconds added to every background discovery refresh period, so that the members
+     * started at the same time do not call AWS API at the same time.
+     * <p>
+     * Its default value is 0.
+     */
+    REFRESH_JITTER_SECONDS("refresh-jitter-seconds", INTEGER, true),
+
+    /**
+     * ARN of the IAM role to assume before calling AWS API, e.g. to discover members in another account.
+     * <p>
+     * The role is assumed with STS AssumeRole using the credentials resolved from the other properties (access keys,
+     * EC2 IAM role or ECS task role). The session credentials are cached and refreshed in the background before they
+     * expire.
+     */
+    ASSUME_ROLE_ARN("assume-role-arn", STRING, true),
+
+    /**
+     * External ID passed to STS AssumeRole, if required by the trust policy of the assumed role.
+     */
+    ASSUME_ROLE_EXTERNAL_ID("assume-role-external-id", STRING, true),
+
+    /**
+     * Duration of the assumed role session, between 900 and 43200 seconds. Default: 3600.
+     */
+    ASSUME_ROLE_SESSION_DURATION_SECONDS("assume-role-session-duration-seconds", INTEGER, true),
+
+    /**
+     * Name of the profile in the shared credentials file ({@code ~/.aws/credentials}) and the config file
+     * ({@code ~/.aws/config}) used to get the credentials and the region.
+     * <p>
+     * If not defined, the profile from the {@code AWS_PROFILE} environment variable or the "default" profile is used, if
+     * present in the files. The files are read again when they are modified, so rotated keys are used without a restart.
+     */
+    PROFILE("profile", STRING, true),
+
+    /**
+     * Number of consecutive failed calls (connection failures, timeouts or HTTP 5xx responses) to an AWS endpoint after
+     * which its circuit breaker opens. While the circuit breaker is open, the calls to the endpoint fail immediately,
+     * without waiting for the timeouts and retries, and the last discovered members are used if available.
+     * <p>
+     * Its default value is 0, which disables the circuit breaker.
+     */
+    CIRCUIT_BREAKER_FAILURE_THRESHOLD("circuit-breaker-failure-threshold", INTEGER, true),
+
+    /**
+     * Number of seconds the circuit breaker stays open before a single trial call is let through to check if the
+     * endpoint has recovered.
+     * <p>
+     * Its default value is 30.
+     */
+    CIRCUIT_BREAKER_OPEN_SECONDS("circuit-breaker-open-seconds", INTEGER, true),
+
+    /**
+     * Percentile (1-99) of the recent latencies of an AWS endpoint after which an idempotent (GET) call that has not
+     * completed yet is sent once more. The first response wins and the other call is cancelled.
+     * <p>
+     * Its default value is 0, which disables hedging.
+     */
+    HEDGE_PERCENTILE("hedge-percentile", INTEGER, true),
+
+    /**
+     * Maximum percentage (1-100) of the calls to an AWS endpoint which may be hedged.
+     * <p>
+     * Its default value is 10.
+     */
+    HEDGE_BUDGET_PERCENT("hedge-budget-percent", INTEGER, true),
+
+    /**
+     * Sets the connect timeout in milliseconds; takes precedence over {@code connection-timeout-seconds}.
+     */
+    CONNECTION_TIMEOUT_MILLIS("connection-timeout-millis", INTEGER, true),
+
+    /**
+     * Sets the read timeout in milliseconds; takes precedence over {@code read-timeout-seconds}.
+     */
+    READ_TIMEOUT_MILLIS("read-timeout-millis", INTEGER, true),
+
+    /**
+     * Multiplier of the 99th percentile of the recent latencies of an AWS endpoint which is used as the timeout of the
+     * first attempt of a call, never exceeding the connect and read timeouts; the retries use the full timeouts.
+     * <p>
+     * Its default value is 0, which disables adaptive timeouts.
+     */
+    ADAPTIVE_TIMEOUT_MULTIPLIER("adaptive-timeout-multiplier", INTEGER, true),
+
+    /**
+     * Lower bound of the adaptive timeout in milliseconds.
+     * <p>
+     * Its default value is 100.
+     */
+    ADAPTIVE_TIMEOUT_MIN_MILLIS("adaptive-timeout-min-millis", INTEGER, true),
+
+    /**
+     * Returns the discovered members page by page, as soon as every page of EC2 Describe Instances or ECS List Tasks is
+     * fetched, to callers which iterate {@link AwsDiscoveryStrategy#discoverNodes()} directly.
+     * <p>
+     * It does not shorten the time to the first connection of a Hazelcast member or client: the Hazelcast 4.2
+     * {@code DefaultDiscoveryService} collects the whole result of the strategy into a set before returning it, so it
+     * waits for the last page either way (and does not keep the order of the members).
+     * <p>
+     * Its default value is false.
+     */
+    STREAMING_DISCOVERY("streaming-discovery", BOOLEAN, true),
+
+    /**
+     * AWS Cloud Map namespace in which the members are registered. If defined (together with "cloud-map-service"), the
+     * members are discovered with a single Cloud Map DiscoverInstances call instead of EC2 or ECS API.
+     * <p>
+     * It is optional.
+     */
+    CLOUD_MAP_NAMESPACE("cloud-map-namespace", STRING, true),
+
+    /**
+     * AWS Cloud Map service in which the members are registered.
+     * <p>
+     * It is optional.
+     */
+    CLOUD_MAP_SERVICE("cloud-map-service", STRING, true),
+
+    /**
+     * Comma-separated {@code key=value} pairs of custom attributes which the Cloud Map instances must have to be
+     * discovered (e.g. "stage=prod,role=member").
+     * <p>
+     * It is optional.
+     */
+    CLOUD_MAP_ATTRIBUTES("cloud-map-attributes", STRING, true),
+
+    /**
+     * Number of seconds for which the members discovered with AWS Cloud Map are reused without calling it again.
+     * <p>
+     * Its default value is 5; 0 disables the caching.
+     */
+    CLOUD_MAP_CACHE_SECONDS("cloud-map-cache-seconds", INTEGER, true),
+
+    /**
+     * Name of the EC2 Auto Scaling Group whose members are discovered. If defined, only the instances which are
+     * {@code InService} in this group are described, instead of filtering all EC2 instances of the region by tags or
+     * security group (which can still narrow the result).
+     * <p>
+     * It is optional.
+     */
+    AUTO_SCALING_GROUP("auto-scaling-group", STRING, true),
+
+    /**
+     * Skips EC2 instances which have not passed the EC2 status checks yet (checked with EC2 Describe Instance Status and
+     * remembered once an instance is healthy), so that joining members do not try to connect to freshly booted
+     * instances on which Hazelcast is not listening yet. If none of the instances has passed the checks yet, e.g. when
+     * the whole fleet is launched at once, no instance is skipped.
+     * <p>
+     * Its default value is false.
+     */
+    INSTANCE_STATUS_CHECK("instance-status-check", BOOLEAN, true),
+
+    /**
+     * Preferred address family of the members, either "ipv4" or "ipv6". With "ipv6", the members are connected to with
+     * their IPv6 addresses whenever they have any. IPv6-only members are always discovered with their IPv6 addresses.
+     * <p>
+     * Its default value is "ipv4".
+     */
+    ADDRESS_FAMILY("address-family", STRING, true),
+
+    /**
+     * Calls the dual-stack (IPv4 and IPv6) endpoints of EC2 and ECS API ("ec2.&lt;region&gt;.api.aws"), so that the
+     * members in IPv6-only subnets can reach AWS API without NAT64.
+     * <p>
+     * Its default value is false.
+     */
+    DUAL_STACK_ENDPOINTS("dual-stack-endpoints", BOOLEAN, true),
+
+    /**
+     * URL of an SQS queue which receives EC2 Instance State-change Notification or ECS Task State Change events from
+     * Amazon EventBridge. If defined, the members discovered in the background are updated as soon as an event is
+     * received, and the full discovery every "refresh-period-seconds" only reconciles them. The requests to the queue
+     * are signed for the region in its URL, which may differ from the region of the discovered members.
+     * <p>
+     * The received messages are deleted from the queue, so every member needs its own queue (e.g. subscribed to an SNS
+     * topic targeted by the EventBridge rule); members sharing a queue would each receive only a part of the events.
+     * <p>
+     * It is optional; if defined, the default of "refresh-period-seconds" is 300.
+     */
+    EVENT_QUEUE_URL("event-queue-url", STRING, true),
+
+    /**
+     * Period in seconds of polling EC2 Instance Metadata for a Spot Instance interruption notice or an Auto Scaling
+     * Group termination of the local instance. When one is found, the registered {@link AwsTerminationListener}s are
+     * notified, so that the member can shut down gracefully before the instance disappears.
+     * <p>
+     * Its default value is 0, which disables the watcher. AWS recommends polling every 5 seconds.
+     */
+    TERMINATION_WATCH_PERIOD_SECONDS("termination-watch-period-seconds", INTEGER, true),
+
+    /**
+     * Minimum number of members the first discovery waits for, so that members started at the same time (e.g. after
+     * a mass restart) do not form separate clusters. The discovery is repeated with a jittered backoff until at least
+     * this number of members is found or "startup-quorum-timeout-seconds" passes. Either a number or "desired", which
+     * waits for the desired capacity of "auto-scaling-group" or the desired count of the ECS "service-name".
+     * <p>
+     * With "auto-scaling-group", only the instances in the {@code InService} lifecycle state are discovered, so a launch
+     * lifecycle hook which is completed only once Hazelcast has started keeps the instances out of the quorum until the
+     * timeout. "desired" cannot be used with "instance-status-check", since the instances launched together pass the
+     * status checks only minutes after Hazelcast has started.
+     * <p>
+     * It is optional; by default, the first discovery does not wait.
+     */
+    STARTUP_QUORUM("startup-quorum", STRING, true),
+
+    /**
+     * Maximum time in seconds the first discovery waits for "startup-quorum"; afterwards the members found so far are
+     * used. The first discovery is a part of the join, so the timeout must be well below the
+     * "hazelcast.max.join.seconds" property of Hazelcast (300 by default), otherwise the member gives up joining.
+     * <p>
+     * Its default value is 120.
+     */
+    STARTUP_QUORUM_TIMEOUT_SECONDS("startup-quorum-timeout-seconds", INTEGER, true),
+
+    /**
+     * Comma-separated class names of {@link AwsDiscoveryListener}s registered when the discovery strategy is created.
+     * Every class must have a public no-argument constructor; it is loaded with the thread context class loader.
+     * <p>
+     * It is optional. The listeners are notified only if the background refresh is enabled.
+     */
+    DISCOVERY_LISTENERS("discovery-listeners", STRING, true),
+
+    /**
+     * Comma-separated class names of {@link AwsTerminationListener}s registered when the discovery strategy is created,
+     * e.g. {@link GracefulShutdownTerminationListener}. Every class must have a public no-argument constructor; it is
+     * loaded with the thread context class loader.
+     * <p>
+     * It is optional. It requires "termination-watch-period-seconds".
+     */
+    TERMINATION_LISTENERS("termination-listeners", STRING, true);
 
     private final PropertyDefinition propertyDefinition;
 
@@ -18,6 +18,8 @@ package com.hazelcast.aws;
 import com.hazelcast.core.HazelcastException;
 
 import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.net.URLEncoder;
 import java.text.SimpleDateFormat;
 import java.time.Clock;
@@ -43,11 +45,15 @@ final class AwsRequestUtils {
         return df.format(Instant.now(clock).toEpochMilli());
     }
 
-    static RestClient createRestClient(String url, AwsConfig awsConfig) {
+    static RestClient createRestClient(String url, AwsConfig awsConfig, AwsEndpoints endpoints) {
         return RestClient.create(url)
-            .withConnectTimeoutSeconds(awsConfig.getConnectionTimeoutSeconds())
-            .withReadTimeoutSeconds(awsConfig.getReadTimeoutSeconds())
-            .withRetries(awsConfig.getConnectionRetries());
+            .withConnectTimeoutMillis(awsConfig.getConnectionTimeoutMillis())
+            .withReadTimeoutMillis(awsConfig.getReadTimeoutMillis())
+            .withRetries(awsConfig.getConnectionRetries())
+            .withCircuitBreaker(endpoints.circuitBreaker(url))
+            .withRequestHedger(endpoints.requestHedger(url))
+            .withLatencyHistogram(endpoints.latencyHistogram(url))
+            .withAdaptiveTimeout(endpoints.adaptiveTimeout(url));
     }
 
     static String canonicalQueryString(Map<String, String> attributes) {
@@ -98,4 +104,17 @@ final class AwsRequestUtils {
         }
         return "https://" + endpoint;
     }
+
+    /**
+     * Returns the endpoint (scheme, host and port) of the given URL.
+     */
+    static String endpointOf(String url) {
+        try {
+            URL parsed = new URL(url);
+            String port = parsed.getPort() == -1 ? "" : ":" + parsed.getPort();
+            return parsed.getProtocol() + "://" + parsed.getHost() + port;
+        } catch (MalformedURLException e) {
+            return url;
+        }
+    }
 }
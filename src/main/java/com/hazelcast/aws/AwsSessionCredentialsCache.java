@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Caches temporary credentials received from STS.
+ * <p>
+ * The credentials are cached until shortly before they expire. When they get close to the expiration, they are
+ * refreshed in a background thread and the current credentials are returned in the meantime, so the discovery does not
+ * wait for STS. Only the very first call, or a call after the credentials have expired, waits for STS.
+ */
+class AwsSessionCredentialsCache {
+    private static final ILogger LOGGER = Logger.getLogger(AwsSessionCredentialsCache.class);
+
+    // credentials are not used in the last minute of the session, so that a request does not fail on the way
+    private static final Duration EXPIRATION_MARGIN = Duration.ofMinutes(1);
+    private static final Duration REFRESH_MARGIN = Duration.ofMinutes(5);
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    private final String description;
+    private final Supplier<AwsStsApi.SessionCredentials> sessionSupplier;
+    private final Clock clock;
+    private final Executor executor;
+
+    private final SingleFlight<AwsStsApi.SessionCredentials> sessionCall = new SingleFlight<>();
+    private final AtomicBoolean isRefreshInProgress = new AtomicBoolean();
+
+    private volatile AwsStsApi.SessionCredentials session;
+
+    /**
+     * @param description     description of the credentials used in the log messages, e.g. the role name
+     * @param sessionSupplier calls STS to get new credentials
+     */
+    AwsSessionCredentialsCache(String description, Supplier<AwsStsApi.SessionCredentials> sessionSupplier, Clock clock,
+                               Executor executor) {
+        this.description = description;
+        this.sessionSupplier = sessionSupplier;
+        this.clock = clock;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates the executor which refreshes the credentials. Its single thread terminates when idle, so the executor does
+     * not need to be shut down.
+     */
+    static Executor createRefreshExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "hz.aws.sts.refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    AwsCredentials credentials() {
+        AwsStsApi.SessionCredentials current = session;
+        Instant now = clock.instant();
+        if (current == null || !now.isBefore(current.getExpiration().minus(EXPIRATION_MARGIN))) {
+            current = sessionCall.call(this::fetchSession);
+        } else if (!now.isBefore(current.getExpiration().minus(REFRESH_MARGIN))
+            && isRefreshInProgress.compareAndSet(false, true)) {
+            executor.execute(this::refresh);
+        }
+        return current.getCredentials();
+    }
+
+    private void refresh() {
+        try {
+            sessionCall.call(this::fetchSession);
+        } catch (Exception e) {
+            LOGGER.warning(String.format("Cannot refresh credentials of %s, using the current credentials until they"
+                + " expire", description), e);
+        } finally {
+            isRefreshInProgress.set(false);
+        }
+    }
+
+    private AwsStsApi.SessionCredentials fetchSession() {
+        LOGGER.fine(String.format("Fetching credentials of %s", description));
+        AwsStsApi.SessionCredentials result = sessionSupplier.get();
+        LOGGER.fine(String.format("Fetched credentials of %s, they expire at %s", description, result.getExpiration()));
+        session = result;
+        return result;
+    }
+}
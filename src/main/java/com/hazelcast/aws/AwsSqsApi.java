@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.hazelcast.aws.AwsRequestUtils.canonicalQueryString;
+import static com.hazelcast.aws.AwsRequestUtils.currentTimestamp;
+import static com.hazelcast.aws.AwsRequestUtils.urlFor;
+import static com.hazelcast.aws.StringUtils.isNotEmpty;
+
+/**
+ * Responsible for connecting to AWS SQS API (Query protocol).
+ * <p>
+ * Messages are received with long polling, so the calls are made without the circuit breaker, request hedging and
+ * adaptive timeouts which assume short calls; the read timeout is extended to cover the long-poll wait.
+ *
+ * @see <a href="https://docs.aws.amazon.com/AWSSimpleQueueService/latest/APIReference/Welcome.html">AWS SQS API</a>
+ */
+class AwsSqsApi {
+    static final int WAIT_TIME_SECONDS = 20;
+
+    private static final int MAX_NUMBER_OF_MESSAGES = 10;
+
+    private final String endpoint;
+    private final AwsConfig awsConfig;
+    private final AwsRequestSigner requestSigner;
+    private final Clock clock;
+
+    AwsSqsApi(String endpoint, AwsConfig awsConfig, AwsRequestSigner requestSigner, Clock clock) {
+        this.endpoint = endpoint;
+        this.awsConfig = awsConfig;
+        this.requestSigner = requestSigner;
+        this.clock = clock;
+    }
+
+    /**
+     * Calls AWS SQS Receive Message API with long polling, i.e. waits up to {@value #WAIT_TIME_SECONDS} seconds until at
+     * least one message is available in the configured queue, and returns at most {@value #MAX_NUMBER_OF_MESSAGES}
+     * messages.
+     *
+     * @see <a href="https://docs.aws.amazon.com/AWSSimpleQueueService/latest/APIReference/API_ReceiveMessage.html">
+     * SQS Receive Message</a>
+     */
+    List<Message> receiveMessages(AwsCredentials credentials) {
+        Map<String, String> attributes = createSharedAttributes("ReceiveMessage");
+        attributes.put("MaxNumberOfMessages", String.valueOf(MAX_NUMBER_OF_MESSAGES));
+        attributes.put("WaitTimeSeconds", String.valueOf(WAIT_TIME_SECONDS));
+        String response = callAwsService(attributes, credentials);
+        return XmlNode.create(response)
+            .getSubNodes("receivemessageresult")
+            .flatMap(e -> e.getSubNodes("message"))
+            .map(e -> new Message(e.getValue("receipthandle"), e.getValue("body")))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Calls AWS SQS Delete Message Batch API for the given messages, in batches of at most
+     * {@value #MAX_NUMBER_OF_MESSAGES} messages.
+     *
+     * @see <a href="https://docs.aws.amazon.com/AWSSimpleQueueService/latest/APIReference/API_DeleteMessageBatch.html">
+     * SQS Delete Message Batch</a>
+     */
+    void deleteMessages(List<Message> messages, AwsCredentials credentials) {
+        for (int from = 0; from < messages.size(); from += MAX_NUMBER_OF_MESSAGES) {
+            List<Message> batch = messages.subList(from, Math.min(from + MAX_NUMBER_OF_MESSAGES, messages.size()));
+            Map<String, String> attributes = createSharedAttributes("DeleteMessageBatch");
+            for (int i = 0; i < batch.size(); i++) {
+                String prefix = "DeleteMessageBatchRequestEntry." + (i + 1);
+                attributes.put(prefix + ".Id", String.valueOf(i + 1));
+                attributes.put(prefix + ".ReceiptHandle", batch.get(i).getReceiptHandle());
+            }
+            callAwsService(attributes, credentials);
+        }
+    }
+
+    private Map<String, String> createSharedAttributes(String action) {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("Action", action);
+        attributes.put("Version", "2012-11-05");
+        attributes.put("QueueUrl", awsConfig.getEventQueueUrl());
+        return attributes;
+    }
+
+    private Map<String, String> createHeaders(Map<String, String> attributes, AwsCredentials credentials) {
+        Map<String, String> headers = new HashMap<>();
+
+        if (isNotEmpty(credentials.getToken())) {
+            headers.put("X-Amz-Security-Token", credentials.getToken());
+        }
+        headers.put("Host", endpoint);
+        String timestamp = currentTimestamp(clock);
+        headers.put("X-Amz-Date", timestamp);
+        headers.put("Authorization", requestSigner.authHeader(attributes, headers, "", credentials, timestamp, "GET"));
+
+        return headers;
+    }
+
+    private String callAwsService(Map<String, String> attributes, AwsCredentials credentials) {
+        Map<String, String> headers = createHeaders(attributes, credentials);
+        String query = canonicalQueryString(attributes);
+        return RestClient.create(urlFor(endpoint) + "/?" + query)
+            .withConnectTimeoutMillis(awsConfig.getConnectionTimeoutMillis())
+            .withReadTimeoutMillis(readTimeoutMillis())
+            .withRetries(awsConfig.getConnectionRetries())
+            .withHeaders(headers)
+            .get()
+            .getBody();
+    }
+
+    private int readTimeoutMillis() {
+        int readTimeoutMillis = awsConfig.getReadTimeoutMillis();
+        if (readTimeoutMillis <= 0) {
+            return 0;
+        }
+        return readTimeoutMillis + (int) TimeUnit.SECONDS.toMillis(WAIT_TIME_SECONDS);
+    }
+
+    static final class Message {
+        private final String receiptHandle;
+        private final String body;
+
+        Message(String receiptHandle, String body) {
+            this.receiptHandle = receiptHandle;
+            this.body = body;
+        }
+
+        String getReceiptHandle() {
+            return receiptHandle;
+        }
+
+        String getBody() {
+            return body;
+        }
+    }
+}
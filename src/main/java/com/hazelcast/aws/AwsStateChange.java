@@ -0,0 +1,158 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.internal.json.Json;
+import com.hazelcast.internal.json.JsonObject;
+import com.hazelcast.internal.json.JsonValue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * EC2 Instance or ECS Task state change reported by Amazon EventBridge.
+ * <p>
+ * Only the transitions relevant for the discovery are parsed: an instance or task which starts running, and an instance
+ * or task which is stopping or stopped. Intermediate states (e.g. {@code pending}) are ignored. Events delivered through
+ * an SNS topic are unwrapped from the SNS notification.
+ *
+ * @see <a href="https://docs.aws.amazon.com/AWSEC2/latest/UserGuide/monitoring-instance-state-changes.html">
+ * EC2 Instance State-change Notification</a>
+ * @see <a href="https://docs.aws.amazon.com/AmazonECS/latest/developerguide/ecs_cwe_events.html">
+ * ECS Task State Change</a>
+ */
+final class AwsStateChange {
+    private static final String EC2_DETAIL_TYPE = "EC2 Instance State-change Notification";
+    private static final String ECS_DETAIL_TYPE = "ECS Task State Change";
+    private static final Set<String> EC2_STOPPED_STATES = new HashSet<>(
+        Arrays.asList("shutting-down", "terminated", "stopping", "stopped"));
+    private static final Set<String> ECS_STOPPED_STATES = new HashSet<>(
+        Arrays.asList("DEACTIVATING", "STOPPING", "DEPROVISIONING", "STOPPED"));
+
+    private final boolean running;
+    private final String instanceId;
+    private final AwsEcsApi.Task task;
+    private final String clusterArn;
+    private final String group;
+
+    private AwsStateChange(boolean running, String instanceId, AwsEcsApi.Task task, String clusterArn, String group) {
+        this.running = running;
+        this.instanceId = instanceId;
+        this.task = task;
+        this.clusterArn = clusterArn;
+        this.group = group;
+    }
+
+    /**
+     * Parses the given EventBridge event; returns empty if the event is not a relevant EC2 or ECS state change.
+     */
+    static Optional<AwsStateChange> parse(String event) {
+        JsonValue json;
+        try {
+            json = Json.parse(event);
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+        if (json.isObject() && isSnsNotification(json.asObject())) {
+            return parse(json.asObject().getString("Message", null));
+        }
+        if (!json.isObject() || !(json.asObject().get("detail") instanceof JsonObject)) {
+            return Optional.empty();
+        }
+        String detailType = json.asObject().getString("detail-type", null);
+        JsonObject detail = json.asObject().get("detail").asObject();
+        if (EC2_DETAIL_TYPE.equals(detailType)) {
+            return parseEc2(detail);
+        }
+        if (ECS_DETAIL_TYPE.equals(detailType)) {
+            return parseEcs(detail);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns true if the event was fanned out through an SNS topic without raw message delivery, so it is wrapped in an
+     * SNS notification.
+     */
+    private static boolean isSnsNotification(JsonObject json) {
+        JsonValue message = json.get("Message");
+        return "Notification".equals(json.getString("Type", null)) && message != null && message.isString();
+    }
+
+    private static Optional<AwsStateChange> parseEc2(JsonObject detail) {
+        String instanceId = detail.getString("instance-id", null);
+        String state = detail.getString("state", null);
+        if (instanceId == null || state == null) {
+            return Optional.empty();
+        }
+        if ("running".equals(state)) {
+            return Optional.of(new AwsStateChange(true, instanceId, null, null, null));
+        }
+        if (EC2_STOPPED_STATES.contains(state)) {
+            return Optional.of(new AwsStateChange(false, instanceId, null, null, null));
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<AwsStateChange> parseEcs(JsonObject detail) {
+        String lastStatus = detail.getString("lastStatus", null);
+        String desiredStatus = detail.getString("desiredStatus", null);
+        boolean stopped = ECS_STOPPED_STATES.contains(lastStatus) || "STOPPED".equals(desiredStatus);
+        if (!stopped && !"RUNNING".equals(lastStatus)) {
+            return Optional.empty();
+        }
+        String clusterArn = detail.getString("clusterArn", null);
+        String group = detail.getString("group", null);
+        return AwsEcsApi.toTask(detail).map(task -> new AwsStateChange(!stopped, null, task, clusterArn, group));
+    }
+
+    /**
+     * Returns true if the instance or task started running, false if it is stopping or stopped.
+     */
+    boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Returns the EC2 instance ID or {@code null} for ECS Task state changes.
+     */
+    String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Returns the ECS Task or {@code null} for EC2 Instance state changes.
+     */
+    AwsEcsApi.Task getTask() {
+        return task;
+    }
+
+    /**
+     * Returns the ARN of the ECS cluster of the task or {@code null} for EC2 Instance state changes.
+     */
+    String getClusterArn() {
+        return clusterArn;
+    }
+
+    /**
+     * Returns the group of the ECS Task ({@code family:<family>} or {@code service:<service-name>}) or {@code null}.
+     */
+    String getGroup() {
+        return group;
+    }
+}
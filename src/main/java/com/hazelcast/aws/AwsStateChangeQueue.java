@@ -0,0 +1,208 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import static com.hazelcast.aws.StringUtils.isEmpty;
+
+/**
+ * Receives EC2 Instance and ECS Task state changes from an SQS queue fed by Amazon EventBridge and resolves them into
+ * changes of the discovered members.
+ * <p>
+ * EC2 instances which started running are described by their IDs (so the configured filters still apply), while ECS
+ * tasks are taken from the event itself, without their public addresses; both are completed by the next full discovery.
+ * Instances and tasks which are stopping are removed without calling AWS API. Members which are already known are kept
+ * as they are.
+ */
+class AwsStateChangeQueue {
+    private static final ILogger LOGGER = Logger.getLogger(AwsStateChangeQueue.class);
+
+    private final AwsSqsApi awsSqsApi;
+    private final AwsCredentialsProvider awsCredentialsProvider;
+    private final Function<List<String>, Map<String, AwsNode>> instanceDescriber;
+    private final String cluster;
+    private final String family;
+    private final String serviceName;
+
+    /**
+     * Creates a queue of EC2 Instance state changes; {@code instanceDescriber} returns the members for the given IDs of
+     * the instances which started running.
+     */
+    AwsStateChangeQueue(AwsSqsApi awsSqsApi, AwsCredentialsProvider awsCredentialsProvider,
+                        Function<List<String>, Map<String, AwsNode>> instanceDescriber) {
+        this(awsSqsApi, awsCredentialsProvider, instanceDescriber, null, null, null);
+    }
+
+    /**
+     * Creates a queue of ECS Task state changes of the given cluster, optionally filtered by family or service name.
+     */
+    AwsStateChangeQueue(AwsSqsApi awsSqsApi, AwsCredentialsProvider awsCredentialsProvider, String cluster,
+                        String family, String serviceName) {
+        this(awsSqsApi, awsCredentialsProvider, null, cluster, family, serviceName);
+    }
+
+    private AwsStateChangeQueue(AwsSqsApi awsSqsApi, AwsCredentialsProvider awsCredentialsProvider,
+                                Function<List<String>, Map<String, AwsNode>> instanceDescriber, String cluster,
+                                String family, String serviceName) {
+        this.awsSqsApi = awsSqsApi;
+        this.awsCredentialsProvider = awsCredentialsProvider;
+        this.instanceDescriber = instanceDescriber;
+        this.cluster = cluster;
+        this.family = family;
+        this.serviceName = serviceName;
+    }
+
+    /**
+     * Waits (with SQS long polling) for the next state changes and resolves them. The returned batch must be
+     * {@link #acknowledge(Batch) acknowledged} once applied, otherwise its messages are received again.
+     */
+    Batch receive() {
+        List<AwsSqsApi.Message> messages = awsSqsApi.receiveMessages(awsCredentialsProvider.credentials());
+        List<String> startedInstanceIds = new ArrayList<>();
+        Map<String, AwsNode> started = new HashMap<>();
+        Set<String> stoppedInstanceIds = new HashSet<>();
+        Set<String> stoppedAddresses = new HashSet<>();
+        for (AwsSqsApi.Message message : messages) {
+            Optional<AwsStateChange> stateChange = AwsStateChange.parse(message.getBody());
+            if (!stateChange.isPresent() || !isRelevant(stateChange.get())) {
+                LOGGER.finest("Ignoring event: " + message.getBody());
+                continue;
+            }
+            AwsStateChange change = stateChange.get();
+            if (change.getInstanceId() != null) {
+                if (change.isRunning()) {
+                    startedInstanceIds.add(change.getInstanceId());
+                    stoppedInstanceIds.remove(change.getInstanceId());
+                } else {
+                    startedInstanceIds.remove(change.getInstanceId());
+                    stoppedInstanceIds.add(change.getInstanceId());
+                }
+            } else {
+                AwsNode node = toNode(change.getTask());
+                if (change.isRunning()) {
+                    started.put(node.getPrivateAddress(), node);
+                    stoppedAddresses.remove(node.getPrivateAddress());
+                } else {
+                    started.remove(node.getPrivateAddress());
+                    stoppedAddresses.add(node.getPrivateAddress());
+                }
+            }
+        }
+        if (!startedInstanceIds.isEmpty()) {
+            started.putAll(instanceDescriber.apply(startedInstanceIds));
+        }
+        return new Batch(messages, started, stoppedInstanceIds, stoppedAddresses);
+    }
+
+    /**
+     * Deletes the messages of the given batch from the queue.
+     */
+    void acknowledge(Batch batch) {
+        if (!batch.messages.isEmpty()) {
+            awsSqsApi.deleteMessages(batch.messages, awsCredentialsProvider.credentials());
+        }
+    }
+
+    private boolean isRelevant(AwsStateChange change) {
+        if (change.getInstanceId() != null) {
+            return instanceDescriber != null;
+        }
+        return cluster != null && isCluster(change.getClusterArn()) && isGroup(change.getGroup());
+    }
+
+    /**
+     * Returns true if the given task group matches the configured family and service name (if any).
+     */
+    private boolean isGroup(String group) {
+        return (isEmpty(family) || ("family:" + family).equals(group))
+            && (isEmpty(serviceName) || ("service:" + serviceName).equals(group));
+    }
+
+    /**
+     * Returns true if the given cluster ARN is the configured cluster, which may be defined by its ARN or its name.
+     */
+    private boolean isCluster(String clusterArn) {
+        return clusterArn != null && (clusterArn.equals(cluster) || clusterArn.endsWith("/" + cluster));
+    }
+
+    private static AwsNode toNode(AwsEcsApi.Task task) {
+        return AwsNode.builder()
+            .setPrivateAddress(task.getPrivateAddress())
+            .setAvailabilityZone(task.getAvailabilityZone())
+            .setIpv6Address(task.getIpv6Address())
+            .build();
+    }
+
+    /**
+     * Messages received from the queue together with the resulting changes of the members.
+     */
+    static final class Batch {
+        private final List<AwsSqsApi.Message> messages;
+        private final Map<String, AwsNode> started;
+        private final Set<String> stoppedInstanceIds;
+        private final Set<String> stoppedAddresses;
+
+        Batch(List<AwsSqsApi.Message> messages, Map<String, AwsNode> started, Set<String> stoppedInstanceIds,
+              Set<String> stoppedAddresses) {
+            this.messages = messages;
+            this.started = started;
+            this.stoppedInstanceIds = stoppedInstanceIds;
+            this.stoppedAddresses = stoppedAddresses;
+        }
+
+        boolean hasChanges() {
+            return !started.isEmpty() || !stoppedInstanceIds.isEmpty() || !stoppedAddresses.isEmpty();
+        }
+
+        /**
+         * Returns the given members with the stopped members removed and the started members added.
+         */
+        Map<String, AwsNode> applyTo(Map<String, AwsNode> addresses) {
+            Map<String, AwsNode> result = new HashMap<>();
+            addresses.forEach((address, node) -> {
+                boolean stopped = stoppedAddresses.contains(address)
+                    || (node.getInstanceId() != null && stoppedInstanceIds.contains(node.getInstanceId()));
+                if (!stopped) {
+                    result.put(address, node);
+                }
+            });
+            // a member found by the full discovery is more complete (e.g. has a public address)
+            started.forEach(result::putIfAbsent);
+            return Collections.unmodifiableMap(result);
+        }
+
+        @Override
+        public String toString() {
+            return "Batch{"
+                + "started=" + started.keySet()
+                + ", stoppedInstanceIds=" + stoppedInstanceIds
+                + ", stoppedAddresses=" + stoppedAddresses
+                + '}';
+        }
+    }
+}
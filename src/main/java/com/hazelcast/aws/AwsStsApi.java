@@ -0,0 +1,170 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.aws.AwsRequestUtils.canonicalQueryString;
+import static com.hazelcast.aws.AwsRequestUtils.createRestClient;
+import static com.hazelcast.aws.AwsRequestUtils.currentTimestamp;
+import static com.hazelcast.aws.StringUtils.isNotEmpty;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Responsible for connecting to AWS STS API.
+ *
+ * @see <a href="https://docs.aws.amazon.com/STS/latest/APIReference/welcome.html">AWS STS API</a>
+ */
+class AwsStsApi {
+    private static final String ROLE_SESSION_NAME = "hazelcast-aws-discovery";
+
+    private final String endpoint;
+    private final AwsConfig awsConfig;
+    private final AwsEndpoints endpoints;
+    private final AwsRequestSigner requestSigner;
+    private final Clock clock;
+
+    AwsStsApi(String endpoint, AwsConfig awsConfig, AwsEndpoints endpoints, AwsRequestSigner requestSigner,
+              Clock clock) {
+        this.endpoint = endpoint;
+        this.awsConfig = awsConfig;
+        this.endpoints = endpoints;
+        this.requestSigner = requestSigner;
+        this.clock = clock;
+    }
+
+    /**
+     * Calls AWS STS Assume Role API and returns the temporary credentials of the assumed role.
+     *
+     * @param roleArn         ARN of the role to assume
+     * @param externalId      external ID required by the role trust policy, may be {@code null}
+     * @param durationSeconds duration of the role session
+     * @param credentials     credentials used to sign the request
+     * @see <a href="https://docs.aws.amazon.com/STS/latest/APIReference/API_AssumeRole.html">STS Assume Role</a>
+     */
+    SessionCredentials assumeRole(String roleArn, String externalId, int durationSeconds, AwsCredentials credentials) {
+        Map<String, String> attributes = createAttributesAssumeRole(roleArn, externalId, durationSeconds);
+        Map<String, String> headers = createHeaders(attributes, credentials);
+        String response = callAwsService(attributes, headers);
+        return parseCredentials(response, "assumeroleresult");
+    }
+
+    /**
+     * Calls AWS STS Assume Role With Web Identity API and returns the temporary credentials of the assumed role.
+     * <p>
+     * The request is not signed, it is authenticated with the web identity token. The parameters are sent in a POST
+     * body rather than in the query string, so that the token never appears in the URL, which is a part of the
+     * exception messages (and so of the logs) when the call fails.
+     *
+     * @param roleArn          ARN of the role to assume
+     * @param roleSessionName  name of the role session or {@code null} to use the default name
+     * @param webIdentityToken OIDC token, e.g. the projected service account token of an EKS pod
+     * @see <a href="https://docs.aws.amazon.com/STS/latest/APIReference/API_AssumeRoleWithWebIdentity.html">
+     * STS Assume Role With Web Identity</a>
+     */
+    SessionCredentials assumeRoleWithWebIdentity(String roleArn, String roleSessionName, String webIdentityToken) {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("Action", "AssumeRoleWithWebIdentity");
+        attributes.put("Version", "2011-06-15");
+        attributes.put("RoleArn", roleArn);
+        attributes.put("RoleSessionName", isNotEmpty(roleSessionName) ? roleSessionName : ROLE_SESSION_NAME);
+        attributes.put("WebIdentityToken", webIdentityToken);
+        String response = postToAwsService(attributes);
+        return parseCredentials(response, "assumerolewithwebidentityresult");
+    }
+
+    private static Map<String, String> createAttributesAssumeRole(String roleArn, String externalId, int durationSeconds) {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("Action", "AssumeRole");
+        attributes.put("Version", "2011-06-15");
+        attributes.put("RoleArn", roleArn);
+        attributes.put("RoleSessionName", ROLE_SESSION_NAME);
+        attributes.put("DurationSeconds", String.valueOf(durationSeconds));
+        if (isNotEmpty(externalId)) {
+            attributes.put("ExternalId", externalId);
+        }
+        return attributes;
+    }
+
+    private static SessionCredentials parseCredentials(String xmlResponse, String resultNodeName) {
+        XmlNode credentials = XmlNode.create(xmlResponse)
+            .getSubNodes(resultNodeName)
+            .flatMap(e -> e.getSubNodes("credentials"))
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("No credentials found in STS response"));
+
+        AwsCredentials awsCredentials = AwsCredentials.builder()
+            .setAccessKey(credentials.getValue("accesskeyid"))
+            .setSecretKey(credentials.getValue("secretaccesskey"))
+            .setToken(credentials.getValue("sessiontoken"))
+            .build();
+        return new SessionCredentials(awsCredentials, Instant.parse(credentials.getValue("expiration")));
+    }
+
+    private Map<String, String> createHeaders(Map<String, String> attributes, AwsCredentials credentials) {
+        Map<String, String> headers = new HashMap<>();
+
+        if (isNotEmpty(credentials.getToken())) {
+            headers.put("X-Amz-Security-Token", credentials.getToken());
+        }
+        headers.put("Host", endpoint);
+        String timestamp = currentTimestamp(clock);
+        headers.put("X-Amz-Date", timestamp);
+        headers.put("Authorization", requestSigner.authHeader(attributes, headers, "", credentials, timestamp, "GET"));
+
+        return headers;
+    }
+
+    private String callAwsService(Map<String, String> attributes, Map<String, String> headers) {
+        String query = canonicalQueryString(attributes);
+        return createRestClient(AwsRequestUtils.urlFor(endpoint) + "/?" + query, awsConfig, endpoints)
+            .withHeaders(headers)
+            .get()
+            .getBody();
+    }
+
+    private String postToAwsService(Map<String, String> attributes) {
+        return createRestClient(AwsRequestUtils.urlFor(endpoint) + "/", awsConfig, endpoints)
+            .withHeaders(singletonMap("Content-Type", "application/x-www-form-urlencoded"))
+            .withBody(canonicalQueryString(attributes))
+            .post()
+            .getBody();
+    }
+
+    /**
+     * Temporary credentials together with the time when they expire.
+     */
+    static final class SessionCredentials {
+        private final AwsCredentials credentials;
+        private final Instant expiration;
+
+        SessionCredentials(AwsCredentials credentials, Instant expiration) {
+            this.credentials = credentials;
+            this.expiration = expiration;
+        }
+
+        AwsCredentials getCredentials() {
+            return credentials;
+        }
+
+        Instant getExpiration() {
+            return expiration;
+        }
+    }
+}
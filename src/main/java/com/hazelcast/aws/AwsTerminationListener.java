@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import java.util.EventListener;
+
+/**
+ * Listener notified when the EC2 instance running this member is about to be interrupted or terminated, e.g. to shut
+ * the member down gracefully (migrating its partitions) before the instance disappears, as
+ * {@link GracefulShutdownTerminationListener} does.
+ * <p>
+ * Hazelcast creates the discovery strategy internally, so listeners are registered by their class names with the
+ * {@code termination-listeners} property. Listeners are called at most once, from the termination watcher thread.
+ *
+ * @see AwsProperties#TERMINATION_WATCH_PERIOD_SECONDS
+ * @see AwsProperties#TERMINATION_LISTENERS
+ */
+public interface AwsTerminationListener extends EventListener {
+
+    /**
+     * Called when the termination of the instance is imminent.
+     *
+     * @param notice details of the termination
+     */
+    void terminationImminent(AwsTerminationNotice notice);
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Notice of an imminent interruption or termination of the EC2 instance running this member.
+ *
+ * @see AwsTerminationListener
+ */
+public final class AwsTerminationNotice {
+
+    /**
+     * Source of the termination.
+     */
+    public enum Reason {
+        /**
+         * The Spot Instance is interrupted by EC2 (terminated, stopped or hibernated), usually in two minutes.
+         */
+        SPOT_INTERRUPTION,
+
+        /**
+         * The instance is being terminated by its Auto Scaling Group (e.g. scale-in or rebalancing).
+         */
+        AUTO_SCALING_TERMINATION
+    }
+
+    private final Reason reason;
+    private final String action;
+    private final Instant time;
+
+    AwsTerminationNotice(Reason reason, String action, Instant time) {
+        this.reason = reason;
+        this.action = action;
+        this.time = time;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * Returns the Spot Instance interruption action ({@code terminate}, {@code stop} or {@code hibernate}) or the target
+     * lifecycle state of the Auto Scaling Group instance ({@code Terminated}).
+     */
+    public String getAction() {
+        return action;
+    }
+
+    /**
+     * Returns the time of the Spot Instance interruption or {@code null} if not known.
+     */
+    public Instant getTime() {
+        return time;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        AwsTerminationNotice that = (AwsTerminationNotice) o;
+        return reason == that.reason && Objects.equals(action, that.action) && Objects.equals(time, that.time);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(reason, action, time);
+    }
+
+    @Override
+    public String toString() {
+        return "AwsTerminationNotice{"
+            + "reason=" + reason
+            + ", action='" + action + '\''
+            + ", time=" + time
+            + '}';
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.internal.json.Json;
+import com.hazelcast.internal.json.JsonObject;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Periodically polls EC2 Instance Metadata for a Spot Instance interruption notice or an Auto Scaling Group
+ * termination of the local instance, and reports the first one found.
+ * <p>
+ * The Auto Scaling Group termination is visible in the metadata only while the instance waits in the
+ * {@code Terminating:Wait} state, so the group needs a termination lifecycle hook giving the member enough time to
+ * shut down.
+ */
+class AwsTerminationWatcher {
+    private static final ILogger LOGGER = Logger.getLogger(AwsTerminationWatcher.class);
+    private static final String TERMINATED_LIFECYCLE_STATE = "Terminated";
+
+    private final AwsMetadataApi awsMetadataApi;
+    private final long periodMillis;
+    private final Consumer<AwsTerminationNotice> noticeConsumer;
+    private final ScheduledExecutorService executor;
+
+    private boolean isFailureAlreadyLogged;
+
+    AwsTerminationWatcher(AwsMetadataApi awsMetadataApi, long periodMillis,
+                          Consumer<AwsTerminationNotice> noticeConsumer) {
+        this.awsMetadataApi = awsMetadataApi;
+        this.periodMillis = periodMillis;
+        this.noticeConsumer = noticeConsumer;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "hz.aws.termination.watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void start() {
+        executor.scheduleWithFixedDelay(this::check, 0, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Polls the metadata once; stops the watcher once a notice is reported.
+     */
+    void check() {
+        Optional<AwsTerminationNotice> notice;
+        try {
+            notice = poll();
+            isFailureAlreadyLogged = false;
+        } catch (Exception e) {
+            if (!isFailureAlreadyLogged) {
+                LOGGER.warning("Cannot check the instance metadata for termination notices", e);
+                isFailureAlreadyLogged = true;
+            } else {
+                LOGGER.finest(e);
+            }
+            return;
+        }
+        if (notice.isPresent()) {
+            LOGGER.warning("This instance is about to be terminated: " + notice.get());
+            executor.shutdown();
+            noticeConsumer.accept(notice.get());
+        }
+    }
+
+    private Optional<AwsTerminationNotice> poll() {
+        Optional<AwsTerminationNotice> spotInterruption = awsMetadataApi.spotInstanceActionEc2()
+            .map(AwsTerminationWatcher::parseSpotInstanceAction);
+        if (spotInterruption.isPresent()) {
+            return spotInterruption;
+        }
+        return awsMetadataApi.targetLifecycleStateEc2()
+            .filter(TERMINATED_LIFECYCLE_STATE::equals)
+            .map(state -> new AwsTerminationNotice(AwsTerminationNotice.Reason.AUTO_SCALING_TERMINATION, state, null));
+    }
+
+    private static AwsTerminationNotice parseSpotInstanceAction(String instanceAction) {
+        JsonObject json = Json.parse(instanceAction).asObject();
+        String time = json.getString("time", null);
+        return new AwsTerminationNotice(AwsTerminationNotice.Reason.SPOT_INTERRUPTION, json.getString("action", null),
+            time == null ? null : Instant.parse(time));
+    }
+}
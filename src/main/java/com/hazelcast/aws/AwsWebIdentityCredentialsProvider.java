@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.util.concurrent.Executor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Provides the credentials of the IAM role assumed with STS AssumeRoleWithWebIdentity, using the token file and the role
+ * set in the environment, as in EKS pods using IAM Roles for Service Accounts (IRSA).
+ * <p>
+ * The token file is rotated by Kubernetes, so it is read again whenever it is modified. If STS rejects the token, the
+ * file is read again and the call is retried once.
+ *
+ * @see AwsSessionCredentialsCache
+ * @see <a href="https://docs.aws.amazon.com/eks/latest/userguide/iam-roles-for-service-accounts.html">IAM Roles for
+ * Service Accounts</a>
+ */
+class AwsWebIdentityCredentialsProvider {
+    private static final ILogger LOGGER = Logger.getLogger(AwsWebIdentityCredentialsProvider.class);
+
+    private static final int HTTP_BAD_REQUEST = 400;
+
+    private final AwsStsApi stsApi;
+    private final Path tokenFile;
+    private final String roleArn;
+    private final String roleSessionName;
+    private final AwsSessionCredentialsCache cache;
+
+    // guarded by this
+    private String token;
+    private FileTime tokenModifiedTime;
+
+    AwsWebIdentityCredentialsProvider(AwsStsApi stsApi, Environment environment) {
+        this(stsApi, environment, Clock.systemUTC(), AwsSessionCredentialsCache.createRefreshExecutor());
+    }
+
+    AwsWebIdentityCredentialsProvider(AwsStsApi stsApi, Environment environment, Clock clock, Executor executor) {
+        this.stsApi = stsApi;
+        this.tokenFile = Paths.get(environment.getWebIdentityTokenFile());
+        this.roleArn = environment.getWebIdentityRoleArn();
+        this.roleSessionName = environment.getWebIdentityRoleSessionName();
+        this.cache = new AwsSessionCredentialsCache(String.format("the web identity IAM Role '%s'", roleArn),
+            this::assumeRole, clock, executor);
+    }
+
+    AwsCredentials credentials() {
+        return cache.credentials();
+    }
+
+    private AwsStsApi.SessionCredentials assumeRole() {
+        try {
+            return stsApi.assumeRoleWithWebIdentity(roleArn, roleSessionName, token(false));
+        } catch (RestClientException e) {
+            if (e.getHttpErrorCode() != HTTP_BAD_REQUEST) {
+                throw e;
+            }
+            // the token may have expired just before the file was rotated
+            LOGGER.fine("Web identity token rejected, reading the token file again", e);
+            return stsApi.assumeRoleWithWebIdentity(roleArn, roleSessionName, token(true));
+        }
+    }
+
+    private synchronized String token(boolean forceRead) {
+        try {
+            FileTime modifiedTime = Files.getLastModifiedTime(tokenFile);
+            if (forceRead || token == null || !modifiedTime.equals(tokenModifiedTime)) {
+                LOGGER.fine(String.format("Reading web identity token file: %s", tokenFile));
+                token = new String(Files.readAllBytes(tokenFile), UTF_8).trim();
+                tokenModifiedTime = modifiedTime;
+            }
+            return token;
+        } catch (IOException e) {
+            throw new HazelcastException(String.format("Cannot read web identity token file: %s", tokenFile), e);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker of a single AWS endpoint (scheme, host and port), shared by all the REST calls to the endpoint made
+ * by the same client (see {@link AwsEndpoints}). Every logical call, including its retries, is recorded as
+ * a single success or failure.
+ * <p>
+ * The circuit breaker is {@link State#CLOSED} as long as the endpoint responds. After the configured number of
+ * consecutive failures (connection failures, timeouts or HTTP 5xx responses) it becomes {@link State#OPEN} and rejects
+ * all the calls with {@link CircuitBreakerOpenException}, so that the callers do not wait through the timeouts and
+ * retries. After the open period it becomes {@link State#HALF_OPEN} and lets a single trial call through: if the call
+ * succeeds, the circuit breaker closes, otherwise it opens again.
+ * <p>
+ * The state of every circuit breaker is exposed over JMX with {@link CircuitBreakerMXBean}.
+ */
+final class CircuitBreaker
+        implements CircuitBreakerMXBean {
+    private static final ILogger LOGGER = Logger.getLogger(CircuitBreaker.class);
+
+    private final String endpoint;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Clock clock;
+
+    private volatile ObjectName mBeanName;
+
+    // guarded by this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtMillis;
+    private long openCount;
+    private long rejectedCalls;
+
+    CircuitBreaker(String endpoint, int failureThreshold, long openMillis, Clock clock) {
+        this.endpoint = endpoint;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Registers the MBean of the circuit breaker; {@code clientId} distinguishes the circuit breakers of the same
+     * endpoint used with different configurations.
+     */
+    void registerMBean(int clientId) {
+        try {
+            ObjectName name = new ObjectName("com.hazelcast.aws:type=CircuitBreaker,client=" + clientId + ",endpoint="
+                + ObjectName.quote(endpoint));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            mBeanName = name;
+        } catch (Exception e) {
+            LOGGER.fine(String.format("Cannot register circuit breaker MBean for AWS endpoint %s", endpoint), e);
+        }
+    }
+
+    void unregisterMBean() {
+        ObjectName name = mBeanName;
+        if (name == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (Exception e) {
+            LOGGER.fine(String.format("Cannot unregister circuit breaker MBean for AWS endpoint %s", endpoint), e);
+        }
+    }
+
+    /**
+     * Calls {@code supplier} unless the circuit breaker is open, recording whether the endpoint has failed.
+     *
+     * @throws CircuitBreakerOpenException if the circuit breaker is open
+     */
+    <T> T call(Supplier<T> supplier) {
+        acquirePermission();
+        try {
+            T result = supplier.get();
+            onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (isEndpointFailure(e)) {
+                onFailure();
+            } else {
+                // the endpoint has responded, e.g. with HTTP 404
+                onSuccess();
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isEndpointFailure(RuntimeException e) {
+        if (!(e instanceof RestClientException)) {
+            return false;
+        }
+        int httpErrorCode = ((RestClientException) e).getHttpErrorCode();
+        // no HTTP error code means the endpoint has not responded at all
+        return httpErrorCode == 0 || httpErrorCode >= RestClient.HTTP_SERVER_ERROR;
+    }
+
+    private synchronized void acquirePermission() {
+        if (state == State.OPEN && clock.millis() - openedAtMillis >= openMillis) {
+            LOGGER.fine(String.format("Trying AWS endpoint %s again", endpoint));
+            state = State.HALF_OPEN;
+            return;
+        }
+        if (state != State.CLOSED) {
+            // open, or half-open with the trial call in progress
+            rejectedCalls++;
+            throw new CircuitBreakerOpenException(endpoint);
+        }
+    }
+
+    private synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            LOGGER.info(String.format("AWS endpoint %s has recovered, circuit breaker closed", endpoint));
+            state = State.CLOSED;
+        }
+        consecutiveFailures = 0;
+    }
+
+    private synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            if (state == State.CLOSED) {
+                LOGGER.warning(String.format("AWS endpoint %s failed %d times in a row, circuit breaker opened. The calls"
+                    + " to the endpoint fail immediately for the next %d seconds", endpoint, consecutiveFailures,
+                    TimeUnit.MILLISECONDS.toSeconds(openMillis)));
+            }
+            state = State.OPEN;
+            openedAtMillis = clock.millis();
+            openCount++;
+        }
+    }
+
+    @Override
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public synchronized String getState() {
+        return state.name();
+    }
+
+    @Override
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    @Override
+    public synchronized long getOpenCount() {
+        return openCount;
+    }
+
+    @Override
+    public synchronized long getRejectedCalls() {
+        return rejectedCalls;
+    }
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+/**
+ * Management interface exposing the state of the circuit breaker of an AWS endpoint over JMX, registered as
+ * {@code com.hazelcast.aws:type=CircuitBreaker,endpoint=<endpoint>}.
+ */
+public interface CircuitBreakerMXBean {
+
+    /**
+     * Returns the endpoint protected by the circuit breaker, e.g. {@code https://ec2.eu-central-1.amazonaws.com}.
+     */
+    String getEndpoint();
+
+    /**
+     * Returns the current state: {@code CLOSED}, {@code OPEN} or {@code HALF_OPEN}.
+     */
+    String getState();
+
+    /**
+     * Returns the number of consecutive failed calls.
+     */
+    int getConsecutiveFailures();
+
+    /**
+     * Returns how many times the circuit breaker has opened.
+     */
+    long getOpenCount();
+
+    /**
+     * Returns the number of calls rejected because the circuit breaker was open.
+     */
+    long getRejectedCalls();
+}
@@ -15,17 +15,56 @@
 
 package com.hazelcast.aws;
 
+import java.nio.file.Paths;
+
 import static com.hazelcast.aws.StringUtils.isNotEmpty;
 
 /**
  * This class is introduced to lookup system parameters.
  */
 class Environment {
-    private static final String AWS_REGION_ON_ECS = System.getenv("AWS_REGION");
+    private static final String AWS_REGION = System.getenv("AWS_REGION");
     private static final boolean IS_RUNNING_ON_ECS = isRunningOnEcsEnvironment();
+    private static final String WEB_IDENTITY_TOKEN_FILE = System.getenv("AWS_WEB_IDENTITY_TOKEN_FILE");
+    private static final String WEB_IDENTITY_ROLE_ARN = System.getenv("AWS_ROLE_ARN");
+    private static final String WEB_IDENTITY_ROLE_SESSION_NAME = System.getenv("AWS_ROLE_SESSION_NAME");
+    private static final String AWS_PROFILE = System.getenv("AWS_PROFILE");
+    private static final String ACCESS_KEY_ID = System.getenv("AWS_ACCESS_KEY_ID");
+    private static final String SECRET_ACCESS_KEY = System.getenv("AWS_SECRET_ACCESS_KEY");
+    private static final String SESSION_TOKEN = System.getenv("AWS_SESSION_TOKEN");
+    private static final String SHARED_CREDENTIALS_FILE = awsFile("AWS_SHARED_CREDENTIALS_FILE", "credentials");
+    private static final String CONFIG_FILE = awsFile("AWS_CONFIG_FILE", "config");
 
     String getAwsRegionOnEcs() {
-        return AWS_REGION_ON_ECS;
+        return AWS_REGION;
+    }
+
+    /**
+     * Returns the region set in the {@code AWS_REGION} environment variable, e.g. by EKS for pods using IAM Roles for
+     * Service Accounts.
+     */
+    String getAwsRegion() {
+        return AWS_REGION;
+    }
+
+    /**
+     * Returns {@code true} if the web identity token file and the role to assume are set in the environment, which is
+     * the case for EKS pods using IAM Roles for Service Accounts (IRSA).
+     */
+    boolean isWebIdentityConfigured() {
+        return isNotEmpty(WEB_IDENTITY_TOKEN_FILE) && isNotEmpty(WEB_IDENTITY_ROLE_ARN);
+    }
+
+    String getWebIdentityTokenFile() {
+        return WEB_IDENTITY_TOKEN_FILE;
+    }
+
+    String getWebIdentityRoleArn() {
+        return WEB_IDENTITY_ROLE_ARN;
+    }
+
+    String getWebIdentityRoleSessionName() {
+        return WEB_IDENTITY_ROLE_SESSION_NAME;
     }
 
     boolean isRunningOnEcs() {
@@ -36,4 +75,42 @@ class Environment {
         String execEnv = System.getenv("AWS_EXECUTION_ENV");
         return isNotEmpty(execEnv) && execEnv.contains("ECS");
     }
+
+    String getAccessKeyId() {
+        return ACCESS_KEY_ID;
+    }
+
+    String getSecretAccessKey() {
+        return SECRET_ACCESS_KEY;
+    }
+
+    String getSessionToken() {
+        return SESSION_TOKEN;
+    }
+
+    String getAwsProfile() {
+        return AWS_PROFILE;
+    }
+
+    /**
+     * Returns the path of the shared credentials file, by default {@code ~/.aws/credentials}.
+     */
+    String getSharedCredentialsFile() {
+        return SHARED_CREDENTIALS_FILE;
+    }
+
+    /**
+     * Returns the path of the config file, by default {@code ~/.aws/config}.
+     */
+    String getConfigFile() {
+        return CONFIG_FILE;
+    }
+
+    private static String awsFile(String environmentVariable, String defaultFileName) {
+        String file = System.getenv(environmentVariable);
+        if (isNotEmpty(file)) {
+            return file;
+        }
+        return Paths.get(System.getProperty("user.home"), ".aws", defaultFileName).toString();
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * {@link AwsClient} whose discovered members are kept up to date with the state changes received from
+ * {@link AwsStateChangeQueue}, between the periodic discoveries done by the wrapped client.
+ */
+final class EventDrivenAwsClient
+        implements AwsClient {
+    private final AwsClient awsClient;
+    private final AwsStateChangeQueue stateChangeQueue;
+
+    EventDrivenAwsClient(AwsClient awsClient, AwsStateChangeQueue stateChangeQueue) {
+        this.awsClient = awsClient;
+        this.stateChangeQueue = stateChangeQueue;
+    }
+
+    @Override
+    public Map<String, AwsNode> getAddresses() {
+        return awsClient.getAddresses();
+    }
+
+    @Override
+    public Map<String, AwsNode> getAddresses(Consumer<Collection<AwsNode>> pageConsumer) {
+        return awsClient.getAddresses(pageConsumer);
+    }
+
+    @Override
+    public AwsStateChangeQueue getStateChangeQueue() {
+        return stateChangeQueue;
+    }
+
+    @Override
+    public Optional<Integer> getDesiredClusterSize() {
+        return awsClient.getDesiredClusterSize();
+    }
+
+    @Override
+    public String getAvailabilityZone() {
+        return awsClient.getAvailabilityZone();
+    }
+
+    @Override
+    public Optional<String> getPlacementGroup() {
+        return awsClient.getPlacementGroup();
+    }
+
+    @Override
+    public Optional<String> getPlacementPartitionNumber() {
+        return awsClient.getPlacementPartitionNumber();
+    }
+
+    @Override
+    public void destroy() {
+        awsClient.destroy();
+    }
+}
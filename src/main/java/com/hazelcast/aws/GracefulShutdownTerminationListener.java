@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
+/**
+ * {@link AwsTerminationListener} which gracefully shuts down the Hazelcast members running in this JVM (migrating
+ * their partitions to the other members) when the EC2 instance is about to be interrupted or terminated. Register it
+ * with the {@code termination-listeners} property:
+ * <pre>
+ *     &lt;termination-listeners&gt;com.hazelcast.aws.GracefulShutdownTerminationListener&lt;/termination-listeners&gt;
+ * </pre>
+ * The members are shut down in a separate thread, since the shutdown stops the termination watcher which calls the
+ * listener.
+ *
+ * @see AwsProperties#TERMINATION_LISTENERS
+ */
+public class GracefulShutdownTerminationListener
+        implements AwsTerminationListener {
+    private static final ILogger LOGGER = Logger.getLogger(GracefulShutdownTerminationListener.class);
+
+    @Override
+    public void terminationImminent(AwsTerminationNotice notice) {
+        for (HazelcastInstance instance : Hazelcast.getAllHazelcastInstances()) {
+            LOGGER.info(String.format("Shutting down Hazelcast member '%s' gracefully: %s", instance.getName(), notice));
+            new Thread(() -> instance.getLifecycleService().shutdown(), "hz.aws.termination.shutdown").start();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Filters out EC2 instances which have not passed the EC2 status checks yet, e.g. freshly booted instances on which
+ * Hazelcast is not listening yet.
+ * <p>
+ * The statuses of all unknown instances are fetched with a single (chunked) EC2 Describe Instance Status call. Once an
+ * instance is reported healthy, it is remembered and never checked again, so in a stable cluster no additional calls are
+ * made. If the statuses cannot be fetched, the instances are not filtered, so that a missing permission never prevents
+ * the cluster from forming. For the same reason, if none of the instances has passed the status checks (e.g. when the
+ * whole fleet is launched at once), the instances are not filtered either.
+ * <p>
+ * This class is thread-safe.
+ */
+class InstanceStatusFilter {
+    private static final ILogger LOGGER = Logger.getLogger(InstanceStatusFilter.class);
+
+    private final AwsEc2Api awsEc2Api;
+    private final Set<String> healthyInstanceIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean statusFailureLogged = new AtomicBoolean();
+
+    InstanceStatusFilter(AwsEc2Api awsEc2Api) {
+        this.awsEc2Api = awsEc2Api;
+    }
+
+    /**
+     * Returns the nodes whose instances passed the status checks; nodes with unknown instance IDs are kept.
+     */
+    Map<String, AwsNode> filter(Map<String, AwsNode> nodes, AwsCredentials credentials) {
+        List<String> uncheckedInstanceIds = nodes.values().stream()
+            .map(AwsNode::getInstanceId)
+            .filter(Objects::nonNull)
+            .filter(instanceId -> !healthyInstanceIds.contains(instanceId))
+            .collect(Collectors.toList());
+        if (uncheckedInstanceIds.isEmpty()) {
+            return nodes;
+        }
+        try {
+            healthyInstanceIds.addAll(awsEc2Api.describeInstanceStatus(uncheckedInstanceIds, credentials));
+        } catch (RuntimeException e) {
+            logStatusFailure(e);
+            return nodes;
+        }
+
+        Map<String, AwsNode> result = new HashMap<>();
+        nodes.forEach((address, node) -> {
+            if (node.getInstanceId() == null || healthyInstanceIds.contains(node.getInstanceId())) {
+                result.put(address, node);
+            }
+        });
+        if (result.values().stream().noneMatch(node -> node.getInstanceId() != null)) {
+            // all the members are starting at once, so skipping them would keep every member from joining
+            LOGGER.fine(String.format("None of the EC2 instances %s has passed the status checks yet, using them all",
+                uncheckedInstanceIds));
+            return nodes;
+        }
+        if (result.size() < nodes.size()) {
+            LOGGER.fine(String.format("Skipping EC2 instances which have not passed the status checks yet: %s",
+                nodes.keySet().stream().filter(address -> !result.containsKey(address)).collect(Collectors.toList())));
+        }
+        return result;
+    }
+
+    /**
+     * Logs the first failure as a warning, e.g. the missing {@code ec2:DescribeInstanceStatus} permission, and the
+     * following ones only at the fine level, so that the warning is not repeated on every discovery.
+     */
+    private void logStatusFailure(RuntimeException e) {
+        if (statusFailureLogged.compareAndSet(false, true)) {
+            LOGGER.warning("Cannot check the status of EC2 instances, using them without the check", e);
+        } else {
+            LOGGER.fine("Cannot check the status of EC2 instances, using them without the check", e);
+        }
+    }
+
+    /**
+     * Forgets the healthy instances which were not discovered anymore, so that the remembered statuses do not grow
+     * indefinitely.
+     */
+    void retain(Collection<AwsNode> discoveredNodes) {
+        Set<String> discoveredInstanceIds = discoveredNodes.stream()
+            .map(AwsNode::getInstanceId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        healthyInstanceIds.retainAll(discoveredInstanceIds);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import java.util.Arrays;
+
+/**
+ * Rolling window of the latencies of the successful calls to a single AWS endpoint. A hedged attempt which loses to
+ * the other attempt is recorded with the time it was in flight, so the slow attempts are not missing from the window.
+ * <p>
+ * Only the last {@value #WINDOW_SIZE} calls are kept, so the percentiles follow the recent behavior of the endpoint.
+ */
+final class LatencyHistogram {
+    static final int WINDOW_SIZE = 256;
+    static final int MIN_SAMPLES = 10;
+
+    private static final double PERCENT = 100;
+
+    // guarded by this
+    private final long[] samples = new long[WINDOW_SIZE];
+    private long count;
+
+    synchronized void record(long latencyMillis) {
+        samples[(int) (count % WINDOW_SIZE)] = latencyMillis;
+        count++;
+    }
+
+    /**
+     * Returns the latency in milliseconds below which the given percentage of the recent calls completed or {@code -1}
+     * if fewer than {@value #MIN_SAMPLES} calls have been recorded.
+     */
+    long percentile(double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            if (count < MIN_SAMPLES) {
+                return -1;
+            }
+            sorted = Arrays.copyOf(samples, (int) Math.min(count, WINDOW_SIZE));
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / PERCENT * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
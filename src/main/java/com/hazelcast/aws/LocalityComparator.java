@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Orders discovered members by their locality relative to the local member, so that a joining member first contacts
+ * the members which are the cheapest and fastest to reach:
+ * <ol>
+ * <li>members in the same availability zone and placement group</li>
+ * <li>members in the same availability zone</li>
+ * <li>members in the same placement group, but in another availability zone</li>
+ * <li>members in other availability zones</li>
+ * <li>the local host itself</li>
+ * </ol>
+ * <p>
+ * The local host is ordered last instead of being removed, because other members may run on the same host with
+ * a different port.
+ * <p>
+ * Note that Hazelcast 4.2 {@code DefaultDiscoveryService} collects the nodes of every discovery strategy into a
+ * {@code HashSet}, so the member and client joiners do not see this order. It is kept for callers which iterate
+ * the strategy directly (e.g. a custom {@code DiscoveryService}), and costs only a sort when enabled.
+ */
+final class LocalityComparator implements Comparator<AwsNode> {
+    private static final ILogger LOGGER = Logger.getLogger(LocalityComparator.class);
+
+    private static final int SAME_ZONE_SAME_PLACEMENT_GROUP = 0;
+    private static final int SAME_ZONE = 1;
+    private static final int SAME_PLACEMENT_GROUP = 2;
+    private static final int OTHER_ZONE = 3;
+    private static final int LOCAL_HOST = 4;
+
+    private final String availabilityZone;
+    private final String placementGroup;
+    private final Set<String> localAddresses;
+
+    LocalityComparator(String availabilityZone, String placementGroup, Set<String> localAddresses) {
+        this.availabilityZone = availabilityZone;
+        this.placementGroup = placementGroup;
+        this.localAddresses = localAddresses;
+    }
+
+    @Override
+    public int compare(AwsNode o1, AwsNode o2) {
+        return Integer.compare(rank(o1), rank(o2));
+    }
+
+    private int rank(AwsNode node) {
+        if (localAddresses.contains(node.getPrivateAddress()) || localAddresses.contains(ipv6HostAddress(node))) {
+            return LOCAL_HOST;
+        }
+        boolean sameZone = availabilityZone != null && availabilityZone.equals(node.getAvailabilityZone());
+        boolean samePlacementGroup = placementGroup != null && placementGroup.equals(node.getPlacementGroup());
+        if (sameZone) {
+            return samePlacementGroup ? SAME_ZONE_SAME_PLACEMENT_GROUP : SAME_ZONE;
+        }
+        return samePlacementGroup ? SAME_PLACEMENT_GROUP : OTHER_ZONE;
+    }
+
+    /**
+     * Returns the addresses of all network interfaces of the local host, without the IPv6 scope (e.g. {@code %eth0}),
+     * which AWS API never returns. It enumerates the network interfaces, so callers should reuse the result.
+     */
+    static Set<String> localAddresses() {
+        Set<String> result = new HashSet<>();
+        try {
+            for (NetworkInterface networkInterface : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+                for (InetAddress address : Collections.list(networkInterface.getInetAddresses())) {
+                    result.add(withoutScope(address.getHostAddress()));
+                }
+            }
+        } catch (SocketException e) {
+            LOGGER.fine("Cannot resolve local network interfaces", e);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the IPv6 address of the node in the {@link InetAddress#getHostAddress()} form (AWS API returns
+     * the compressed form, e.g. {@code 2600:1f18::1}), or {@code null} if the node has no IPv6 address.
+     */
+    private static String ipv6HostAddress(AwsNode node) {
+        String ipv6Address = node.getIpv6Address();
+        if (ipv6Address == null) {
+            return null;
+        }
+        try {
+            // a literal address is parsed without any name lookup
+            return withoutScope(InetAddress.getByName(ipv6Address).getHostAddress());
+        } catch (UnknownHostException e) {
+            return ipv6Address;
+        }
+    }
+
+    static String withoutScope(String address) {
+        int scopeIndex = address.indexOf('%');
+        return scopeIndex < 0 ? address : address.substring(0, scopeIndex);
+    }
+}
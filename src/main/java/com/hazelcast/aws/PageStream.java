@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * {@link Iterable} of elements which are produced page by page in the background and can be iterated as soon as the
+ * first page is produced.
+ * <p>
+ * The pages are handed over through a queue of at most {@value #CAPACITY} pages, so a producer which is faster than the
+ * consumer waits for it; if the consumer does not take a page within {@value #HANDOFF_TIMEOUT_SECONDS} seconds (e.g.
+ * because it stopped iterating), the producer is interrupted. The elements can be iterated only once.
+ *
+ * @param <T> type of the elements
+ */
+final class PageStream<T>
+        implements Iterable<T> {
+    static final int CAPACITY = 16;
+    static final long HANDOFF_TIMEOUT_SECONDS = 60L;
+
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60L;
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    /**
+     * Marks the end of the pages; compared by identity.
+     */
+    private final Collection<T> end = new ArrayList<>(0);
+    private final BlockingQueue<Collection<T>> pages = new ArrayBlockingQueue<>(CAPACITY);
+    private final AtomicBoolean iterated = new AtomicBoolean();
+
+    private PageStream() {
+    }
+
+    /**
+     * Starts producing the pages in the background: {@code producer} is called with the consumer of the pages and the
+     * stream ends when it returns. If it throws an exception, the stream ends after the pages produced so far and the
+     * exception is passed to {@code failureHandler}.
+     */
+    static <T> PageStream<T> start(Consumer<Consumer<Collection<T>>> producer, Consumer<Exception> failureHandler) {
+        PageStream<T> result = new PageStream<>();
+        EXECUTOR.execute(() -> result.produce(producer, failureHandler));
+        return result;
+    }
+
+    private static ExecutorService createExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, IDLE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, "hz.aws.discovery.page-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void produce(Consumer<Consumer<Collection<T>>> producer, Consumer<Exception> failureHandler) {
+        try {
+            producer.accept(page -> {
+                if (!page.isEmpty()) {
+                    put(page);
+                }
+            });
+        } catch (Exception e) {
+            failureHandler.accept(e);
+        } finally {
+            try {
+                put(end);
+            } catch (IllegalStateException e) {
+                // the consumer stopped iterating, nobody waits for the end
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private void put(Collection<T> page) {
+        try {
+            if (!pages.offer(page, HANDOFF_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Discovered members were not consumed in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while passing discovered members", e);
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        if (!iterated.compareAndSet(false, true)) {
+            throw new IllegalStateException("Discovered members can be iterated only once");
+        }
+        return new PageIterator();
+    }
+
+    private final class PageIterator
+            implements Iterator<T> {
+        private Iterator<T> current;
+        private boolean ended;
+
+        @Override
+        public boolean hasNext() {
+            while (!ended && (current == null || !current.hasNext())) {
+                Collection<T> page = take();
+                if (page == end) {
+                    ended = true;
+                } else {
+                    current = page.iterator();
+                }
+            }
+            return !ended;
+        }
+
+        private Collection<T> take() {
+            try {
+                return pages.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return end;
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides when an idempotent call to a single AWS endpoint should be hedged, i.e. repeated while the first call is still
+ * in flight.
+ * <p>
+ * A call is hedged if it has not completed within the configured percentile of the recent latencies of the endpoint.
+ * The number of hedged calls is capped to the configured percentage of all the calls, so hedging never more than doubles
+ * the load on the endpoint.
+ */
+final class RequestHedger {
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60;
+    private static final int PERCENT = 100;
+
+    private final LatencyHistogram latencyHistogram;
+    private final int percentile;
+    private final int budgetPercent;
+
+    // guarded by this
+    private long calls;
+    private long hedgedCalls;
+
+    RequestHedger(LatencyHistogram latencyHistogram, int percentile, int budgetPercent) {
+        this.latencyHistogram = latencyHistogram;
+        this.percentile = percentile;
+        this.budgetPercent = budgetPercent;
+    }
+
+    /**
+     * Creates the executor running the hedged calls; its threads are daemons and terminate when idle.
+     */
+    static ExecutorService createExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, IDLE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, "hz.aws.hedged-call-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Registers a new call and returns the delay in milliseconds after which it should be hedged or {@code -1} if the
+     * latency of the endpoint is not known yet.
+     */
+    long hedgeDelayMillis() {
+        synchronized (this) {
+            calls++;
+        }
+        return latencyHistogram.percentile(percentile);
+    }
+
+    /**
+     * Returns {@code true} if the budget allows hedging one more call.
+     */
+    synchronized boolean tryAcquire() {
+        if ((hedgedCalls + 1) * PERCENT > calls * budgetPercent) {
+            return false;
+        }
+        hedgedCalls++;
+        return true;
+    }
+}
@@ -15,6 +15,10 @@
 
 package com.hazelcast.aws;
 
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -28,20 +32,35 @@ import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 final class RestClient {
 
     static final int HTTP_OK = 200;
     static final int HTTP_NOT_FOUND = 404;
+    static final int HTTP_SERVER_ERROR = 500;
+
+    private static final ILogger LOGGER = Logger.getLogger(RestClient.class);
+    private static final ExecutorService HEDGED_CALL_EXECUTOR = RequestHedger.createExecutor();
 
     private final String url;
     private final List<Parameter> headers = new ArrayList<>();
     private Set<Integer> expectedResponseCodes;
     private String body;
-    private int readTimeoutSeconds;
-    private int connectTimeoutSeconds;
+    private int readTimeoutMillis;
+    private int connectTimeoutMillis;
     private int retries;
+    private CircuitBreaker circuitBreaker;
+    private RequestHedger requestHedger;
+    private LatencyHistogram latencyHistogram;
+    private AdaptiveTimeout adaptiveTimeout;
 
     private RestClient(String url) {
         this.url = url;
@@ -64,12 +83,20 @@ final class RestClient {
     }
 
     RestClient withReadTimeoutSeconds(int readTimeoutSeconds) {
-        this.readTimeoutSeconds = readTimeoutSeconds;
+        return withReadTimeoutMillis((int) TimeUnit.SECONDS.toMillis(readTimeoutSeconds));
+    }
+
+    RestClient withReadTimeoutMillis(int readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
         return this;
     }
 
     RestClient withConnectTimeoutSeconds(int connectTimeoutSeconds) {
-        this.connectTimeoutSeconds = connectTimeoutSeconds;
+        return withConnectTimeoutMillis((int) TimeUnit.SECONDS.toMillis(connectTimeoutSeconds));
+    }
+
+    RestClient withConnectTimeoutMillis(int connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
         return this;
     }
 
@@ -78,6 +105,36 @@ final class RestClient {
         return this;
     }
 
+    RestClient withCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+        return this;
+    }
+
+    /**
+     * Enables hedging of GET calls, which are assumed to be idempotent.
+     */
+    RestClient withRequestHedger(RequestHedger requestHedger) {
+        this.requestHedger = requestHedger;
+        return this;
+    }
+
+    /**
+     * Records the latencies of the successful calls in the given histogram.
+     */
+    RestClient withLatencyHistogram(LatencyHistogram latencyHistogram) {
+        this.latencyHistogram = latencyHistogram;
+        return this;
+    }
+
+    /**
+     * Shortens the timeouts of the first attempt to the adaptive timeout; the retries use the configured timeouts, so
+     * an unusually slow call is not failed repeatedly.
+     */
+    RestClient withAdaptiveTimeout(AdaptiveTimeout adaptiveTimeout) {
+        this.adaptiveTimeout = adaptiveTimeout;
+        return this;
+    }
+
     RestClient expectResponseCodes(Integer... codes) {
         if (expectedResponseCodes == null) {
             expectedResponseCodes = new HashSet<>();
@@ -94,17 +151,43 @@ final class RestClient {
         return callWithRetries("POST");
     }
 
+    Response put() {
+        return callWithRetries("PUT");
+    }
+
     private Response callWithRetries(String method) {
-        return RetryUtils.retry(() -> call(method), retries);
+        AtomicInteger attemptCount = new AtomicInteger();
+        Supplier<Response> call = () -> RetryUtils.retry(() -> callOnce(method, attemptCount.getAndIncrement() == 0),
+            retries);
+        // the circuit breaker records the outcome of the whole call, not of every attempt
+        return circuitBreaker == null ? call.get() : circuitBreaker.call(call);
+    }
+
+    private Response callOnce(String method, boolean firstAttempt) {
+        Timeouts timeouts = firstAttempt && adaptiveTimeout != null
+            ? new Timeouts(adaptiveTimeout.timeoutMillis(connectTimeoutMillis),
+            adaptiveTimeout.timeoutMillis(readTimeoutMillis))
+            : new Timeouts(connectTimeoutMillis, readTimeoutMillis);
+        if (requestHedger != null && "GET".equals(method)) {
+            long hedgeDelayMillis = requestHedger.hedgeDelayMillis();
+            if (hedgeDelayMillis >= 0) {
+                return new HedgedCall(method, timeouts).call(hedgeDelayMillis);
+            }
+        }
+        return call(method, timeouts, null);
     }
 
-    private Response call(String method) {
+    private Response call(String method, Timeouts timeouts, Attempt attempt) {
         HttpURLConnection connection = null;
+        long startNanos = System.nanoTime();
         try {
             URL urlToConnect = new URL(url);
             connection = (HttpURLConnection) urlToConnect.openConnection();
-            connection.setReadTimeout((int) TimeUnit.SECONDS.toMillis(readTimeoutSeconds));
-            connection.setConnectTimeout((int) TimeUnit.SECONDS.toMillis(connectTimeoutSeconds));
+            if (attempt != null && !attempt.register(connection)) {
+                throw new RestClientException("REST call cancelled");
+            }
+            connection.setReadTimeout(timeouts.readTimeoutMillis);
+            connection.setConnectTimeout(timeouts.connectTimeoutMillis);
             connection.setRequestMethod(method);
             for (Parameter header : headers) {
                 connection.setRequestProperty(header.getKey(), header.getValue());
@@ -123,7 +206,11 @@ final class RestClient {
             }
 
             checkResponseCode(method, connection);
-            return new Response(connection.getResponseCode(), read(connection));
+            Response response = new Response(connection.getResponseCode(), read(connection));
+            if (latencyHistogram != null) {
+                latencyHistogram.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            }
+            return response;
         } catch (IOException e) {
             throw new RestClientException("Failure in executing REST call", e);
         } finally {
@@ -168,7 +255,129 @@ final class RestClient {
         }
         Scanner scanner = new Scanner(stream, "UTF-8");
         scanner.useDelimiter("\\Z");
-        return scanner.next();
+        // e.g. HTTP_NOT_FOUND responses may have no body
+        return scanner.hasNext() ? scanner.next() : "";
+    }
+
+    /**
+     * Call which is sent once more if it does not complete within the hedge delay. The first response wins and the other
+     * call is cancelled.
+     */
+    private final class HedgedCall {
+        private final String method;
+        private final Timeouts timeouts;
+        private final CompletableFuture<Response> result = new CompletableFuture<>();
+        private final List<Attempt> attempts = new CopyOnWriteArrayList<>();
+        private final AtomicInteger runningAttempts = new AtomicInteger();
+
+        private HedgedCall(String method, Timeouts timeouts) {
+            this.method = method;
+            this.timeouts = timeouts;
+        }
+
+        private Response call(long hedgeDelayMillis) {
+            try {
+                start();
+                try {
+                    return result.get(hedgeDelayMillis, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    if (requestHedger.tryAcquire()) {
+                        LOGGER.finest(String.format("No response from %s within %d ms, hedging the call", url,
+                            hedgeDelayMillis));
+                        start();
+                    }
+                    return result.get();
+                }
+            } catch (ExecutionException e) {
+                throw unchecked(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new HazelcastException("Interrupted while waiting for the REST call", e);
+            } finally {
+                for (Attempt attempt : attempts) {
+                    // the losing attempt took at least this long, leaving it out would hide the slow responses
+                    if (attempt.cancel() && latencyHistogram != null) {
+                        latencyHistogram.record(attempt.elapsedMillis());
+                    }
+                }
+            }
+        }
+
+        private void start() {
+            Attempt attempt = new Attempt();
+            attempts.add(attempt);
+            runningAttempts.incrementAndGet();
+            HEDGED_CALL_EXECUTOR.execute(() -> {
+                try {
+                    Response response;
+                    try {
+                        response = RestClient.this.call(method, timeouts, attempt);
+                    } finally {
+                        attempt.complete();
+                    }
+                    result.complete(response);
+                } catch (RuntimeException e) {
+                    // the call fails only if all its attempts fail
+                    if (runningAttempts.decrementAndGet() == 0) {
+                        result.completeExceptionally(e);
+                    }
+                }
+            });
+        }
+
+        private RuntimeException unchecked(Throwable t) {
+            if (t instanceof RuntimeException) {
+                return (RuntimeException) t;
+            }
+            return new HazelcastException(t);
+        }
+    }
+
+    private static final class Timeouts {
+        private final int connectTimeoutMillis;
+        private final int readTimeoutMillis;
+
+        private Timeouts(int connectTimeoutMillis, int readTimeoutMillis) {
+            this.connectTimeoutMillis = connectTimeoutMillis;
+            this.readTimeoutMillis = readTimeoutMillis;
+        }
+    }
+
+    /**
+     * Single attempt of a hedged call, which can be cancelled by closing its connection.
+     */
+    private static final class Attempt {
+        private final long startNanos = System.nanoTime();
+        private HttpURLConnection connection;
+        private boolean cancelled;
+        private boolean completed;
+
+        /**
+         * Returns {@code false} if the attempt has already been cancelled.
+         */
+        private synchronized boolean register(HttpURLConnection connection) {
+            this.connection = connection;
+            return !cancelled;
+        }
+
+        private synchronized void complete() {
+            completed = true;
+        }
+
+        /**
+         * Returns {@code true} if the attempt was still in flight.
+         */
+        private synchronized boolean cancel() {
+            cancelled = true;
+            if (connection != null) {
+                connection.disconnect();
+            }
+            return !completed;
+        }
+
+        private long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
     }
 
     static class Response {
@@ -27,6 +27,10 @@ class RestClientException
         this.httpErrorCode = httpErrorCode;
     }
 
+    RestClientException(String message) {
+        super(message);
+    }
+
     RestClientException(String message, Throwable cause) {
         super(message, cause);
     }
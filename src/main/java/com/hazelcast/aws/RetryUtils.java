@@ -68,6 +68,17 @@ final class RetryUtils {
         return new HazelcastException(e);
     }
 
+    /**
+     * Returns the total time {@link #retry(Callable, int)} waits between the attempts if all {@code retries} are used.
+     */
+    static long totalBackoffMillis(int retries) {
+        long result = 0;
+        for (int retryCount = 1; retryCount <= retries; retryCount++) {
+            result += backoffIntervalForRetry(retryCount);
+        }
+        return result;
+    }
+
     private static long backoffIntervalForRetry(int retryCount) {
         long result = INITIAL_BACKOFF_MS;
         for (int i = 1; i < retryCount; i++) {
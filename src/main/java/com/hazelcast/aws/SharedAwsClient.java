@@ -0,0 +1,335 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * {@link AwsClient} shared by all discovery strategies of the JVM which use the same AWS configuration, e.g. a member and
+ * a client embedded in the same application.
+ * <p>
+ * Sharing the client means sharing its credentials cache, the instance metadata (availability zone and placement) and
+ * the discovered members: concurrent discoveries result in a single AWS API call and, if the background refresh is
+ * enabled, all the strategies read the result of a single refresher.
+ * <p>
+ * The client is reference counted: it is created by the first {@link #acquire(AwsConfig, BiFunction)} and released (and
+ * its background refresh stopped) when the last {@link Handle} is released. It owns the {@link AwsEndpoints} state of
+ * the AWS APIs it calls, which is closed on release.
+ */
+final class SharedAwsClient
+        implements AwsClient {
+    private static final ILogger LOGGER = Logger.getLogger(SharedAwsClient.class);
+
+    private static final Map<AwsConfig, CompletableFuture<SharedAwsClient>> CLIENTS = new HashMap<>();
+
+    private final AwsConfig key;
+    private final AwsClient awsClient;
+    private final AwsEndpoints endpoints;
+    private final AwsDiscoveryRefresher refresher;
+    private final List<AwsDiscoveryRefresher.ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private final SingleFlight<Map<String, AwsNode>> addressesCall = new SingleFlight<>();
+
+    private volatile Map<String, AwsNode> lastAddresses;
+    private volatile String availabilityZone;
+    private volatile Optional<String> placementGroup;
+    private volatile Optional<String> placementPartitionNumber;
+
+    // guarded by CLIENTS
+    private int references;
+    private boolean started;
+
+    /**
+     * Creates a client which is not registered, so not shared with any other strategy.
+     */
+    SharedAwsClient(AwsClient awsClient, AwsConfig awsConfig) {
+        this(null, awsClient, awsConfig, new AwsEndpoints(awsConfig));
+        this.references = 1;
+    }
+
+    private SharedAwsClient(AwsConfig key, AwsClient awsClient, AwsConfig awsConfig, AwsEndpoints endpoints) {
+        this.key = key;
+        this.awsClient = awsClient;
+        this.endpoints = endpoints;
+        this.refresher = createRefresher(awsConfig);
+    }
+
+    private AwsDiscoveryRefresher createRefresher(AwsConfig awsConfig) {
+        if (awsConfig.getRefreshPeriodSeconds() <= 0) {
+            return null;
+        }
+        return new AwsDiscoveryRefresher(awsClient::getAddresses, this::publishChange,
+            TimeUnit.SECONDS.toMillis(awsConfig.getRefreshPeriodSeconds()),
+            TimeUnit.SECONDS.toMillis(awsConfig.getRefreshJitterSeconds()), awsClient.getStateChangeQueue());
+    }
+
+    /**
+     * Returns a handle to the client registered for an equal configuration (see {@link AwsConfig#equals(Object)}),
+     * creating the client with {@code clientFactory} if no client is registered yet. The factory is given the
+     * {@link AwsEndpoints} owned by the new client. Every handle must be released with {@link Handle#release()}.
+     * <p>
+     * The client is created outside of the registry lock, so creating a client (which may call EC2 Instance Metadata)
+     * does not block the strategies using other configurations; concurrent calls with an equal configuration wait for
+     * the same client.
+     */
+    static Handle acquire(AwsConfig awsConfig, BiFunction<AwsConfig, AwsEndpoints, AwsClient> clientFactory) {
+        while (true) {
+            CompletableFuture<SharedAwsClient> future;
+            boolean create = false;
+            synchronized (CLIENTS) {
+                future = CLIENTS.get(awsConfig);
+                if (future == null) {
+                    future = new CompletableFuture<>();
+                    CLIENTS.put(awsConfig, future);
+                    create = true;
+                } else {
+                    LOGGER.fine("Reusing AWS client created for the same configuration by another Hazelcast instance");
+                }
+            }
+            SharedAwsClient client = create ? create(awsConfig, clientFactory, future) : await(future);
+            synchronized (CLIENTS) {
+                // the client may have been released by all the other strategies in the meantime
+                if (CLIENTS.get(awsConfig) == future) {
+                    client.references++;
+                    return new Handle(client);
+                }
+            }
+        }
+    }
+
+    private static SharedAwsClient create(AwsConfig awsConfig,
+                                          BiFunction<AwsConfig, AwsEndpoints, AwsClient> clientFactory,
+                                          CompletableFuture<SharedAwsClient> future) {
+        AwsEndpoints endpoints = new AwsEndpoints(awsConfig);
+        try {
+            SharedAwsClient client = new SharedAwsClient(awsConfig, clientFactory.apply(awsConfig, endpoints),
+                awsConfig, endpoints);
+            future.complete(client);
+            return client;
+        } catch (RuntimeException | Error e) {
+            endpoints.close();
+            synchronized (CLIENTS) {
+                CLIENTS.remove(awsConfig, future);
+            }
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static SharedAwsClient await(CompletableFuture<SharedAwsClient> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+
+    /**
+     * Starts the background refresh, if enabled and not started yet.
+     */
+    void start() {
+        synchronized (CLIENTS) {
+            if (refresher != null && !started) {
+                refresher.start();
+                started = true;
+            }
+        }
+    }
+
+    private void release() {
+        synchronized (CLIENTS) {
+            if (--references > 0) {
+                return;
+            }
+            if (key != null) {
+                CLIENTS.remove(key);
+            }
+            if (refresher != null) {
+                refresher.shutdown();
+            }
+            awsClient.destroy();
+            endpoints.close();
+        }
+    }
+
+    /**
+     * Returns the state of the AWS endpoints called by this client, to be shared by the other AWS APIs called on its
+     * behalf.
+     */
+    AwsEndpoints endpoints() {
+        return endpoints;
+    }
+
+    void addChangeListener(AwsDiscoveryRefresher.ChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    void removeChangeListener(AwsDiscoveryRefresher.ChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    private void publishChange(Collection<AwsNode> added, Collection<AwsNode> removed) {
+        for (AwsDiscoveryRefresher.ChangeListener listener : changeListeners) {
+            try {
+                listener.onChange(added, removed);
+            } catch (Exception e) {
+                LOGGER.warning("Discovery listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the members found by the last background refresh or, if the background refresh is disabled or has not
+     * succeeded yet, calls AWS API.
+     */
+    @Override
+    public Map<String, AwsNode> getAddresses() {
+        return getAddresses(null);
+    }
+
+    /**
+     * Same as {@link #getAddresses()}, but passes the members to {@code pageConsumer} page by page if this call fetches
+     * them from AWS API; the members found by the background refresh or by a concurrent call are passed as a single
+     * page.
+     */
+    @Override
+    public Map<String, AwsNode> getAddresses(Consumer<Collection<AwsNode>> pageConsumer) {
+        Map<String, AwsNode> addresses = refresher == null ? null : refresher.getAddresses();
+        if (addresses == null) {
+            AtomicBoolean fetched = new AtomicBoolean();
+            addresses = addressesCall.call(() -> {
+                fetched.set(true);
+                return fetchAddresses(pageConsumer);
+            });
+            if (fetched.get()) {
+                return addresses;
+            }
+        }
+        if (pageConsumer != null) {
+            pageConsumer.accept(addresses.values());
+        }
+        return addresses;
+    }
+
+    /**
+     * Fetches the members from AWS API even if the background refresh has already found them, e.g. while waiting for a
+     * startup quorum, which the members found by an earlier refresh may never reach. Concurrent calls share a single
+     * fetch.
+     */
+    Map<String, AwsNode> fetchAddresses() {
+        return addressesCall.call(() -> fetchAddresses(null));
+    }
+
+    /**
+     * Fetches the members, falling back to the last fetched members if the AWS endpoint is known to be unavailable.
+     */
+    private Map<String, AwsNode> fetchAddresses(Consumer<Collection<AwsNode>> pageConsumer) {
+        try {
+            Supplier<Map<String, AwsNode>> fetch = pageConsumer == null
+                ? awsClient::getAddresses
+                : () -> awsClient.getAddresses(pageConsumer);
+            Map<String, AwsNode> result = refresher == null ? fetch.get() : refresher.fetch(fetch);
+            lastAddresses = result;
+            return result;
+        } catch (CircuitBreakerOpenException e) {
+            Map<String, AwsNode> result = lastAddresses;
+            if (result == null) {
+                throw e;
+            }
+            LOGGER.fine("AWS endpoint is unavailable, using the last discovered members");
+            if (pageConsumer != null) {
+                pageConsumer.accept(result.values());
+            }
+            return result;
+        }
+    }
+
+    @Override
+    public Optional<Integer> getDesiredClusterSize() {
+        return awsClient.getDesiredClusterSize();
+    }
+
+    @Override
+    public String getAvailabilityZone() {
+        String result = availabilityZone;
+        if (result == null) {
+            result = awsClient.getAvailabilityZone();
+            availabilityZone = result;
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<String> getPlacementGroup() {
+        Optional<String> result = placementGroup;
+        if (result == null) {
+            result = awsClient.getPlacementGroup();
+            placementGroup = result;
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<String> getPlacementPartitionNumber() {
+        Optional<String> result = placementPartitionNumber;
+        if (result == null) {
+            result = awsClient.getPlacementPartitionNumber();
+            placementPartitionNumber = result;
+        }
+        return result;
+    }
+
+    /**
+     * Reference to a {@link SharedAwsClient} held by a single strategy. Releasing a handle more than once has no effect,
+     * so a strategy destroyed twice does not release the client used by the other strategies.
+     */
+    static final class Handle {
+        private final SharedAwsClient client;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Handle(SharedAwsClient client) {
+            this.client = client;
+        }
+
+        SharedAwsClient client() {
+            return client;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                client.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.core.HazelcastException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls of the same operation, so that only one call is in flight at a time and all the callers
+ * which arrive while it is running share its result (or its exception).
+ * <p>
+ * A call which arrives after the in-flight call has completed starts a new call, so the result is never stale.
+ *
+ * @param <T> type of the result
+ */
+final class SingleFlight<T> {
+    private final AtomicReference<CompletableFuture<T>> inFlight = new AtomicReference<>();
+
+    T call(Supplier<T> supplier) {
+        while (true) {
+            CompletableFuture<T> current = inFlight.get();
+            if (current != null) {
+                return await(current);
+            }
+            CompletableFuture<T> future = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, future)) {
+                try {
+                    future.complete(supplier.get());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                } finally {
+                    inFlight.compareAndSet(future, null);
+                }
+                return await(future);
+            }
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new HazelcastException(cause);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Repeats the first discovery until the quorum of members is found or the deadline passes, so that members started at
+ * the same time do not start standalone and form separate clusters which need to be merged later.
+ * <p>
+ * The quorum is either a fixed number of members or the desired cluster size reported by {@link AwsClient}. The
+ * attempts are separated by an exponential backoff with a random jitter, so that the members do not call AWS API at the
+ * same time. Once awaited (successfully or not), the quorum is not awaited again.
+ */
+class StartupQuorum {
+    private static final ILogger LOGGER = Logger.getLogger(StartupQuorum.class);
+    private static final long INITIAL_BACKOFF_MILLIS = 1000L;
+    private static final long MAX_BACKOFF_MILLIS = 10000L;
+
+    private final AwsClient awsClient;
+    private final int size;
+    private final long timeoutMillis;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private volatile boolean awaited;
+
+    /**
+     * Creates a quorum of {@code size} members or, if {@code size} is 0, of the desired cluster size.
+     */
+    StartupQuorum(AwsClient awsClient, int size, long timeoutMillis) {
+        this(awsClient, size, timeoutMillis, INITIAL_BACKOFF_MILLIS, MAX_BACKOFF_MILLIS);
+    }
+
+    /**
+     * For test purposes only.
+     */
+    StartupQuorum(AwsClient awsClient, int size, long timeoutMillis, long initialBackoffMillis, long maxBackoffMillis) {
+        this.awsClient = awsClient;
+        this.size = size;
+        this.timeoutMillis = timeoutMillis;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    boolean isAwaited() {
+        return awaited;
+    }
+
+    /**
+     * Calls {@code discovery} until it returns at least the quorum of members or the timeout passes, and returns the
+     * last result. If the last call fails, its exception is thrown.
+     */
+    Map<String, AwsNode> await(Supplier<Map<String, AwsNode>> discovery) {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long backoffMillis = initialBackoffMillis;
+        Integer quorum = size > 0 ? size : null;
+        try {
+            while (true) {
+                Map<String, AwsNode> addresses = Collections.emptyMap();
+                RuntimeException failure = null;
+                try {
+                    if (quorum == null) {
+                        quorum = awsClient.getDesiredClusterSize().orElse(0);
+                    }
+                    addresses = discovery.get();
+                    if (addresses.size() >= quorum) {
+                        LOGGER.info(String.format("Startup quorum of %d members reached, found %d members", quorum,
+                            addresses.size()));
+                        return addresses;
+                    }
+                    LOGGER.fine(String.format("Waiting for startup quorum of %d members, found %d members", quorum,
+                        addresses.size()));
+                } catch (RuntimeException e) {
+                    LOGGER.fine("Cannot discover members while waiting for startup quorum", e);
+                    failure = e;
+                }
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+                if (remainingMillis <= 0 || !sleep(Math.min(jittered(backoffMillis), remainingMillis))) {
+                    LOGGER.warning(String.format("Startup quorum of %s members not reached within %d seconds, found %d"
+                        + " members", quorum == null ? "desired" : quorum, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis),
+                        addresses.size()));
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    return addresses;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, maxBackoffMillis);
+            }
+        } finally {
+            awaited = true;
+        }
+    }
+
+    /**
+     * Returns a random delay between half of the given backoff and the whole backoff.
+     */
+    private static long jittered(long backoffMillis) {
+        return backoffMillis / 2 + ThreadLocalRandom.current().nextLong(backoffMillis / 2 + 1);
+    }
+
+    /**
+     * Sleeps for the given time; returns false if interrupted.
+     */
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
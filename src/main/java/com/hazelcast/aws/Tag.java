@@ -1,5 +1,7 @@
 package com.hazelcast.aws;
 
+import java.util.Objects;
+
 /**
  * Represents tag key and value pair. Used to narrow the members returned by the discovery mechanism.
  */
@@ -23,6 +25,23 @@ class Tag {
         return value;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Tag tag = (Tag) o;
+        return Objects.equals(key, tag.key) && Objects.equals(value, tag.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, value);
+    }
+
     @Override
     public String toString() {
         return String.format("(key=%s, value=%s)", key, value);
@@ -18,10 +18,12 @@ package com.hazelcast.aws;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import java.io.ByteArrayInputStream;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import static com.hazelcast.internal.config.DomConfigHelper.childElements;
@@ -30,8 +32,14 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Helper class for parsing XML strings
+ * <p>
+ * The {@link DocumentBuilderFactory} is created and configured once, and every thread reuses its own
+ * {@link DocumentBuilder}, since builders are not thread-safe but can be {@link DocumentBuilder#reset() reset}.
  */
 final class XmlNode {
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = createDocumentBuilderFactory();
+    private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDER = ThreadLocal.withInitial(XmlNode::newDocumentBuilder);
+
     private Node node;
 
     private XmlNode(Node node) {
@@ -39,14 +47,39 @@ final class XmlNode {
     }
 
     static XmlNode create(String xmlString) {
+        DocumentBuilder documentBuilder = DOCUMENT_BUILDER.get();
         try {
-            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-            dbf.setNamespaceAware(true);
-            dbf.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-            Document doc = dbf.newDocumentBuilder().parse(new ByteArrayInputStream(xmlString.getBytes(UTF_8)));
+            Document doc = documentBuilder.parse(new ByteArrayInputStream(xmlString.getBytes(UTF_8)));
             return new XmlNode(doc.getDocumentElement());
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            documentBuilder.reset();
+        }
+    }
+
+    private static DocumentBuilderFactory createDocumentBuilderFactory() {
+        try {
+            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+            dbf.setNamespaceAware(true);
+            dbf.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            dbf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            dbf.setXIncludeAware(false);
+            dbf.setExpandEntityReferences(false);
+            return dbf;
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("Cannot configure XML parser", e);
+        }
+    }
+
+    private static DocumentBuilder newDocumentBuilder() {
+        // DocumentBuilderFactory is not guaranteed to be thread-safe
+        synchronized (DOCUMENT_BUILDER_FACTORY) {
+            try {
+                return DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+            } catch (ParserConfigurationException e) {
+                throw new IllegalStateException("Cannot create XML parser", e);
+            }
         }
     }
 
@@ -54,19 +87,26 @@ final class XmlNode {
         return node;
     }
 
-    List<XmlNode> getSubNodes(String name) {
+    /**
+     * Returns the child elements with the given name. The children are filtered lazily while the stream is consumed.
+     */
+    Stream<XmlNode> getSubNodes(String name) {
         return StreamSupport.stream(childElements(node).spliterator(), false)
             .filter(e -> name.equals(cleanNodeName(e)))
-            .map(XmlNode::new)
-            .collect(Collectors.toList());
+            .map(XmlNode::new);
     }
 
+    /**
+     * Returns the text value of the first child element with the given name or {@code null} if there is no such
+     * element.
+     */
     String getValue(String name) {
-        return getSubNodes(name).stream()
-            .map(XmlNode::getNode)
-            .map(Node::getFirstChild)
-            .map(Node::getNodeValue)
-            .findFirst()
-            .orElse(null);
+        for (Node child : childElements(node)) {
+            if (name.equals(cleanNodeName(child))) {
+                Node text = child.getFirstChild();
+                return text == null ? null : text.getNodeValue();
+            }
+        }
+        return null;
     }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveTimeoutTest {
+
+    @Test
+    public void timeoutIsConfiguredWhenLatencyIsUnknown() {
+        // given
+        AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout(new LatencyHistogram(), 3, 100);
+
+        // when
+        int result = adaptiveTimeout.timeoutMillis(5000);
+
+        // then
+        assertEquals(5000, result);
+    }
+
+    @Test
+    public void timeoutIsMultipliedPercentile() {
+        // given
+        AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout(latencyHistogram(200), 3, 100);
+
+        // when
+        int result = adaptiveTimeout.timeoutMillis(5000);
+
+        // then
+        assertEquals(600, result);
+    }
+
+    @Test
+    public void timeoutIsAtLeastMinimum() {
+        // given
+        AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout(latencyHistogram(5), 3, 100);
+
+        // when
+        int result = adaptiveTimeout.timeoutMillis(5000);
+
+        // then
+        assertEquals(100, result);
+    }
+
+    @Test
+    public void timeoutIsAtMostConfigured() {
+        // given
+        AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout(latencyHistogram(4000), 3, 100);
+
+        // when
+        int result = adaptiveTimeout.timeoutMillis(5000);
+        int unlimitedResult = adaptiveTimeout.timeoutMillis(0);
+
+        // then
+        assertEquals(5000, result);
+        assertEquals(12000, unlimitedResult);
+    }
+
+    private static LatencyHistogram latencyHistogram(long latencyMillis) {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (int i = 0; i < LatencyHistogram.MIN_SAMPLES; i++) {
+            latencyHistogram.record(latencyMillis);
+        }
+        return latencyHistogram;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AwsAssumeRoleCredentialsProviderTest {
+    private static final String ROLE_ARN = "arn:aws:iam::123456789012:role/hazelcast-discovery";
+    private static final String EXTERNAL_ID = "external-id";
+    private static final int DURATION_SECONDS = 3600;
+    private static final Instant NOW = Instant.parse("2020-04-03T10:00:00Z");
+    private static final AwsCredentials BASE_CREDENTIALS = credentials("base");
+    private static final AwsCredentials SESSION_CREDENTIALS_1 = credentials("session-1");
+    private static final AwsCredentials SESSION_CREDENTIALS_2 = credentials("session-2");
+
+    @Mock
+    private AwsStsApi stsApi;
+
+    @Mock
+    private Clock clock;
+
+    private final List<Runnable> scheduledRefreshes = new ArrayList<>();
+
+    private AwsAssumeRoleCredentialsProvider provider;
+
+    @Before
+    public void setUp() {
+        AwsConfig awsConfig = AwsConfig.builder()
+            .setAssumeRoleArn(ROLE_ARN)
+            .setAssumeRoleExternalId(EXTERNAL_ID)
+            .setAssumeRoleSessionDurationSeconds(DURATION_SECONDS)
+            .build();
+        given(clock.instant()).willReturn(NOW);
+        given(stsApi.assumeRole(ROLE_ARN, EXTERNAL_ID, DURATION_SECONDS, BASE_CREDENTIALS))
+            .willReturn(session(SESSION_CREDENTIALS_1, NOW.plusSeconds(DURATION_SECONDS)))
+            .willReturn(session(SESSION_CREDENTIALS_2, NOW.plusSeconds(2 * DURATION_SECONDS)));
+        provider = new AwsAssumeRoleCredentialsProvider(stsApi, awsConfig, () -> BASE_CREDENTIALS, clock,
+            scheduledRefreshes::add);
+    }
+
+    @Test
+    public void credentialsAreCached() {
+        // when
+        AwsCredentials first = provider.credentials();
+        given(clock.instant()).willReturn(NOW.plusSeconds(DURATION_SECONDS / 2));
+        AwsCredentials second = provider.credentials();
+
+        // then
+        assertEquals(SESSION_CREDENTIALS_1, first);
+        assertEquals(SESSION_CREDENTIALS_1, second);
+        assertEquals(0, scheduledRefreshes.size());
+        verify(stsApi, times(1)).assumeRole(anyString(), anyString(), anyInt(), any());
+    }
+
+    @Test
+    public void credentialsAreRefreshedInBackgroundBeforeExpiration() {
+        // given
+        provider.credentials();
+        given(clock.instant()).willReturn(NOW.plusSeconds(DURATION_SECONDS - 120));
+
+        // when
+        AwsCredentials beforeRefresh = provider.credentials();
+        provider.credentials();
+        scheduledRefreshes.get(0).run();
+        AwsCredentials afterRefresh = provider.credentials();
+
+        // then
+        assertEquals(SESSION_CREDENTIALS_1, beforeRefresh);
+        assertEquals(1, scheduledRefreshes.size());
+        assertEquals(SESSION_CREDENTIALS_2, afterRefresh);
+    }
+
+    @Test
+    public void failedBackgroundRefreshKeepsCurrentCredentials() {
+        // given
+        provider.credentials();
+        given(clock.instant()).willReturn(NOW.plusSeconds(DURATION_SECONDS - 120));
+        given(stsApi.assumeRole(ROLE_ARN, EXTERNAL_ID, DURATION_SECONDS, BASE_CREDENTIALS))
+            .willThrow(new RestClientException("STS unavailable", 503));
+
+        // when
+        provider.credentials();
+        scheduledRefreshes.get(0).run();
+        AwsCredentials result = provider.credentials();
+
+        // then
+        assertEquals(SESSION_CREDENTIALS_1, result);
+        assertEquals(2, scheduledRefreshes.size());
+    }
+
+    @Test
+    public void expiredCredentialsAreFetchedSynchronously() {
+        // given
+        provider.credentials();
+        given(clock.instant()).willReturn(NOW.plusSeconds(DURATION_SECONDS));
+
+        // when
+        AwsCredentials result = provider.credentials();
+
+        // then
+        assertEquals(SESSION_CREDENTIALS_2, result);
+        assertEquals(0, scheduledRefreshes.size());
+    }
+
+    private static AwsCredentials credentials(String name) {
+        return AwsCredentials.builder()
+            .setAccessKey(name + "-access-key")
+            .setSecretKey(name + "-secret-key")
+            .setToken(name + "-token")
+            .build();
+    }
+
+    private static AwsStsApi.SessionCredentials session(AwsCredentials credentials, Instant expiration) {
+        return new AwsStsApi.SessionCredentials(credentials, expiration);
+    }
+}
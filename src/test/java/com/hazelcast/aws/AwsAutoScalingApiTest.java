@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AwsAutoScalingApiTest {
+    private static final String AUTHORIZATION_HEADER = "authorization-header";
+    private static final String TOKEN = "IQoJb3JpZ2luX2VjEFIaDGV1LWNlbnRyYWwtMSJGM==";
+    private static final AwsCredentials CREDENTIALS = AwsCredentials.builder()
+        .setAccessKey("AKIDEXAMPLE")
+        .setSecretKey("wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY")
+        .setToken(TOKEN)
+        .build();
+
+    @Mock
+    private AwsRequestSigner requestSigner;
+
+    private AwsAutoScalingApi awsAutoScalingApi;
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+    @Before
+    public void setUp() {
+        given(requestSigner.authHeader(any(), any(), any(), any(), any(), any())).willReturn(AUTHORIZATION_HEADER);
+        String endpoint = String.format("http://localhost:%s", wireMockRule.port());
+        Clock clock = Clock.fixed(Instant.ofEpochMilli(1585909518929L), ZoneId.systemDefault());
+        AwsConfig awsConfig = AwsConfig.builder().setAutoScalingGroup("hazelcast-asg").build();
+        awsAutoScalingApi = new AwsAutoScalingApi(endpoint, awsConfig, new AwsEndpoints(awsConfig), requestSigner, clock);
+    }
+
+    @Test
+    public void describeAutoScalingGroup() {
+        // given
+        String requestUrl = "/?Action=DescribeAutoScalingGroups"
+            + "&AutoScalingGroupNames.member.1=hazelcast-asg"
+            + "&Version=2011-01-01";
+
+        //language=XML
+        String response = "<DescribeAutoScalingGroupsResponse xmlns=\"http://autoscaling.amazonaws.com/doc/2011-01-01/\">\n"
+            + "  <DescribeAutoScalingGroupsResult>\n"
+            + "    <AutoScalingGroups>\n"
+            + "      <member>\n"
+            + "        <AutoScalingGroupName>hazelcast-asg</AutoScalingGroupName>\n"
+            + "        <DesiredCapacity>4</DesiredCapacity>\n"
+            + "        <MinSize>1</MinSize>\n"
+            + "        <MaxSize>6</MaxSize>\n"
+            + "        <Instances>\n"
+            + "          <member>\n"
+            + "            <InstanceId>i-0a1b2c3d4e5f60001</InstanceId>\n"
+            + "            <AvailabilityZone>eu-central-1a</AvailabilityZone>\n"
+            + "            <LifecycleState>InService</LifecycleState>\n"
+            + "            <HealthStatus>Healthy</HealthStatus>\n"
+            + "          </member>\n"
+            + "          <member>\n"
+            + "            <InstanceId>i-0a1b2c3d4e5f60002</InstanceId>\n"
+            + "            <AvailabilityZone>eu-central-1b</AvailabilityZone>\n"
+            + "            <LifecycleState>Pending:Wait</LifecycleState>\n"
+            + "            <HealthStatus>Healthy</HealthStatus>\n"
+            + "          </member>\n"
+            + "          <member>\n"
+            + "            <InstanceId>i-0a1b2c3d4e5f60003</InstanceId>\n"
+            + "            <AvailabilityZone>eu-central-1c</AvailabilityZone>\n"
+            + "            <LifecycleState>InService</LifecycleState>\n"
+            + "            <HealthStatus>Healthy</HealthStatus>\n"
+            + "          </member>\n"
+            + "          <member>\n"
+            + "            <InstanceId>i-0a1b2c3d4e5f60004</InstanceId>\n"
+            + "            <AvailabilityZone>eu-central-1a</AvailabilityZone>\n"
+            + "            <LifecycleState>Terminating:Wait</LifecycleState>\n"
+            + "            <HealthStatus>Unhealthy</HealthStatus>\n"
+            + "          </member>\n"
+            + "        </Instances>\n"
+            + "      </member>\n"
+            + "    </AutoScalingGroups>\n"
+            + "  </DescribeAutoScalingGroupsResult>\n"
+            + "  <ResponseMetadata>\n"
+            + "    <RequestId>8b6e2f1a-0c3d-4e5f-9a8b-7c6d5e4f3a2b</RequestId>\n"
+            + "  </ResponseMetadata>\n"
+            + "</DescribeAutoScalingGroupsResponse>";
+
+        stubFor(get(urlEqualTo(requestUrl))
+            .withHeader("X-Amz-Date", equalTo("20200403T102518Z"))
+            .withHeader("Authorization", equalTo(AUTHORIZATION_HEADER))
+            .withHeader("X-Amz-Security-Token", equalTo(TOKEN))
+            .willReturn(aResponse().withStatus(200).withBody(response)));
+
+        // when
+        AwsAutoScalingApi.AutoScalingGroup result = awsAutoScalingApi.describeAutoScalingGroup(CREDENTIALS);
+
+        // then
+        assertEquals(4, result.getDesiredCapacity());
+        assertEquals(asList("i-0a1b2c3d4e5f60001", "i-0a1b2c3d4e5f60003"), result.getInServiceInstanceIds());
+    }
+
+    @Test
+    public void describeAutoScalingGroupNotFound() {
+        // given
+        //language=XML
+        String response = "<DescribeAutoScalingGroupsResponse xmlns=\"http://autoscaling.amazonaws.com/doc/2011-01-01/\">\n"
+            + "  <DescribeAutoScalingGroupsResult>\n"
+            + "    <AutoScalingGroups/>\n"
+            + "  </DescribeAutoScalingGroupsResult>\n"
+            + "</DescribeAutoScalingGroupsResponse>";
+        stubFor(get(urlMatching("/.*"))
+            .willReturn(aResponse().withStatus(200).withBody(response)));
+
+        // when
+        Exception exception = assertThrows(IllegalStateException.class,
+            () -> awsAutoScalingApi.describeAutoScalingGroup(CREDENTIALS));
+
+        // then
+        assertTrue(exception.getMessage().contains("hazelcast-asg"));
+    }
+
+    @Test
+    public void awsError() {
+        // given
+        int errorCode = 403;
+        String errorMessage = "User is not authorized to perform: autoscaling:DescribeAutoScalingGroups";
+        stubFor(get(urlMatching("/.*"))
+            .willReturn(aResponse().withStatus(errorCode).withBody(errorMessage)));
+
+        // when
+        Exception exception = assertThrows(Exception.class,
+            () -> awsAutoScalingApi.describeAutoScalingGroup(CREDENTIALS));
+
+        // then
+        assertTrue(exception.getMessage().contains(Integer.toString(errorCode)));
+        assertTrue(exception.getMessage().contains(errorMessage));
+    }
+}
@@ -17,11 +17,23 @@ package com.hazelcast.aws;
 
 import com.hazelcast.aws.AwsMetadataApi.EcsMetadata;
 import com.hazelcast.config.InvalidConfigurationException;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static com.hazelcast.aws.AwsClientConfigurator.resolveAutoScalingEndpoint;
+import static com.hazelcast.aws.AwsClientConfigurator.resolveCloudMapEndpoint;
 import static com.hazelcast.aws.AwsClientConfigurator.resolveEc2Endpoint;
 import static com.hazelcast.aws.AwsClientConfigurator.resolveEcsEndpoint;
 import static com.hazelcast.aws.AwsClientConfigurator.resolveRegion;
+import static com.hazelcast.aws.AwsClientConfigurator.resolveSqsEndpoint;
+import static com.hazelcast.aws.AwsClientConfigurator.resolveSqsRegion;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -30,6 +42,9 @@ import static org.mockito.Mockito.mock;
 
 public class AwsClientConfiguratorTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void resolveRegionAwsConfig() {
         // given
@@ -77,6 +92,25 @@ public class AwsClientConfiguratorTest {
         assertEquals("us-east-1", result);
     }
 
+    @Test
+    public void resolveRegionProfile()
+            throws IOException {
+        // given
+        File configFile = temporaryFolder.newFile("config");
+        Files.write(configFile.toPath(), asList("[default]", "region = us-east-1", "[profile hazelcast]",
+            "region = eu-west-1"), UTF_8);
+        AwsConfig awsConfig = AwsConfig.builder().setProfile("hazelcast").build();
+        AwsMetadataApi awsMetadataApi = mock(AwsMetadataApi.class);
+        Environment environment = mock(Environment.class);
+        given(environment.getConfigFile()).willReturn(configFile.getPath());
+
+        // when
+        String result = resolveRegion(awsConfig, awsMetadataApi, environment);
+
+        // then
+        assertEquals("eu-west-1", result);
+    }
+
     @Test
     public void resolveEc2Endpoints() {
         assertEquals("ec2.us-east-1.amazonaws.com", resolveEc2Endpoint(AwsConfig.builder().build(), "us-east-1"));
@@ -86,6 +120,73 @@ public class AwsClientConfiguratorTest {
             resolveEc2Endpoint(AwsConfig.builder().setHostHeader("ec2.something").build(), "us-east-1"));
     }
 
+    @Test
+    public void resolveCloudMapEndpoints() {
+        assertEquals("data-servicediscovery.us-east-1.amazonaws.com", resolveCloudMapEndpoint("us-east-1"));
+    }
+
+    @Test
+    public void resolveDualStackEndpoints() {
+        AwsConfig awsConfig = AwsConfig.builder().setDualStackEndpoints(true).build();
+        assertEquals("ec2.eu-central-1.api.aws", resolveEc2Endpoint(awsConfig, "eu-central-1"));
+        assertEquals("ecs.eu-central-1.api.aws", resolveEcsEndpoint(awsConfig, "eu-central-1"));
+        assertEquals("ec2.eu-central-1.something", resolveEc2Endpoint(
+            AwsConfig.builder().setDualStackEndpoints(true).setHostHeader("ec2.something").build(), "eu-central-1"));
+    }
+
+    @Test
+    public void regionTimeoutCoversRetries() {
+        // given
+        AwsConfig awsConfig = AwsConfig.builder()
+            .setConnectionTimeoutMillis(1000)
+            .setReadTimeoutMillis(2000)
+            .setConnectionRetries(2)
+            .build();
+
+        // when
+        long result = AwsClientConfigurator.regionTimeoutMillis(awsConfig);
+
+        // then
+        // 3 attempts of 3000 ms plus 1500 ms and 2250 ms backoff
+        assertEquals(3 * 3000 + 1500 + 2250, result);
+    }
+
+    @Test
+    public void resolveAutoScalingEndpoints() {
+        assertEquals("autoscaling.eu-central-1.amazonaws.com", resolveAutoScalingEndpoint("eu-central-1"));
+    }
+
+    @Test
+    public void resolveSqsEndpoints() {
+        assertEquals("sqs.eu-central-1.amazonaws.com",
+            resolveSqsEndpoint("https://sqs.eu-central-1.amazonaws.com/665466731577/hazelcast-events"));
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void resolveSqsEndpointsInvalidQueueUrl() {
+        resolveSqsEndpoint("hazelcast-events");
+    }
+
+    @Test
+    public void resolveSqsRegions() {
+        assertEquals("eu-west-1",
+            resolveSqsRegion("https://sqs.eu-west-1.amazonaws.com/665466731577/hazelcast-events", "us-east-1"));
+        assertEquals("eu-west-1",
+            resolveSqsRegion("https://eu-west-1.queue.amazonaws.com/665466731577/hazelcast-events", "us-east-1"));
+        assertEquals("cn-north-1",
+            resolveSqsRegion("https://sqs.cn-north-1.amazonaws.com.cn/665466731577/hazelcast-events", "us-east-1"));
+        assertEquals("eu-west-1", resolveSqsRegion(
+            "https://vpce-0123456789abcdef0-abcdefgh.sqs.eu-west-1.vpce.amazonaws.com/665466731577/hazelcast-events",
+            "us-east-1"));
+        assertEquals("us-east-1",
+            resolveSqsRegion("https://queue.amazonaws.com/665466731577/hazelcast-events", "eu-west-1"));
+    }
+
+    @Test
+    public void resolveSqsRegionFromCustomEndpoint() {
+        assertEquals("eu-west-1", resolveSqsRegion("http://localhost:9324/665466731577/hazelcast-events", "eu-west-1"));
+    }
+
     @Test
     public void resolveEcsEndpoints() {
         assertEquals("ecs.us-east-1.amazonaws.com", resolveEcsEndpoint(AwsConfig.builder().build(), "us-east-1"));
@@ -112,6 +213,8 @@ public class AwsClientConfiguratorTest {
         assertFalse(AwsClientConfigurator.explicitlyEc2Configured(
             AwsConfig.builder().setHostHeader("ecs.us-east-1.amazonaws.com").build()));
         assertFalse(AwsClientConfigurator.explicitlyEc2Configured(AwsConfig.builder().build()));
+        assertTrue(AwsClientConfigurator.explicitlyEc2Configured(
+            AwsConfig.builder().setAutoScalingGroup("hazelcast-asg").build()));
     }
 
     @Test
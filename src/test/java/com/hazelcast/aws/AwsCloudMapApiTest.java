@@ -0,0 +1,198 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AwsCloudMapApiTest {
+    private static final Clock CLOCK = Clock.fixed(Instant.ofEpochMilli(1585909518929L), ZoneId.systemDefault());
+    private static final String AUTHORIZATION_HEADER = "authorization-header";
+    private static final String TOKEN = "IQoJb3JpZ2luX2VjEFIaDGV1LWNlbnRyYWwtMSJGM==";
+    private static final AwsCredentials CREDENTIALS = AwsCredentials.builder()
+        .setAccessKey("AKIDEXAMPLE")
+        .setSecretKey("wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY")
+        .setToken(TOKEN)
+        .build();
+
+    @Mock
+    private AwsRequestSigner requestSigner;
+
+    private String endpoint;
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+    @Before
+    public void setUp() {
+        given(requestSigner.authHeader(any(), any(), any(), any(), any(), any())).willReturn(AUTHORIZATION_HEADER);
+        endpoint = String.format("http://localhost:%s", wireMockRule.port());
+    }
+
+    @Test
+    public void discoverInstances() {
+        // given
+        AwsConfig awsConfig = AwsConfig.builder()
+            .setCloudMapNamespace("hazelcast.local")
+            .setCloudMapService("hazelcast")
+            .setCloudMapAttributes("stage=prod, role=member")
+            .build();
+        AwsCloudMapApi awsCloudMapApi = new AwsCloudMapApi(endpoint, awsConfig, new AwsEndpoints(awsConfig),
+            requestSigner, CLOCK);
+
+        //language=JSON
+        String requestBody = "{\n"
+            + "  \"NamespaceName\": \"hazelcast.local\",\n"
+            + "  \"ServiceName\": \"hazelcast\",\n"
+            + "  \"HealthStatus\": \"HEALTHY_OR_ELSE_ALL\",\n"
+            + "  \"MaxResults\": 1000,\n"
+            + "  \"QueryParameters\": {\n"
+            + "    \"stage\": \"prod\",\n"
+            + "    \"role\": \"member\"\n"
+            + "  }\n"
+            + "}";
+
+        //language=JSON
+        String response = "{\n"
+            + "  \"Instances\": [\n"
+            + "    {\n"
+            + "      \"InstanceId\": \"0b69d5c0d6554695\",\n"
+            + "      \"NamespaceName\": \"hazelcast.local\",\n"
+            + "      \"ServiceName\": \"hazelcast\",\n"
+            + "      \"HealthStatus\": \"HEALTHY\",\n"
+            + "      \"Attributes\": {\n"
+            + "        \"AWS_INSTANCE_IPV4\": \"10.0.1.16\",\n"
+            + "        \"AVAILABILITY_ZONE\": \"eu-central-1a\",\n"
+            + "        \"ECS_CLUSTER_NAME\": \"hazelcast\",\n"
+            + "        \"stage\": \"prod\",\n"
+            + "        \"role\": \"member\"\n"
+            + "      }\n"
+            + "    },\n"
+            + "    {\n"
+            + "      \"InstanceId\": \"51a01bdfd00e487e\",\n"
+            + "      \"NamespaceName\": \"hazelcast.local\",\n"
+            + "      \"ServiceName\": \"hazelcast\",\n"
+            + "      \"HealthStatus\": \"HEALTHY\",\n"
+            + "      \"Attributes\": {\n"
+            + "        \"AWS_INSTANCE_IPV4\": \"10.0.1.219\",\n"
+            + "        \"stage\": \"prod\",\n"
+            + "        \"role\": \"member\"\n"
+            + "      }\n"
+            + "    },\n"
+            + "    {\n"
+            + "      \"InstanceId\": \"hazelcast-cname\",\n"
+            + "      \"Attributes\": {\n"
+            + "        \"AWS_INSTANCE_CNAME\": \"hazelcast.example.com\"\n"
+            + "      }\n"
+            + "    }\n"
+            + "  ]\n"
+            + "}";
+
+        stubFor(post("/")
+            .withHeader("X-Amz-Date", equalTo("20200403T102518Z"))
+            .withHeader("Authorization", equalTo(AUTHORIZATION_HEADER))
+            .withHeader("X-Amz-Target", equalTo("Route53AutoNaming_v20170314.DiscoverInstances"))
+            .withHeader("Content-Type", equalTo("application/x-amz-json-1.1"))
+            .withHeader("X-Amz-Security-Token", equalTo(TOKEN))
+            .withRequestBody(equalToJson(requestBody))
+            .willReturn(aResponse().withStatus(200).withBody(response)));
+
+        // when
+        Map<String, AwsNode> result = awsCloudMapApi.discoverInstances(CREDENTIALS);
+
+        // then
+        assertEquals(2, result.size());
+        assertEquals("eu-central-1a", result.get("10.0.1.16").getAvailabilityZone());
+        assertNull(result.get("10.0.1.16").getPublicAddress());
+        assertNull(result.get("10.0.1.219").getAvailabilityZone());
+    }
+
+    @Test
+    public void discoverInstancesWithoutAttributes() {
+        // given
+        AwsConfig awsConfig = AwsConfig.builder()
+            .setCloudMapNamespace("hazelcast.local")
+            .setCloudMapService("hazelcast")
+            .build();
+        AwsCloudMapApi awsCloudMapApi = new AwsCloudMapApi(endpoint, awsConfig, new AwsEndpoints(awsConfig),
+            requestSigner, CLOCK);
+
+        //language=JSON
+        String requestBody = "{\n"
+            + "  \"NamespaceName\": \"hazelcast.local\",\n"
+            + "  \"ServiceName\": \"hazelcast\",\n"
+            + "  \"HealthStatus\": \"HEALTHY_OR_ELSE_ALL\",\n"
+            + "  \"MaxResults\": 1000\n"
+            + "}";
+
+        stubFor(post("/")
+            .withRequestBody(equalToJson(requestBody))
+            .willReturn(aResponse().withStatus(200).withBody("{\"Instances\": []}")));
+
+        // when
+        Map<String, AwsNode> result = awsCloudMapApi.discoverInstances(CREDENTIALS);
+
+        // then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void awsError() {
+        // given
+        AwsConfig awsConfig = AwsConfig.builder()
+            .setCloudMapNamespace("hazelcast.local")
+            .setCloudMapService("hazelcast")
+            .build();
+        AwsCloudMapApi awsCloudMapApi = new AwsCloudMapApi(endpoint, awsConfig, new AwsEndpoints(awsConfig),
+            requestSigner, CLOCK);
+        int errorCode = 400;
+        String errorMessage = "{\"__type\":\"NamespaceNotFoundException\",\"Message\":\"Namespace not found\"}";
+        stubFor(post(urlMatching("/.*"))
+            .willReturn(aResponse().withStatus(errorCode).withBody(errorMessage)));
+
+        // when
+        Exception exception = assertThrows(Exception.class, () -> awsCloudMapApi.discoverInstances(CREDENTIALS));
+
+        // then
+        assertTrue(exception.getMessage().contains(Integer.toString(errorCode)));
+        assertTrue(exception.getMessage().contains("Namespace not found"));
+    }
+}
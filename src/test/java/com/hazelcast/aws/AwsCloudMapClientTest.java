@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AwsCloudMapClientTest {
+    private static final AwsCredentials CREDENTIALS = AwsCredentials.builder()
+        .setAccessKey("access-key")
+        .setSecretKey("secret-key")
+        .build();
+    private static final AwsNode NODE = AwsNode.builder()
+        .setPrivateAddress("10.0.1.16")
+        .setAvailabilityZone("eu-central-1a")
+        .build();
+
+    @Mock
+    private AwsCloudMapApi awsCloudMapApi;
+
+    @Mock
+    private AwsMetadataApi awsMetadataApi;
+
+    @Mock
+    private AwsCredentialsProvider awsCredentialsProvider;
+
+    @Mock
+    private Environment environment;
+
+    private final Clock clock = mock(Clock.class);
+
+    @Before
+    public void setUp() {
+        given(clock.millis()).willReturn(0L);
+        given(awsCredentialsProvider.credentials()).willReturn(CREDENTIALS);
+        given(awsCloudMapApi.discoverInstances(CREDENTIALS)).willReturn(singletonMap(NODE.getPrivateAddress(), NODE));
+    }
+
+    @Test
+    public void getAddresses() {
+        // given
+        AwsCloudMapClient awsCloudMapClient = client(emptySet(), 5);
+
+        // when
+        Map<String, AwsNode> result = awsCloudMapClient.getAddresses();
+
+        // then
+        assertEquals(singletonMap(NODE.getPrivateAddress(), NODE), result);
+    }
+
+    @Test
+    public void getAddressesCached() {
+        // given
+        AwsCloudMapClient awsCloudMapClient = client(emptySet(), 5);
+
+        // when
+        awsCloudMapClient.getAddresses();
+        given(clock.millis()).willReturn(4999L);
+        awsCloudMapClient.getAddresses();
+        given(clock.millis()).willReturn(5000L);
+        awsCloudMapClient.getAddresses();
+
+        // then
+        verify(awsCloudMapApi, times(2)).discoverInstances(CREDENTIALS);
+    }
+
+    @Test
+    public void getAddressesNotCached() {
+        // given
+        AwsCloudMapClient awsCloudMapClient = client(emptySet(), 0);
+
+        // when
+        awsCloudMapClient.getAddresses();
+        awsCloudMapClient.getAddresses();
+
+        // then
+        verify(awsCloudMapApi, times(2)).discoverInstances(CREDENTIALS);
+    }
+
+    @Test
+    public void getAvailabilityZoneOfLocalMember() {
+        // given
+        AwsCloudMapClient awsCloudMapClient = client(singleton(NODE.getPrivateAddress()), 5);
+
+        // when
+        String result = awsCloudMapClient.getAvailabilityZone();
+
+        // then
+        assertEquals("eu-central-1a", result);
+    }
+
+    @Test
+    public void getAvailabilityZoneFromEc2Metadata() {
+        // given
+        given(awsMetadataApi.availabilityZoneEc2()).willReturn("eu-central-1b");
+        AwsCloudMapClient awsCloudMapClient = client(emptySet(), 5);
+
+        // when
+        String result = awsCloudMapClient.getAvailabilityZone();
+
+        // then
+        assertEquals("eu-central-1b", result);
+    }
+
+    @Test
+    public void getAvailabilityZoneUnknownOnEcs() {
+        // given
+        given(environment.isRunningOnEcs()).willReturn(true);
+        AwsCloudMapClient awsCloudMapClient = client(emptySet(), 5);
+
+        // when
+        String result = awsCloudMapClient.getAvailabilityZone();
+
+        // then
+        assertEquals("unknown", result);
+    }
+
+    private AwsCloudMapClient client(Set<String> localAddresses, int cacheSeconds) {
+        return new AwsCloudMapClient(awsCloudMapApi, awsMetadataApi, awsCredentialsProvider, environment,
+            () -> localAddresses, cacheSeconds, clock);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.aws.AwsCredentialsChain.source;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AwsCredentialsChainTest {
+    private static final AwsCredentials CREDENTIALS = AwsCredentials.builder()
+        .setAccessKey("AKIDEXAMPLE")
+        .setSecretKey("wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY")
+        .build();
+    private static final AwsCredentials OTHER_CREDENTIALS = AwsCredentials.builder()
+        .setAccessKey("other-access-key")
+        .setSecretKey("other-secret-key")
+        .build();
+
+    @Test
+    public void credentialsFromSourceWithLowestOrder() {
+        // given
+        AwsCredentialsChain chain = new AwsCredentialsChain(asList(
+            source("fast", 200, () -> OTHER_CREDENTIALS),
+            source("slow", 100, () -> {
+                sleep(200);
+                return CREDENTIALS;
+            })), 5000);
+
+        // when
+        AwsCredentials credentials = chain.credentials();
+
+        // then
+        assertEquals(CREDENTIALS, credentials);
+    }
+
+    @Test
+    public void credentialsSkipUnavailableAndFailingSources() {
+        // given
+        AwsCredentialsChain chain = new AwsCredentialsChain(asList(
+            source("unavailable", 100, () -> null),
+            source("failing", 200, () -> {
+                throw new RuntimeException("Error fetching credentials");
+            }),
+            source("available", 300, () -> CREDENTIALS)), 5000);
+
+        // when
+        AwsCredentials credentials = chain.credentials();
+
+        // then
+        assertEquals(CREDENTIALS, credentials);
+    }
+
+    @Test
+    public void credentialsSkipSourceAfterDeadline() {
+        // given
+        AwsCredentialsChain chain = new AwsCredentialsChain(asList(
+            source("hanging", 100, () -> {
+                sleep(10000);
+                return OTHER_CREDENTIALS;
+            }),
+            source("available", 200, () -> CREDENTIALS)), 200);
+
+        // when
+        long start = System.nanoTime();
+        AwsCredentials credentials = chain.credentials();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // then
+        assertEquals(CREDENTIALS, credentials);
+        assertTrue(elapsedMillis < 5000);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void credentialsRethrowFailureWhenNoSourceAvailable() {
+        // given
+        AwsCredentialsChain chain = new AwsCredentialsChain(asList(
+            source("unavailable", 100, () -> null),
+            source("failing", 200, () -> {
+                throw new IllegalStateException("Error fetching credentials");
+            })), 5000);
+
+        // when
+        chain.credentials();
+
+        // then
+        // throws exception
+    }
+
+    @Test(expected = NoCredentialsException.class)
+    public void credentialsNoSourceAvailable() {
+        // given
+        AwsCredentialsChain chain = new AwsCredentialsChain(asList(
+            source("unavailable", 100, () -> null),
+            source("other-unavailable", 200, () -> null)), 5000);
+
+        // when
+        chain.credentials();
+
+        // then
+        // throws exception
+    }
+
+    @Test
+    public void credentialsWinnerIsRemembered() {
+        // given
+        AtomicInteger otherCalls = new AtomicInteger();
+        AwsCredentialsChain chain = new AwsCredentialsChain(asList(
+            source("winner", 100, () -> CREDENTIALS),
+            source("other", 200, () -> {
+                otherCalls.incrementAndGet();
+                return OTHER_CREDENTIALS;
+            })), 5000);
+        chain.credentials();
+
+        // when
+        AwsCredentials credentials = chain.credentials();
+
+        // then
+        assertEquals(CREDENTIALS, credentials);
+        // the other source may or may not have been called by the first probe, but not by the second call
+        assertTrue(otherCalls.get() <= 1);
+    }
+
+    @Test
+    public void credentialsProbedAgainWhenWinnerBecomesUnavailable() {
+        // given
+        AtomicReference<AwsCredentials> winnerCredentials = new AtomicReference<>(CREDENTIALS);
+        AwsCredentialsChain chain = new AwsCredentialsChain(asList(
+            source("winner", 100, winnerCredentials::get),
+            source("other", 200, () -> OTHER_CREDENTIALS)), 5000);
+        chain.credentials();
+        winnerCredentials.set(null);
+
+        // when
+        AwsCredentials credentials = chain.credentials();
+
+        // then
+        assertEquals(OTHER_CREDENTIALS, credentials);
+    }
+
+    @Test
+    public void credentialsProbedAgainWhenWinnerFails() {
+        // given
+        AtomicInteger winnerCalls = new AtomicInteger();
+        AwsCredentialsChain chain = new AwsCredentialsChain(asList(
+            source("winner", 100, () -> {
+                if (winnerCalls.incrementAndGet() > 1) {
+                    throw new IllegalStateException("Expired");
+                }
+                return CREDENTIALS;
+            }),
+            source("other", 200, () -> OTHER_CREDENTIALS)), 5000);
+        chain.credentials();
+
+        // when
+        AwsCredentials credentials = chain.credentials();
+
+        // then
+        assertEquals(OTHER_CREDENTIALS, credentials);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -16,14 +16,25 @@
 package com.hazelcast.aws;
 
 import com.hazelcast.config.InvalidConfigurationException;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
 public class AwsCredentialsProviderTest {
@@ -42,6 +53,12 @@ public class AwsCredentialsProviderTest {
     @Mock
     private Environment environment;
 
+    @Mock
+    private AwsStsApi awsStsApi;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void credentialsAccessKey() {
         // given
@@ -142,4 +159,138 @@ public class AwsCredentialsProviderTest {
         // then
         // throws exception
     }
-}
\ No newline at end of file
+
+    @Test
+    public void credentialsWebIdentity()
+            throws IOException {
+        // given
+        File tokenFile = temporaryFolder.newFile("token");
+        Files.write(tokenFile.toPath(), "web-identity-token".getBytes(UTF_8));
+        String roleArn = "arn:aws:iam::123456789012:role/hazelcast-discovery";
+        AwsConfig awsConfig = AwsConfig.builder().build();
+        given(environment.isWebIdentityConfigured()).willReturn(true);
+        given(environment.getWebIdentityTokenFile()).willReturn(tokenFile.getPath());
+        given(environment.getWebIdentityRoleArn()).willReturn(roleArn);
+        given(awsStsApi.assumeRoleWithWebIdentity(roleArn, null, "web-identity-token"))
+            .willReturn(new AwsStsApi.SessionCredentials(CREDENTIALS, Instant.now().plusSeconds(3600)));
+        AwsCredentialsProvider credentialsProvider = new AwsCredentialsProvider(awsConfig, awsMetadataApi, environment,
+            awsStsApi);
+
+        // when
+        AwsCredentials credentials = credentialsProvider.credentials();
+
+        // then
+        assertEquals(CREDENTIALS, credentials);
+    }
+
+    @Test
+    public void credentialsProfile()
+            throws IOException {
+        // given
+        File credentialsFile = temporaryFolder.newFile("credentials");
+        Files.write(credentialsFile.toPath(), asList("[default]", "aws_access_key_id = default-access-key",
+            "aws_secret_access_key = default-secret-key", "", "[hazelcast]", "aws_access_key_id = " + ACCESS_KEY,
+            "aws_secret_access_key = " + SECRET_KEY, "aws_session_token = " + TOKEN), UTF_8);
+        AwsConfig awsConfig = AwsConfig.builder().build();
+        given(environment.getSharedCredentialsFile()).willReturn(credentialsFile.getPath());
+        given(environment.getAwsProfile()).willReturn("hazelcast");
+        AwsCredentialsProvider credentialsProvider = new AwsCredentialsProvider(awsConfig, awsMetadataApi, environment);
+
+        // when
+        AwsCredentials credentials = credentialsProvider.credentials();
+
+        // then
+        assertEquals(CREDENTIALS, credentials);
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void credentialsProfileNotFound()
+            throws IOException {
+        // given
+        File credentialsFile = temporaryFolder.newFile("credentials");
+        Files.write(credentialsFile.toPath(), asList("[default]", "aws_access_key_id = default-access-key",
+            "aws_secret_access_key = default-secret-key"), UTF_8);
+        AwsConfig awsConfig = AwsConfig.builder().setProfile("hazelcast").build();
+        given(environment.getSharedCredentialsFile()).willReturn(credentialsFile.getPath());
+
+        // when
+        new AwsCredentialsProvider(awsConfig, awsMetadataApi, environment);
+
+        // then
+        // throws exception
+    }
+
+    @Test
+    public void credentialsEnvironmentVariables() {
+        // given
+        AwsConfig awsConfig = AwsConfig.builder().build();
+        given(environment.getAccessKeyId()).willReturn(ACCESS_KEY);
+        given(environment.getSecretAccessKey()).willReturn(SECRET_KEY);
+        given(environment.getSessionToken()).willReturn(TOKEN);
+        given(awsMetadataApi.defaultIamRoleEc2()).willReturn("sample-iam-role");
+        given(awsMetadataApi.credentialsEc2("sample-iam-role")).willReturn(AwsCredentials.builder()
+            .setAccessKey("ec2-access-key")
+            .setSecretKey("ec2-secret-key")
+            .build());
+        AwsCredentialsProvider credentialsProvider = new AwsCredentialsProvider(awsConfig, awsMetadataApi, environment);
+
+        // when
+        AwsCredentials credentials = credentialsProvider.credentials();
+
+        // then
+        assertEquals(CREDENTIALS, credentials);
+    }
+
+    @Test
+    public void credentialsSourceIsRemembered() {
+        // given
+        String iamRole = "sample-iam-role";
+        AwsConfig awsConfig = AwsConfig.builder().build();
+        given(awsMetadataApi.defaultIamRoleEc2()).willReturn(iamRole);
+        given(awsMetadataApi.credentialsEc2(iamRole)).willReturn(CREDENTIALS);
+        AwsCredentialsProvider credentialsProvider = new AwsCredentialsProvider(awsConfig, awsMetadataApi, environment);
+
+        // when
+        credentialsProvider.credentials();
+        AwsCredentials credentials = credentialsProvider.credentials();
+
+        // then
+        assertEquals(CREDENTIALS, credentials);
+        verify(awsMetadataApi, times(1)).defaultIamRoleEc2();
+        verify(awsMetadataApi, times(2)).credentialsEc2(iamRole);
+    }
+
+    @Test
+    public void credentialsCustomSource() {
+        // given
+        AwsConfig awsConfig = AwsConfig.builder().build();
+        given(awsMetadataApi.defaultIamRoleEc2()).willThrow(new RestClientException("Not Found", 404));
+        AwsCredentialsProvider credentialsProvider = new AwsCredentialsProvider(awsConfig, awsMetadataApi, environment);
+        TestAwsCredentialsSource.credentials = CREDENTIALS;
+
+        // when
+        AwsCredentials credentials;
+        try {
+            credentials = credentialsProvider.credentials();
+        } finally {
+            TestAwsCredentialsSource.credentials = null;
+        }
+
+        // then
+        assertEquals(CREDENTIALS, credentials);
+    }
+
+    @Test(expected = NoCredentialsException.class)
+    public void credentialsNotFound() {
+        // given
+        AwsConfig awsConfig = AwsConfig.builder().build();
+        given(awsMetadataApi.defaultIamRoleEc2()).willThrow(new RestClientException("Not Found", 404));
+        AwsCredentialsProvider credentialsProvider = new AwsCredentialsProvider(awsConfig, awsMetadataApi, environment);
+
+        // when
+        credentialsProvider.credentials();
+
+        // then
+        // throws exception
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.DiscoveryStrategyConfig;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.discovery.DiscoveryNode;
+import com.hazelcast.spi.discovery.DiscoveryStrategy;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.hazelcast.test.HazelcastTestSupport.assertTrueEventually;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+
+public class AwsDiscoveryListenerTest {
+    private static final String PRIVATE_ADDRESS = "127.0.0.1";
+    private static final int PORT = 5799;
+
+    private HazelcastInstance instance;
+
+    @After
+    public void tearDown() {
+        if (instance != null) {
+            instance.shutdown();
+        }
+        RecordingListener.ADDED.clear();
+    }
+
+    @Test
+    public void listenerRegisteredByConfiguration() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("hz-port", String.valueOf(PORT));
+        properties.put("refresh-period-seconds", "1");
+        properties.put("discovery-listeners", RecordingListener.class.getName());
+
+        Config config = new Config();
+        config.setProperty("hazelcast.discovery.enabled", "true");
+        config.setProperty("hazelcast.wait.seconds.before.join", "0");
+        JoinConfig joinConfig = config.getNetworkConfig().getJoin();
+        joinConfig.getMulticastConfig().setEnabled(false);
+        joinConfig.getDiscoveryConfig().addDiscoveryStrategyConfig(
+            new DiscoveryStrategyConfig(new StaticAwsDiscoveryStrategyFactory(), properties));
+
+        // when
+        instance = Hazelcast.newHazelcastInstance(config);
+
+        // then
+        assertTrueEventually(() -> assertEquals(1, RecordingListener.ADDED.size()));
+        DiscoveryNode node = RecordingListener.ADDED.get(0);
+        assertEquals(PRIVATE_ADDRESS, node.getPrivateAddress().getHost());
+        assertEquals(PORT, node.getPrivateAddress().getPort());
+    }
+
+    /**
+     * Strategy with a client which always discovers a single member, so that no AWS API is called.
+     */
+    private static class StaticAwsDiscoveryStrategy
+            extends AwsDiscoveryStrategy {
+
+        StaticAwsDiscoveryStrategy(Map<String, Comparable> properties) {
+            super(properties, new AwsClient() {
+                @Override
+                public Map<String, AwsNode> getAddresses() {
+                    return singletonMap(PRIVATE_ADDRESS, AwsNode.builder().setPrivateAddress(PRIVATE_ADDRESS).build());
+                }
+
+                @Override
+                public String getAvailabilityZone() {
+                    return "us-east-1a";
+                }
+            });
+        }
+    }
+
+    private static class StaticAwsDiscoveryStrategyFactory
+            extends AwsDiscoveryStrategyFactory {
+
+        @Override
+        public Class<? extends DiscoveryStrategy> getDiscoveryStrategyType() {
+            return StaticAwsDiscoveryStrategy.class;
+        }
+
+        @Override
+        public DiscoveryStrategy newDiscoveryStrategy(DiscoveryNode discoveryNode, ILogger logger,
+                                                      Map<String, Comparable> properties) {
+            return new StaticAwsDiscoveryStrategy(properties);
+        }
+    }
+
+    public static class RecordingListener
+            implements AwsDiscoveryListener {
+        static final List<DiscoveryNode> ADDED = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void nodesAdded(Collection<DiscoveryNode> nodes) {
+            ADDED.addAll(nodes);
+        }
+
+        @Override
+        public void nodesRemoved(Collection<DiscoveryNode> nodes) {
+        }
+    }
+}
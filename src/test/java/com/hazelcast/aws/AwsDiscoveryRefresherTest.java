@@ -0,0 +1,307 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.hazelcast.test.HazelcastTestSupport.assertOpenEventually;
+import static com.hazelcast.test.HazelcastTestSupport.assertTrueEventually;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class AwsDiscoveryRefresherTest {
+    private final List<Collection<AwsNode>> added = new CopyOnWriteArrayList<>();
+    private final List<Collection<AwsNode>> removed = new CopyOnWriteArrayList<>();
+
+    private AwsDiscoveryRefresher refresher;
+
+    @After
+    public void tearDown() {
+        if (refresher != null) {
+            refresher.shutdown();
+        }
+    }
+
+    @Test
+    public void update() {
+        // given
+        refresher = createRefresher(HashMap::new, 1000);
+        AwsNode node1 = node("10.0.0.1", null);
+        AwsNode node2 = node("10.0.0.2", null);
+        AwsNode node2WithPublicIp = node("10.0.0.2", "54.0.0.2");
+        AwsNode node3 = node("10.0.0.3", null);
+
+        // when
+        refresher.update(addresses(node1, node2));
+        refresher.update(addresses(node2WithPublicIp, node3));
+        refresher.update(addresses(node2WithPublicIp, node3));
+
+        // then
+        assertEquals(addresses(node2WithPublicIp, node3), refresher.getAddresses());
+        assertTrueEventually(() -> assertEquals(2, added.size()));
+        assertEquals(asSet(node1, node2), new HashSet<>(added.get(0)));
+        assertEquals(emptySet(), new HashSet<>(removed.get(0)));
+        assertEquals(asSet(node2WithPublicIp, node3), new HashSet<>(added.get(1)));
+        assertEquals(asSet(node1, node2), new HashSet<>(removed.get(1)));
+    }
+
+    @Test
+    public void slowListenerDoesNotBlockUpdates() {
+        // given
+        CountDownLatch listenerReleased = new CountDownLatch(1);
+        refresher = new AwsDiscoveryRefresher(HashMap::new, (a, r) -> {
+            assertOpenEventually(listenerReleased);
+            added.add(a);
+            removed.add(r);
+        }, 1000, 0);
+        AwsNode node1 = node("10.0.0.1", null);
+        AwsNode node2 = node("10.0.0.2", null);
+
+        // when
+        refresher.update(addresses(node1));
+        refresher.fetch(() -> addresses(node1, node2));
+        refresher.update(addresses(node2));
+
+        // then
+        assertEquals(addresses(node2), refresher.getAddresses());
+        assertEquals(0, added.size());
+        listenerReleased.countDown();
+        assertTrueEventually(() -> assertEquals(3, added.size()));
+        assertEquals(singletonList(node1), new ArrayList<>(added.get(0)));
+        assertEquals(singletonList(node2), new ArrayList<>(added.get(1)));
+        assertEquals(singletonList(node1), new ArrayList<>(removed.get(2)));
+    }
+
+    @Test
+    public void refreshPeriodically() {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        refresher = createRefresher(() -> calls.incrementAndGet() < 3
+            ? addresses(node("10.0.0.1", null))
+            : addresses(node("10.0.0.1", null), node("10.0.0.2", null)), 10);
+
+        // when
+        refresher.start();
+
+        // then
+        assertTrueEventually(() -> assertEquals(2, added.size()));
+        assertEquals(singletonList(node("10.0.0.2", null)), new ArrayList<>(added.get(1)));
+    }
+
+    @Test
+    public void refreshFailureKeepsPreviousResult() {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        refresher = createRefresher(() -> {
+            if (calls.incrementAndGet() > 1) {
+                throw new RestClientException("Unavailable", 503);
+            }
+            return addresses(node("10.0.0.1", null));
+        }, 10);
+
+        // when
+        refresher.start();
+
+        // then
+        assertTrueEventually(() -> assertEquals(3, Math.min(calls.get(), 3)));
+        assertEquals(addresses(node("10.0.0.1", null)), refresher.getAddresses());
+        assertTrueEventually(() -> assertEquals(1, added.size()));
+    }
+
+    @Test
+    public void applyStateChanges() {
+        // given
+        AwsNode node1 = ec2Node("10.0.0.1", "i-0a1b2c3d4e5f60001");
+        AwsNode node2 = ec2Node("10.0.0.2", "i-0a1b2c3d4e5f60002");
+        AwsNode node3 = ec2Node("10.0.0.3", "i-0a1b2c3d4e5f60003");
+        AwsStateChangeQueue.Batch batch = new AwsStateChangeQueue.Batch(emptyList(), addresses(node3),
+            singleton("i-0a1b2c3d4e5f60002"), emptySet());
+        AwsStateChangeQueue stateChangeQueue = mock(AwsStateChangeQueue.class);
+        given(stateChangeQueue.receive()).willAnswer(invocation -> {
+            // the first batch is applied to the result of the first refresh
+            while (refresher.getAddresses() == null) {
+                Thread.sleep(10);
+            }
+            return batch;
+        }).willAnswer(invocation -> {
+            Thread.sleep(Long.MAX_VALUE);
+            return null;
+        });
+        refresher = new AwsDiscoveryRefresher(() -> addresses(node1, node2), (a, r) -> {
+            added.add(a);
+            removed.add(r);
+        }, 100_000, 0, stateChangeQueue);
+
+        // when
+        refresher.start();
+
+        // then
+        assertTrueEventually(() -> assertEquals(addresses(node1, node3), refresher.getAddresses()));
+        assertTrueEventually(() -> assertEquals(2, added.size()));
+        assertEquals(singletonList(node3), new ArrayList<>(added.get(1)));
+        assertEquals(singletonList(node2), new ArrayList<>(removed.get(1)));
+        assertTrueEventually(() -> verify(stateChangeQueue).acknowledge(batch));
+    }
+
+    @Test
+    public void olderFetchResultDropped()
+            throws Exception {
+        // given
+        refresher = createRefresher(HashMap::new, 1000);
+        CountDownLatch olderFetchStarted = new CountDownLatch(1);
+        CountDownLatch newerFetchApplied = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Map<String, AwsNode>> olderFetch = executor.submit(() -> refresher.fetch(() -> {
+            olderFetchStarted.countDown();
+            assertOpenEventually(newerFetchApplied);
+            return addresses(node("10.0.0.1", null));
+        }));
+        olderFetchStarted.await();
+
+        // when
+        refresher.fetch(() -> addresses(node("10.0.0.1", null), node("10.0.0.2", null)));
+        newerFetchApplied.countDown();
+        olderFetch.get();
+        executor.shutdown();
+
+        // then
+        assertEquals(addresses(node("10.0.0.1", null), node("10.0.0.2", null)), refresher.getAddresses());
+        assertTrueEventually(() -> assertEquals(1, added.size()));
+    }
+
+    @Test
+    public void stateChangesDuringFetchNotReverted()
+            throws Exception {
+        // given
+        AwsNode node1 = ec2Node("10.0.0.1", "i-0a1b2c3d4e5f60001");
+        AwsNode node2 = ec2Node("10.0.0.2", "i-0a1b2c3d4e5f60002");
+        AwsNode node3 = ec2Node("10.0.0.3", "i-0a1b2c3d4e5f60003");
+        refresher = createRefresher(HashMap::new, 1000);
+        refresher.fetch(() -> addresses(node1, node2));
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch stateChangesApplied = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        // the fetch lists the members before the state changes
+        Future<Map<String, AwsNode>> fetch = executor.submit(() -> refresher.fetch(() -> {
+            fetchStarted.countDown();
+            assertOpenEventually(stateChangesApplied);
+            return addresses(node1, node2);
+        }));
+        fetchStarted.await();
+
+        // when
+        refresher.apply(new AwsStateChangeQueue.Batch(emptyList(), addresses(node3), singleton("i-0a1b2c3d4e5f60002"),
+            emptySet()));
+        stateChangesApplied.countDown();
+        Map<String, AwsNode> result = fetch.get();
+        executor.shutdown();
+
+        // then
+        assertEquals(addresses(node1, node3), result);
+        assertEquals(addresses(node1, node3), refresher.getAddresses());
+    }
+
+    @Test
+    public void stateChangesBeforeFirstFetchApplied()
+            throws Exception {
+        // given
+        AwsNode node1 = ec2Node("10.0.0.1", "i-0a1b2c3d4e5f60001");
+        AwsNode node2 = ec2Node("10.0.0.2", "i-0a1b2c3d4e5f60002");
+        refresher = createRefresher(HashMap::new, 1000);
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch stateChangesApplied = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Map<String, AwsNode>> fetch = executor.submit(() -> refresher.fetch(() -> {
+            fetchStarted.countDown();
+            assertOpenEventually(stateChangesApplied);
+            return addresses(node1);
+        }));
+        fetchStarted.await();
+
+        // when
+        refresher.apply(new AwsStateChangeQueue.Batch(emptyList(), addresses(node2), emptySet(), emptySet()));
+        stateChangesApplied.countDown();
+        fetch.get();
+        executor.shutdown();
+
+        // then
+        assertEquals(addresses(node1, node2), refresher.getAddresses());
+    }
+
+    @Test
+    public void noAddressesBeforeFirstRefresh() {
+        // given
+        refresher = createRefresher(HashMap::new, 1000);
+
+        // when
+        Map<String, AwsNode> result = refresher.getAddresses();
+
+        // then
+        assertNull(result);
+    }
+
+    private AwsDiscoveryRefresher createRefresher(Supplier<Map<String, AwsNode>> supplier,
+                                                  long periodMillis) {
+        return new AwsDiscoveryRefresher(supplier, (a, r) -> {
+            added.add(a);
+            removed.add(r);
+        }, periodMillis, periodMillis);
+    }
+
+    private static Map<String, AwsNode> addresses(AwsNode... nodes) {
+        Map<String, AwsNode> result = new HashMap<>();
+        for (AwsNode node : nodes) {
+            result.put(node.getPrivateAddress(), node);
+        }
+        return result;
+    }
+
+    private static Set<AwsNode> asSet(AwsNode... nodes) {
+        return new HashSet<>(Arrays.asList(nodes));
+    }
+
+    private static AwsNode ec2Node(String privateAddress, String instanceId) {
+        return AwsNode.builder().setPrivateAddress(privateAddress).setInstanceId(instanceId).build();
+    }
+
+    private static AwsNode node(String privateAddress, String publicAddress) {
+        return AwsNode.builder().setPrivateAddress(privateAddress).setPublicAddress(publicAddress).build();
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Discovery of large fleets against {@link FakeAwsServer}, asserting the number of AWS calls, the memory allocated by
+ * the discovery and its latency. The server delays the calls by a known latency, so the discovery must not take
+ * longer than the latency of the calls it has to make one after another, plus a generous fixed slack for the work done
+ * by the machine running the tests; calls made one after another instead of concurrently exceed it.
+ */
+public class AwsDiscoveryScaleTest {
+    private static final String REGION = "eu-central-1";
+    private static final String PLUGIN_THREAD_PREFIX = "hz.aws.";
+    private static final long MAX_ALLOCATED_BYTES_PER_MEMBER = 100 * 1024;
+    private static final long LATENCY_MILLIS = 150;
+    private static final long NETWORK_INTERFACES_LATENCY_MILLIS = 800;
+    private static final long SLACK_MILLIS = 2500;
+
+    private FakeAwsServer server;
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void ec2DiscoveryOf5000Instances() {
+        // given
+        server = FakeAwsServer.builder().ec2Instances(5000).describeInstancesPageSize(1000)
+            .latencyMillis(LATENCY_MILLIS, LATENCY_MILLIS).start();
+        AwsConfig awsConfig = AwsConfig.builder().setTagKey("hazelcast-cluster").setTagValue("fleet").build();
+        AwsClient awsClient = ec2Client(awsConfig);
+
+        // when
+        Measurement<Map<String, AwsNode>> result = measure(awsClient::getAddresses);
+
+        // then
+        assertEquals(5000, result.value.size());
+        assertEquals(FakeAwsServer.publicAddress(4998), result.value.get(FakeAwsServer.privateAddress(4998))
+            .getPublicAddress());
+        assertEquals(FakeAwsServer.availabilityZone(4999), result.value.get(FakeAwsServer.privateAddress(4999))
+            .getAvailabilityZone());
+        assertEquals(5, server.getCalls("DescribeInstances"));
+        // IAM Role name and its credentials
+        assertEquals(2, server.getCalls("imds"));
+        result.assertWithinLimits(5000);
+        // IAM Role name, its credentials and the pages, which need the token of the previous page
+        result.assertLatencyWithin(LATENCY_MILLIS * (2 + 5));
+    }
+
+    @Test
+    public void ecsDiscoveryOf1000Tasks() {
+        // given
+        server = FakeAwsServer.builder().ecsTasks(1000).listTasksPageSize(100).start();
+        AwsConfig awsConfig = AwsConfig.builder().setCluster(FakeAwsServer.CLUSTER_ARN).build();
+        AwsClient awsClient = ecsClient(awsConfig);
+
+        // when
+        Measurement<Map<String, AwsNode>> result = measure(awsClient::getAddresses);
+
+        // then
+        assertEquals(1000, result.value.size());
+        assertEquals(FakeAwsServer.publicAddress(998), result.value.get(FakeAwsServer.privateAddress(998))
+            .getPublicAddress());
+        assertEquals(10, server.getCalls("ListTasks"));
+        assertEquals(10, server.getCalls("DescribeTasks"));
+        assertEquals(5, server.getCalls("DescribeNetworkInterfaces"));
+        result.assertWithinLimits(1000);
+    }
+
+    @Test
+    public void ecsDiscoveryOf2000TasksDescribesNetworkInterfacesConcurrently() {
+        // given
+        server = FakeAwsServer.builder().ecsTasks(2000)
+            .latencyMillis("DescribeNetworkInterfaces", NETWORK_INTERFACES_LATENCY_MILLIS).start();
+        AwsConfig awsConfig = AwsConfig.builder().setCluster(FakeAwsServer.CLUSTER_ARN).build();
+        AwsClient awsClient = ecsClient(awsConfig);
+
+        // when
+        Measurement<Map<String, AwsNode>> result = measure(awsClient::getAddresses);
+
+        // then
+        assertEquals(2000, result.value.size());
+        assertEquals(10, server.getCalls("DescribeNetworkInterfaces"));
+        // 10 chunks of network interfaces, 4 at a time; describing them one after another would take 10 latencies
+        result.assertLatencyWithin(NETWORK_INTERFACES_LATENCY_MILLIS * 3);
+    }
+
+    @Test
+    public void cloudMapDiscoveryOf1000Tasks() {
+        // given
+        server = FakeAwsServer.builder().ecsTasks(2000).latencyMillis(LATENCY_MILLIS, LATENCY_MILLIS).start();
+        AwsConfig awsConfig = AwsConfig.builder().setCloudMapNamespace("hazelcast.local").setCloudMapService("hazelcast")
+            .setCloudMapAttributes("stage=prod").build();
+        AwsClient awsClient = cloudMapClient(awsConfig);
+
+        // when
+        Measurement<Map<String, AwsNode>> result = measure(awsClient::getAddresses);
+
+        // then
+        assertEquals(1000, result.value.size());
+        assertEquals(FakeAwsServer.availabilityZone(998), result.value.get(FakeAwsServer.privateAddress(998))
+            .getAvailabilityZone());
+        assertEquals(1, server.getCalls("DiscoverInstances"));
+        assertEquals(0, server.getCalls("ListTasks") + server.getCalls("DescribeTasks")
+            + server.getCalls("DescribeNetworkInterfaces"));
+        result.assertWithinLimits(1000);
+        // credentials and a single page of instances
+        result.assertLatencyWithin(LATENCY_MILLIS * (2 + 1));
+    }
+
+    @Test
+    public void ec2DiscoveryWithLatencyAndThrottling() {
+        // given
+        server = FakeAwsServer.builder().ec2Instances(1000).describeInstancesPageSize(100).latencyMillis(5, 20)
+            .errorRate(0.1).start();
+        AwsConfig awsConfig = AwsConfig.builder().setConnectionRetries(10).setConnectionTimeoutSeconds(10)
+            .setReadTimeoutSeconds(10).build();
+        AwsClient awsClient = ec2Client(awsConfig);
+
+        // when
+        Map<String, AwsNode> result = awsClient.getAddresses();
+
+        // then
+        assertEquals(1000, result.size());
+        // the tenth call is throttled and retried
+        assertEquals(11, server.getCalls("DescribeInstances"));
+    }
+
+    @Test
+    public void ec2DiscoveryWithAssumedRole() {
+        // given
+        server = FakeAwsServer.builder().ec2Instances(100).start();
+        AwsConfig awsConfig = AwsConfig.builder().setAssumeRoleArn("arn:aws:iam::123456789012:role/discovery")
+            .setAssumeRoleSessionDurationSeconds(3600).build();
+        AwsClient awsClient = ec2Client(awsConfig);
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            assertEquals(100, awsClient.getAddresses().size());
+        }
+
+        // then
+        assertEquals(3, server.getCalls("DescribeInstances"));
+        assertEquals(1, server.getCalls("AssumeRole"));
+    }
+
+    private AwsClient ec2Client(AwsConfig awsConfig) {
+        AwsMetadataApi metadataApi = metadataApi(awsConfig);
+        return new AwsEc2Client(ec2Api(awsConfig), metadataApi, credentialsProvider(awsConfig, metadataApi));
+    }
+
+    private AwsClient ecsClient(AwsConfig awsConfig) {
+        AwsMetadataApi metadataApi = metadataApi(awsConfig);
+        AwsEcsApi ecsApi = new AwsEcsApi(server.getEndpoint(), awsConfig, new AwsEndpoints(awsConfig),
+            new AwsRequestSigner(REGION, "ecs"), Clock.systemUTC());
+        return new AwsEcsClient(FakeAwsServer.CLUSTER_ARN, ecsApi, ec2Api(awsConfig), metadataApi,
+            credentialsProvider(awsConfig, metadataApi));
+    }
+
+    private AwsClient cloudMapClient(AwsConfig awsConfig) {
+        AwsMetadataApi metadataApi = metadataApi(awsConfig);
+        AwsCloudMapApi cloudMapApi = new AwsCloudMapApi(server.getEndpoint(), awsConfig, new AwsEndpoints(awsConfig),
+            new AwsRequestSigner(REGION, "servicediscovery"), Clock.systemUTC());
+        return new AwsCloudMapClient(cloudMapApi, metadataApi, credentialsProvider(awsConfig, metadataApi),
+            mock(Environment.class), awsConfig.getCloudMapCacheSeconds());
+    }
+
+    private AwsEc2Api ec2Api(AwsConfig awsConfig) {
+        return new AwsEc2Api(server.getEndpoint(), awsConfig, new AwsEndpoints(awsConfig),
+            new AwsRequestSigner(REGION, "ec2"), Clock.systemUTC());
+    }
+
+    private AwsMetadataApi metadataApi(AwsConfig awsConfig) {
+        return new AwsMetadataApi(server.getEc2MetadataEndpoint(), server.getEcsIamRoleEndpoint(),
+            server.getEcsTaskMetadataEndpoint(), awsConfig, new AwsEndpoints(awsConfig));
+    }
+
+    private AwsCredentialsProvider credentialsProvider(AwsConfig awsConfig, AwsMetadataApi metadataApi) {
+        AwsStsApi stsApi = new AwsStsApi(server.getEndpoint(), awsConfig, new AwsEndpoints(awsConfig),
+            new AwsRequestSigner(REGION, "sts"), Clock.systemUTC());
+        return new AwsCredentialsProvider(awsConfig, metadataApi, mock(Environment.class), stsApi);
+    }
+
+    private static <T> Measurement<T> measure(Supplier<T> supplier) {
+        Map<Long, Long> allocatedBefore = allocatedBytesByThread();
+        long start = System.nanoTime();
+        T value = supplier.get();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long allocatedBytes = 0;
+        for (Map.Entry<Long, Long> allocated : allocatedBytesByThread().entrySet()) {
+            allocatedBytes += allocated.getValue() - allocatedBefore.getOrDefault(allocated.getKey(), 0L);
+        }
+        return new Measurement<>(value, allocatedBytes, elapsedMillis);
+    }
+
+    /**
+     * Returns the bytes allocated so far by the calling thread and by the threads of the plugin executors, which make
+     * the AWS calls in parallel.
+     */
+    private static Map<Long, Long> allocatedBytesByThread() {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory
+            .getThreadMXBean();
+        Map<Long, Long> result = new HashMap<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread == Thread.currentThread() || thread.getName().startsWith(PLUGIN_THREAD_PREFIX)) {
+                result.put(thread.getId(), threadMXBean.getThreadAllocatedBytes(thread.getId()));
+            }
+        }
+        return result;
+    }
+
+    private static final class Measurement<T> {
+        private final T value;
+        private final long allocatedBytes;
+        private final long elapsedMillis;
+
+        private Measurement(T value, long allocatedBytes, long elapsedMillis) {
+            this.value = value;
+            this.allocatedBytes = allocatedBytes;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        private void assertWithinLimits(int members) {
+            assertTrue(String.format("Discovery allocated %d bytes", allocatedBytes),
+                allocatedBytes < MAX_ALLOCATED_BYTES_PER_MEMBER * members);
+        }
+
+        /**
+         * Asserts the discovery took less than the given latency of the calls it has to make one after another.
+         */
+        private void assertLatencyWithin(long sequentialLatencyMillis) {
+            long maxElapsedMillis = sequentialLatencyMillis + SLACK_MILLIS;
+            assertTrue(String.format("Discovery took %d ms, expected less than %d ms", elapsedMillis, maxElapsedMillis),
+                elapsedMillis < maxElapsedMillis);
+        }
+    }
+}
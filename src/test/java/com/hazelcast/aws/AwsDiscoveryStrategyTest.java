@@ -24,19 +24,38 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.net.InetAddress;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static com.hazelcast.spi.partitiongroup.PartitionGroupMetaData.PARTITION_GROUP_ZONE;
+import static com.hazelcast.test.HazelcastTestSupport.assertTrueEventually;
 import static java.util.Collections.emptyList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
 public class AwsDiscoveryStrategyTest {
@@ -119,6 +138,243 @@ public class AwsDiscoveryStrategyTest {
         // throw exception
     }
 
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidPropertiesBothRegionAndRegions() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("region", "us-east-1");
+        properties.put("regions", "us-east-1,eu-west-1");
+
+        // when
+        new AwsDiscoveryStrategy(properties);
+
+        // then
+        // throw exception
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidPropertiesRegionsWithEcs() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("regions", "us-east-1,eu-west-1");
+        properties.put("cluster", "some-cluster");
+
+        // when
+        new AwsDiscoveryStrategy(properties);
+
+        // then
+        // throw exception
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidPropertiesExternalIdWithoutRoleArn() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("assume-role-external-id", "external-id");
+
+        // when
+        new AwsDiscoveryStrategy(properties);
+
+        // then
+        // throw exception
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidPropertiesAssumeRoleSessionDuration() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("assume-role-arn", "arn:aws:iam::123456789012:role/hazelcast-discovery");
+        properties.put("assume-role-session-duration-seconds", 60);
+
+        // when
+        new AwsDiscoveryStrategy(properties);
+
+        // then
+        // throw exception
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidPropertiesProfileWithAccessKey() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("profile", "hazelcast");
+        properties.put("access-key", "access-key");
+        properties.put("secret-key", "secret-key");
+
+        // when
+        new AwsDiscoveryStrategy(properties);
+
+        // then
+        // throw exception
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidPropertiesCloudMapNamespaceWithoutService() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("cloud-map-namespace", "hazelcast.local");
+
+        // when
+        new AwsDiscoveryStrategy(properties);
+
+        // then
+        // throw exception
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidPropertiesCloudMapAttributes() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("cloud-map-namespace", "hazelcast.local");
+        properties.put("cloud-map-service", "hazelcast");
+        properties.put("cloud-map-attributes", "stage");
+
+        // when
+        new AwsDiscoveryStrategy(properties);
+
+        // then
+        // throw exception
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidPropertiesCloudMapWithEcs() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("cloud-map-namespace", "hazelcast.local");
+        properties.put("cloud-map-service", "hazelcast");
+        properties.put("cluster", "cluster-arn");
+
+        // when
+        new AwsDiscoveryStrategy(properties);
+
+        // then
+        // throw exception
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidPropertiesAutoScalingGroupWithRegions() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("auto-scaling-group", "hazelcast-asg");
+        properties.put("regions", "us-east-1,eu-west-1");
+
+        // when
+        new AwsDiscoveryStrategy(properties);
+
+        // then
+        // throw exception
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidPropertiesInstanceStatusCheckWithEcs() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("instance-status-check", true);
+        properties.put("cluster", "cluster-arn");
+
+        // when
+        new AwsDiscoveryStrategy(properties);
+
+        // then
+        // throw exception
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidPropertiesEventQueueUrlWithRegions() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("event-queue-url", "https://sqs.eu-central-1.amazonaws.com/665466731577/hazelcast-events");
+        properties.put("regions", "eu-central-1,eu-west-1");
+
+        // when
+        new AwsDiscoveryStrategy(properties);
+
+        // then
+        // throw exception
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidPropertiesEventQueueUrlWithoutRefresh() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("event-queue-url", "https://sqs.eu-central-1.amazonaws.com/665466731577/hazelcast-events");
+        properties.put("refresh-period-seconds", 0);
+
+        // when
+        new AwsDiscoveryStrategy(properties);
+
+        // then
+        // throw exception
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidPropertiesTerminationWatchPeriod() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("termination-watch-period-seconds", -5);
+
+        // when
+        new AwsDiscoveryStrategy(properties);
+
+        // then
+        // throw exception
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidPropertiesStartupQuorum() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("startup-quorum", "majority");
+
+        // when
+        new AwsDiscoveryStrategy(properties);
+
+        // then
+        // throw exception
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidPropertiesStartupQuorumDesiredWithInstanceStatusCheck() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("startup-quorum", "desired");
+        properties.put("auto-scaling-group", "hazelcast-asg");
+        properties.put("instance-status-check", true);
+
+        // when
+        new AwsDiscoveryStrategy(properties);
+
+        // then
+        // throw exception
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidPropertiesStartupQuorumDesiredWithoutGroup() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("startup-quorum", "desired");
+        properties.put("tag-key", "role");
+
+        // when
+        new AwsDiscoveryStrategy(properties);
+
+        // then
+        // throw exception
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidPropertiesAddressFamily() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("address-family", "ipx");
+
+        // when
+        new AwsDiscoveryStrategy(properties);
+
+        // then
+        // throw exception
+    }
+
     @Test(expected = InvalidConfigurationException.class)
     public void newInvalidPortRangeProperty() {
         // given
@@ -132,6 +388,47 @@ public class AwsDiscoveryStrategyTest {
         // throw exception
     }
 
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidNegativeRefreshJitter() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("refresh-period-seconds", 60);
+        properties.put("refresh-jitter-seconds", -1);
+
+        // when
+        new AwsDiscoveryStrategy(properties, awsClient);
+
+        // then
+        // throw exception
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidDiscoveryListenerClass() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("refresh-period-seconds", 60);
+        properties.put("discovery-listeners", "com.example.MissingListener");
+
+        // when
+        new AwsDiscoveryStrategy(properties, awsClient);
+
+        // then
+        // throw exception
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidDiscoveryListenersWithoutRefresh() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("discovery-listeners", AwsDiscoveryListenerTest.RecordingListener.class.getName());
+
+        // when
+        new AwsDiscoveryStrategy(properties, awsClient);
+
+        // then
+        // throw exception
+    }
+
     @Test
     public void discoverLocalMetadataWithoutPlacement() {
         // given
@@ -186,7 +483,7 @@ public class AwsDiscoveryStrategyTest {
         // given
         String privateIp = "192.168.1.15";
         String publicIp = "38.146.24.2";
-        given(awsClient.getAddresses()).willReturn(ImmutableMap.of(privateIp, publicIp));
+        given(awsClient.getAddresses()).willReturn(ImmutableMap.of(privateIp, node(privateIp, publicIp)));
 
         // when
         Iterable<DiscoveryNode> nodes = awsDiscoveryStrategy.discoverNodes();
@@ -204,6 +501,128 @@ public class AwsDiscoveryStrategyTest {
         assertEquals(publicIp, node2.getPublicAddress().getHost());
     }
 
+    @Test
+    public void discoverNodesPreferIpv6() throws Exception {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("address-family", "ipv6");
+        awsDiscoveryStrategy = new AwsDiscoveryStrategy(properties, awsClient);
+        AwsNode dualStack = AwsNode.builder()
+            .setPrivateAddress("192.168.1.15")
+            .setIpv6Address("2a05:d014:e6f:8a00::15")
+            .build();
+        AwsNode ipv4Only = AwsNode.builder().setPrivateAddress("192.168.1.16").build();
+        given(awsClient.getAddresses()).willReturn(ImmutableMap.of(
+            "192.168.1.15", dualStack,
+            "192.168.1.16", ipv4Only
+        ));
+
+        // when
+        Iterable<DiscoveryNode> nodes = awsDiscoveryStrategy.discoverNodes();
+
+        // then
+        Set<String> hosts = new HashSet<>();
+        for (DiscoveryNode node : nodes) {
+            hosts.add(node.getPrivateAddress().getInetAddress().getHostAddress());
+        }
+        assertEquals(2, hosts.size());
+        assertTrue(hosts.contains("192.168.1.16"));
+        assertTrue(hosts.contains(InetAddress.getByName("2a05:d014:e6f:8a00::15").getHostAddress()));
+    }
+
+    @Test
+    public void discoverNodesWaitsForStartupQuorum() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("startup-quorum", "2");
+        awsDiscoveryStrategy = new AwsDiscoveryStrategy(properties, awsClient);
+        given(awsClient.getAddresses()).willReturn(
+            ImmutableMap.of("192.168.1.15", AwsNode.builder().setPrivateAddress("192.168.1.15").build()),
+            ImmutableMap.of(
+                "192.168.1.15", AwsNode.builder().setPrivateAddress("192.168.1.15").build(),
+                "192.168.1.16", AwsNode.builder().setPrivateAddress("192.168.1.16").build()));
+
+        // when
+        Iterable<DiscoveryNode> nodes = awsDiscoveryStrategy.discoverNodes();
+
+        // then
+        List<DiscoveryNode> nodeList = new ArrayList<>();
+        nodes.forEach(nodeList::add);
+        assertThat(nodeList, hasSize(2 * 8));
+        verify(awsClient, times(2)).getAddresses();
+    }
+
+    @Test
+    public void destroyReleasesClient() {
+        // given
+        awsDiscoveryStrategy.start();
+
+        // when
+        awsDiscoveryStrategy.destroy();
+
+        // then
+        verify(awsClient).destroy();
+    }
+
+    @Test
+    public void terminationListener() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("termination-watch-period-seconds", 1);
+        AwsMetadataApi awsMetadataApi = mock(AwsMetadataApi.class);
+        given(awsMetadataApi.spotInstanceActionEc2())
+            .willReturn(Optional.of("{\"action\": \"stop\", \"time\": \"2020-04-03T10:27:18Z\"}"));
+        awsDiscoveryStrategy = new AwsDiscoveryStrategy(properties, awsClient, awsMetadataApi);
+        List<AwsTerminationNotice> notices = new CopyOnWriteArrayList<>();
+        awsDiscoveryStrategy.addTerminationListener(notices::add);
+
+        // when
+        awsDiscoveryStrategy.start();
+
+        // then
+        assertTrueEventually(() -> assertEquals(1, notices.size()));
+        assertEquals(AwsTerminationNotice.Reason.SPOT_INTERRUPTION, notices.get(0).getReason());
+        assertEquals("stop", notices.get(0).getAction());
+        awsDiscoveryStrategy.destroy();
+    }
+
+    @Test
+    public void terminationListenerRegisteredByConfiguration() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("termination-watch-period-seconds", 1);
+        properties.put("termination-listeners", RecordingTerminationListener.class.getName());
+        AwsMetadataApi awsMetadataApi = mock(AwsMetadataApi.class);
+        given(awsMetadataApi.spotInstanceActionEc2())
+            .willReturn(Optional.of("{\"action\": \"terminate\", \"time\": \"2020-04-03T10:27:18Z\"}"));
+        awsDiscoveryStrategy = new AwsDiscoveryStrategy(properties, awsClient, awsMetadataApi);
+
+        // when
+        awsDiscoveryStrategy.start();
+
+        // then
+        try {
+            assertTrueEventually(() -> assertEquals(1, RecordingTerminationListener.NOTICES.size()));
+            assertEquals("terminate", RecordingTerminationListener.NOTICES.get(0).getAction());
+        } finally {
+            awsDiscoveryStrategy.destroy();
+            RecordingTerminationListener.NOTICES.clear();
+        }
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void newInvalidTerminationListenersWithoutWatch() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("termination-listeners", RecordingTerminationListener.class.getName());
+
+        // when
+        new AwsDiscoveryStrategy(properties, awsClient);
+
+        // then
+        // throw exception
+    }
+
     @Test
     public void discoverNodesMultipleAddressesManyPorts() {
         // given
@@ -214,8 +633,8 @@ public class AwsDiscoveryStrategyTest {
 
         // 2 instances found
         given(awsClient.getAddresses()).willReturn(ImmutableMap.of(
-            "192.168.1.15", "38.146.24.2",
-            "192.168.1.16", "38.146.28.15"
+            "192.168.1.15", node("192.168.1.15", "38.146.24.2"),
+            "192.168.1.16", node("192.168.1.16", "38.146.28.15")
         ));
 
         // when
@@ -226,6 +645,137 @@ public class AwsDiscoveryStrategyTest {
         assertThat(toList(nodes), hasSize(16));
     }
 
+    @Test
+    public void discoverNodesWithPlacement() {
+        // given
+        String privateIp = "192.168.1.15";
+        AwsNode node = AwsNode.builder()
+            .setPrivateAddress(privateIp)
+            .setAvailabilityZone(ZONE)
+            .setPlacementGroup(PLACEMENT_GROUP)
+            .setPlacementPartitionNumber(PLACEMENT_PARTITION_ID)
+            .build();
+        given(awsClient.getAddresses()).willReturn(ImmutableMap.of(privateIp, node));
+
+        // when
+        Iterable<DiscoveryNode> nodes = awsDiscoveryStrategy.discoverNodes();
+
+        // then
+        String expectedPartitionGroup = String.format(PPG_NAME_PATTERN, ZONE, PLACEMENT_GROUP, PLACEMENT_PARTITION_ID);
+        for (DiscoveryNode discoveryNode : nodes) {
+            assertEquals(ZONE, discoveryNode.getProperties().get(PARTITION_GROUP_ZONE));
+            assertEquals(expectedPartitionGroup,
+                discoveryNode.getProperties().get(AwsDiscoveryStrategy.PARTITION_GROUP_PLACEMENT));
+        }
+    }
+
+    @Test
+    public void discoverNodesWithZoneOnly() {
+        // given
+        String privateIp = "192.168.1.15";
+        AwsNode node = AwsNode.builder().setPrivateAddress(privateIp).setAvailabilityZone(ZONE).build();
+        given(awsClient.getAddresses()).willReturn(ImmutableMap.of(privateIp, node));
+
+        // when
+        List<DiscoveryNode> nodes = toList(awsDiscoveryStrategy.discoverNodes());
+
+        // then
+        assertEquals(ZONE, nodes.get(0).getProperties().get(PARTITION_GROUP_ZONE));
+        assertEquals(1, nodes.get(0).getProperties().size());
+    }
+
+    @Test
+    public void discoverNodesPreferSameZone() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("hz-port", "5701");
+        properties.put("prefer-same-zone", true);
+        awsDiscoveryStrategy = new AwsDiscoveryStrategy(properties, awsClient);
+
+        given(awsClient.getAvailabilityZone()).willReturn(ZONE);
+        given(awsClient.getPlacementGroup()).willReturn(Optional.empty());
+        given(awsClient.getPlacementPartitionNumber()).willReturn(Optional.empty());
+        Map<String, AwsNode> addresses = new LinkedHashMap<>();
+        addresses.put("192.168.1.15", AwsNode.builder().setPrivateAddress("192.168.1.15").setAvailabilityZone("us-east-1b").build());
+        addresses.put("192.168.1.16", AwsNode.builder().setPrivateAddress("192.168.1.16").setAvailabilityZone(ZONE).build());
+        given(awsClient.getAddresses()).willReturn(addresses);
+
+        // when
+        List<DiscoveryNode> nodes = toList(awsDiscoveryStrategy.discoverNodes());
+
+        // then
+        assertEquals("192.168.1.16", nodes.get(0).getPrivateAddress().getHost());
+        assertEquals("192.168.1.15", nodes.get(1).getPrivateAddress().getHost());
+    }
+
+    @Test
+    public void discoverNodesWithBackgroundRefresh() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("hz-port", "5701");
+        properties.put("refresh-period-seconds", 3600);
+        awsDiscoveryStrategy = new AwsDiscoveryStrategy(properties, awsClient);
+        List<DiscoveryNode> addedNodes = new CopyOnWriteArrayList<>();
+        awsDiscoveryStrategy.addDiscoveryListener(new AwsDiscoveryListener() {
+            @Override
+            public void nodesAdded(Collection<DiscoveryNode> nodes) {
+                addedNodes.addAll(nodes);
+            }
+
+            @Override
+            public void nodesRemoved(Collection<DiscoveryNode> nodes) {
+            }
+        });
+        given(awsClient.getAddresses()).willReturn(ImmutableMap.of("192.168.1.15", node("192.168.1.15", null)));
+
+        // when
+        awsDiscoveryStrategy.start();
+        assertTrueEventually(() -> assertEquals(1, addedNodes.size()));
+        List<DiscoveryNode> nodes = toList(awsDiscoveryStrategy.discoverNodes());
+        awsDiscoveryStrategy.destroy();
+
+        // then
+        assertEquals("192.168.1.15", addedNodes.get(0).getPrivateAddress().getHost());
+        assertEquals(1, nodes.size());
+        verify(awsClient, times(1)).getAddresses();
+    }
+
+    @Test
+    public void discoverNodesWaitsForStartupQuorumWithBackgroundRefresh() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("hz-port", "5701");
+        properties.put("refresh-period-seconds", 3600);
+        properties.put("startup-quorum", "2");
+        awsDiscoveryStrategy = new AwsDiscoveryStrategy(properties, awsClient);
+        List<DiscoveryNode> addedNodes = new CopyOnWriteArrayList<>();
+        awsDiscoveryStrategy.addDiscoveryListener(new AwsDiscoveryListener() {
+            @Override
+            public void nodesAdded(Collection<DiscoveryNode> nodes) {
+                addedNodes.addAll(nodes);
+            }
+
+            @Override
+            public void nodesRemoved(Collection<DiscoveryNode> nodes) {
+            }
+        });
+        given(awsClient.getAddresses()).willReturn(
+            ImmutableMap.of("192.168.1.15", node("192.168.1.15", null)),
+            ImmutableMap.of(
+                "192.168.1.15", node("192.168.1.15", null),
+                "192.168.1.16", node("192.168.1.16", null)));
+
+        // when
+        awsDiscoveryStrategy.start();
+        assertTrueEventually(() -> assertEquals(1, addedNodes.size()));
+        List<DiscoveryNode> nodes = toList(awsDiscoveryStrategy.discoverNodes());
+        awsDiscoveryStrategy.destroy();
+
+        // then
+        assertEquals(2, nodes.size());
+        verify(awsClient, times(2)).getAddresses();
+    }
+
     @Test
     public void discoverNodesEmpty() {
         // given
@@ -250,9 +800,110 @@ public class AwsDiscoveryStrategyTest {
         assertEquals(emptyList(), result);
     }
 
+    @Test
+    public void discoverNodesStreaming() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("hz-port", String.valueOf(PORT1));
+        properties.put("streaming-discovery", true);
+        awsDiscoveryStrategy = new AwsDiscoveryStrategy(properties, awsClient);
+        AwsNode firstNode = node("192.168.1.15", "38.146.24.2");
+        AwsNode secondNode = node("192.168.1.16", "38.146.28.15");
+        given(awsClient.getAddresses(any(Consumer.class))).willAnswer(invocation -> {
+            Consumer<Collection<AwsNode>> pageConsumer = (Consumer<Collection<AwsNode>>) invocation.getArguments()[0];
+            pageConsumer.accept(Collections.singletonList(firstNode));
+            pageConsumer.accept(Collections.singletonList(secondNode));
+            return ImmutableMap.of(firstNode.getPrivateAddress(), firstNode, secondNode.getPrivateAddress(), secondNode);
+        });
+
+        // when
+        List<DiscoveryNode> result = toList(awsDiscoveryStrategy.discoverNodes());
+
+        // then
+        assertEquals(2, result.size());
+        assertEquals("192.168.1.15", result.get(0).getPrivateAddress().getHost());
+        assertEquals("192.168.1.16", result.get(1).getPrivateAddress().getHost());
+    }
+
+    @Test
+    public void discoverNodesStreamingException() {
+        // given
+        Map<String, Comparable> properties = new HashMap<>();
+        properties.put("streaming-discovery", true);
+        awsDiscoveryStrategy = new AwsDiscoveryStrategy(properties, awsClient);
+        given(awsClient.getAddresses(any(Consumer.class))).willThrow(new RuntimeException("Unknown exception"));
+
+        // when
+        List<DiscoveryNode> result = toList(awsDiscoveryStrategy.discoverNodes());
+
+        // then
+        assertEquals(emptyList(), result);
+    }
+
+    @Test
+    public void concurrentDiscoveryIsCoalesced()
+            throws Exception {
+        // given
+        int threads = 16;
+        int rounds = 20;
+        AtomicInteger calls = new AtomicInteger();
+        Map<String, AwsNode> addresses = ImmutableMap.of("192.168.1.16", node("192.168.1.16", "1.2.3.4"),
+                "192.168.1.17", node("192.168.1.17", "1.2.3.5"));
+        given(awsClient.getAddresses()).willAnswer(invocation -> {
+            calls.incrementAndGet();
+            Thread.sleep(50);
+            return addresses;
+        });
+        given(awsClient.getAvailabilityZone()).willReturn(ZONE);
+        given(awsClient.getPlacementGroup()).willReturn(Optional.of(PLACEMENT_GROUP));
+        given(awsClient.getPlacementPartitionNumber()).willReturn(Optional.empty());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+
+        // when
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    int discovered = 0;
+                    for (int round = 0; round < rounds; round++) {
+                        barrier.await();
+                        discovered += toList(awsDiscoveryStrategy.discoverNodes()).size();
+                        assertEquals(ZONE, awsDiscoveryStrategy.discoverLocalMetadata().get(PARTITION_GROUP_ZONE));
+                    }
+                    return discovered;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(Integer.valueOf(2 * 2 * rounds), result.get(1, TimeUnit.MINUTES));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // then
+        assertTrue(String.format("Expected coalesced calls, but was %s", calls.get()), calls.get() < threads * rounds / 2);
+        verify(awsClient, times(1)).getAvailabilityZone();
+        verify(awsClient, times(1)).getPlacementGroup();
+    }
+
+    private static AwsNode node(String privateAddress, String publicAddress) {
+        return AwsNode.builder().setPrivateAddress(privateAddress).setPublicAddress(publicAddress).build();
+    }
+
     private static List<DiscoveryNode> toList(Iterable<DiscoveryNode> nodes) {
         List<DiscoveryNode> list = new ArrayList<>();
         nodes.forEach(list::add);
         return list;
     }
+
+    public static class RecordingTerminationListener
+            implements AwsTerminationListener {
+        static final List<AwsTerminationNotice> NOTICES = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void terminationImminent(AwsTerminationNotice notice) {
+            NOTICES.add(notice);
+        }
+    }
 }
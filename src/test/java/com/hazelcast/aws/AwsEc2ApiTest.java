@@ -26,17 +26,23 @@ import org.mockito.runners.MockitoJUnitRunner;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
@@ -80,7 +86,7 @@ public class AwsEc2ApiTest {
                 .setTagKey(tagKey)
                 .setTagValue(tagValue)
                 .build();
-        return new AwsEc2Api(endpoint, awsConfig, requestSigner, clock);
+        return new AwsEc2Api(endpoint, awsConfig, new AwsEndpoints(awsConfig), requestSigner, clock);
     }
 
     @Test
@@ -103,8 +109,14 @@ public class AwsEc2ApiTest {
             + "        <item>\n"
             + "            <instancesSet>\n"
             + "                <item>\n"
+            + "                    <instanceId>i-0a1b2c3d4e5f60001</instanceId>\n"
             + "                    <privateIpAddress>10.0.1.25</privateIpAddress>\n"
             + "                    <ipAddress>54.93.121.213</ipAddress>\n"
+            + "                    <placement>\n"
+            + "                        <availabilityZone>eu-central-1a</availabilityZone>\n"
+            + "                        <groupName/>\n"
+            + "                        <tenancy>default</tenancy>\n"
+            + "                    </placement>\n"
             + "                    <tagSet>\n"
             + "                        <item>\n"
             + "                            <key>kubernetes.io/cluster/openshift-cluster</key>\n"
@@ -123,6 +135,12 @@ public class AwsEc2ApiTest {
             + "                <item>\n"
             + "                    <privateIpAddress>172.31.14.42</privateIpAddress>\n"
             + "                    <ipAddress>18.196.228.248</ipAddress>\n"
+            + "                    <placement>\n"
+            + "                        <availabilityZone>eu-central-1b</availabilityZone>\n"
+            + "                        <groupName>hazelcast-group</groupName>\n"
+            + "                        <partitionNumber>2</partitionNumber>\n"
+            + "                        <tenancy>default</tenancy>\n"
+            + "                    </placement>\n"
             + "                    <tagSet>\n"
             + "                        <item>\n"
             + "                            <key>Name</key>\n"
@@ -142,12 +160,23 @@ public class AwsEc2ApiTest {
             .willReturn(aResponse().withStatus(200).withBody(response)));
 
         // when
-        Map<String, String> result = awsEc2Api.describeInstances(CREDENTIALS);
+        Map<String, AwsNode> result = awsEc2Api.describeInstances(CREDENTIALS);
 
         // then
         assertEquals(2, result.size());
-        assertEquals("54.93.121.213", result.get("10.0.1.25"));
-        assertEquals("18.196.228.248", result.get("172.31.14.42"));
+        assertEquals(AwsNode.builder()
+            .setPrivateAddress("10.0.1.25")
+            .setPublicAddress("54.93.121.213")
+            .setAvailabilityZone("eu-central-1a")
+            .setInstanceId("i-0a1b2c3d4e5f60001")
+            .build(), result.get("10.0.1.25"));
+        assertEquals(AwsNode.builder()
+            .setPrivateAddress("172.31.14.42")
+            .setPublicAddress("18.196.228.248")
+            .setAvailabilityZone("eu-central-1b")
+            .setPlacementGroup("hazelcast-group")
+            .setPlacementPartitionNumber("2")
+            .build(), result.get("172.31.14.42"));
     }
 
     @Test
@@ -189,12 +218,168 @@ public class AwsEc2ApiTest {
             .willReturn(aResponse().withStatus(200).withBody(response)));
 
         // when
-        Map<String, String> result = createAwsEc2Api(null, "some-tag-value").describeInstances(CREDENTIALS);
+        Map<String, AwsNode> result = createAwsEc2Api(null, "some-tag-value").describeInstances(CREDENTIALS);
 
         // then
         assertEquals(2, result.size());
-        assertNull(result.get("10.0.1.25"));
-        assertNull(result.get("172.31.14.42"));
+        assertNull(result.get("10.0.1.25").getPublicAddress());
+        assertNull(result.get("172.31.14.42").getPublicAddress());
+    }
+
+    @Test
+    public void describeInstancesIpv6() {
+        // given
+        //language=XML
+        String response = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<DescribeInstancesResponse xmlns=\"http://ec2.amazonaws.com/doc/2016-11-15/\">\n"
+            + "    <reservationSet>\n"
+            + "        <item>\n"
+            + "            <instancesSet>\n"
+            + "                <item>\n"
+            + "                    <privateIpAddress>10.0.1.25</privateIpAddress>\n"
+            + "                    <networkInterfaceSet>\n"
+            + "                        <item>\n"
+            + "                            <ipv6AddressesSet>\n"
+            + "                                <item><ipv6Address>2a05:d014:e6f:8a00::25</ipv6Address></item>\n"
+            + "                            </ipv6AddressesSet>\n"
+            + "                        </item>\n"
+            + "                    </networkInterfaceSet>\n"
+            + "                </item>\n"
+            + "                <item>\n"
+            + "                    <ipv6Address>2a05:d014:e6f:8a01::42</ipv6Address>\n"
+            + "                </item>\n"
+            + "            </instancesSet>\n"
+            + "        </item>\n"
+            + "    </reservationSet>\n"
+            + "</DescribeInstancesResponse>";
+        stubFor(get(urlPathEqualTo("/"))
+            .withQueryParam("Action", equalTo("DescribeInstances"))
+            .willReturn(aResponse().withStatus(200).withBody(response)));
+
+        // when
+        Map<String, AwsNode> result = awsEc2Api.describeInstances(CREDENTIALS);
+
+        // then
+        assertEquals(2, result.size());
+        assertEquals("2a05:d014:e6f:8a00::25", result.get("10.0.1.25").getIpv6Address());
+        assertEquals("2a05:d014:e6f:8a01::42", result.get("2a05:d014:e6f:8a01::42").getIpv6Address());
+    }
+
+    @Test
+    public void describeInstancesPaginated() {
+        // given
+        stubFor(get(urlPathEqualTo("/"))
+            .withQueryParam("Action", equalTo("DescribeInstances"))
+            .withQueryParam("NextToken", absent())
+            .willReturn(aResponse().withStatus(200).withBody(describeInstancesPage("10.0.1.25", "page-2"))));
+        stubFor(get(urlPathEqualTo("/"))
+            .withQueryParam("Action", equalTo("DescribeInstances"))
+            .withQueryParam("NextToken", equalTo("page-2"))
+            .willReturn(aResponse().withStatus(200).withBody(describeInstancesPage("10.0.1.26", null))));
+
+        List<Map<String, AwsNode>> pages = new ArrayList<>();
+
+        // when
+        Map<String, AwsNode> result = awsEc2Api.describeInstances(CREDENTIALS, pages::add);
+
+        // then
+        assertEquals(2, result.size());
+        assertTrue(result.containsKey("10.0.1.25"));
+        assertTrue(result.containsKey("10.0.1.26"));
+        assertEquals(2, pages.size());
+        assertTrue(pages.get(0).containsKey("10.0.1.25"));
+        assertTrue(pages.get(1).containsKey("10.0.1.26"));
+    }
+
+    @Test
+    public void describeInstancesByIdsInChunks() {
+        // given
+        List<String> instanceIds = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            instanceIds.add(String.format("i-%017d", i));
+        }
+        stubFor(get(urlPathEqualTo("/"))
+            .withQueryParam("Action", equalTo("DescribeInstances"))
+            .withQueryParam("InstanceId.1", equalTo(instanceIds.get(0)))
+            .withQueryParam("InstanceId.200", equalTo(instanceIds.get(199)))
+            .withQueryParam("InstanceId.201", absent())
+            .willReturn(aResponse().withStatus(200).withBody(describeInstancesPage("10.0.1.25", null))));
+        stubFor(get(urlPathEqualTo("/"))
+            .withQueryParam("Action", equalTo("DescribeInstances"))
+            .withQueryParam("InstanceId.1", equalTo(instanceIds.get(200)))
+            .withQueryParam("InstanceId.50", equalTo(instanceIds.get(249)))
+            .withQueryParam("InstanceId.51", absent())
+            .willReturn(aResponse().withStatus(200).withBody(describeInstancesPage("10.0.1.26", null))));
+
+        // when
+        Map<String, AwsNode> result = awsEc2Api.describeInstances(instanceIds, CREDENTIALS, page -> { });
+
+        // then
+        assertEquals(2, result.size());
+        assertTrue(result.containsKey("10.0.1.25"));
+        assertTrue(result.containsKey("10.0.1.26"));
+    }
+
+    @Test
+    public void describeInstanceStatus() {
+        // given
+        String requestUrl = "/?Action=DescribeInstanceStatus"
+            + "&InstanceId.1=i-0a1b2c3d4e5f60001"
+            + "&InstanceId.2=i-0a1b2c3d4e5f60002"
+            + "&InstanceId.3=i-0a1b2c3d4e5f60003"
+            + "&Version=2016-11-15";
+
+        //language=XML
+        String response = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<DescribeInstanceStatusResponse xmlns=\"http://ec2.amazonaws.com/doc/2016-11-15/\">\n"
+            + "    <instanceStatusSet>\n"
+            + "        <item>\n"
+            + "            <instanceId>i-0a1b2c3d4e5f60001</instanceId>\n"
+            + "            <instanceState><code>16</code><name>running</name></instanceState>\n"
+            + "            <systemStatus><status>ok</status></systemStatus>\n"
+            + "            <instanceStatus><status>ok</status></instanceStatus>\n"
+            + "        </item>\n"
+            + "        <item>\n"
+            + "            <instanceId>i-0a1b2c3d4e5f60002</instanceId>\n"
+            + "            <instanceState><code>16</code><name>running</name></instanceState>\n"
+            + "            <systemStatus><status>ok</status></systemStatus>\n"
+            + "            <instanceStatus><status>initializing</status></instanceStatus>\n"
+            + "        </item>\n"
+            + "        <item>\n"
+            + "            <instanceId>i-0a1b2c3d4e5f60003</instanceId>\n"
+            + "            <instanceState><code>16</code><name>running</name></instanceState>\n"
+            + "            <systemStatus><status>impaired</status></systemStatus>\n"
+            + "            <instanceStatus><status>ok</status></instanceStatus>\n"
+            + "        </item>\n"
+            + "    </instanceStatusSet>\n"
+            + "</DescribeInstanceStatusResponse>";
+
+        stubFor(get(urlEqualTo(requestUrl))
+            .withHeader("Authorization", equalTo(AUTHORIZATION_HEADER))
+            .willReturn(aResponse().withStatus(200).withBody(response)));
+
+        // when
+        Set<String> result = awsEc2Api.describeInstanceStatus(
+            asList("i-0a1b2c3d4e5f60001", "i-0a1b2c3d4e5f60002", "i-0a1b2c3d4e5f60003"), CREDENTIALS);
+
+        // then
+        assertEquals(singleton("i-0a1b2c3d4e5f60001"), result);
+    }
+
+    private static String describeInstancesPage(String privateAddress, String nextToken) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<DescribeInstancesResponse xmlns=\"http://ec2.amazonaws.com/doc/2016-11-15/\">\n"
+            + "    <reservationSet>\n"
+            + "        <item>\n"
+            + "            <instancesSet>\n"
+            + "                <item>\n"
+            + "                    <privateIpAddress>" + privateAddress + "</privateIpAddress>\n"
+            + "                </item>\n"
+            + "            </instancesSet>\n"
+            + "        </item>\n"
+            + "    </reservationSet>\n"
+            + (nextToken == null ? "" : "    <nextToken>" + nextToken + "</nextToken>\n")
+            + "</DescribeInstancesResponse>";
     }
 
     @Test
@@ -245,6 +430,87 @@ public class AwsEc2ApiTest {
         assertEquals("35.156.192.128", result.get("10.0.1.82"));
     }
 
+    @Test
+    public void describeNetworkInterfacesById() {
+        // given
+        List<String> networkInterfaceIds = asList("eni-0f3c5d6e7a8b9c0d1", "eni-0a1b2c3d4e5f60718");
+
+        String requestUrl = "/?Action=DescribeNetworkInterfaces"
+            + "&Filter.1.Name=network-interface-id"
+            + "&Filter.1.Value.1=eni-0f3c5d6e7a8b9c0d1"
+            + "&Filter.1.Value.2=eni-0a1b2c3d4e5f60718"
+            + "&Version=2016-11-15";
+
+        //language=XML
+        String response = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<DescribeNetworkInterfacesResponse xmlns=\"http://ec2.amazonaws.com/doc/2016-11-15/\">\n"
+            + "    <networkInterfaceSet>\n"
+            + "        <item>\n"
+            + "            <networkInterfaceId>eni-0f3c5d6e7a8b9c0d1</networkInterfaceId>\n"
+            + "            <privateIpAddress>10.0.1.207</privateIpAddress>\n"
+            + "            <association>\n"
+            + "                <publicIp>54.93.217.194</publicIp>\n"
+            + "            </association>\n"
+            + "        </item>\n"
+            + "        <item>\n"
+            + "            <networkInterfaceId>eni-0a1b2c3d4e5f60718</networkInterfaceId>\n"
+            + "            <privateIpAddress>10.0.1.82</privateIpAddress>\n"
+            + "        </item>\n"
+            + "    </networkInterfaceSet>\n"
+            + "</DescribeNetworkInterfacesResponse>";
+
+        stubFor(get(urlEqualTo(requestUrl))
+            .withHeader("X-Amz-Date", equalTo("20200403T102518Z"))
+            .withHeader("X-Amz-Security-Token", equalTo(TOKEN))
+            .willReturn(aResponse().withStatus(200).withBody(response)));
+
+        // when
+        Map<String, String> result = awsEc2Api.describeNetworkInterfacesById(networkInterfaceIds, CREDENTIALS);
+
+        // then
+        assertEquals(2, result.size());
+        assertEquals("54.93.217.194", result.get("10.0.1.207"));
+        assertNull(result.get("10.0.1.82"));
+    }
+
+    @Test
+    public void describeNetworkInterfacesByIdWithMissingInterface() {
+        // given
+        List<String> networkInterfaceIds = asList("eni-0f3c5d6e7a8b9c0d1", "eni-0a1b2c3d4e5f60718");
+
+        String requestUrl = "/?Action=DescribeNetworkInterfaces"
+            + "&Filter.1.Name=network-interface-id"
+            + "&Filter.1.Value.1=eni-0f3c5d6e7a8b9c0d1"
+            + "&Filter.1.Value.2=eni-0a1b2c3d4e5f60718"
+            + "&Version=2016-11-15";
+
+        // the second network interface has been deleted, so it is not matched by the filter
+        //language=XML
+        String response = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<DescribeNetworkInterfacesResponse xmlns=\"http://ec2.amazonaws.com/doc/2016-11-15/\">\n"
+            + "    <networkInterfaceSet>\n"
+            + "        <item>\n"
+            + "            <networkInterfaceId>eni-0f3c5d6e7a8b9c0d1</networkInterfaceId>\n"
+            + "            <privateIpAddress>10.0.1.207</privateIpAddress>\n"
+            + "            <association>\n"
+            + "                <publicIp>54.93.217.194</publicIp>\n"
+            + "            </association>\n"
+            + "        </item>\n"
+            + "    </networkInterfaceSet>\n"
+            + "</DescribeNetworkInterfacesResponse>";
+
+        stubFor(get(urlEqualTo(requestUrl))
+            .withHeader("X-Amz-Date", equalTo("20200403T102518Z"))
+            .withHeader("X-Amz-Security-Token", equalTo(TOKEN))
+            .willReturn(aResponse().withStatus(200).withBody(response)));
+
+        // when
+        Map<String, String> result = awsEc2Api.describeNetworkInterfacesById(networkInterfaceIds, CREDENTIALS);
+
+        // then
+        assertEquals(singletonMap("10.0.1.207", "54.93.217.194"), result);
+    }
+
     @Test
     public void describeNetworkInterfacesNoPublicIp() {
         // given
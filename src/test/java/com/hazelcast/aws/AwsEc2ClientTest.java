@@ -15,18 +15,30 @@
 
 package com.hazelcast.aws;
 
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 @RunWith(MockitoJUnitRunner.class)
 public class AwsEc2ClientTest {
@@ -39,9 +51,16 @@ public class AwsEc2ClientTest {
     @Mock
     private AwsCredentialsProvider awsCredentialsProvider;
 
-    @InjectMocks
+    @Mock
+    private AwsAutoScalingApi awsAutoScalingApi;
+
     private AwsEc2Client awsEc2Client;
 
+    @Before
+    public void setUp() {
+        awsEc2Client = new AwsEc2Client(awsEc2Api, awsMetadataApi, awsCredentialsProvider);
+    }
+
     @Test
     public void getAddresses() {
         // given
@@ -50,18 +69,121 @@ public class AwsEc2ClientTest {
             .setSecretKey("secret-key")
             .setToken("token")
             .build();
-        Map<String, String> expectedResult = singletonMap("123.12.1.0", "1.4.6.2");
+        Map<String, AwsNode> expectedResult = singletonMap("123.12.1.0",
+            AwsNode.builder().setPrivateAddress("123.12.1.0").setPublicAddress("1.4.6.2").build());
 
         given(awsCredentialsProvider.credentials()).willReturn(credentials);
         given(awsEc2Api.describeInstances(credentials)).willReturn(expectedResult);
 
         // when
-        Map<String, String> result = awsEc2Client.getAddresses();
+        Map<String, AwsNode> result = awsEc2Client.getAddresses();
+
+        // then
+        assertEquals(expectedResult, result);
+    }
+
+    @Test
+    public void getAddressesFromAutoScalingGroup() {
+        // given
+        AwsCredentials credentials = AwsCredentials.builder()
+            .setAccessKey("access-key")
+            .setSecretKey("secret-key")
+            .build();
+        List<String> instanceIds = asList("i-0a1b2c3d4e5f60001", "i-0a1b2c3d4e5f60003");
+        Map<String, AwsNode> expectedResult = singletonMap("123.12.1.0",
+            AwsNode.builder().setPrivateAddress("123.12.1.0").build());
+
+        given(awsCredentialsProvider.credentials()).willReturn(credentials);
+        given(awsAutoScalingApi.describeAutoScalingGroup(credentials))
+            .willReturn(new AwsAutoScalingApi.AutoScalingGroup(3, instanceIds));
+        given(awsEc2Api.describeInstances(eq(instanceIds), eq(credentials), any())).willReturn(expectedResult);
+        AwsEc2Client client = new AwsEc2Client(awsEc2Api, awsMetadataApi, awsCredentialsProvider, awsAutoScalingApi,
+            null);
+
+        // when
+        Map<String, AwsNode> result = client.getAddresses();
 
         // then
         assertEquals(expectedResult, result);
     }
 
+    @Test
+    public void getAddressesFromAutoScalingGroupWithoutInstancesInService() {
+        // given
+        AwsCredentials credentials = AwsCredentials.builder()
+            .setAccessKey("access-key")
+            .setSecretKey("secret-key")
+            .build();
+        given(awsCredentialsProvider.credentials()).willReturn(credentials);
+        given(awsAutoScalingApi.describeAutoScalingGroup(credentials))
+            .willReturn(new AwsAutoScalingApi.AutoScalingGroup(3, emptyList()));
+        AwsEc2Client client = new AwsEc2Client(awsEc2Api, awsMetadataApi, awsCredentialsProvider, awsAutoScalingApi,
+            null);
+
+        // when
+        Map<String, AwsNode> result = client.getAddresses();
+
+        // then
+        assertTrue(result.isEmpty());
+        verifyZeroInteractions(awsEc2Api);
+    }
+
+    @Test
+    public void getAddressesWithInstanceStatusCheck() {
+        // given
+        AwsCredentials credentials = AwsCredentials.builder()
+            .setAccessKey("access-key")
+            .setSecretKey("secret-key")
+            .build();
+        AwsNode healthy = AwsNode.builder().setPrivateAddress("10.0.1.25").setInstanceId("i-0a1b2c3d4e5f60001").build();
+        AwsNode initializing = AwsNode.builder().setPrivateAddress("10.0.1.26").setInstanceId("i-0a1b2c3d4e5f60002")
+            .build();
+        Map<String, AwsNode> discovered = new HashMap<>();
+        discovered.put("10.0.1.25", healthy);
+        discovered.put("10.0.1.26", initializing);
+
+        given(awsCredentialsProvider.credentials()).willReturn(credentials);
+        given(awsEc2Api.describeInstances(eq(credentials), any())).willAnswer(invocation -> {
+            Consumer<Map<String, AwsNode>> pageConsumer = (Consumer<Map<String, AwsNode>>) invocation.getArguments()[1];
+            pageConsumer.accept(discovered);
+            return discovered;
+        });
+        given(awsEc2Api.describeInstanceStatus(anyList(), eq(credentials))).willReturn(singleton("i-0a1b2c3d4e5f60001"));
+        AwsEc2Client client = new AwsEc2Client(awsEc2Api, awsMetadataApi, awsCredentialsProvider, null,
+            new InstanceStatusFilter(awsEc2Api));
+
+        // when
+        Map<String, AwsNode> result = client.getAddresses();
+
+        // then
+        assertEquals(singletonMap("10.0.1.25", healthy), result);
+    }
+
+    @Test
+    public void getDesiredClusterSizeFromAutoScalingGroup() {
+        // given
+        AwsCredentials credentials = AwsCredentials.builder()
+            .setAccessKey("access-key")
+            .setSecretKey("secret-key")
+            .build();
+        given(awsCredentialsProvider.credentials()).willReturn(credentials);
+        given(awsAutoScalingApi.describeAutoScalingGroup(credentials))
+            .willReturn(new AwsAutoScalingApi.AutoScalingGroup(3, emptyList()));
+        AwsEc2Client client = new AwsEc2Client(awsEc2Api, awsMetadataApi, awsCredentialsProvider, awsAutoScalingApi,
+            null);
+
+        // when
+        Optional<Integer> result = client.getDesiredClusterSize();
+
+        // then
+        assertEquals(Optional.of(3), result);
+    }
+
+    @Test
+    public void getDesiredClusterSizeWithoutAutoScalingGroup() {
+        assertFalse(awsEc2Client.getDesiredClusterSize().isPresent());
+    }
+
     @Test
     public void getAvailabilityZone() {
         // given
@@ -40,6 +40,7 @@ import static java.util.Arrays.asList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItems;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
@@ -72,7 +73,7 @@ public class AwsEcsApiTest {
 
         endpoint = String.format("http://localhost:%s", wireMockRule.port());
         AwsConfig awsConfig = AwsConfig.builder().build();
-        awsEcsApi = new AwsEcsApi(endpoint, awsConfig, requestSigner, CLOCK);
+        awsEcsApi = new AwsEcsApi(endpoint, awsConfig, new AwsEndpoints(awsConfig), requestSigner, CLOCK);
     }
 
     @Test
@@ -121,7 +122,7 @@ public class AwsEcsApiTest {
         AwsConfig awsConfig = AwsConfig.builder()
             .setFamily("family-name")
             .build();
-        AwsEcsApi awsEcsApi = new AwsEcsApi(endpoint, awsConfig, requestSigner, CLOCK);
+        AwsEcsApi awsEcsApi = new AwsEcsApi(endpoint, awsConfig, new AwsEndpoints(awsConfig), requestSigner, CLOCK);
 
         //language=JSON
         String requestBody = "{\n"
@@ -158,6 +159,29 @@ public class AwsEcsApiTest {
         );
     }
 
+    @Test
+    public void listTasksPaginated() {
+        // given
+        String cluster = "arn:aws:ecs:eu-central-1:665466731577:cluster/rafal-test-cluster";
+        stubFor(post("/")
+            .withHeader("X-Amz-Target", equalTo("AmazonEC2ContainerServiceV20141113.ListTasks"))
+            .withRequestBody(equalToJson("{\"cluster\": \"" + cluster + "\"}"))
+            .willReturn(aResponse().withStatus(200).withBody(
+                "{\"taskArns\": [\"arn:aws:ecs:eu-central-1:012345678910:task/first\"], \"nextToken\": \"page-2\"}")));
+        stubFor(post("/")
+            .withHeader("X-Amz-Target", equalTo("AmazonEC2ContainerServiceV20141113.ListTasks"))
+            .withRequestBody(equalToJson("{\"cluster\": \"" + cluster + "\", \"nextToken\": \"page-2\"}"))
+            .willReturn(aResponse().withStatus(200).withBody(
+                "{\"taskArns\": [\"arn:aws:ecs:eu-central-1:012345678910:task/second\"]}")));
+
+        // when
+        List<String> tasks = awsEcsApi.listTasks(cluster, CREDENTIALS);
+
+        // then
+        assertEquals(asList("arn:aws:ecs:eu-central-1:012345678910:task/first",
+            "arn:aws:ecs:eu-central-1:012345678910:task/second"), tasks);
+    }
+
     @Test
     public void describeTasks() {
         // given
@@ -182,6 +206,21 @@ public class AwsEcsApiTest {
             + "    {\n"
             + "      \"taskArn\": \"arn:aws:ecs:eu-central-1-east-1:012345678910:task/0b69d5c0-d655-4695-98cd-5d2d526d9d5a\",\n"
             + "      \"availabilityZone\": \"eu-central-1a\",\n"
+            + "      \"attachments\": [\n"
+            + "        {\n"
+            + "          \"type\": \"ElasticNetworkInterface\",\n"
+            + "          \"details\": [\n"
+            + "            {\n"
+            + "              \"name\": \"subnetId\",\n"
+            + "              \"value\": \"subnet-0a1b2c3d\"\n"
+            + "            },\n"
+            + "            {\n"
+            + "              \"name\": \"networkInterfaceId\",\n"
+            + "              \"value\": \"eni-0f3c5d6e7a8b9c0d1\"\n"
+            + "            }\n"
+            + "          ]\n"
+            + "        }\n"
+            + "      ],\n"
             + "      \"containers\": [\n"
             + "        {\n"
             + "          \"taskArn\": \"arn:aws:ecs:eu-central-1-east-1:012345678910:task/0b69d5c0-d655-4695-98cd-5d2d526d9d5a\",\n"
@@ -226,8 +265,117 @@ public class AwsEcsApiTest {
         // then
         assertEquals("10.0.1.16", result.get(0).getPrivateAddress());
         assertEquals("eu-central-1a", result.get(0).getAvailabilityZone());
+        assertEquals("eni-0f3c5d6e7a8b9c0d1", result.get(0).getNetworkInterfaceId());
         assertEquals("10.0.1.219", result.get(1).getPrivateAddress());
         assertEquals("eu-central-1a", result.get(1).getAvailabilityZone());
+        assertNull(result.get(1).getNetworkInterfaceId());
+    }
+
+    @Test
+    public void describeServiceDesiredCount() {
+        // given
+        String cluster = "arn:aws:ecs:eu-central-1:665466731577:cluster/rafal-test-cluster";
+
+        //language=JSON
+        String requestBody = "{\n"
+            + "  \"cluster\" : \"arn:aws:ecs:eu-central-1:665466731577:cluster/rafal-test-cluster\",\n"
+            + "  \"services\": [\"hazelcast\"]\n"
+            + "}";
+
+        //language=JSON
+        String response = "{\n"
+            + "  \"services\": [\n"
+            + "    {\n"
+            + "      \"serviceName\": \"hazelcast\",\n"
+            + "      \"desiredCount\": 5,\n"
+            + "      \"runningCount\": 3\n"
+            + "    }\n"
+            + "  ],\n"
+            + "  \"failures\": []\n"
+            + "}";
+
+        stubFor(post("/")
+            .withHeader("X-Amz-Target", equalTo("AmazonEC2ContainerServiceV20141113.DescribeServices"))
+            .withRequestBody(equalToJson(requestBody))
+            .willReturn(aResponse().withStatus(200).withBody(response)));
+
+        // when
+        int result = awsEcsApi.describeServiceDesiredCount(cluster, "hazelcast", CREDENTIALS);
+
+        // then
+        assertEquals(5, result);
+    }
+
+    @Test
+    public void describeServiceDesiredCountNotFound() {
+        // given
+        //language=JSON
+        String response = "{\n"
+            + "  \"services\": [],\n"
+            + "  \"failures\": [{\"reason\": \"MISSING\"}]\n"
+            + "}";
+        stubFor(post("/").willReturn(aResponse().withStatus(200).withBody(response)));
+
+        // when
+        Exception exception = assertThrows(IllegalStateException.class,
+            () -> awsEcsApi.describeServiceDesiredCount("cluster", "hazelcast", CREDENTIALS));
+
+        // then
+        assertTrue(exception.getMessage().contains("hazelcast"));
+    }
+
+    @Test
+    public void describeTasksIpv6() {
+        // given
+        String cluster = "arn:aws:ecs:eu-central-1:665466731577:cluster/rafal-test-cluster";
+        List<String> tasks = asList(
+            "arn:aws:ecs:eu-central-1:012345678910:task/0b69d5c0-d655-4695-98cd-5d2d526d9d5a",
+            "arn:aws:ecs:eu-central-1:012345678910:task/51a01bdf-d00e-487e-ab14-7645330b6207"
+        );
+
+        //language=JSON
+        String response = "{\n"
+            + "  \"tasks\": [\n"
+            + "    {\n"
+            + "      \"availabilityZone\": \"eu-central-1a\",\n"
+            + "      \"containers\": [\n"
+            + "        {\n"
+            + "          \"networkInterfaces\": [\n"
+            + "            {\n"
+            + "              \"privateIpv4Address\": \"10.0.1.16\",\n"
+            + "              \"ipv6Address\": \"2a05:d014:e6f:8a00::16\"\n"
+            + "            }\n"
+            + "          ]\n"
+            + "        }\n"
+            + "      ]\n"
+            + "    },\n"
+            + "    {\n"
+            + "      \"availabilityZone\": \"eu-central-1b\",\n"
+            + "      \"containers\": [\n"
+            + "        {\n"
+            + "          \"networkInterfaces\": [\n"
+            + "            {\n"
+            + "              \"ipv6Address\": \"2a05:d014:e6f:8a01::219\"\n"
+            + "            }\n"
+            + "          ]\n"
+            + "        }\n"
+            + "      ]\n"
+            + "    }\n"
+            + "  ]\n"
+            + "}";
+
+        stubFor(post("/")
+            .withHeader("X-Amz-Target", equalTo("AmazonEC2ContainerServiceV20141113.DescribeTasks"))
+            .willReturn(aResponse().withStatus(200).withBody(response)));
+
+        // when
+        List<Task> result = awsEcsApi.describeTasks(cluster, tasks, CREDENTIALS);
+
+        // then
+        assertEquals("10.0.1.16", result.get(0).getPrivateAddress());
+        assertEquals("2a05:d014:e6f:8a00::16", result.get(0).getIpv6Address());
+        assertEquals("2a05:d014:e6f:8a01::219", result.get(1).getPrivateAddress());
+        assertEquals("2a05:d014:e6f:8a01::219", result.get(1).getIpv6Address());
     }
 
     @Test
@@ -23,16 +23,25 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -75,17 +84,21 @@ public class AwsEcsClientTest {
         // given
         List<String> taskArns = singletonList("task-arn");
         List<String> privateIps = singletonList("123.12.1.0");
-        List<Task> tasks = singletonList(new Task("123.12.1.0", null));
-        Map<String, String> expectedResult = singletonMap("123.12.1.0", "1.4.6.2");
+        List<Task> tasks = singletonList(new Task("123.12.1.0", "us-east-1a"));
         given(awsEcsApi.listTasks(CLUSTER, CREDENTIALS)).willReturn(taskArns);
         given(awsEcsApi.describeTasks(CLUSTER, taskArns, CREDENTIALS)).willReturn(tasks);
-        given(awsEc2Api.describeNetworkInterfaces(privateIps, CREDENTIALS)).willReturn(expectedResult);
+        given(awsEc2Api.describeNetworkInterfaces(privateIps, CREDENTIALS)).willReturn(singletonMap("123.12.1.0", "1.4.6.2"));
 
         // when
-        Map<String, String> result = awsEcsClient.getAddresses();
+        Map<String, AwsNode> result = awsEcsClient.getAddresses();
 
         // then
-        assertEquals(expectedResult, result);
+        AwsNode expectedNode = AwsNode.builder()
+            .setPrivateAddress("123.12.1.0")
+            .setPublicAddress("1.4.6.2")
+            .setAvailabilityZone("us-east-1a")
+            .build();
+        assertEquals(singletonMap("123.12.1.0", expectedNode), result);
     }
 
     @Test
@@ -93,17 +106,59 @@ public class AwsEcsClientTest {
         // given
         List<String> taskArns = singletonList("task-arn");
         List<String> privateIps = singletonList("123.12.1.0");
-        List<Task> tasks = singletonList(new Task("123.12.1.0", null));
-        Map<String, String> expectedResult = singletonMap("123.12.1.0", "1.4.6.2");
+        List<Task> tasks = singletonList(new Task("123.12.1.0", "us-east-1a"));
         given(awsEcsApi.listTasks(CLUSTER, CREDENTIALS)).willReturn(taskArns);
         given(awsEcsApi.describeTasks(CLUSTER, taskArns, CREDENTIALS)).willReturn(tasks);
-        given(awsEc2Api.describeNetworkInterfaces(privateIps, CREDENTIALS)).willReturn(expectedResult);
+        given(awsEc2Api.describeNetworkInterfaces(privateIps, CREDENTIALS)).willReturn(singletonMap("123.12.1.0", "1.4.6.2"));
 
         // when
-        Map<String, String> result = awsEcsClient.getAddresses();
+        Map<String, AwsNode> result = awsEcsClient.getAddresses();
 
         // then
-        assertEquals(expectedResult, result);
+        AwsNode expectedNode = AwsNode.builder()
+            .setPrivateAddress("123.12.1.0")
+            .setPublicAddress("1.4.6.2")
+            .setAvailabilityZone("us-east-1a")
+            .build();
+        assertEquals(singletonMap("123.12.1.0", expectedNode), result);
+    }
+
+    @Test
+    public void getAddressesByNetworkInterfaceId() {
+        // given
+        List<String> taskArns = asList("task-arn-1", "task-arn-2");
+        List<Task> tasks = asList(new Task("123.12.1.0", "us-east-1a", "eni-0f3c5d6e7a8b9c0d1"),
+            new Task("123.12.1.1", "us-east-1a"));
+        given(awsEcsApi.listTasks(CLUSTER, CREDENTIALS)).willReturn(taskArns);
+        given(awsEcsApi.describeTasks(CLUSTER, taskArns, CREDENTIALS)).willReturn(tasks);
+        given(awsEc2Api.describeNetworkInterfacesById(singletonList("eni-0f3c5d6e7a8b9c0d1"), CREDENTIALS))
+            .willReturn(singletonMap("123.12.1.0", "1.4.6.2"));
+        given(awsEc2Api.describeNetworkInterfaces(singletonList("123.12.1.1"), CREDENTIALS))
+            .willReturn(singletonMap("123.12.1.1", "1.4.6.3"));
+
+        // when
+        Map<String, AwsNode> result = awsEcsClient.getAddresses();
+
+        // then
+        assertEquals("1.4.6.2", result.get("123.12.1.0").getPublicAddress());
+        assertEquals("1.4.6.3", result.get("123.12.1.1").getPublicAddress());
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void destroy() {
+        // given
+        List<String> taskArns = asList("task-arn-1", "task-arn-2");
+        List<Task> tasks = asList(new Task("123.12.1.0", "us-east-1a", "eni-0f3c5d6e7a8b9c0d1"),
+            new Task("123.12.1.1", "us-east-1a"));
+        given(awsEcsApi.listTasks(CLUSTER, CREDENTIALS)).willReturn(taskArns);
+        given(awsEcsApi.describeTasks(CLUSTER, taskArns, CREDENTIALS)).willReturn(tasks);
+        awsEcsClient.destroy();
+
+        // when
+        awsEcsClient.getAddresses();
+
+        // then
+        // throws exception
     }
 
     @Test
@@ -117,10 +172,76 @@ public class AwsEcsClientTest {
         given(awsEc2Api.describeNetworkInterfaces(privateIps, CREDENTIALS)).willThrow(new RuntimeException());
 
         // when
-        Map<String, String> result = awsEcsClient.getAddresses();
+        Map<String, AwsNode> result = awsEcsClient.getAddresses();
+
+        // then
+        assertEquals(singletonMap("123.12.1.0", AwsNode.builder().setPrivateAddress("123.12.1.0").build()), result);
+    }
+
+    @Test
+    public void getAddressesPublicAddressesInChunks() {
+        // given
+        int taskCount = 2 * AwsEcsClient.NETWORK_INTERFACES_CHUNK_SIZE + 1;
+        List<String> taskArns = new ArrayList<>();
+        List<String> privateIps = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            String privateIp = String.format("10.0.%d.%d", i / 256, i % 256);
+            taskArns.add("task-arn-" + i);
+            privateIps.add(privateIp);
+            tasks.add(new Task(privateIp, "us-east-1a"));
+        }
+        List<String> firstChunk = privateIps.subList(0, AwsEcsClient.NETWORK_INTERFACES_CHUNK_SIZE);
+        List<String> secondChunk = privateIps.subList(AwsEcsClient.NETWORK_INTERFACES_CHUNK_SIZE,
+            2 * AwsEcsClient.NETWORK_INTERFACES_CHUNK_SIZE);
+        List<String> thirdChunk = privateIps.subList(2 * AwsEcsClient.NETWORK_INTERFACES_CHUNK_SIZE, taskCount);
+        given(awsEcsApi.listTasks(CLUSTER, CREDENTIALS)).willReturn(taskArns);
+        given(awsEcsApi.describeTasks(CLUSTER, taskArns, CREDENTIALS)).willReturn(tasks);
+        given(awsEc2Api.describeNetworkInterfaces(firstChunk, CREDENTIALS))
+            .willReturn(singletonMap(firstChunk.get(0), "1.4.6.2"));
+        given(awsEc2Api.describeNetworkInterfaces(secondChunk, CREDENTIALS)).willThrow(new RuntimeException());
+        given(awsEc2Api.describeNetworkInterfaces(thirdChunk, CREDENTIALS))
+            .willReturn(singletonMap(thirdChunk.get(0), "1.4.6.3"));
+
+        // when
+        Map<String, AwsNode> result = awsEcsClient.getAddresses();
 
         // then
-        assertEquals(singletonMap("123.12.1.0", null), result);
+        assertEquals(taskCount, result.size());
+        assertEquals("1.4.6.2", result.get(firstChunk.get(0)).getPublicAddress());
+        assertNull(result.get(secondChunk.get(0)).getPublicAddress());
+        assertEquals("1.4.6.3", result.get(thirdChunk.get(0)).getPublicAddress());
+    }
+
+    @Test
+    public void getAddressesPageByPage() {
+        // given
+        List<String> firstPage = singletonList("task-arn-1");
+        List<String> secondPage = singletonList("task-arn-2");
+        given(awsEcsApi.listTasks(eq(CLUSTER), eq(CREDENTIALS), any(Consumer.class))).willAnswer(invocation -> {
+            Consumer<List<String>> pageConsumer = (Consumer<List<String>>) invocation.getArguments()[2];
+            pageConsumer.accept(firstPage);
+            pageConsumer.accept(secondPage);
+            return asList("task-arn-1", "task-arn-2");
+        });
+        given(awsEcsApi.describeTasks(CLUSTER, firstPage, CREDENTIALS))
+            .willReturn(singletonList(new Task("123.12.1.0", "us-east-1a")));
+        given(awsEcsApi.describeTasks(CLUSTER, secondPage, CREDENTIALS))
+            .willReturn(singletonList(new Task("123.12.1.1", "us-east-1a")));
+        given(awsEc2Api.describeNetworkInterfaces(singletonList("123.12.1.0"), CREDENTIALS))
+            .willReturn(singletonMap("123.12.1.0", "1.4.6.2"));
+        given(awsEc2Api.describeNetworkInterfaces(singletonList("123.12.1.1"), CREDENTIALS))
+            .willReturn(singletonMap("123.12.1.1", "1.4.6.3"));
+        List<Collection<AwsNode>> pages = new ArrayList<>();
+
+        // when
+        Map<String, AwsNode> result = awsEcsClient.getAddresses(pages::add);
+
+        // then
+        assertEquals(2, result.size());
+        assertEquals(2, pages.size());
+        assertEquals("1.4.6.2", pages.get(0).iterator().next().getPublicAddress());
+        assertEquals("1.4.6.3", pages.get(1).iterator().next().getPublicAddress());
     }
 
     @Test
@@ -130,12 +251,31 @@ public class AwsEcsClientTest {
         given(awsEcsApi.listTasks(CLUSTER, CREDENTIALS)).willReturn(tasks);
 
         // when
-        Map<String, String> result = awsEcsClient.getAddresses();
+        Map<String, AwsNode> result = awsEcsClient.getAddresses();
 
         // then
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    public void getDesiredClusterSizeFromService() {
+        // given
+        given(awsEcsApi.describeServiceDesiredCount(CLUSTER, "hazelcast", CREDENTIALS)).willReturn(5);
+        AwsEcsClient client = new AwsEcsClient(CLUSTER, "hazelcast", awsEcsApi, awsEc2Api, awsMetadataApi,
+            awsCredentialsProvider);
+
+        // when
+        Optional<Integer> result = client.getDesiredClusterSize();
+
+        // then
+        assertEquals(Optional.of(5), result);
+    }
+
+    @Test
+    public void getDesiredClusterSizeWithoutService() {
+        assertFalse(awsEcsClient.getDesiredClusterSize().isPresent());
+    }
+
     @Test
     public void getAvailabilityZone() {
         // given
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.After;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AwsEndpointsTest {
+    private static final ObjectName CIRCUIT_BREAKERS = objectName("com.hazelcast.aws:type=CircuitBreaker,endpoint="
+        + ObjectName.quote("https://sts.eu-west-3.amazonaws.com") + ",*");
+
+    private final AwsConfig awsConfig = AwsConfig.builder().setCircuitBreakerFailureThreshold(5)
+        .setCircuitBreakerOpenSeconds(30).build();
+    private final AwsEndpoints endpoints = new AwsEndpoints(awsConfig);
+    private final AwsEndpoints otherEndpoints = new AwsEndpoints(awsConfig);
+
+    @After
+    public void tearDown() {
+        endpoints.close();
+        otherEndpoints.close();
+    }
+
+    @Test
+    public void circuitBreakerSharedPerEndpoint() {
+        // when
+        CircuitBreaker result = endpoints.circuitBreaker("https://sts.eu-west-3.amazonaws.com/?Action=AssumeRole");
+
+        // then
+        assertSame(result, endpoints.circuitBreaker("https://sts.eu-west-3.amazonaws.com"));
+        assertNotSame(result, endpoints.circuitBreaker("https://ec2.eu-west-3.amazonaws.com"));
+    }
+
+    @Test
+    public void circuitBreakerNotSharedBetweenClientsWithEqualConfigs() {
+        // given
+        CircuitBreaker circuitBreaker = endpoints.circuitBreaker("https://sts.eu-west-3.amazonaws.com");
+
+        // when
+        CircuitBreaker result = otherEndpoints.circuitBreaker("https://sts.eu-west-3.amazonaws.com");
+
+        // then
+        assertNotSame(circuitBreaker, result);
+    }
+
+    @Test
+    public void circuitBreakerExposedOverJmxUntilClosed()
+            throws Exception {
+        // given
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        endpoints.circuitBreaker("https://sts.eu-west-3.amazonaws.com");
+        otherEndpoints.circuitBreaker("https://sts.eu-west-3.amazonaws.com");
+        assertEquals(2, mBeanServer.queryNames(CIRCUIT_BREAKERS, null).size());
+        ObjectName objectName = mBeanServer.queryNames(CIRCUIT_BREAKERS, null).iterator().next();
+        assertEquals("CLOSED", mBeanServer.getAttribute(objectName, "State"));
+
+        // when
+        endpoints.close();
+
+        // then
+        assertEquals(1, mBeanServer.queryNames(CIRCUIT_BREAKERS, null).size());
+    }
+
+    @Test
+    public void circuitBreakerNotExposedOverJmxAfterClosed() {
+        // given
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        endpoints.close();
+
+        // when
+        CircuitBreaker result = endpoints.circuitBreaker("https://sts.eu-west-3.amazonaws.com");
+
+        // then
+        assertNotNull(result);
+        assertTrue(mBeanServer.queryNames(CIRCUIT_BREAKERS, null).isEmpty());
+    }
+
+    @Test
+    public void circuitBreakerDisabled() {
+        // given
+        AwsEndpoints disabled = new AwsEndpoints(AwsConfig.builder().setCircuitBreakerFailureThreshold(0).build());
+
+        // when
+        CircuitBreaker result = disabled.circuitBreaker("https://ec2.eu-west-3.amazonaws.com");
+
+        // then
+        assertNull(result);
+    }
+
+    @Test
+    public void latencyHistogramSharedByHedgerAndAdaptiveTimeout() {
+        // given
+        AwsConfig config = AwsConfig.builder().setHedgePercentile(90).setHedgeBudgetPercent(10).setAdaptiveTimeoutMultiplier(2)
+            .setAdaptiveTimeoutMinMillis(1).build();
+        AwsEndpoints hedgedEndpoints = new AwsEndpoints(config);
+        LatencyHistogram latencyHistogram = hedgedEndpoints.latencyHistogram("https://ec2.eu-west-3.amazonaws.com");
+        for (int i = 0; i < LatencyHistogram.MIN_SAMPLES; i++) {
+            latencyHistogram.record(100);
+        }
+
+        // when
+        long hedgeDelayMillis = hedgedEndpoints.requestHedger("https://ec2.eu-west-3.amazonaws.com/?Action=x")
+            .hedgeDelayMillis();
+        int timeoutMillis = hedgedEndpoints.adaptiveTimeout("https://ec2.eu-west-3.amazonaws.com").timeoutMillis(0);
+
+        // then
+        assertEquals(100, hedgeDelayMillis);
+        assertEquals(200, timeoutMillis);
+        assertEquals(-1, endpoints.latencyHistogram("https://ec2.eu-west-3.amazonaws.com").percentile(90));
+    }
+
+    @Test
+    public void requestHedgerAndAdaptiveTimeoutDisabled() {
+        // given
+        AwsEndpoints disabled = new AwsEndpoints(AwsConfig.builder().build());
+
+        // when
+        RequestHedger requestHedger = disabled.requestHedger("https://ec2.eu-west-3.amazonaws.com");
+        AdaptiveTimeout adaptiveTimeout = disabled.adaptiveTimeout("http://169.254.169.254/latest/meta-data");
+
+        // then
+        assertNull(requestHedger);
+        assertNull(adaptiveTimeout);
+    }
+
+    private static ObjectName objectName(String name) {
+        try {
+            return new ObjectName(name);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
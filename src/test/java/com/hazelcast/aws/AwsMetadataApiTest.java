@@ -24,16 +24,21 @@ import org.junit.Test;
 import java.util.Optional;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.exactly;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.moreThan;
+import static com.github.tomakehurst.wiremock.client.WireMock.put;
+import static com.github.tomakehurst.wiremock.client.WireMock.putRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
 import static com.github.tomakehurst.wiremock.client.WireMock.verify;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
@@ -41,6 +46,10 @@ public class AwsMetadataApiTest {
 
     private final String GROUP_NAME_URL = "/placement/group-name/";
     private final String PARTITION_NO_URL = "/placement/partition-number/";
+    private final String TOKEN_URL = "/api/token";
+    private final String SPOT_INSTANCE_ACTION_URL = "/spot/instance-action";
+    private final String TARGET_LIFECYCLE_STATE_URL = "/autoscaling/target-lifecycle-state";
+    private final String TOKEN = "AQAEAGB2ErzdA-dR_6T0vWGjXvyLN9RvmD5qVJdE8oCkN0HILzZUZA==";
     private final int RETRY_COUNT = 3;
 
     private AwsMetadataApi awsMetadataApi;
@@ -52,7 +61,7 @@ public class AwsMetadataApiTest {
     public void setUp() {
         AwsConfig awsConfig = AwsConfig.builder().setConnectionRetries(RETRY_COUNT).build();
         String endpoint = String.format("http://localhost:%s", wireMockRule.port());
-        awsMetadataApi = new AwsMetadataApi(endpoint, endpoint, endpoint, awsConfig);
+        awsMetadataApi = new AwsMetadataApi(endpoint, endpoint, endpoint, awsConfig, new AwsEndpoints(awsConfig));
     }
 
     @Test
@@ -132,6 +141,83 @@ public class AwsMetadataApiTest {
         verify(moreThan(RETRY_COUNT), getRequestedFor(urlEqualTo(GROUP_NAME_URL)));
     }
 
+    @Test
+    public void spotInstanceActionEc2() {
+        // given
+        //language=JSON
+        String instanceAction = "{\"action\": \"terminate\", \"time\": \"2020-04-03T10:27:18Z\"}";
+        stubFor(put(urlEqualTo(TOKEN_URL))
+            .withHeader("X-aws-ec2-metadata-token-ttl-seconds", equalTo("21600"))
+            .willReturn(aResponse().withStatus(200).withBody(TOKEN)));
+        stubFor(get(urlEqualTo(SPOT_INSTANCE_ACTION_URL))
+            .withHeader("X-aws-ec2-metadata-token", equalTo(TOKEN))
+            .willReturn(aResponse().withStatus(200).withBody(instanceAction)));
+
+        // when
+        Optional<String> result = awsMetadataApi.spotInstanceActionEc2();
+
+        // then
+        assertEquals(instanceAction, result.orElse("N/A"));
+    }
+
+    @Test
+    public void targetLifecycleStateEc2ReusesToken() {
+        // given
+        stubFor(put(urlEqualTo(TOKEN_URL))
+            .willReturn(aResponse().withStatus(200).withBody(TOKEN)));
+        stubFor(get(urlEqualTo(TARGET_LIFECYCLE_STATE_URL))
+            .withHeader("X-aws-ec2-metadata-token", equalTo(TOKEN))
+            .willReturn(aResponse().withStatus(200).withBody("InService")));
+        stubFor(get(urlEqualTo(SPOT_INSTANCE_ACTION_URL))
+            .withHeader("X-aws-ec2-metadata-token", equalTo(TOKEN))
+            .willReturn(aResponse().withStatus(404)));
+
+        // when
+        Optional<String> lifecycleState = awsMetadataApi.targetLifecycleStateEc2();
+        Optional<String> instanceAction = awsMetadataApi.spotInstanceActionEc2();
+
+        // then
+        assertEquals("InService", lifecycleState.orElse("N/A"));
+        assertFalse(instanceAction.isPresent());
+        verify(exactly(1), putRequestedFor(urlEqualTo(TOKEN_URL)));
+    }
+
+    @Test
+    public void spotInstanceActionEc2WithoutToken() {
+        // given
+        AwsMetadataApi awsMetadataApi = withoutRetries();
+        stubFor(put(urlEqualTo(TOKEN_URL))
+            .willReturn(aResponse().withStatus(403)));
+        stubFor(get(urlEqualTo(SPOT_INSTANCE_ACTION_URL))
+            .withHeader("X-aws-ec2-metadata-token", absent())
+            .willReturn(aResponse().withStatus(404)));
+
+        // when
+        Optional<String> result = awsMetadataApi.spotInstanceActionEc2();
+
+        // then
+        assertFalse(result.isPresent());
+        verify(exactly(1), getRequestedFor(urlEqualTo(SPOT_INSTANCE_ACTION_URL)));
+    }
+
+    @Test
+    public void failToFetchSpotInstanceActionEc2() {
+        // given
+        AwsMetadataApi awsMetadataApi = withoutRetries();
+        stubFor(put(urlEqualTo(TOKEN_URL))
+            .willReturn(aResponse().withStatus(200).withBody(TOKEN)));
+        stubFor(get(urlEqualTo(SPOT_INSTANCE_ACTION_URL))
+            .willReturn(aResponse().withStatus(401)));
+
+        // when
+        assertThrows(RestClientException.class, () -> awsMetadataApi.spotInstanceActionEc2());
+        assertThrows(RestClientException.class, () -> awsMetadataApi.spotInstanceActionEc2());
+
+        // then
+        // the token is requested again after a failure
+        verify(exactly(2), putRequestedFor(urlEqualTo(TOKEN_URL)));
+    }
+
     @Test
     public void defaultIamRoleEc2() {
         // given
@@ -239,4 +325,10 @@ public class AwsMetadataApiTest {
         assertTrue(exception.getMessage().contains(errorMessage));
         verify(moreThan(RETRY_COUNT), getRequestedFor(urlMatching("/.*")));
     }
+
+    private AwsMetadataApi withoutRetries() {
+        AwsConfig awsConfig = AwsConfig.builder().setConnectionRetries(0).build();
+        String endpoint = String.format("http://localhost:%s", wireMockRule.port());
+        return new AwsMetadataApi(endpoint, endpoint, endpoint, awsConfig, new AwsEndpoints(awsConfig));
+    }
 }
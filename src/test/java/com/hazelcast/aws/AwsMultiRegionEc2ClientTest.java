@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AwsMultiRegionEc2ClientTest {
+    private static final long REGION_TIMEOUT_MILLIS = 500;
+
+    private static final AwsCredentials CREDENTIALS = AwsCredentials.builder()
+        .setAccessKey("access-key")
+        .setSecretKey("secret-key")
+        .build();
+
+    @Mock
+    private AwsEc2Api usEast1Api;
+
+    @Mock
+    private AwsEc2Api euWest1Api;
+
+    @Mock
+    private AwsMetadataApi awsMetadataApi;
+
+    @Mock
+    private AwsCredentialsProvider awsCredentialsProvider;
+
+    private AwsMultiRegionEc2Client awsClient;
+
+    @Before
+    public void setUp() {
+        Map<String, AwsEc2Api> ec2Apis = new LinkedHashMap<>();
+        ec2Apis.put("us-east-1", usEast1Api);
+        ec2Apis.put("eu-west-1", euWest1Api);
+        awsClient = new AwsMultiRegionEc2Client(ec2Apis, awsMetadataApi, awsCredentialsProvider, REGION_TIMEOUT_MILLIS);
+        given(awsCredentialsProvider.credentials()).willReturn(CREDENTIALS);
+    }
+
+    @Test
+    public void getAddressesMergesAllRegions() {
+        // given
+        given(usEast1Api.describeInstances(CREDENTIALS)).willReturn(nodes("10.0.0.1", "54.0.0.1"));
+        given(euWest1Api.describeInstances(CREDENTIALS)).willReturn(nodes("10.1.0.1", null));
+
+        // when
+        Map<String, AwsNode> result = awsClient.getAddresses();
+
+        // then
+        Map<String, AwsNode> expected = new LinkedHashMap<>();
+        expected.putAll(nodes("10.0.0.1", "54.0.0.1"));
+        expected.putAll(nodes("10.1.0.1", null));
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void getAddressesSkipsFailingRegion() {
+        // given
+        given(usEast1Api.describeInstances(CREDENTIALS)).willThrow(new RestClientException("Unreachable", 500));
+        given(euWest1Api.describeInstances(CREDENTIALS)).willReturn(nodes("10.1.0.1", "54.1.0.1"));
+
+        // when
+        Map<String, AwsNode> result = awsClient.getAddresses();
+
+        // then
+        assertEquals(nodes("10.1.0.1", "54.1.0.1"), result);
+    }
+
+    @Test
+    public void getAddressesSkipsSlowRegion() {
+        // given
+        given(usEast1Api.describeInstances(CREDENTIALS)).willAnswer(invocation -> {
+            Thread.sleep(10 * REGION_TIMEOUT_MILLIS);
+            return nodes("10.0.0.1", "54.0.0.1");
+        });
+        given(euWest1Api.describeInstances(CREDENTIALS)).willReturn(nodes("10.1.0.1", "54.1.0.1"));
+
+        // when
+        long start = System.currentTimeMillis();
+        Map<String, AwsNode> result = awsClient.getAddresses();
+        long elapsed = System.currentTimeMillis() - start;
+
+        // then
+        assertEquals(nodes("10.1.0.1", "54.1.0.1"), result);
+        assertTrue("Discovery took " + elapsed + " ms", elapsed < 5 * REGION_TIMEOUT_MILLIS);
+    }
+
+    @Test(expected = RestClientException.class)
+    public void getAddressesAllRegionsFailing() {
+        // given
+        given(usEast1Api.describeInstances(CREDENTIALS)).willThrow(new RestClientException("Forbidden", 403));
+        given(euWest1Api.describeInstances(CREDENTIALS)).willThrow(new RestClientException("Forbidden", 403));
+
+        // when
+        awsClient.getAddresses();
+
+        // then
+        // throws exception
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void destroy() {
+        // given
+        awsClient.destroy();
+
+        // when
+        awsClient.getAddresses();
+
+        // then
+        // throws exception
+    }
+
+    @Test
+    public void getAvailabilityZone() {
+        // given
+        given(awsMetadataApi.availabilityZoneEc2()).willReturn("us-east-1a");
+
+        // when
+        String result = awsClient.getAvailabilityZone();
+
+        // then
+        assertEquals("us-east-1a", result);
+    }
+
+    private static Map<String, AwsNode> nodes(String privateAddress, String publicAddress) {
+        return singletonMap(privateAddress,
+            AwsNode.builder().setPrivateAddress(privateAddress).setPublicAddress(publicAddress).build());
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class AwsProfileFileTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void parse() {
+        // given
+        List<String> lines = asList(
+            "# comment",
+            "[default]",
+            "region = us-east-1",
+            "; another comment",
+            "",
+            "[profile hazelcast]",
+            "region=eu-west-1",
+            "output = json",
+            "[ other ]",
+            "aws_access_key_id = access-key");
+
+        // when
+        Map<String, Map<String, String>> result = AwsProfileFile.parse(lines);
+
+        // then
+        assertEquals(3, result.size());
+        assertEquals("us-east-1", result.get("default").get("region"));
+        assertEquals("eu-west-1", result.get("hazelcast").get("region"));
+        assertEquals("json", result.get("hazelcast").get("output"));
+        assertEquals("access-key", result.get("other").get("aws_access_key_id"));
+    }
+
+    @Test
+    public void reloadModifiedFile()
+            throws IOException {
+        // given
+        File file = temporaryFolder.newFile("credentials");
+        write(file, "access-key-1", 1000);
+        AwsProfileFile profileFile = new AwsProfileFile(file.toPath());
+        String before = profileFile.getProfile("default").get("aws_access_key_id");
+
+        // when
+        write(file, "access-key-2", 2000);
+        String after = profileFile.getProfile("default").get("aws_access_key_id");
+
+        // then
+        assertEquals("access-key-1", before);
+        assertEquals("access-key-2", after);
+    }
+
+    @Test
+    public void unmodifiedFileIsNotParsedAgain()
+            throws IOException {
+        // given
+        File file = temporaryFolder.newFile("credentials");
+        write(file, "access-key-1", 1000);
+        AwsProfileFile profileFile = new AwsProfileFile(file.toPath());
+        profileFile.getProfile("default");
+
+        // when
+        write(file, "access-key-2", 1000);
+        String result = profileFile.getProfile("default").get("aws_access_key_id");
+
+        // then
+        assertEquals("access-key-1", result);
+    }
+
+    @Test
+    public void missingFile() {
+        // given
+        AwsProfileFile profileFile = new AwsProfileFile(temporaryFolder.getRoot().toPath().resolve("missing"));
+
+        // when
+        Map<String, String> result = profileFile.getProfile("default");
+
+        // then
+        assertEquals(emptyMap(), result);
+    }
+
+    @Test
+    public void profileName() {
+        // given
+        Environment environment = mock(Environment.class);
+        given(environment.getAwsProfile()).willReturn("environment-profile");
+
+        // when & then
+        assertEquals("configured-profile",
+            AwsProfileFile.profileName(AwsConfig.builder().setProfile("configured-profile").build(), environment));
+        assertEquals("environment-profile", AwsProfileFile.profileName(AwsConfig.builder().build(), environment));
+        assertEquals("default", AwsProfileFile.profileName(AwsConfig.builder().build(), mock(Environment.class)));
+    }
+
+    private static void write(File file, String accessKey, long lastModified)
+            throws IOException {
+        Files.write(file.toPath(), asList("[default]", "aws_access_key_id = " + accessKey), UTF_8);
+        file.setLastModified(lastModified);
+    }
+}
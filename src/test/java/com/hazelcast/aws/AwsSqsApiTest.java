@@ -0,0 +1,179 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AwsSqsApiTest {
+    private static final String AUTHORIZATION_HEADER = "authorization-header";
+    private static final String TOKEN = "IQoJb3JpZ2luX2VjEFIaDGV1LWNlbnRyYWwtMSJGM==";
+    private static final AwsCredentials CREDENTIALS = AwsCredentials.builder()
+        .setAccessKey("AKIDEXAMPLE")
+        .setSecretKey("wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY")
+        .setToken(TOKEN)
+        .build();
+    private static final String QUEUE_URL = "https://sqs.eu-central-1.amazonaws.com/665466731577/hazelcast-events";
+    private static final String ENCODED_QUEUE_URL =
+        "https%3A%2F%2Fsqs.eu-central-1.amazonaws.com%2F665466731577%2Fhazelcast-events";
+
+    @Mock
+    private AwsRequestSigner requestSigner;
+
+    private AwsSqsApi awsSqsApi;
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+    @Before
+    public void setUp() {
+        given(requestSigner.authHeader(any(), any(), any(), any(), any(), any())).willReturn(AUTHORIZATION_HEADER);
+        String endpoint = String.format("http://localhost:%s", wireMockRule.port());
+        Clock clock = Clock.fixed(Instant.ofEpochMilli(1585909518929L), ZoneId.systemDefault());
+        AwsConfig awsConfig = AwsConfig.builder().setEventQueueUrl(QUEUE_URL).setRefreshPeriodSeconds(300).build();
+        awsSqsApi = new AwsSqsApi(endpoint, awsConfig, requestSigner, clock);
+    }
+
+    @Test
+    public void receiveMessages() {
+        // given
+        String requestUrl = "/?Action=ReceiveMessage"
+            + "&MaxNumberOfMessages=10"
+            + "&QueueUrl=" + ENCODED_QUEUE_URL
+            + "&Version=2012-11-05"
+            + "&WaitTimeSeconds=20";
+
+        //language=XML
+        String response = "<ReceiveMessageResponse xmlns=\"http://queue.amazonaws.com/doc/2012-11-05/\">\n"
+            + "  <ReceiveMessageResult>\n"
+            + "    <Message>\n"
+            + "      <MessageId>5fea7756-0ea4-451a-a703-a558b933e274</MessageId>\n"
+            + "      <ReceiptHandle>receipt-handle-1</ReceiptHandle>\n"
+            + "      <MD5OfBody>fafb00f5732ab283681e124bf8747ed1</MD5OfBody>\n"
+            + "      <Body>{&quot;detail-type&quot;: &quot;EC2 Instance State-change Notification&quot;}</Body>\n"
+            + "    </Message>\n"
+            + "    <Message>\n"
+            + "      <MessageId>7d3e1e5a-2c1f-4b4e-8f5c-3e2a1b0c9d8e</MessageId>\n"
+            + "      <ReceiptHandle>receipt-handle-2</ReceiptHandle>\n"
+            + "      <MD5OfBody>b1946ac92492d2347c6235b4d2611184</MD5OfBody>\n"
+            + "      <Body>hello</Body>\n"
+            + "    </Message>\n"
+            + "  </ReceiveMessageResult>\n"
+            + "  <ResponseMetadata>\n"
+            + "    <RequestId>b6633655-283d-45b4-aee4-4e84e0ae6afa</RequestId>\n"
+            + "  </ResponseMetadata>\n"
+            + "</ReceiveMessageResponse>";
+
+        stubFor(get(urlEqualTo(requestUrl))
+            .withHeader("X-Amz-Date", equalTo("20200403T102518Z"))
+            .withHeader("Authorization", equalTo(AUTHORIZATION_HEADER))
+            .withHeader("X-Amz-Security-Token", equalTo(TOKEN))
+            .willReturn(aResponse().withStatus(200).withBody(response)));
+
+        // when
+        List<AwsSqsApi.Message> result = awsSqsApi.receiveMessages(CREDENTIALS);
+
+        // then
+        assertEquals(2, result.size());
+        assertEquals("receipt-handle-1", result.get(0).getReceiptHandle());
+        assertEquals("{\"detail-type\": \"EC2 Instance State-change Notification\"}", result.get(0).getBody());
+        assertEquals("receipt-handle-2", result.get(1).getReceiptHandle());
+        assertEquals("hello", result.get(1).getBody());
+    }
+
+    @Test
+    public void receiveNoMessages() {
+        // given
+        //language=XML
+        String response = "<ReceiveMessageResponse xmlns=\"http://queue.amazonaws.com/doc/2012-11-05/\">\n"
+            + "  <ReceiveMessageResult/>\n"
+            + "</ReceiveMessageResponse>";
+        stubFor(get(urlMatching("/.*"))
+            .willReturn(aResponse().withStatus(200).withBody(response)));
+
+        // when
+        List<AwsSqsApi.Message> result = awsSqsApi.receiveMessages(CREDENTIALS);
+
+        // then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void deleteMessages() {
+        // given
+        String requestUrl = "/?Action=DeleteMessageBatch"
+            + "&DeleteMessageBatchRequestEntry.1.Id=1"
+            + "&DeleteMessageBatchRequestEntry.1.ReceiptHandle=receipt-handle-1"
+            + "&DeleteMessageBatchRequestEntry.2.Id=2"
+            + "&DeleteMessageBatchRequestEntry.2.ReceiptHandle=receipt-handle-2"
+            + "&QueueUrl=" + ENCODED_QUEUE_URL
+            + "&Version=2012-11-05";
+        stubFor(get(urlEqualTo(requestUrl))
+            .withHeader("Authorization", equalTo(AUTHORIZATION_HEADER))
+            .willReturn(aResponse().withStatus(200).withBody("<DeleteMessageBatchResponse/>")));
+
+        // when
+        awsSqsApi.deleteMessages(asList(
+            new AwsSqsApi.Message("receipt-handle-1", "body-1"),
+            new AwsSqsApi.Message("receipt-handle-2", "body-2")), CREDENTIALS);
+
+        // then
+        verify(1, getRequestedFor(urlEqualTo(requestUrl)));
+    }
+
+    @Test
+    public void awsError() {
+        // given
+        int errorCode = 403;
+        String errorMessage = "Access to the resource is denied.";
+        stubFor(get(urlMatching("/.*"))
+            .willReturn(aResponse().withStatus(errorCode).withBody(errorMessage)));
+
+        // when
+        Exception exception = assertThrows(Exception.class, () -> awsSqsApi.receiveMessages(CREDENTIALS));
+
+        // then
+        assertTrue(exception.getMessage().contains(Integer.toString(errorCode)));
+        assertTrue(exception.getMessage().contains(errorMessage));
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.aws.AwsStateChangeTest.ec2Event;
+import static com.hazelcast.aws.AwsStateChangeTest.ecsEvent;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AwsStateChangeQueueTest {
+    private static final AwsCredentials CREDENTIALS = AwsCredentials.builder()
+        .setAccessKey("AKIDEXAMPLE")
+        .setSecretKey("wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY")
+        .build();
+
+    @Mock
+    private AwsSqsApi awsSqsApi;
+
+    @Mock
+    private AwsCredentialsProvider awsCredentialsProvider;
+
+    private final List<List<String>> describedInstanceIds = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        given(awsCredentialsProvider.credentials()).willReturn(CREDENTIALS);
+    }
+
+    @Test
+    public void receiveEc2StateChanges() {
+        // given
+        AwsStateChangeQueue queue = new AwsStateChangeQueue(awsSqsApi, awsCredentialsProvider, this::describe);
+        given(awsSqsApi.receiveMessages(CREDENTIALS)).willReturn(asList(
+            message(ec2Event("i-0a1b2c3d4e5f60001", "running")),
+            message(ec2Event("i-0a1b2c3d4e5f60002", "terminated")),
+            message(ecsEvent("10.0.1.16", "RUNNING", "RUNNING"))));
+        Map<String, AwsNode> addresses = new HashMap<>();
+        addresses.put("10.0.1.2", ec2Node("10.0.1.2", "i-0a1b2c3d4e5f60002"));
+        addresses.put("10.0.1.3", ec2Node("10.0.1.3", "i-0a1b2c3d4e5f60003"));
+
+        // when
+        AwsStateChangeQueue.Batch batch = queue.receive();
+        Map<String, AwsNode> result = batch.applyTo(addresses);
+
+        // then
+        assertTrue(batch.hasChanges());
+        assertEquals(singletonList(singletonList("i-0a1b2c3d4e5f60001")), describedInstanceIds);
+        assertEquals(2, result.size());
+        assertEquals(ec2Node("10.0.1.1", "i-0a1b2c3d4e5f60001"), result.get("10.0.1.1"));
+        assertEquals(ec2Node("10.0.1.3", "i-0a1b2c3d4e5f60003"), result.get("10.0.1.3"));
+    }
+
+    @Test
+    public void receiveEc2InstanceStoppedAfterStarted() {
+        // given
+        AwsStateChangeQueue queue = new AwsStateChangeQueue(awsSqsApi, awsCredentialsProvider, this::describe);
+        given(awsSqsApi.receiveMessages(CREDENTIALS)).willReturn(asList(
+            message(ec2Event("i-0a1b2c3d4e5f60001", "running")),
+            message(ec2Event("i-0a1b2c3d4e5f60001", "stopping"))));
+
+        // when
+        AwsStateChangeQueue.Batch batch = queue.receive();
+
+        // then
+        assertTrue(describedInstanceIds.isEmpty());
+        assertTrue(batch.applyTo(singletonMap("10.0.1.1", ec2Node("10.0.1.1", "i-0a1b2c3d4e5f60001"))).isEmpty());
+    }
+
+    @Test
+    public void receiveEcsStateChanges() {
+        // given
+        AwsStateChangeQueue queue = new AwsStateChangeQueue(awsSqsApi, awsCredentialsProvider, "hazelcast",
+            "hazelcast", null);
+        given(awsSqsApi.receiveMessages(CREDENTIALS)).willReturn(asList(
+            message(ecsEvent("10.0.1.16", "RUNNING", "RUNNING")),
+            message(ecsEvent("10.0.1.17", "STOPPING", "STOPPED")),
+            message(ecsEvent("10.0.1.18", "RUNNING", "RUNNING").replace("family:hazelcast", "family:other")),
+            message(ecsEvent("10.0.1.19", "RUNNING", "RUNNING").replace("cluster/hazelcast", "cluster/other")),
+            message(ec2Event("i-0a1b2c3d4e5f60001", "running"))));
+        AwsNode known = AwsNode.builder().setPrivateAddress("10.0.1.17").setPublicAddress("54.12.1.17").build();
+
+        // when
+        AwsStateChangeQueue.Batch batch = queue.receive();
+        Map<String, AwsNode> result = batch.applyTo(singletonMap("10.0.1.17", known));
+
+        // then
+        assertEquals(1, result.size());
+        AwsNode started = result.get("10.0.1.16");
+        assertEquals("10.0.1.16", started.getPrivateAddress());
+        assertEquals("eu-central-1a", started.getAvailabilityZone());
+    }
+
+    @Test
+    public void receiveIrrelevantMessages() {
+        // given
+        AwsStateChangeQueue queue = new AwsStateChangeQueue(awsSqsApi, awsCredentialsProvider, this::describe);
+        given(awsSqsApi.receiveMessages(CREDENTIALS)).willReturn(asList(
+            message("not a JSON"),
+            message(ec2Event("i-0a1b2c3d4e5f60001", "pending"))));
+        Map<String, AwsNode> addresses = singletonMap("10.0.1.3", ec2Node("10.0.1.3", "i-0a1b2c3d4e5f60003"));
+
+        // when
+        AwsStateChangeQueue.Batch batch = queue.receive();
+
+        // then
+        assertFalse(batch.hasChanges());
+        assertEquals(addresses, batch.applyTo(addresses));
+        assertTrue(describedInstanceIds.isEmpty());
+    }
+
+    @Test
+    public void acknowledge() {
+        // given
+        AwsStateChangeQueue queue = new AwsStateChangeQueue(awsSqsApi, awsCredentialsProvider, this::describe);
+        List<AwsSqsApi.Message> messages = singletonList(message(ec2Event("i-0a1b2c3d4e5f60002", "terminated")));
+        given(awsSqsApi.receiveMessages(CREDENTIALS)).willReturn(messages);
+
+        // when
+        queue.acknowledge(queue.receive());
+
+        // then
+        verify(awsSqsApi).deleteMessages(messages, CREDENTIALS);
+    }
+
+    @Test
+    public void acknowledgeEmpty() {
+        // given
+        AwsStateChangeQueue queue = new AwsStateChangeQueue(awsSqsApi, awsCredentialsProvider, this::describe);
+        given(awsSqsApi.receiveMessages(CREDENTIALS)).willReturn(new ArrayList<>());
+        AwsStateChangeQueue.Batch batch = queue.receive();
+
+        // when
+        queue.acknowledge(batch);
+
+        // then
+        verify(awsSqsApi).receiveMessages(CREDENTIALS);
+        verifyNoMoreInteractions(awsSqsApi);
+    }
+
+    private Map<String, AwsNode> describe(List<String> instanceIds) {
+        describedInstanceIds.add(instanceIds);
+        Map<String, AwsNode> result = new HashMap<>();
+        for (String instanceId : instanceIds) {
+            String address = "10.0.1." + Integer.parseInt(instanceId.substring(instanceId.length() - 1));
+            result.put(address, ec2Node(address, instanceId));
+        }
+        return result;
+    }
+
+    private static AwsSqsApi.Message message(String body) {
+        return new AwsSqsApi.Message("receipt-handle", body);
+    }
+
+    private static AwsNode ec2Node(String privateAddress, String instanceId) {
+        return AwsNode.builder().setPrivateAddress(privateAddress).setInstanceId(instanceId).build();
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.internal.json.Json;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AwsStateChangeTest {
+
+    @Test
+    public void parseEc2Running() {
+        // when
+        Optional<AwsStateChange> result = AwsStateChange.parse(ec2Event("i-0a1b2c3d4e5f60001", "running"));
+
+        // then
+        assertTrue(result.isPresent());
+        assertTrue(result.get().isRunning());
+        assertEquals("i-0a1b2c3d4e5f60001", result.get().getInstanceId());
+        assertNull(result.get().getTask());
+    }
+
+    @Test
+    public void parseEc2Terminated() {
+        // when
+        Optional<AwsStateChange> result = AwsStateChange.parse(ec2Event("i-0a1b2c3d4e5f60001", "shutting-down"));
+
+        // then
+        assertTrue(result.isPresent());
+        assertFalse(result.get().isRunning());
+        assertEquals("i-0a1b2c3d4e5f60001", result.get().getInstanceId());
+    }
+
+    @Test
+    public void ignoreEc2Pending() {
+        // when
+        Optional<AwsStateChange> result = AwsStateChange.parse(ec2Event("i-0a1b2c3d4e5f60001", "pending"));
+
+        // then
+        assertFalse(result.isPresent());
+    }
+
+    @Test
+    public void parseEcsRunning() {
+        // when
+        Optional<AwsStateChange> result = AwsStateChange.parse(ecsEvent("10.0.1.16", "RUNNING", "RUNNING"));
+
+        // then
+        assertTrue(result.isPresent());
+        assertTrue(result.get().isRunning());
+        assertNull(result.get().getInstanceId());
+        assertEquals("10.0.1.16", result.get().getTask().getPrivateAddress());
+        assertEquals("eu-central-1a", result.get().getTask().getAvailabilityZone());
+        assertEquals("arn:aws:ecs:eu-central-1:665466731577:cluster/hazelcast", result.get().getClusterArn());
+        assertEquals("family:hazelcast", result.get().getGroup());
+    }
+
+    @Test
+    public void parseEcsStopping() {
+        // when
+        Optional<AwsStateChange> result = AwsStateChange.parse(ecsEvent("10.0.1.16", "RUNNING", "STOPPED"));
+
+        // then
+        assertTrue(result.isPresent());
+        assertFalse(result.get().isRunning());
+        assertEquals("10.0.1.16", result.get().getTask().getPrivateAddress());
+    }
+
+    @Test
+    public void ignoreEcsProvisioning() {
+        // when
+        Optional<AwsStateChange> result = AwsStateChange.parse(ecsEvent("10.0.1.16", "PROVISIONING", "RUNNING"));
+
+        // then
+        assertFalse(result.isPresent());
+    }
+
+    @Test
+    public void parseEc2RunningFromSnsNotification() {
+        // given
+        String notification = Json.object()
+            .add("Type", "Notification")
+            .add("TopicArn", "arn:aws:sns:eu-central-1:665466731577:hazelcast-events")
+            .add("Message", ec2Event("i-0a1b2c3d4e5f60001", "running"))
+            .toString();
+
+        // when
+        Optional<AwsStateChange> result = AwsStateChange.parse(notification);
+
+        // then
+        assertTrue(result.isPresent());
+        assertTrue(result.get().isRunning());
+        assertEquals("i-0a1b2c3d4e5f60001", result.get().getInstanceId());
+    }
+
+    @Test
+    public void ignoreOtherEvents() {
+        assertFalse(AwsStateChange.parse("{\"detail-type\": \"Scheduled Event\", \"detail\": {}}").isPresent());
+        assertFalse(AwsStateChange.parse("{\"Type\": \"Notification\"}").isPresent());
+        assertFalse(AwsStateChange.parse("not a JSON").isPresent());
+    }
+
+    static String ec2Event(String instanceId, String state) {
+        return "{\n"
+            + "  \"version\": \"0\",\n"
+            + "  \"detail-type\": \"EC2 Instance State-change Notification\",\n"
+            + "  \"source\": \"aws.ec2\",\n"
+            + "  \"region\": \"eu-central-1\",\n"
+            + "  \"detail\": {\n"
+            + "    \"instance-id\": \"" + instanceId + "\",\n"
+            + "    \"state\": \"" + state + "\"\n"
+            + "  }\n"
+            + "}";
+    }
+
+    static String ecsEvent(String privateAddress, String lastStatus, String desiredStatus) {
+        return "{\n"
+            + "  \"version\": \"0\",\n"
+            + "  \"detail-type\": \"ECS Task State Change\",\n"
+            + "  \"source\": \"aws.ecs\",\n"
+            + "  \"region\": \"eu-central-1\",\n"
+            + "  \"detail\": {\n"
+            + "    \"clusterArn\": \"arn:aws:ecs:eu-central-1:665466731577:cluster/hazelcast\",\n"
+            + "    \"taskArn\": \"arn:aws:ecs:eu-central-1:665466731577:task/hazelcast/0b69d5c0d6554695\",\n"
+            + "    \"group\": \"family:hazelcast\",\n"
+            + "    \"availabilityZone\": \"eu-central-1a\",\n"
+            + "    \"lastStatus\": \"" + lastStatus + "\",\n"
+            + "    \"desiredStatus\": \"" + desiredStatus + "\",\n"
+            + "    \"containers\": [\n"
+            + "      {\n"
+            + "        \"name\": \"hazelcast\",\n"
+            + "        \"networkInterfaces\": [\n"
+            + "          {\n"
+            + "            \"privateIpv4Address\": \"" + privateAddress + "\"\n"
+            + "          }\n"
+            + "        ]\n"
+            + "      }\n"
+            + "    ]\n"
+            + "  }\n"
+            + "}";
+    }
+}
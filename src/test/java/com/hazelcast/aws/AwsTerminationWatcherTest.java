@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.hazelcast.test.HazelcastTestSupport.assertTrueEventually;
+import static com.hazelcast.test.HazelcastTestSupport.sleepMillis;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AwsTerminationWatcherTest {
+
+    @Mock
+    private AwsMetadataApi awsMetadataApi;
+
+    private final List<AwsTerminationNotice> notices = new CopyOnWriteArrayList<>();
+
+    private AwsTerminationWatcher watcher;
+
+    @Before
+    public void setUp() {
+        watcher = new AwsTerminationWatcher(awsMetadataApi, 100, notices::add);
+    }
+
+    @Test
+    public void spotInterruption() {
+        // given
+        given(awsMetadataApi.spotInstanceActionEc2())
+            .willReturn(Optional.of("{\"action\": \"terminate\", \"time\": \"2020-04-03T10:27:18Z\"}"));
+
+        // when
+        watcher.check();
+
+        // then
+        AwsTerminationNotice expected = new AwsTerminationNotice(AwsTerminationNotice.Reason.SPOT_INTERRUPTION,
+            "terminate", Instant.parse("2020-04-03T10:27:18Z"));
+        assertEquals(singletonList(expected), notices);
+    }
+
+    @Test
+    public void autoScalingTermination() {
+        // given
+        given(awsMetadataApi.spotInstanceActionEc2()).willReturn(Optional.empty());
+        given(awsMetadataApi.targetLifecycleStateEc2()).willReturn(Optional.of("Terminated"));
+
+        // when
+        watcher.check();
+
+        // then
+        AwsTerminationNotice expected = new AwsTerminationNotice(
+            AwsTerminationNotice.Reason.AUTO_SCALING_TERMINATION, "Terminated", null);
+        assertEquals(singletonList(expected), notices);
+    }
+
+    @Test
+    public void noTermination() {
+        // given
+        given(awsMetadataApi.spotInstanceActionEc2()).willReturn(Optional.empty());
+        given(awsMetadataApi.targetLifecycleStateEc2()).willReturn(Optional.of("InService"));
+
+        // when
+        watcher.check();
+
+        // then
+        assertTrue(notices.isEmpty());
+    }
+
+    @Test
+    public void metadataFailure() {
+        // given
+        given(awsMetadataApi.spotInstanceActionEc2()).willThrow(new RestClientException("Failure", 500));
+
+        // when
+        watcher.check();
+        watcher.check();
+
+        // then
+        assertTrue(notices.isEmpty());
+    }
+
+    @Test
+    public void notifiesOnce() {
+        // given
+        given(awsMetadataApi.spotInstanceActionEc2()).willReturn(Optional.empty());
+        given(awsMetadataApi.targetLifecycleStateEc2())
+            .willReturn(Optional.of("InService"), Optional.of("Terminated"));
+
+        // when
+        watcher.start();
+
+        // then
+        assertTrueEventually(() -> assertEquals(1, notices.size()));
+        sleepMillis(300);
+        assertEquals(1, notices.size());
+        watcher.shutdown();
+    }
+}
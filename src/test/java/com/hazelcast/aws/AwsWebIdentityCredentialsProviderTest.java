@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Instant;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AwsWebIdentityCredentialsProviderTest {
+    private static final String ROLE_ARN = "arn:aws:iam::123456789012:role/hazelcast-discovery";
+    private static final String SESSION_NAME = "hazelcast-pod";
+    private static final Instant NOW = Instant.parse("2020-04-03T10:00:00Z");
+    private static final AwsCredentials CREDENTIALS_1 = credentials("session-1");
+    private static final AwsCredentials CREDENTIALS_2 = credentials("session-2");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private AwsStsApi stsApi;
+
+    @Mock
+    private Environment environment;
+
+    @Mock
+    private Clock clock;
+
+    private File tokenFile;
+    private AwsWebIdentityCredentialsProvider provider;
+
+    @Before
+    public void setUp()
+            throws IOException {
+        tokenFile = temporaryFolder.newFile("token");
+        writeToken("token-1", 0);
+        given(environment.getWebIdentityTokenFile()).willReturn(tokenFile.getPath());
+        given(environment.getWebIdentityRoleArn()).willReturn(ROLE_ARN);
+        given(environment.getWebIdentityRoleSessionName()).willReturn(SESSION_NAME);
+        given(clock.instant()).willReturn(NOW);
+        provider = new AwsWebIdentityCredentialsProvider(stsApi, environment, clock, Runnable::run);
+    }
+
+    @Test
+    public void credentials() {
+        // given
+        given(stsApi.assumeRoleWithWebIdentity(ROLE_ARN, SESSION_NAME, "token-1"))
+            .willReturn(session(CREDENTIALS_1, NOW.plusSeconds(3600)));
+
+        // when
+        AwsCredentials first = provider.credentials();
+        AwsCredentials second = provider.credentials();
+
+        // then
+        assertEquals(CREDENTIALS_1, first);
+        assertEquals(CREDENTIALS_1, second);
+        verify(stsApi, times(1)).assumeRoleWithWebIdentity(ROLE_ARN, SESSION_NAME, "token-1");
+    }
+
+    @Test
+    public void rotatedTokenIsReadBeforeRefresh()
+            throws IOException {
+        // given
+        given(stsApi.assumeRoleWithWebIdentity(ROLE_ARN, SESSION_NAME, "token-1"))
+            .willReturn(session(CREDENTIALS_1, NOW.plusSeconds(3600)));
+        given(stsApi.assumeRoleWithWebIdentity(ROLE_ARN, SESSION_NAME, "token-2"))
+            .willReturn(session(CREDENTIALS_2, NOW.plusSeconds(7200)));
+        provider.credentials();
+        writeToken("token-2", 60);
+        given(clock.instant()).willReturn(NOW.plusSeconds(3600 - 120));
+
+        // when
+        provider.credentials();
+        AwsCredentials result = provider.credentials();
+
+        // then
+        assertEquals(CREDENTIALS_2, result);
+    }
+
+    @Test
+    public void rejectedTokenIsReadAgain()
+            throws IOException {
+        // given
+        given(stsApi.assumeRoleWithWebIdentity(ROLE_ARN, SESSION_NAME, "token-1"))
+            .willReturn(session(CREDENTIALS_1, NOW.plusSeconds(3600)))
+            .willThrow(new RestClientException("ExpiredTokenException", 400));
+        given(stsApi.assumeRoleWithWebIdentity(ROLE_ARN, SESSION_NAME, "token-2"))
+            .willReturn(session(CREDENTIALS_2, NOW.plusSeconds(7200)));
+        provider.credentials();
+        // same modification time, so only the forced read sees the new token
+        writeToken("token-2", 0);
+        given(clock.instant()).willReturn(NOW.plusSeconds(3600));
+
+        // when
+        AwsCredentials result = provider.credentials();
+
+        // then
+        assertEquals(CREDENTIALS_2, result);
+    }
+
+    private void writeToken(String token, long modifiedSecondsAfterNow)
+            throws IOException {
+        Files.write(tokenFile.toPath(), token.getBytes(UTF_8));
+        tokenFile.setLastModified(NOW.plusSeconds(modifiedSecondsAfterNow).toEpochMilli());
+    }
+
+    private static AwsCredentials credentials(String name) {
+        return AwsCredentials.builder()
+            .setAccessKey(name + "-access-key")
+            .setSecretKey(name + "-secret-key")
+            .setToken(name + "-token")
+            .build();
+    }
+
+    private static AwsStsApi.SessionCredentials session(AwsCredentials credentials, Instant expiration) {
+        return new AwsStsApi.SessionCredentials(credentials, expiration);
+    }
+}
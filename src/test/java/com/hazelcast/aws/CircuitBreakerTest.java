@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Clock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class CircuitBreakerTest {
+    private static final String ENDPOINT = "https://ec2.eu-central-1.amazonaws.com";
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long OPEN_MILLIS = 30000;
+
+    private final Clock clock = mock(Clock.class);
+    private CircuitBreaker circuitBreaker;
+
+    @Before
+    public void setUp() {
+        given(clock.millis()).willReturn(0L);
+        circuitBreaker = new CircuitBreaker(ENDPOINT, FAILURE_THRESHOLD, OPEN_MILLIS, clock);
+    }
+
+    @Test
+    public void opensAfterConsecutiveFailures() {
+        // given
+        fail(FAILURE_THRESHOLD);
+
+        // when
+        assertThrows(CircuitBreakerOpenException.class, () -> circuitBreaker.call(() -> "response"));
+
+        // then
+        assertEquals("OPEN", circuitBreaker.getState());
+        assertEquals(1, circuitBreaker.getOpenCount());
+        assertEquals(1, circuitBreaker.getRejectedCalls());
+    }
+
+    @Test
+    public void successResetsFailures() {
+        // given
+        fail(FAILURE_THRESHOLD - 1);
+        circuitBreaker.call(() -> "response");
+
+        // when
+        fail(FAILURE_THRESHOLD - 1);
+
+        // then
+        assertEquals("CLOSED", circuitBreaker.getState());
+        assertEquals(FAILURE_THRESHOLD - 1, circuitBreaker.getConsecutiveFailures());
+    }
+
+    @Test
+    public void clientErrorIsNotFailure() {
+        // when
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThrows(RestClientException.class, () -> circuitBreaker.call(() -> {
+                throw new RestClientException("Not Found", 404);
+            }));
+        }
+
+        // then
+        assertEquals("CLOSED", circuitBreaker.getState());
+    }
+
+    @Test
+    public void closesAfterSuccessfulTrialCall() {
+        // given
+        fail(FAILURE_THRESHOLD);
+        given(clock.millis()).willReturn(OPEN_MILLIS);
+
+        // when
+        String result = circuitBreaker.call(() -> "response");
+
+        // then
+        assertEquals("response", result);
+        assertEquals("CLOSED", circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getConsecutiveFailures());
+    }
+
+    @Test
+    public void opensAgainAfterFailedTrialCall() {
+        // given
+        fail(FAILURE_THRESHOLD);
+        given(clock.millis()).willReturn(OPEN_MILLIS);
+
+        // when
+        fail(1);
+
+        // then
+        assertEquals("OPEN", circuitBreaker.getState());
+        assertEquals(2, circuitBreaker.getOpenCount());
+        assertThrows(CircuitBreakerOpenException.class, () -> circuitBreaker.call(() -> "response"));
+    }
+
+    @Test
+    public void rejectsOtherCallsDuringTrialCall() {
+        // given
+        fail(FAILURE_THRESHOLD);
+        given(clock.millis()).willReturn(OPEN_MILLIS);
+
+        // when
+        String result = circuitBreaker.call(() -> {
+            assertThrows(CircuitBreakerOpenException.class, () -> circuitBreaker.call(() -> "other response"));
+            assertEquals("HALF_OPEN", circuitBreaker.getState());
+            return "response";
+        });
+
+        // then
+        assertEquals("response", result);
+        assertEquals("CLOSED", circuitBreaker.getState());
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThrows(RestClientException.class, () -> circuitBreaker.call(() -> {
+                throw new RestClientException("Failure in executing REST call", new IOException());
+            }));
+        }
+    }
+}
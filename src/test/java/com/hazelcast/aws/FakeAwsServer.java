@@ -0,0 +1,568 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.internal.json.Json;
+import com.hazelcast.internal.json.JsonArray;
+import com.hazelcast.internal.json.JsonObject;
+import com.hazelcast.internal.json.JsonValue;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Embeddable stand-in for the AWS EC2, ECS, Cloud Map, STS, EC2 Instance Metadata and ECS Task Metadata endpoints,
+ * serving a generated fleet of EC2 instances and ECS tasks; the ECS tasks are also registered in Cloud Map (with the
+ * custom attribute {@code stage=prod} for even and {@code stage=test} for odd tasks).
+ * <p>
+ * It paginates the results like AWS does, enforces the batch limits of the APIs and can inject latency and throttling
+ * errors. The number of calls of every action is counted, so tests can assert how many AWS calls a discovery makes.
+ * <p>
+ * All the APIs share a single endpoint ({@link #getEndpoint()}); the metadata endpoints are
+ * {@link #getEc2MetadataEndpoint()}, {@link #getEcsIamRoleEndpoint()} and {@link #getEcsTaskMetadataEndpoint()}.
+ * Requests are not authenticated, so any credentials are accepted.
+ */
+final class FakeAwsServer
+        implements AutoCloseable {
+    static final String IAM_ROLE = "hazelcast-role";
+    static final String CLUSTER_ARN = "arn:aws:ecs:eu-central-1:123456789012:cluster/hazelcast";
+    static final String[] AVAILABILITY_ZONES = {"eu-central-1a", "eu-central-1b", "eu-central-1c"};
+
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_BAD_REQUEST = 400;
+    private static final int HTTP_NOT_FOUND = 404;
+    private static final int HTTP_SERVICE_UNAVAILABLE = 503;
+    private static final int DESCRIBE_TASKS_MAX_TASKS = 100;
+    private static final int DISCOVER_INSTANCES_MAX_RESULTS = 1000;
+
+    private final int ec2Instances;
+    private final int ecsTasks;
+    private final int describeInstancesPageSize;
+    private final int listTasksPageSize;
+    private final long minLatencyMillis;
+    private final long maxLatencyMillis;
+    private final Map<String, Long> actionLatencyMillis;
+    private final double errorRate;
+    private final Random random;
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private final AtomicLong apiCalls = new AtomicLong();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private FakeAwsServer(Builder builder) {
+        this.ec2Instances = builder.ec2Instances;
+        this.ecsTasks = builder.ecsTasks;
+        this.describeInstancesPageSize = builder.describeInstancesPageSize;
+        this.listTasksPageSize = builder.listTasksPageSize;
+        this.minLatencyMillis = builder.minLatencyMillis;
+        this.maxLatencyMillis = builder.maxLatencyMillis;
+        this.actionLatencyMillis = new HashMap<>(builder.actionLatencyMillis);
+        this.errorRate = builder.errorRate;
+        this.random = new Random(builder.seed);
+        try {
+            this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        this.executor = Executors.newFixedThreadPool(builder.threads, r -> {
+            Thread thread = new Thread(r, "fake-aws-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    String getEndpoint() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    String getEc2MetadataEndpoint() {
+        return getEndpoint() + "/latest/meta-data";
+    }
+
+    String getEcsIamRoleEndpoint() {
+        return getEndpoint() + "/ecs/credentials";
+    }
+
+    String getEcsTaskMetadataEndpoint() {
+        return getEndpoint() + "/ecs/task";
+    }
+
+    /**
+     * Returns the number of calls of the given action, e.g. "DescribeInstances", "ListTasks" or "imds", including the
+     * calls which failed with an injected error.
+     */
+    int getCalls(String action) {
+        AtomicInteger count = calls.get(action);
+        return count == null ? 0 : count.get();
+    }
+
+    int getTotalCalls() {
+        return calls.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    static String privateAddress(int index) {
+        return String.format("10.%d.%d.%d", (index >> 16) & 0xff, (index >> 8) & 0xff, index & 0xff);
+    }
+
+    static String publicAddress(int index) {
+        // every second member has a public IP
+        return index % 2 == 0 ? String.format("54.%d.%d.%d", (index >> 16) & 0xff, (index >> 8) & 0xff, index & 0xff)
+            : null;
+    }
+
+    static String availabilityZone(int index) {
+        return AVAILABILITY_ZONES[index % AVAILABILITY_ZONES.length];
+    }
+
+    static String taskArn(int index) {
+        return String.format("arn:aws:ecs:eu-central-1:123456789012:task/hazelcast/%08d", index);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange)
+            throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            if (path.startsWith("/latest/meta-data")) {
+                handleEc2Metadata(exchange, path.substring("/latest/meta-data".length()));
+            } else if (path.startsWith("/ecs/")) {
+                handleEcsMetadata(exchange, path);
+            } else if ("POST".equals(exchange.getRequestMethod())) {
+                handleEcs(exchange);
+            } else {
+                handleQueryApi(exchange);
+            }
+        } catch (RuntimeException e) {
+            respond(exchange, HTTP_BAD_REQUEST, String.valueOf(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleEc2Metadata(HttpExchange exchange, String path)
+            throws IOException {
+        count("imds");
+        simulateLatency("imds");
+        if ("/placement/availability-zone/".equals(path)) {
+            respond(exchange, HTTP_OK, AVAILABILITY_ZONES[0]);
+        } else if ("/iam/security-credentials/".equals(path)) {
+            respond(exchange, HTTP_OK, IAM_ROLE);
+        } else if (("/iam/security-credentials/" + IAM_ROLE).equals(path)) {
+            respond(exchange, HTTP_OK, credentialsJson());
+        } else {
+            respond(exchange, HTTP_NOT_FOUND, "Not Found");
+        }
+    }
+
+    private void handleEcsMetadata(HttpExchange exchange, String path)
+            throws IOException {
+        count("ecs-metadata");
+        simulateLatency("ecs-metadata");
+        if ("/ecs/credentials".equals(path)) {
+            respond(exchange, HTTP_OK, credentialsJson());
+        } else if ("/ecs/task".equals(path)) {
+            respond(exchange, HTTP_OK, new JsonObject()
+                .add("Labels", new JsonObject()
+                    .add("com.amazonaws.ecs.task-arn", taskArn(0))
+                    .add("com.amazonaws.ecs.cluster", CLUSTER_ARN))
+                .toString());
+        } else {
+            respond(exchange, HTTP_NOT_FOUND, "Not Found");
+        }
+    }
+
+    private void handleQueryApi(HttpExchange exchange)
+            throws IOException {
+        Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+        String action = parameters.get("Action");
+        count(action);
+        simulateLatency(action);
+        if (shouldFail()) {
+            respond(exchange, HTTP_SERVICE_UNAVAILABLE, "<Response><Errors><Error><Code>RequestLimitExceeded</Code>"
+                + "<Message>Request limit exceeded.</Message></Error></Errors></Response>");
+            return;
+        }
+        if ("DescribeInstances".equals(action)) {
+            respond(exchange, HTTP_OK, describeInstances(parameters.get("NextToken")));
+        } else if ("DescribeNetworkInterfaces".equals(action)) {
+            List<String> privateAddresses = filterValues(parameters, "addresses.private-ip-address");
+            for (String networkInterfaceId : filterValues(parameters, "network-interface-id")) {
+                privateAddresses.add(privateAddress(Integer.parseInt(networkInterfaceId.substring("eni-".length()), 16)));
+            }
+            respond(exchange, HTTP_OK, describeNetworkInterfaces(privateAddresses));
+        } else if ("AssumeRole".equals(action) || "AssumeRoleWithWebIdentity".equals(action)) {
+            respond(exchange, HTTP_OK, assumeRole(action));
+        } else {
+            respond(exchange, HTTP_BAD_REQUEST, "Unsupported action: " + action);
+        }
+    }
+
+    private void handleEcs(HttpExchange exchange)
+            throws IOException {
+        String target = exchange.getRequestHeaders().getFirst("X-Amz-Target");
+        String action = target == null ? null : target.substring(target.lastIndexOf('.') + 1);
+        count(action);
+        JsonObject body = Json.parse(new String(readAll(exchange.getRequestBody()), UTF_8)).asObject();
+        simulateLatency(action);
+        if (shouldFail()) {
+            respond(exchange, HTTP_BAD_REQUEST, "{\"__type\":\"ThrottlingException\",\"message\":\"Rate exceeded\"}");
+            return;
+        }
+        if ("ListTasks".equals(action)) {
+            respond(exchange, HTTP_OK, listTasks(body.getString("nextToken", null)));
+        } else if ("DescribeTasks".equals(action)) {
+            JsonArray tasks = body.get("tasks").asArray();
+            if (tasks.size() > DESCRIBE_TASKS_MAX_TASKS) {
+                respond(exchange, HTTP_BAD_REQUEST, "{\"__type\":\"InvalidParameterException\","
+                    + "\"message\":\"Tasks cannot be longer than 100 elements\"}");
+                return;
+            }
+            respond(exchange, HTTP_OK, describeTasks(tasks));
+        } else if ("DiscoverInstances".equals(action)) {
+            JsonValue queryParameters = body.get("QueryParameters");
+            respond(exchange, HTTP_OK, discoverInstances(queryParameters == null ? new JsonObject()
+                : queryParameters.asObject(), body.getInt("MaxResults", DISCOVER_INSTANCES_MAX_RESULTS)));
+        } else {
+            respond(exchange, HTTP_BAD_REQUEST, "Unsupported action: " + action);
+        }
+    }
+
+    private String describeInstances(String nextToken) {
+        int from = nextToken == null ? 0 : Integer.parseInt(nextToken);
+        int to = Math.min(from + describeInstancesPageSize, ec2Instances);
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<DescribeInstancesResponse xmlns=\"http://ec2.amazonaws.com/doc/2016-11-15/\">"
+            + "<requestId>8f7724cf-496f-496e-8fe3-example</requestId><reservationSet>");
+        for (int i = from; i < to; i++) {
+            xml.append("<item><reservationId>r-").append(String.format("%017x", i)).append("</reservationId>")
+                .append("<instancesSet><item>")
+                .append("<instanceId>i-").append(String.format("%017x", i)).append("</instanceId>")
+                .append("<instanceState><code>16</code><name>running</name></instanceState>")
+                .append("<privateIpAddress>").append(privateAddress(i)).append("</privateIpAddress>");
+            if (publicAddress(i) != null) {
+                xml.append("<ipAddress>").append(publicAddress(i)).append("</ipAddress>");
+            }
+            xml.append("<placement><availabilityZone>").append(availabilityZone(i)).append("</availabilityZone>")
+                .append("<groupName/><tenancy>default</tenancy></placement>")
+                .append("<tagSet><item><key>Name</key><value>hazelcast-").append(i).append("</value></item>")
+                .append("<item><key>hazelcast-cluster</key><value>fleet</value></item></tagSet>")
+                .append("</item></instancesSet></item>");
+        }
+        xml.append("</reservationSet>");
+        if (to < ec2Instances) {
+            xml.append("<nextToken>").append(to).append("</nextToken>");
+        }
+        return xml.append("</DescribeInstancesResponse>").toString();
+    }
+
+    private String describeNetworkInterfaces(List<String> privateAddresses) {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < Math.max(ec2Instances, ecsTasks); i++) {
+            indexes.put(privateAddress(i), i);
+        }
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<DescribeNetworkInterfacesResponse xmlns=\"http://ec2.amazonaws.com/doc/2016-11-15/\">"
+            + "<networkInterfaceSet>");
+        for (String privateAddress : privateAddresses) {
+            Integer index = indexes.get(privateAddress);
+            if (index == null) {
+                continue;
+            }
+            xml.append("<item><networkInterfaceId>").append(networkInterfaceId(index))
+                .append("</networkInterfaceId><privateIpAddress>").append(privateAddress).append("</privateIpAddress>");
+            if (publicAddress(index) != null) {
+                xml.append("<association><publicIp>").append(publicAddress(index)).append("</publicIp></association>");
+            }
+            xml.append("</item>");
+        }
+        return xml.append("</networkInterfaceSet></DescribeNetworkInterfacesResponse>").toString();
+    }
+
+    private String listTasks(String nextToken) {
+        int from = nextToken == null ? 0 : Integer.parseInt(nextToken);
+        int to = Math.min(from + listTasksPageSize, ecsTasks);
+        JsonArray taskArns = new JsonArray();
+        for (int i = from; i < to; i++) {
+            taskArns.add(taskArn(i));
+        }
+        JsonObject response = new JsonObject().add("taskArns", taskArns);
+        if (to < ecsTasks) {
+            response.add("nextToken", String.valueOf(to));
+        }
+        return response.toString();
+    }
+
+    private String describeTasks(JsonArray taskArns) {
+        JsonArray tasks = new JsonArray();
+        for (JsonValue taskArn : taskArns) {
+            String arn = taskArn.asString();
+            int index = Integer.parseInt(arn.substring(arn.lastIndexOf('/') + 1));
+            tasks.add(new JsonObject()
+                .add("taskArn", arn)
+                .add("clusterArn", CLUSTER_ARN)
+                .add("availabilityZone", availabilityZone(index))
+                .add("lastStatus", "RUNNING")
+                .add("attachments", new JsonArray().add(new JsonObject()
+                    .add("type", "ElasticNetworkInterface")
+                    .add("details", new JsonArray()
+                        .add(new JsonObject().add("name", "networkInterfaceId").add("value", networkInterfaceId(index)))
+                        .add(new JsonObject().add("name", "privateIPv4Address").add("value", privateAddress(index))))))
+                .add("containers", new JsonArray().add(new JsonObject()
+                    .add("name", "hazelcast")
+                    .add("networkInterfaces", new JsonArray().add(new JsonObject()
+                        .add("attachmentId", String.format("%08x-0000-0000-0000-000000000000", index))
+                        .add("privateIpv4Address", privateAddress(index)))))));
+        }
+        return new JsonObject().add("tasks", tasks).add("failures", new JsonArray()).toString();
+    }
+
+    private String discoverInstances(JsonObject queryParameters, int maxResults) {
+        JsonArray instances = new JsonArray();
+        for (int i = 0; i < ecsTasks && instances.size() < Math.min(maxResults, DISCOVER_INSTANCES_MAX_RESULTS); i++) {
+            JsonObject attributes = new JsonObject()
+                .add("AWS_INSTANCE_IPV4", privateAddress(i))
+                .add("AVAILABILITY_ZONE", availabilityZone(i))
+                .add("ECS_CLUSTER_NAME", "hazelcast")
+                .add("stage", i % 2 == 0 ? "prod" : "test");
+            boolean matches = true;
+            for (JsonObject.Member parameter : queryParameters) {
+                matches &= parameter.getValue().equals(attributes.get(parameter.getName()));
+            }
+            if (matches) {
+                instances.add(new JsonObject()
+                    .add("InstanceId", String.format("%08d", i))
+                    .add("NamespaceName", "hazelcast.local")
+                    .add("ServiceName", "hazelcast")
+                    .add("HealthStatus", "HEALTHY")
+                    .add("Attributes", attributes));
+            }
+        }
+        return new JsonObject().add("Instances", instances).toString();
+    }
+
+    private static String assumeRole(String action) {
+        return String.format("<%1$sResponse xmlns=\"https://sts.amazonaws.com/doc/2011-06-15/\"><%1$sResult>"
+            + "<Credentials><AccessKeyId>ASIAFAKEACCESSKEY</AccessKeyId><SecretAccessKey>fake-secret-key</SecretAccessKey>"
+            + "<SessionToken>fake-session-token</SessionToken><Expiration>%2$s</Expiration></Credentials>"
+            + "</%1$sResult></%1$sResponse>", action, Instant.now().plusSeconds(3600));
+    }
+
+    private static String credentialsJson() {
+        return new JsonObject()
+            .add("AccessKeyId", "ASIAFAKEACCESSKEY")
+            .add("SecretAccessKey", "fake-secret-key")
+            .add("Token", "fake-session-token")
+            .add("Expiration", Instant.now().plusSeconds(3600).toString())
+            .toString();
+    }
+
+    private void count(String action) {
+        calls.computeIfAbsent(String.valueOf(action), a -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private void simulateLatency(String action) {
+        Long fixedLatencyMillis = actionLatencyMillis.get(action);
+        long latencyMillis = fixedLatencyMillis == null ? minLatencyMillis : fixedLatencyMillis;
+        if (fixedLatencyMillis == null && maxLatencyMillis > minLatencyMillis) {
+            synchronized (random) {
+                latencyMillis += (long) (random.nextDouble() * (maxLatencyMillis - minLatencyMillis));
+            }
+        }
+        if (latencyMillis > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Spreads the failures evenly, e.g. every tenth call fails with the error rate of 0.1, so the tests are repeatable.
+     */
+    private boolean shouldFail() {
+        long call = apiCalls.incrementAndGet();
+        return (long) (call * errorRate) > (long) ((call - 1) * errorRate);
+    }
+
+    private static String networkInterfaceId(int index) {
+        return String.format("eni-%017x", index);
+    }
+
+    private static List<String> filterValues(Map<String, String> parameters, String filterName) {
+        List<String> result = new ArrayList<>();
+        for (Map.Entry<String, String> entry : parameters.entrySet()) {
+            if (entry.getKey().matches("Filter\\.\\d+\\.Name") && filterName.equals(entry.getValue())) {
+                String prefix = entry.getKey().replace(".Name", ".Value.");
+                for (int i = 1; parameters.containsKey(prefix + i); i++) {
+                    result.add(parameters.get(prefix + i));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> result = new LinkedHashMap<>();
+        if (query == null) {
+            return result;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                result.put(decode(pair.substring(0, separator)), decode(pair.substring(separator + 1)));
+            }
+        }
+        return result;
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] readAll(InputStream inputStream)
+            throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            result.write(buffer, 0, read);
+        }
+        return result.toByteArray();
+    }
+
+    private static void respond(HttpExchange exchange, int code, String body)
+            throws IOException {
+        byte[] bytes = body.getBytes(UTF_8);
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    static final class Builder {
+        private int ec2Instances;
+        private int ecsTasks;
+        private int describeInstancesPageSize = 1000;
+        private int listTasksPageSize = 100;
+        private long minLatencyMillis;
+        private long maxLatencyMillis;
+        private final Map<String, Long> actionLatencyMillis = new HashMap<>();
+        private double errorRate;
+        private long seed = 42;
+        private int threads = 16;
+
+        Builder ec2Instances(int ec2Instances) {
+            this.ec2Instances = ec2Instances;
+            return this;
+        }
+
+        Builder ecsTasks(int ecsTasks) {
+            this.ecsTasks = ecsTasks;
+            return this;
+        }
+
+        Builder describeInstancesPageSize(int describeInstancesPageSize) {
+            this.describeInstancesPageSize = describeInstancesPageSize;
+            return this;
+        }
+
+        Builder listTasksPageSize(int listTasksPageSize) {
+            this.listTasksPageSize = listTasksPageSize;
+            return this;
+        }
+
+        /**
+         * Every response is delayed by a random latency between the given bounds.
+         */
+        Builder latencyMillis(long minLatencyMillis, long maxLatencyMillis) {
+            this.minLatencyMillis = minLatencyMillis;
+            this.maxLatencyMillis = maxLatencyMillis;
+            return this;
+        }
+
+        /**
+         * Every response to the given action is delayed by the given latency instead of the latency of the other calls.
+         */
+        Builder latencyMillis(String action, long latencyMillis) {
+            actionLatencyMillis.put(action, latencyMillis);
+            return this;
+        }
+
+        /**
+         * The given fraction of the EC2, ECS and STS calls fails with a throttling error.
+         */
+        Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        /**
+         * Seed of the random latencies.
+         */
+        Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        FakeAwsServer start() {
+            return new FakeAwsServer(this);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Instant;
+
+import static com.hazelcast.test.HazelcastTestSupport.assertTrueEventually;
+import static org.junit.Assert.assertFalse;
+
+public class GracefulShutdownTerminationListenerTest {
+    private HazelcastInstance instance;
+
+    @After
+    public void tearDown() {
+        if (instance != null) {
+            instance.getLifecycleService().terminate();
+        }
+    }
+
+    @Test
+    public void shutdownMember() {
+        // given
+        Config config = new Config();
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        instance = Hazelcast.newHazelcastInstance(config);
+        AwsTerminationNotice notice = new AwsTerminationNotice(AwsTerminationNotice.Reason.SPOT_INTERRUPTION,
+            "terminate", Instant.now());
+
+        // when
+        new GracefulShutdownTerminationListener().terminationImminent(notice);
+
+        // then
+        assertTrueEventually(() -> assertFalse(instance.getLifecycleService().isRunning()));
+    }
+}
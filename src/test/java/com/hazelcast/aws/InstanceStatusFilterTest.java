@@ -0,0 +1,179 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class InstanceStatusFilterTest {
+    private static final AwsCredentials CREDENTIALS = AwsCredentials.builder()
+        .setAccessKey("access-key")
+        .setSecretKey("secret-key")
+        .build();
+    private static final AwsNode NODE_1 = node("10.0.1.25", "i-0a1b2c3d4e5f60001");
+    private static final AwsNode NODE_2 = node("10.0.1.26", "i-0a1b2c3d4e5f60002");
+
+    @Mock
+    private AwsEc2Api awsEc2Api;
+
+    private InstanceStatusFilter instanceStatusFilter;
+
+    @Before
+    public void setUp() {
+        instanceStatusFilter = new InstanceStatusFilter(awsEc2Api);
+    }
+
+    @Test
+    public void filterInstancesNotOk() {
+        // given
+        given(awsEc2Api.describeInstanceStatus(anyList(), any())).willReturn(singleton(NODE_1.getInstanceId()));
+
+        // when
+        Map<String, AwsNode> result = instanceStatusFilter.filter(nodes(NODE_1, NODE_2), CREDENTIALS);
+
+        // then
+        assertEquals(singletonMap(NODE_1.getPrivateAddress(), NODE_1), result);
+    }
+
+    @Test
+    public void healthyInstancesAreNotCheckedAgain() {
+        // given
+        given(awsEc2Api.describeInstanceStatus(anyList(), any())).willReturn(singleton(NODE_1.getInstanceId()));
+        instanceStatusFilter.filter(nodes(NODE_1, NODE_2), CREDENTIALS);
+
+        // when
+        Map<String, AwsNode> result = instanceStatusFilter.filter(nodes(NODE_1, NODE_2), CREDENTIALS);
+
+        // then
+        assertEquals(singletonMap(NODE_1.getPrivateAddress(), NODE_1), result);
+        verify(awsEc2Api).describeInstanceStatus(singletonList(NODE_2.getInstanceId()), CREDENTIALS);
+        verify(awsEc2Api, never()).describeInstanceStatus(singletonList(NODE_1.getInstanceId()), CREDENTIALS);
+    }
+
+    @Test
+    public void noCallWhenAllInstancesHealthy() {
+        // given
+        given(awsEc2Api.describeInstanceStatus(anyList(), any()))
+            .willReturn(new HashSet<>(asList(NODE_1.getInstanceId(), NODE_2.getInstanceId())));
+        instanceStatusFilter.filter(nodes(NODE_1, NODE_2), CREDENTIALS);
+
+        // when
+        Map<String, AwsNode> result = instanceStatusFilter.filter(nodes(NODE_1, NODE_2), CREDENTIALS);
+
+        // then
+        assertEquals(nodes(NODE_1, NODE_2), result);
+        verify(awsEc2Api, times(1)).describeInstanceStatus(anyList(), any());
+    }
+
+    @Test
+    public void forgottenInstancesAreCheckedAgain() {
+        // given
+        given(awsEc2Api.describeInstanceStatus(anyList(), any())).willReturn(singleton(NODE_1.getInstanceId()));
+        instanceStatusFilter.filter(nodes(NODE_1), CREDENTIALS);
+        instanceStatusFilter.retain(nodes(NODE_2).values());
+        given(awsEc2Api.describeInstanceStatus(anyList(), any())).willReturn(singleton(NODE_2.getInstanceId()));
+
+        // when
+        Map<String, AwsNode> result = instanceStatusFilter.filter(nodes(NODE_1, NODE_2), CREDENTIALS);
+
+        // then
+        assertEquals(singletonMap(NODE_2.getPrivateAddress(), NODE_2), result);
+    }
+
+    @Test
+    public void keepInstancesWhenNoneHealthy() {
+        // given
+        given(awsEc2Api.describeInstanceStatus(anyList(), any())).willReturn(emptySet());
+
+        // when
+        Map<String, AwsNode> result = instanceStatusFilter.filter(nodes(NODE_1, NODE_2), CREDENTIALS);
+
+        // then
+        assertEquals(nodes(NODE_1, NODE_2), result);
+    }
+
+    @Test
+    public void keepInstancesWhenOnlyNodesWithoutInstanceIdRemain() {
+        // given
+        AwsNode task = AwsNode.builder().setPrivateAddress("10.0.1.27").build();
+        given(awsEc2Api.describeInstanceStatus(anyList(), any())).willReturn(emptySet());
+
+        // when
+        Map<String, AwsNode> result = instanceStatusFilter.filter(nodes(NODE_1, task), CREDENTIALS);
+
+        // then
+        assertEquals(nodes(NODE_1, task), result);
+    }
+
+    @Test
+    public void keepInstancesWhenStatusUnavailable() {
+        // given
+        given(awsEc2Api.describeInstanceStatus(anyList(), any()))
+            .willThrow(new RestClientException("UnauthorizedOperation", 403));
+
+        // when
+        Map<String, AwsNode> result = instanceStatusFilter.filter(nodes(NODE_1, NODE_2), CREDENTIALS);
+
+        // then
+        assertEquals(nodes(NODE_1, NODE_2), result);
+    }
+
+    @Test
+    public void keepNodesWithoutInstanceId() {
+        // given
+        AwsNode task = AwsNode.builder().setPrivateAddress("10.0.1.27").build();
+
+        // when
+        Map<String, AwsNode> result = instanceStatusFilter.filter(nodes(task), CREDENTIALS);
+
+        // then
+        assertEquals(nodes(task), result);
+        verify(awsEc2Api, never()).describeInstanceStatus(anyList(), any());
+    }
+
+    private static AwsNode node(String privateAddress, String instanceId) {
+        return AwsNode.builder().setPrivateAddress(privateAddress).setInstanceId(instanceId).build();
+    }
+
+    private static Map<String, AwsNode> nodes(AwsNode... nodes) {
+        Map<String, AwsNode> result = new HashMap<>();
+        for (AwsNode node : nodes) {
+            result.put(node.getPrivateAddress(), node);
+        }
+        return result;
+    }
+}
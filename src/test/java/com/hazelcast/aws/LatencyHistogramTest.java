@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentileUnknownWithFewSamples() {
+        // given
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (int i = 1; i < LatencyHistogram.MIN_SAMPLES; i++) {
+            latencyHistogram.record(i);
+        }
+
+        // when
+        long result = latencyHistogram.percentile(99);
+
+        // then
+        assertEquals(-1, result);
+    }
+
+    @Test
+    public void percentile() {
+        // given
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (int i = 100; i >= 1; i--) {
+            latencyHistogram.record(i);
+        }
+
+        // when
+        long p50 = latencyHistogram.percentile(50);
+        long p99 = latencyHistogram.percentile(99);
+
+        // then
+        assertEquals(50, p50);
+        assertEquals(99, p99);
+    }
+
+    @Test
+    public void percentileOfRecentSamplesOnly() {
+        // given
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (int i = 0; i < LatencyHistogram.WINDOW_SIZE; i++) {
+            latencyHistogram.record(10000);
+        }
+        for (int i = 0; i < LatencyHistogram.WINDOW_SIZE; i++) {
+            latencyHistogram.record(10);
+        }
+
+        // when
+        long result = latencyHistogram.percentile(99);
+
+        // then
+        assertEquals(10, result);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+
+public class LocalityComparatorTest {
+
+    @Test
+    public void orderByLocality() {
+        // given
+        List<AwsNode> nodes = new ArrayList<>(Arrays.asList(
+            node("10.0.0.1", "us-east-1a", null),
+            node("10.0.0.2", "us-east-1b", "group"),
+            node("10.0.0.3", "us-east-1c", null),
+            node("10.0.0.4", "us-east-1b", null),
+            node("10.0.0.5", "us-east-1a", "group"),
+            node("10.0.0.6", "us-east-1b", null)
+        ));
+        LocalityComparator comparator = new LocalityComparator("us-east-1b", "group", singleton("10.0.0.6"));
+
+        // when
+        nodes.sort(comparator);
+
+        // then
+        assertEquals(Arrays.asList("10.0.0.2", "10.0.0.4", "10.0.0.5", "10.0.0.1", "10.0.0.3", "10.0.0.6"),
+            nodes.stream().map(AwsNode::getPrivateAddress).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void orderByLocalityUnknownZone() {
+        // given
+        List<AwsNode> nodes = new ArrayList<>(Arrays.asList(
+            node("10.0.0.1", null, null),
+            node("10.0.0.2", "us-east-1b", null)
+        ));
+        LocalityComparator comparator = new LocalityComparator("us-east-1b", null, singleton("127.0.0.1"));
+
+        // when
+        nodes.sort(comparator);
+
+        // then
+        assertEquals(Arrays.asList("10.0.0.2", "10.0.0.1"),
+            nodes.stream().map(AwsNode::getPrivateAddress).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void orderLocalHostLastByIpv6Address() {
+        // given
+        List<AwsNode> nodes = new ArrayList<>(Arrays.asList(
+            AwsNode.builder().setPrivateAddress("10.0.0.1").setIpv6Address("2600:1f18::1").build(),
+            node("10.0.0.2", null, null)
+        ));
+        LocalityComparator comparator = new LocalityComparator(null, null,
+            singleton(LocalityComparator.withoutScope("2600:1f18:0:0:0:0:0:1%eth0")));
+
+        // when
+        nodes.sort(comparator);
+
+        // then
+        assertEquals(Arrays.asList("10.0.0.2", "10.0.0.1"),
+            nodes.stream().map(AwsNode::getPrivateAddress).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void withoutScope() {
+        assertEquals("fe80:0:0:0:0:0:0:1", LocalityComparator.withoutScope("fe80:0:0:0:0:0:0:1%eth0"));
+        assertEquals("10.0.0.1", LocalityComparator.withoutScope("10.0.0.1"));
+    }
+
+    private static AwsNode node(String privateAddress, String availabilityZone, String placementGroup) {
+        return AwsNode.builder()
+            .setPrivateAddress(privateAddress)
+            .setAvailabilityZone(availabilityZone)
+            .setPlacementGroup(placementGroup)
+            .build();
+    }
+}
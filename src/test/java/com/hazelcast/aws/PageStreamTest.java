@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class PageStreamTest {
+
+    @Test
+    public void pagesInOrder() {
+        // given
+        PageStream<Integer> pageStream = PageStream.start(pageConsumer -> {
+            pageConsumer.accept(asList(1, 2));
+            pageConsumer.accept(emptyList());
+            pageConsumer.accept(singletonList(3));
+        }, e -> { });
+
+        // when
+        List<Integer> result = toList(pageStream);
+
+        // then
+        assertEquals(asList(1, 2, 3), result);
+    }
+
+    @Test
+    public void firstPageBeforeLastPageIsProduced()
+            throws InterruptedException {
+        // given
+        CountDownLatch lastPageAllowed = new CountDownLatch(1);
+        PageStream<Integer> pageStream = PageStream.start(pageConsumer -> {
+            pageConsumer.accept(singletonList(1));
+            try {
+                lastPageAllowed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            pageConsumer.accept(singletonList(2));
+        }, e -> { });
+
+        // when
+        Iterator<Integer> iterator = pageStream.iterator();
+        Integer first = iterator.next();
+        lastPageAllowed.countDown();
+
+        // then
+        assertEquals(Integer.valueOf(1), first);
+        assertEquals(Integer.valueOf(2), iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void failureEndsStream() {
+        // given
+        RuntimeException exception = new RuntimeException("expected");
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        PageStream<Integer> pageStream = PageStream.start(pageConsumer -> {
+            pageConsumer.accept(singletonList(1));
+            throw exception;
+        }, failure::set);
+
+        // when
+        List<Integer> result = toList(pageStream);
+
+        // then
+        assertEquals(singletonList(1), result);
+        assertEquals(exception, failure.get());
+    }
+
+    @Test
+    public void iteratedOnlyOnce() {
+        // given
+        PageStream<Integer> pageStream = PageStream.start(pageConsumer -> pageConsumer.accept(singletonList(1)), e -> { });
+        toList(pageStream);
+
+        // when
+        IllegalStateException exception = assertThrows(IllegalStateException.class, pageStream::iterator);
+
+        // then
+        assertTrue(exception.getMessage().contains("only once"));
+    }
+
+    private static List<Integer> toList(Iterable<Integer> iterable) {
+        List<Integer> result = new ArrayList<>();
+        iterable.forEach(result::add);
+        return result;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RequestHedgerTest {
+
+    @Test
+    public void hedgeDelayFromPercentile() {
+        // given
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            latencyHistogram.record(i);
+        }
+        RequestHedger requestHedger = new RequestHedger(latencyHistogram, 95, 10);
+
+        // when
+        long result = requestHedger.hedgeDelayMillis();
+
+        // then
+        assertEquals(95, result);
+    }
+
+    @Test
+    public void hedgedCallsLimitedByBudget() {
+        // given
+        RequestHedger requestHedger = new RequestHedger(new LatencyHistogram(), 95, 10);
+        for (int i = 0; i < 19; i++) {
+            requestHedger.hedgeDelayMillis();
+        }
+
+        // when
+        boolean first = requestHedger.tryAcquire();
+        boolean second = requestHedger.tryAcquire();
+        requestHedger.hedgeDelayMillis();
+        boolean third = requestHedger.tryAcquire();
+
+        // then
+        assertTrue(first);
+        assertFalse(second);
+        assertTrue(third);
+    }
+
+    @Test
+    public void hedgedCallsNeverMoreThanCalls() {
+        // given
+        RequestHedger requestHedger = new RequestHedger(new LatencyHistogram(), 95, 100);
+        requestHedger.hedgeDelayMillis();
+
+        // when
+        boolean first = requestHedger.tryAcquire();
+        boolean second = requestHedger.tryAcquire();
+
+        // then
+        assertTrue(first);
+        assertFalse(second);
+    }
+}
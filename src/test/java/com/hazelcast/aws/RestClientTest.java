@@ -20,17 +20,23 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 public class RestClientTest {
     private static final String API_ENDPOINT = "/some/endpoint";
@@ -209,4 +215,150 @@ public class RestClientTest {
         assertEquals(responseCode, response.getCode());
         assertEquals(responseMessage, response.getBody());
     }
+
+    @Test
+    public void getFailsFastWhenCircuitBreakerIsOpen() {
+        // given
+        stubFor(get(urlEqualTo(API_ENDPOINT))
+            .willReturn(aResponse().withStatus(500).withBody("Internal Server Error")));
+        String url = String.format("%s%s", address, API_ENDPOINT);
+        CircuitBreaker circuitBreaker = new CircuitBreaker(address, 1, 60000, Clock.systemUTC());
+        assertThrows(RestClientException.class, () ->
+            RestClient.create(url).withRetries(1).withCircuitBreaker(circuitBreaker).get());
+
+        // when
+        assertThrows(CircuitBreakerOpenException.class, () ->
+            RestClient.create(url).withRetries(1).withCircuitBreaker(circuitBreaker).get());
+
+        // then
+        verify(2, getRequestedFor(urlEqualTo(API_ENDPOINT)));
+        assertEquals("OPEN", circuitBreaker.getState());
+    }
+
+    @Test
+    public void getWithRetriesRecordedAsSingleCircuitBreakerFailure() {
+        // given
+        stubFor(get(urlEqualTo(API_ENDPOINT))
+            .willReturn(aResponse().withStatus(500).withBody("Internal Server Error")));
+        String url = String.format("%s%s", address, API_ENDPOINT);
+        CircuitBreaker circuitBreaker = new CircuitBreaker(address, 2, 60000, Clock.systemUTC());
+
+        // when
+        assertThrows(RestClientException.class, () ->
+            RestClient.create(url).withRetries(2).withCircuitBreaker(circuitBreaker).get());
+
+        // then
+        verify(3, getRequestedFor(urlEqualTo(API_ENDPOINT)));
+        assertEquals("CLOSED", circuitBreaker.getState());
+        assertEquals(1, circuitBreaker.getConsecutiveFailures());
+    }
+
+    @Test
+    public void getHedgedWhenFirstCallIsSlow() {
+        // given
+        stubFor(get(urlEqualTo(API_ENDPOINT))
+            .inScenario("Hedge Scenario")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(aResponse().withStatus(200).withBody("slow response").withFixedDelay(5000))
+            .willSetStateTo("Hedged"));
+        stubFor(get(urlEqualTo(API_ENDPOINT))
+            .inScenario("Hedge Scenario")
+            .whenScenarioStateIs("Hedged")
+            .willReturn(aResponse().withStatus(200).withBody(BODY_RESPONSE)));
+        RequestHedger requestHedger = new RequestHedger(latencyHistogram(50), 90, 100);
+
+        // when
+        long start = System.nanoTime();
+        String result = RestClient.create(String.format("%s%s", address, API_ENDPOINT))
+            .withReadTimeoutSeconds(10)
+            .withConnectTimeoutSeconds(10)
+            .withRequestHedger(requestHedger)
+            .get()
+            .getBody();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // then
+        assertEquals(BODY_RESPONSE, result);
+        assertTrue(elapsedMillis < 5000);
+        verify(2, getRequestedFor(urlEqualTo(API_ENDPOINT)));
+    }
+
+    @Test
+    public void getHedgedRecordsLatencyOfLosingAttempt() {
+        // given
+        stubFor(get(urlEqualTo(API_ENDPOINT))
+            .inScenario("Hedge Scenario")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(aResponse().withStatus(200).withBody("slow response").withFixedDelay(5000))
+            .willSetStateTo("Hedged"));
+        stubFor(get(urlEqualTo(API_ENDPOINT))
+            .inScenario("Hedge Scenario")
+            .whenScenarioStateIs("Hedged")
+            .willReturn(aResponse().withStatus(200).withBody(BODY_RESPONSE)));
+        RequestHedger requestHedger = new RequestHedger(latencyHistogram(50), 90, 100);
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (int i = 0; i < LatencyHistogram.MIN_SAMPLES - 2; i++) {
+            latencyHistogram.record(0);
+        }
+
+        // when
+        RestClient.create(String.format("%s%s", address, API_ENDPOINT))
+            .withReadTimeoutSeconds(10)
+            .withConnectTimeoutSeconds(10)
+            .withRequestHedger(requestHedger)
+            .withLatencyHistogram(latencyHistogram)
+            .get();
+
+        // then
+        assertTrue(latencyHistogram.percentile(100) >= 50);
+    }
+
+    @Test
+    public void getNotHedgedWhenBudgetIsExhausted() {
+        // given
+        stubFor(get(urlEqualTo(API_ENDPOINT))
+            .willReturn(aResponse().withStatus(200).withBody(BODY_RESPONSE).withFixedDelay(300)));
+        RequestHedger requestHedger = new RequestHedger(latencyHistogram(50), 90, 10);
+
+        // when
+        String result = RestClient.create(String.format("%s%s", address, API_ENDPOINT))
+            .withReadTimeoutSeconds(10)
+            .withConnectTimeoutSeconds(10)
+            .withRequestHedger(requestHedger)
+            .get()
+            .getBody();
+
+        // then
+        assertEquals(BODY_RESPONSE, result);
+        verify(1, getRequestedFor(urlEqualTo(API_ENDPOINT)));
+    }
+
+    @Test
+    public void getRetriedWithConfiguredTimeoutWhenAdaptiveTimeoutExpires() {
+        // given
+        stubFor(get(urlEqualTo(API_ENDPOINT))
+            .willReturn(aResponse().withStatus(200).withBody(BODY_RESPONSE).withFixedDelay(1000)));
+        AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout(latencyHistogram(50), 2, 100);
+
+        // when
+        String result = RestClient.create(String.format("%s%s", address, API_ENDPOINT))
+            .withReadTimeoutSeconds(10)
+            .withConnectTimeoutSeconds(10)
+            .withRetries(1)
+            .withAdaptiveTimeout(adaptiveTimeout)
+            .get()
+            .getBody();
+
+        // then
+        assertEquals(BODY_RESPONSE, result);
+        verify(2, getRequestedFor(urlEqualTo(API_ENDPOINT)));
+    }
+
+    private static LatencyHistogram latencyHistogram(long latencyMillis) {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (int i = 0; i < LatencyHistogram.MIN_SAMPLES; i++) {
+            latencyHistogram.record(latencyMillis);
+        }
+        return latencyHistogram;
+    }
 }
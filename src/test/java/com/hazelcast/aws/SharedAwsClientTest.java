@@ -0,0 +1,251 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static com.hazelcast.test.HazelcastTestSupport.assertOpenEventually;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class SharedAwsClientTest {
+    private final AtomicInteger createdClients = new AtomicInteger();
+    private final AwsClient awsClient = mock(AwsClient.class);
+    private final BiFunction<AwsConfig, AwsEndpoints, AwsClient> clientFactory = (awsConfig, endpoints) -> {
+        createdClients.incrementAndGet();
+        return awsClient;
+    };
+
+    @Test
+    public void acquireSameConfig() {
+        // given
+        AwsConfig awsConfig = config("tag-value").setHzPort(new PortRange("5701-5708")).build();
+        AwsConfig otherPortConfig = config("tag-value").setHzPort(new PortRange("5801")).setPreferSameZone(true).build();
+
+        // when
+        SharedAwsClient.Handle client1 = SharedAwsClient.acquire(awsConfig, clientFactory);
+        SharedAwsClient.Handle client2 = SharedAwsClient.acquire(otherPortConfig, clientFactory);
+
+        // then
+        try {
+            assertSame(client1.client(), client2.client());
+            assertEquals(1, createdClients.get());
+        } finally {
+            client1.release();
+            client2.release();
+        }
+    }
+
+    @Test
+    public void acquireDifferentConfig() {
+        // given
+        AwsConfig awsConfig = config("tag-value").build();
+        AwsConfig otherConfig = config("other-tag-value").build();
+
+        // when
+        SharedAwsClient.Handle client1 = SharedAwsClient.acquire(awsConfig, clientFactory);
+        SharedAwsClient.Handle client2 = SharedAwsClient.acquire(otherConfig, clientFactory);
+
+        // then
+        try {
+            assertNotSame(client1.client(), client2.client());
+            assertEquals(2, createdClients.get());
+        } finally {
+            client1.release();
+            client2.release();
+        }
+    }
+
+    @Test
+    public void acquireAfterRelease() {
+        // given
+        AwsConfig awsConfig = config("tag-value").build();
+        SharedAwsClient.Handle client1 = SharedAwsClient.acquire(awsConfig, clientFactory);
+        SharedAwsClient.Handle client2 = SharedAwsClient.acquire(awsConfig, clientFactory);
+        client1.release();
+        client2.release();
+
+        // when
+        SharedAwsClient.Handle client3 = SharedAwsClient.acquire(awsConfig, clientFactory);
+
+        // then
+        try {
+            assertNotSame(client1.client(), client3.client());
+            assertEquals(2, createdClients.get());
+        } finally {
+            client3.release();
+        }
+    }
+
+    @Test
+    public void releaseIsIdempotentPerHandle() {
+        // given
+        AwsConfig awsConfig = config("tag-value").build();
+        SharedAwsClient.Handle client1 = SharedAwsClient.acquire(awsConfig, clientFactory);
+        SharedAwsClient.Handle client2 = SharedAwsClient.acquire(awsConfig, clientFactory);
+
+        // when
+        client1.release();
+        client1.release();
+        SharedAwsClient.Handle client3 = SharedAwsClient.acquire(awsConfig, clientFactory);
+
+        // then
+        try {
+            assertSame(client2.client(), client3.client());
+            assertEquals(1, createdClients.get());
+            verify(awsClient, never()).destroy();
+        } finally {
+            client2.release();
+            client3.release();
+        }
+        verify(awsClient).destroy();
+    }
+
+    @Test
+    public void acquireDoesNotBlockOtherConfigWhileCreatingClient()
+            throws Exception {
+        // given
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch created = new CountDownLatch(1);
+        BiFunction<AwsConfig, AwsEndpoints, AwsClient> slowClientFactory = (awsConfig, endpoints) -> {
+            creating.countDown();
+            assertOpenEventually(created);
+            return awsClient;
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<SharedAwsClient.Handle> slowClient = executor.submit(
+            () -> SharedAwsClient.acquire(config("slow-tag-value").build(), slowClientFactory));
+        creating.await();
+
+        // when
+        SharedAwsClient.Handle client = SharedAwsClient.acquire(config("tag-value").build(), clientFactory);
+
+        // then
+        created.countDown();
+        client.release();
+        slowClient.get().release();
+        executor.shutdown();
+        assertEquals(1, createdClients.get());
+    }
+
+    @Test
+    public void equalConfigsIgnoreStrategyProperties() {
+        // given
+        AwsConfig awsConfig = config("tag-value").build();
+        AwsConfig strategyConfig = config("tag-value").setHzPort(new PortRange("5801")).setPreferSameZone(true)
+            .setStreamingDiscovery(true).setAddressFamily("ipv6").build();
+
+        // then
+        assertEquals(awsConfig, strategyConfig);
+        assertEquals(awsConfig.hashCode(), strategyConfig.hashCode());
+        assertNotEquals(awsConfig, config("tag-value").setConnectionRetries(5).build());
+    }
+
+    @Test
+    public void endpointsOwnedByClient() {
+        // given
+        AwsConfig awsConfig = config("tag-value").setCircuitBreakerFailureThreshold(5).setCircuitBreakerOpenSeconds(30)
+            .build();
+        SharedAwsClient.Handle registered = SharedAwsClient.acquire(awsConfig, clientFactory);
+        CircuitBreaker circuitBreaker = registered.client().endpoints()
+            .circuitBreaker("https://ec2.eu-west-3.amazonaws.com");
+        SharedAwsClient.Handle unregistered = new SharedAwsClient.Handle(new SharedAwsClient(awsClient, awsConfig));
+
+        // when
+        unregistered.release();
+
+        // then
+        try {
+            assertNotSame(registered.client().endpoints(), unregistered.client().endpoints());
+            assertSame(circuitBreaker,
+                registered.client().endpoints().circuitBreaker("https://ec2.eu-west-3.amazonaws.com"));
+        } finally {
+            registered.release();
+        }
+    }
+
+    @Test
+    public void instanceMetadataIsCached() {
+        // given
+        given(awsClient.getAvailabilityZone()).willReturn("us-east-1a");
+        given(awsClient.getPlacementGroup()).willReturn(Optional.of("placement-group"));
+        given(awsClient.getPlacementPartitionNumber()).willReturn(Optional.empty());
+        SharedAwsClient client = new SharedAwsClient(awsClient, config("tag-value").build());
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            assertEquals("us-east-1a", client.getAvailabilityZone());
+            assertEquals(Optional.of("placement-group"), client.getPlacementGroup());
+            assertEquals(Optional.empty(), client.getPlacementPartitionNumber());
+        }
+
+        // then
+        verify(awsClient, times(1)).getAvailabilityZone();
+        verify(awsClient, times(1)).getPlacementGroup();
+        verify(awsClient, times(1)).getPlacementPartitionNumber();
+    }
+
+    @Test
+    public void lastAddressesUsedWhenCircuitBreakerIsOpen() {
+        // given
+        Map<String, AwsNode> addresses = singletonMap("192.168.1.1",
+            AwsNode.builder().setPrivateAddress("192.168.1.1").build());
+        given(awsClient.getAddresses()).willReturn(addresses)
+            .willThrow(new CircuitBreakerOpenException("https://ec2.us-east-1.amazonaws.com"));
+        SharedAwsClient client = new SharedAwsClient(awsClient, config("tag-value").build());
+        client.getAddresses();
+
+        // when
+        Map<String, AwsNode> result = client.getAddresses();
+
+        // then
+        assertEquals(addresses, result);
+    }
+
+    @Test(expected = CircuitBreakerOpenException.class)
+    public void circuitBreakerOpenWithoutPreviousAddresses() {
+        // given
+        given(awsClient.getAddresses()).willThrow(new CircuitBreakerOpenException("https://ec2.us-east-1.amazonaws.com"));
+        SharedAwsClient client = new SharedAwsClient(awsClient, config("tag-value").build());
+
+        // when
+        client.getAddresses();
+
+        // then
+        // throws exception
+    }
+
+    private static AwsConfig.Builder config(String tagValue) {
+        return AwsConfig.builder().setTagKey("tag-key").setTagValue(tagValue);
+    }
+}
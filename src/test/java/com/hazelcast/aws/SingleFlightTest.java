@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.test.HazelcastTestSupport.assertTrueEventually;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<String> singleFlight = new SingleFlight<>();
+
+    @Test
+    public void concurrentCallsShareResult()
+            throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.call(() -> {
+                calls.incrementAndGet();
+                await(release);
+                return "result";
+            }));
+            assertTrueEventually(() -> assertEquals(1, calls.get()));
+
+            // when
+            AtomicReference<Thread> waiter = new AtomicReference<>();
+            Future<String> follower = executor.submit(() -> {
+                waiter.set(Thread.currentThread());
+                return singleFlight.call(() -> "other-result-" + calls.incrementAndGet());
+            });
+            assertTrueEventually(() -> assertNotNull(waiter.get()));
+            assertTrueEventually(() -> assertEquals(Thread.State.WAITING, waiter.get().getState()));
+            release.countDown();
+
+            // then
+            assertEquals("result", leader.get());
+            assertEquals("result", follower.get());
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void sequentialCallsAreNotCoalesced() {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        String first = singleFlight.call(() -> "result-" + calls.incrementAndGet());
+        String second = singleFlight.call(() -> "result-" + calls.incrementAndGet());
+
+        // then
+        assertEquals("result-1", first);
+        assertEquals("result-2", second);
+    }
+
+    @Test
+    public void exceptionIsPropagated() {
+        // given
+        RuntimeException exception = new IllegalStateException("failure");
+
+        // when
+        try {
+            singleFlight.call(() -> {
+                throw exception;
+            });
+            fail("Exception should be propagated");
+        } catch (IllegalStateException e) {
+            // then
+            assertSame(exception, e);
+        }
+
+        // then
+        assertEquals("result", singleFlight.call(() -> "result"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
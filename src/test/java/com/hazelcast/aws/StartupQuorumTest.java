@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StartupQuorumTest {
+    private static final Map<String, AwsNode> ONE_MEMBER = addresses(1);
+    private static final Map<String, AwsNode> THREE_MEMBERS = addresses(3);
+
+    @Mock
+    private AwsClient awsClient;
+
+    @Test
+    public void quorumReached() {
+        // given
+        StartupQuorum startupQuorum = new StartupQuorum(awsClient, 3, 10000, 1, 10);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Map<String, AwsNode>> discovery = () -> calls.incrementAndGet() < 3 ? ONE_MEMBER : THREE_MEMBERS;
+
+        // when
+        Map<String, AwsNode> result = startupQuorum.await(discovery);
+
+        // then
+        assertSame(THREE_MEMBERS, result);
+        assertEquals(3, calls.get());
+        assertTrue(startupQuorum.isAwaited());
+        verifyZeroInteractions(awsClient);
+    }
+
+    @Test
+    public void desiredQuorumReached() {
+        // given
+        StartupQuorum startupQuorum = new StartupQuorum(awsClient, 0, 10000, 1, 10);
+        given(awsClient.getDesiredClusterSize()).willReturn(Optional.of(3));
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Map<String, AwsNode>> discovery = () -> calls.incrementAndGet() < 2 ? ONE_MEMBER : THREE_MEMBERS;
+
+        // when
+        Map<String, AwsNode> result = startupQuorum.await(discovery);
+
+        // then
+        assertSame(THREE_MEMBERS, result);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void quorumNotReached() {
+        // given
+        StartupQuorum startupQuorum = new StartupQuorum(awsClient, 3, 100, 1, 10);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Map<String, AwsNode>> discovery = () -> {
+            calls.incrementAndGet();
+            return ONE_MEMBER;
+        };
+
+        // when
+        Map<String, AwsNode> result = startupQuorum.await(discovery);
+
+        // then
+        assertSame(ONE_MEMBER, result);
+        assertTrue(calls.get() > 1);
+        assertTrue(startupQuorum.isAwaited());
+    }
+
+    @Test
+    public void discoveryFailureRetried() {
+        // given
+        StartupQuorum startupQuorum = new StartupQuorum(awsClient, 3, 10000, 1, 10);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Map<String, AwsNode>> discovery = () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new RestClientException("Failure", 500);
+            }
+            return THREE_MEMBERS;
+        };
+
+        // when
+        Map<String, AwsNode> result = startupQuorum.await(discovery);
+
+        // then
+        assertSame(THREE_MEMBERS, result);
+    }
+
+    @Test
+    public void discoveryFailureAtDeadline() {
+        // given
+        StartupQuorum startupQuorum = new StartupQuorum(awsClient, 3, 50, 1, 10);
+        Supplier<Map<String, AwsNode>> discovery = () -> {
+            throw new RestClientException("Failure", 500);
+        };
+
+        // when
+        assertThrows(RestClientException.class, () -> startupQuorum.await(discovery));
+
+        // then
+        assertTrue(startupQuorum.isAwaited());
+    }
+
+    @Test
+    public void notAwaitedInitially() {
+        // given
+        StartupQuorum startupQuorum = new StartupQuorum(awsClient, 0, 10000, 1, 10);
+        given(awsClient.getDesiredClusterSize()).willReturn(Optional.of(0));
+
+        // when
+        boolean awaitedBefore = startupQuorum.isAwaited();
+        Map<String, AwsNode> result = startupQuorum.await(() -> emptyMap());
+
+        // then
+        assertFalse(awaitedBefore);
+        assertTrue(result.isEmpty());
+        assertTrue(startupQuorum.isAwaited());
+    }
+
+    private static Map<String, AwsNode> addresses(int count) {
+        Map<String, AwsNode> result = new HashMap<>();
+        for (int i = 1; i <= count; i++) {
+            String address = "10.0.1." + i;
+            result.put(address, AwsNode.builder().setPrivateAddress(address).build());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+/**
+ * Custom {@link AwsCredentialsSource} registered in {@code META-INF/services}; available only if the credentials are set.
+ */
+public class TestAwsCredentialsSource
+        implements AwsCredentialsSource {
+    static volatile AwsCredentials credentials;
+
+    @Override
+    public AwsCredentials credentials() {
+        return credentials;
+    }
+}
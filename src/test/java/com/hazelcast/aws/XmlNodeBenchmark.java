@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.hazelcast.aws;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Measures the per-parse overhead of {@link XmlNode#create(String)} compared to creating and configuring a new
+ * {@link DocumentBuilderFactory} for every response, which is what {@code XmlNode} did before the parser was reused.
+ * <p>
+ * Run directly from the IDE or with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/classes:target/test-classes:$(cat target/test-classpath.txt) com.hazelcast.aws.XmlNodeBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XmlNodeBenchmark {
+
+    @Param({"1", "100"})
+    private int instances;
+
+    private String xml;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<DescribeInstancesResponse xmlns=\"http://ec2.amazonaws.com/doc/2016-11-15/\"><reservationSet><item>"
+            + "<instancesSet>");
+        for (int i = 0; i < instances; i++) {
+            sb.append("<item><instanceId>i-").append(i).append("</instanceId>")
+                .append("<privateIpAddress>10.0.").append(i / 256).append('.').append(i % 256).append("</privateIpAddress>")
+                .append("<ipAddress>54.0.").append(i / 256).append('.').append(i % 256).append("</ipAddress>")
+                .append("</item>");
+        }
+        xml = sb.append("</instancesSet></item></reservationSet></DescribeInstancesResponse>").toString();
+    }
+
+    @Benchmark
+    public Object newFactoryPerParse() throws Exception {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        dbf.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        Document doc = dbf.newDocumentBuilder().parse(new ByteArrayInputStream(xml.getBytes(UTF_8)));
+        return doc.getDocumentElement();
+    }
+
+    @Benchmark
+    public Object reusedDocumentBuilder() {
+        return XmlNode.create(xml).getNode();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(XmlNodeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
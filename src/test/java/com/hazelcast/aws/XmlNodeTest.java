@@ -22,6 +22,8 @@ import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItems;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class XmlNodeTest {
 
@@ -43,8 +45,8 @@ public class XmlNodeTest {
 
         // when
         List<String> itemValues = XmlNode.create(xml)
-            .getSubNodes("parent").stream()
-            .flatMap(e -> e.getSubNodes("item").stream())
+            .getSubNodes("parent")
+            .flatMap(e -> e.getSubNodes("item"))
             .map(item -> item.getValue("key"))
             .collect(Collectors.toList());
 
@@ -52,6 +54,46 @@ public class XmlNodeTest {
         assertThat(itemValues, hasItems("value", "second-value"));
     }
 
+    @Test
+    public void parseMultipleTimesWithReusedParser() {
+        // given
+        String first = "<root><key>first</key></root>";
+        String second = "<root><key>second</key></root>";
+
+        // when
+        String firstValue = XmlNode.create(first).getValue("key");
+        String secondValue = XmlNode.create(second).getValue("key");
+
+        // then
+        assertEquals("first", firstValue);
+        assertEquals("second", secondValue);
+    }
+
+    @Test
+    public void getValueMissingOrEmpty() {
+        // given
+        String xml = "<root><empty/></root>";
+
+        // when
+        XmlNode root = XmlNode.create(xml);
+
+        // then
+        assertNull(root.getValue("missing"));
+        assertNull(root.getValue("empty"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void parseDoctypeNotAllowed() {
+        // given
+        String xml = "<?xml version=\"1.0\"?><!DOCTYPE root [<!ENTITY e \"value\">]><root>&e;</root>";
+
+        // when
+        XmlNode.create(xml);
+
+        // then
+        // throws exception
+    }
+
     @Test(expected = RuntimeException.class)
     public void parseError() {
         // given